@@ -0,0 +1,94 @@
+package ch.zhaw.vorwahlen.benchmark;
+
+import ch.zhaw.vorwahlen.catalog.ConsecutivePairIndex;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.service.ModuleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the nested loop over all modules with the {@link ConsecutivePairIndex}, once for the pairing of the
+ * module import and once for the pair lookups of the validation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsecutivePairBenchmark {
+    private static final int NUM_LOOKUPS = 1_000;
+
+    @Param({"2000"})
+    private int numModules;
+
+    private List<Module> modules;
+    private ConsecutivePairIndex index;
+    private Module[][] lookups;
+
+    @Setup
+    public void setUp() {
+        modules = SyntheticData.modules(numModules);
+        index = ConsecutivePairIndex.of(modules);
+
+        var random = new Random(numModules);
+        lookups = new Module[NUM_LOOKUPS][];
+        for (var i = 0; i < NUM_LOOKUPS; i++) {
+            lookups[i] = new Module[] {modules.get(random.nextInt(numModules)), modules.get(random.nextInt(numModules))};
+        }
+    }
+
+    @Benchmark
+    public Map<Module, Module> importNestedLoop() {
+        // same pairing as the import did before the index, without modifying the shared modules
+        var pairs = new LinkedHashMap<Module, Module>();
+        var paired = new HashSet<Module>();
+        for (var m1 : modules) {
+            for (var m2 : modules) {
+                if (!m1.equals(m2) && !paired.contains(m1) && !paired.contains(m2)
+                        && ModuleService.doTheModulesDifferOnlyInTheNumber(m1, m2)) {
+                    pairs.put(m1, m2);
+                    paired.add(m1);
+                    paired.add(m2);
+                }
+            }
+        }
+        return pairs;
+    }
+
+    @Benchmark
+    public Map<Module, Module> importPairIndex() {
+        return ConsecutivePairIndex.of(modules).findConsecutivePairs();
+    }
+
+    @Benchmark
+    public void lookupLevenshtein(Blackhole blackhole) {
+        for (var lookup : lookups) {
+            blackhole.consume(ModuleService.doTheModulesDifferOnlyInTheNumber(lookup[0], lookup[1]));
+        }
+    }
+
+    @Benchmark
+    public void lookupPairIndex(Blackhole blackhole) {
+        for (var lookup : lookups) {
+            blackhole.consume(index.differOnlyInTheNumber(lookup[0], lookup[1]));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package ch.zhaw.vorwahlen.benchmark;
+
+import ch.zhaw.vorwahlen.catalog.ConsecutivePairIndex;
+import ch.zhaw.vorwahlen.catalog.ElectionBits;
+import ch.zhaw.vorwahlen.catalog.ModuleOrdinalIndex;
+import ch.zhaw.vorwahlen.mapper.ElectionMapper;
+import ch.zhaw.vorwahlen.mapper.ElectionStatusMapper;
+import ch.zhaw.vorwahlen.mapper.ValidationSettingMapper;
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
+import ch.zhaw.vorwahlen.model.modulestructure.ElectionSemesters;
+import ch.zhaw.vorwahlen.model.modulestructure.ModuleDefinition;
+import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureEngine;
+import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureGenerator;
+import ch.zhaw.vorwahlen.validation.AbstractElectionValidator;
+import ch.zhaw.vorwahlen.validation.ElectionTally;
+import ch.zhaw.vorwahlen.validation.FullTimeElectionValidator;
+import ch.zhaw.vorwahlen.validation.IncrementalElectionValidator;
+import ch.zhaw.vorwahlen.validation.PartTimeElectionValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the work done on every election save: validation, structure generation and mapping.<br/>
+ *
+ * Every invocation handles all generated elections once, the score is the time for all of them. The sizes can be
+ * changed on the command line, for example {@code -p catalogSize=5000 -p numElections=1000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ElectionBenchmark {
+    @Param({"200", "2000"})
+    private int catalogSize;
+
+    @Param({"100"})
+    private int numElections;
+
+    @Param
+    private SyntheticData.StudyMode studyMode;
+
+    @Param
+    private SyntheticData.ElectionRound electionRound;
+
+    private List<Election> elections;
+    private List<ElectionStatus> statuses;
+    private List<ElectionTally> tallies;
+    private ModuleOrdinalIndex ordinalIndex;
+    private AbstractElectionValidator validator;
+    private IncrementalElectionValidator incrementalValidator;
+    private ModuleDefinition moduleDefinition;
+    private ElectionSemesters electionSemesters;
+    private ModuleStructureEngine moduleStructureEngine;
+    private ElectionMapper electionMapper;
+    private ElectionStatusMapper electionStatusMapper;
+
+    @Setup
+    public void setUp() {
+        var catalog = SyntheticData.catalog(catalogSize);
+        var consecutivePairIndex = ConsecutivePairIndex.of(catalog);
+        ordinalIndex = ModuleOrdinalIndex.of(1, catalog);
+        elections = SyntheticData.elections(catalog, numElections, studyMode, electionRound);
+
+        validator = studyMode == SyntheticData.StudyMode.FULL_TIME
+                ? new FullTimeElectionValidator(() -> consecutivePairIndex)
+                : new PartTimeElectionValidator(() -> consecutivePairIndex);
+        incrementalValidator = new IncrementalElectionValidator();
+        moduleDefinition = SyntheticData.moduleDefinition(studyMode);
+        electionSemesters = SyntheticData.electionSemesters();
+        moduleStructureEngine = new ModuleStructureEngine(
+                SyntheticData.moduleDefinition(SyntheticData.StudyMode.FULL_TIME),
+                SyntheticData.moduleDefinition(SyntheticData.StudyMode.PART_TIME),
+                electionSemesters);
+        electionMapper = new ElectionMapper(new ValidationSettingMapper(), null, null, null);
+        electionStatusMapper = new ElectionStatusMapper();
+
+        statuses = new ArrayList<>(numElections);
+        tallies = new ArrayList<>(numElections);
+        for (var election : elections) {
+            statuses.add(validator.validate(election.getStudent(), election));
+            tallies.add(ElectionTally.of(election.getElectedModules()));
+        }
+    }
+
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        for (var election : elections) {
+            blackhole.consume(validator.validate(election.getStudent(), election));
+        }
+    }
+
+    @Benchmark
+    public void validateIncremental(Blackhole blackhole) {
+        for (var i = 0; i < elections.size(); i++) {
+            var election = elections.get(i);
+            blackhole.consume(incrementalValidator.validate(election.getStudent(), election, tallies.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void createElectionBits(Blackhole blackhole) {
+        for (var election : elections) {
+            var bits = ElectionBits.of(election.getElectedModules(), ordinalIndex);
+            blackhole.consume(bits.hashCode());
+        }
+    }
+
+    @Benchmark
+    public void validateElectionBits(Blackhole blackhole) {
+        for (var election : elections) {
+            var bits = ElectionBits.of(election.getElectedModules(), ordinalIndex);
+            blackhole.consume(incrementalValidator.validate(election.getStudent(), election, bits));
+        }
+    }
+
+    @Benchmark
+    public void generateStructure(Blackhole blackhole) {
+        for (var election : elections) {
+            var generator = new ModuleStructureGenerator(moduleDefinition, election.getStudent(), election,
+                                                         electionSemesters);
+            blackhole.consume(generator.generateStructure());
+        }
+    }
+
+    @Benchmark
+    public void generateStructureEngine(Blackhole blackhole) {
+        for (var election : elections) {
+            blackhole.consume(moduleStructureEngine.generateStructure(election.getStudent(), election));
+        }
+    }
+
+    @Benchmark
+    public void mapElection(Blackhole blackhole) {
+        for (var election : elections) {
+            blackhole.consume(electionMapper.toDto(election));
+        }
+    }
+
+    @Benchmark
+    public void mapElectionStatus(Blackhole blackhole) {
+        for (var status : statuses) {
+            blackhole.consume(electionStatusMapper.toDto(status));
+        }
+    }
+}
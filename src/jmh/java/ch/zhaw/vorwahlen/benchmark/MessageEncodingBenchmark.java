@@ -0,0 +1,134 @@
+package ch.zhaw.vorwahlen.benchmark;
+
+import ch.zhaw.vorwahlen.catalog.ConsecutivePairIndex;
+import ch.zhaw.vorwahlen.mapper.ElectionStatusMapper;
+import ch.zhaw.vorwahlen.messaging.CborMessageConverter;
+import ch.zhaw.vorwahlen.messaging.MessageEncodingNegotiation;
+import ch.zhaw.vorwahlen.model.ElectionTransferDTO;
+import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureEngine;
+import ch.zhaw.vorwahlen.validation.FullTimeElectionValidator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the encoding of the election replies sent over the websocket: JSON, CBOR and the whole path of a
+ * reply to a session which negotiated CBOR, the {@link CborMessageConverter} and the binary framing on the outbound
+ * channel.<br/>
+ *
+ * Every invocation encodes all generated replies once. The payload sizes are printed during the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageEncodingBenchmark {
+    private static final String SESSION_ID = "benchmark";
+
+    @Param({"100"})
+    private int numElections;
+
+    @Param
+    private SyntheticData.ElectionRound electionRound;
+
+    private List<ElectionTransferDTO> replies;
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private CborMessageConverter cborMessageConverter;
+    private ChannelInterceptor outboundInterceptor;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        var catalog = SyntheticData.catalog(2000);
+        var consecutivePairIndex = ConsecutivePairIndex.of(catalog);
+        var validator = new FullTimeElectionValidator(() -> consecutivePairIndex);
+        var moduleStructureEngine = new ModuleStructureEngine(
+                SyntheticData.moduleDefinition(SyntheticData.StudyMode.FULL_TIME),
+                SyntheticData.moduleDefinition(SyntheticData.StudyMode.PART_TIME),
+                SyntheticData.electionSemesters());
+        var electionStatusMapper = new ElectionStatusMapper();
+
+        replies = new ArrayList<>(numElections);
+        for (var election : SyntheticData.elections(catalog, numElections, SyntheticData.StudyMode.FULL_TIME,
+                                                    electionRound)) {
+            var status = validator.validate(election.getStudent(), election);
+            var structure = moduleStructureEngine.generateStructure(election.getStudent(), election);
+            replies.add(new ElectionTransferDTO(structure, electionStatusMapper.toDto(status), true,
+                                                status.isValid(), null));
+        }
+
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+        var negotiation = new MessageEncodingNegotiation();
+        var connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.setSessionId(SESSION_ID);
+        var sessionAttributes = new HashMap<String, Object>();
+        sessionAttributes.put(MessageEncodingNegotiation.BINARY_FRAMES_ATTRIBUTE, Boolean.TRUE);
+        connect.setSessionAttributes(sessionAttributes);
+        connect.setNativeHeader(MessageEncodingNegotiation.ENCODING_HEADER, MessageEncodingNegotiation.CBOR_ENCODING);
+        negotiation.inboundInterceptor().preSend(MessageBuilder.createMessage(new byte[0],
+                                                                              connect.getMessageHeaders()), null);
+        cborMessageConverter = new CborMessageConverter(negotiation);
+        outboundInterceptor = negotiation.outboundInterceptor();
+
+        long jsonBytes = 0;
+        long cborBytes = 0;
+        for (var reply : replies) {
+            jsonBytes += jsonMapper.writeValueAsBytes(reply).length;
+            cborBytes += cborMapper.writeValueAsBytes(reply).length;
+        }
+        System.out.printf("%npayload per reply: JSON %d bytes, CBOR %d bytes%n", jsonBytes / replies.size(),
+                          cborBytes / replies.size());
+    }
+
+    @Benchmark
+    public void encodeJson(Blackhole blackhole) throws JsonProcessingException {
+        for (var reply : replies) {
+            blackhole.consume(jsonMapper.writeValueAsBytes(reply));
+        }
+    }
+
+    @Benchmark
+    public void encodeCbor(Blackhole blackhole) throws JsonProcessingException {
+        for (var reply : replies) {
+            blackhole.consume(cborMapper.writeValueAsBytes(reply));
+        }
+    }
+
+    @Benchmark
+    public void sendCborToSession(Blackhole blackhole) {
+        for (var reply : replies) {
+            var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setSessionId(SESSION_ID);
+            accessor.setLeaveMutable(true);
+            var message = cborMessageConverter.toMessage(reply, accessor.getMessageHeaders());
+            blackhole.consume(outboundInterceptor.preSend(message, null));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ch.zhaw.vorwahlen.benchmark;
+
+import ch.zhaw.vorwahlen.mapper.ModuleMapper;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
+import ch.zhaw.vorwahlen.service.ModuleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the per module work of the catalog: categorization, the consecutive module check and mapping.<br/>
+ *
+ * Every invocation handles all modules of the catalog once. The size can be changed on the command line,
+ * for example {@code -p catalogSize=5000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleBenchmark {
+    @Param({"200", "2000"})
+    private int catalogSize;
+
+    private List<Module> catalog;
+    private ModuleMapper moduleMapper;
+
+    @Setup
+    public void setUp() {
+        catalog = SyntheticData.catalog(catalogSize);
+        moduleMapper = new ModuleMapper();
+    }
+
+    @Benchmark
+    public void parseCategory(Blackhole blackhole) {
+        for (var module : catalog) {
+            blackhole.consume(ModuleCategory.parse(module.getModuleNo(), module.getModuleGroup()));
+        }
+    }
+
+    @Benchmark
+    public void differOnlyInTheNumber(Blackhole blackhole) {
+        // neighbours in the shuffled catalog, mostly no pair
+        for (var i = 1; i < catalog.size(); i++) {
+            blackhole.consume(ModuleService.doTheModulesDifferOnlyInTheNumber(catalog.get(i - 1), catalog.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void mapModule(Blackhole blackhole) {
+        for (var module : catalog) {
+            blackhole.consume(moduleMapper.toDto(module));
+        }
+    }
+}
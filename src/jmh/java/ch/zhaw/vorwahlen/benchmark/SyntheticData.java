@@ -0,0 +1,189 @@
+package ch.zhaw.vorwahlen.benchmark;
+
+import ch.zhaw.vorwahlen.catalog.ConsecutivePairIndex;
+import ch.zhaw.vorwahlen.model.ExecutionSemester;
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+import ch.zhaw.vorwahlen.model.core.validationsetting.ValidationSetting;
+import ch.zhaw.vorwahlen.model.modulestructure.ElectionSemesters;
+import ch.zhaw.vorwahlen.model.modulestructure.ModuleDefinition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates synthetic module catalogs, students and elections for the benchmarks.<br/>
+ *
+ * Half of the modules belong to a consecutive subject module pair like WV.AI1-EN and WV.AI2-EN, the others are
+ * single subject, context and interdisciplinary modules. The stems are made of letters only, so every pair has its
+ * own stem once the digits are removed. All stems have the same length, no short module number is a prefix of
+ * another one.<br/>
+ *
+ * The module and semester definitions are the ones of settings.properties.
+ */
+public final class SyntheticData {
+    static final long SEED = 20221018L;
+    private static final int STEM_LENGTH = 4;
+    private static final String ENGLISH = "Englisch";
+    private static final String GERMAN = "Deutsch";
+
+    private SyntheticData() {}
+
+    /**
+     * The study mode of the generated students.
+     */
+    public enum StudyMode { FULL_TIME, PART_TIME }
+
+    /**
+     * The election round of the generated students.
+     */
+    public enum ElectionRound { FIRST, SECOND }
+
+    /**
+     * Create the modules in a shuffled, but reproducible order.
+     * @param size number of modules.
+     * @return list of modules without consecutive module number.
+     */
+    static List<Module> modules(int size) {
+        var modules = new ArrayList<Module>(size);
+        var stem = 0;
+        while (modules.size() < size) {
+            var name = toLetters(stem);
+            switch (stem++ % 6) {
+                case 0, 1, 2 -> {
+                    if (modules.size() + 1 < size) {
+                        modules.add(module("WV." + name + "1-EN", "IT6", 4, ENGLISH));
+                        modules.add(module("WV." + name + "2-EN", "IT6", 4, ENGLISH));
+                    }
+                }
+                case 3 -> modules.add(module("WV." + name, "IT6", 4, GERMAN));
+                case 4 -> modules.add(module("WVK." + name, "IT5", 2, GERMAN));
+                default -> modules.add(module("WM." + name, "IT7", 4, GERMAN));
+            }
+        }
+        Collections.shuffle(modules, new Random(SEED));
+        return modules;
+    }
+
+    /**
+     * Create the module catalog, the consecutive modules are paired like the module import does.
+     * @param size number of modules.
+     * @return list of modules.
+     */
+    static List<Module> catalog(int size) {
+        var modules = modules(size);
+        ConsecutivePairIndex.of(modules).findConsecutivePairs().forEach((m1, m2) -> {
+            m1.setConsecutiveModuleNo(m2.getModuleNo());
+            m2.setConsecutiveModuleNo(m1.getModuleNo());
+        });
+        return modules;
+    }
+
+    /**
+     * Create a student.
+     * @param number used for the email.
+     * @param studyMode full time or part time.
+     * @param electionRound first or second election.
+     * @return the student.
+     */
+    static Student student(int number, StudyMode studyMode, ElectionRound electionRound) {
+        return Student.builder()
+                .email("student" + number + "@mail.com")
+                .name("Student " + number)
+                .isTZ(studyMode == StudyMode.PART_TIME)
+                .isSecondElection(electionRound == ElectionRound.SECOND)
+                .isIP(number % 4 == 0)
+                .wpmDispensation(number % 5 == 0 ? 4 : 0)
+                .build();
+    }
+
+    /**
+     * Create elections with about as many modules as a student elects.
+     * @param catalog the module catalog.
+     * @param count number of elections.
+     * @param studyMode full time or part time.
+     * @param electionRound first or second election.
+     * @return list of elections.
+     */
+    static List<Election> elections(List<Module> catalog, int count, StudyMode studyMode,
+                                    ElectionRound electionRound) {
+        var random = new Random(SEED);
+        var numModules = studyMode == StudyMode.FULL_TIME || electionRound == ElectionRound.SECOND ? 12 : 4;
+        var elections = new ArrayList<Election>(count);
+        for (var i = 0; i < count; i++) {
+            var election = new Election();
+            election.setId((long) i);
+            election.setStudent(student(i, studyMode, electionRound));
+            election.setValidationSetting(new ValidationSetting());
+            election.setElectedModules(new HashSet<>());
+            while (election.getElectedModules().size() < Math.min(numModules, catalog.size())) {
+                election.getElectedModules().add(catalog.get(random.nextInt(catalog.size())));
+            }
+            elections.add(election);
+        }
+        return elections;
+    }
+
+    /**
+     * Module definition of settings.properties.
+     * @param studyMode full time (vz) or part time (tz).
+     * @return ModuleDefinition
+     */
+    static ModuleDefinition moduleDefinition(StudyMode studyMode) {
+        var moduleDefinition = new ModuleDefinition();
+        if (studyMode == StudyMode.FULL_TIME) {
+            moduleDefinition.setContextModules(Map.of(5, 2, 6, 1));
+            moduleDefinition.setProjectModule(Map.of(5, 1));
+            moduleDefinition.setBachelorModule(Map.of(6, 1));
+            moduleDefinition.setInterdisciplinaryModules(Map.of(5, 1));
+            moduleDefinition.setSubjectModules(Map.of(5, 4, 6, 4));
+        } else {
+            moduleDefinition.setContextModules(Map.of(5, 1, 6, 1, 7, 1));
+            moduleDefinition.setProjectModule(Map.of(7, 1));
+            moduleDefinition.setBachelorModule(Map.of(8, 1));
+            moduleDefinition.setInterdisciplinaryModules(Map.of(7, 1));
+            moduleDefinition.setSubjectModules(Map.of(5, 1, 6, 1, 7, 3, 8, 3));
+        }
+        return moduleDefinition;
+    }
+
+    /**
+     * Election semesters of settings.properties.
+     * @return ElectionSemesters
+     */
+    static ElectionSemesters electionSemesters() {
+        var electionSemesters = new ElectionSemesters();
+        electionSemesters.setFullTimeSemesters(List.of(5, 6));
+        electionSemesters.setPartTimeSemestersFirstElection(List.of(5, 6));
+        electionSemesters.setPartTimeSemestersSecondElection(List.of(7, 8));
+        return electionSemesters;
+    }
+
+    private static Module module(String shortModuleNo, String moduleGroup, int credits, String language) {
+        var semesters = ExecutionSemester.values();
+        return Module.builder()
+                .moduleNo("t.BA." + shortModuleNo + ".19HS")
+                .shortModuleNo(shortModuleNo)
+                .moduleTitle(shortModuleNo)
+                .moduleGroup(moduleGroup)
+                .institute("INIT")
+                .credits((byte) credits)
+                .language(language)
+                .semester(semesters[Math.floorMod(shortModuleNo.hashCode(), semesters.length)])
+                .build();
+    }
+
+    private static String toLetters(int number) {
+        var letters = new StringBuilder(STEM_LENGTH);
+        for (var i = 0; i < STEM_LENGTH; i++) {
+            letters.append((char) ('A' + number % 26));
+            number /= 26;
+        }
+        return letters.toString();
+    }
+}
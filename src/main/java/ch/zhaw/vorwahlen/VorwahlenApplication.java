@@ -3,12 +3,14 @@ package ch.zhaw.vorwahlen;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main class to run the application
  */
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 public class VorwahlenApplication {
 
 	/**
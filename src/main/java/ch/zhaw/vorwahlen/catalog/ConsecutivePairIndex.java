@@ -0,0 +1,144 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.service.ModuleService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the modules which differ only in the number, like AI1 and AI2.<br/>
+ *
+ * Two such modules always have the same short module number once all digits are removed. The modules are grouped
+ * by this stem and {@link ModuleService#doTheModulesDifferOnlyInTheNumber(Module, Module)} is only evaluated within
+ * a group, which are at most a handful of modules. The index is built once per catalog version, afterwards
+ * {@link #differOnlyInTheNumber(Module, Module)} is a lookup for the indexed modules.
+ */
+public class ConsecutivePairIndex {
+    public static final ConsecutivePairIndex EMPTY = of(List.of());
+
+    private final List<Module> modules;
+    private final Map<String, Module> modulesByNo;
+    private final Map<String, List<Module>> modulesByStem;
+    private final Set<ModulePair> relatedPairs;
+
+    private record ModulePair(String first, String second) {
+        private static ModulePair of(Module m1, Module m2) {
+            var moduleNo1 = m1.getModuleNo();
+            var moduleNo2 = m2.getModuleNo();
+            return moduleNo1.compareTo(moduleNo2) <= 0
+                    ? new ModulePair(moduleNo1, moduleNo2)
+                    : new ModulePair(moduleNo2, moduleNo1);
+        }
+    }
+
+    private ConsecutivePairIndex(List<Module> modules, Map<String, Module> modulesByNo,
+                                 Map<String, List<Module>> modulesByStem, Set<ModulePair> relatedPairs) {
+        this.modules = modules;
+        this.modulesByNo = modulesByNo;
+        this.modulesByStem = modulesByStem;
+        this.relatedPairs = relatedPairs;
+    }
+
+    /**
+     * Build the index over the given modules.
+     * @param modules the modules, the order is kept for {@link #findConsecutivePairs()}.
+     * @return ConsecutivePairIndex
+     */
+    public static ConsecutivePairIndex of(Collection<Module> modules) {
+        var moduleList = List.copyOf(modules);
+        var modulesByNo = new HashMap<String, Module>();
+        var modulesByStem = new HashMap<String, List<Module>>();
+        for (var module : moduleList) {
+            modulesByNo.put(module.getModuleNo(), module);
+            if (module.getShortModuleNo() != null) {
+                modulesByStem.computeIfAbsent(stemOf(module.getShortModuleNo()), stem -> new ArrayList<>(2)).add(module);
+            }
+        }
+
+        var relatedPairs = new HashSet<ModulePair>();
+        for (var stemModules : modulesByStem.values()) {
+            for (var i = 0; i < stemModules.size(); i++) {
+                for (var j = i + 1; j < stemModules.size(); j++) {
+                    var m1 = stemModules.get(i);
+                    var m2 = stemModules.get(j);
+                    if (ModuleService.doTheModulesDifferOnlyInTheNumber(m1, m2)) {
+                        relatedPairs.add(ModulePair.of(m1, m2));
+                    }
+                }
+            }
+        }
+        return new ConsecutivePairIndex(moduleList, modulesByNo, modulesByStem, relatedPairs);
+    }
+
+    /**
+     * Check if the module short numbers differ by only one numeric value.
+     * Same as {@link ModuleService#doTheModulesDifferOnlyInTheNumber(Module, Module)}, but a lookup for modules
+     * of this index.
+     * @param m1 the first {@link Module} to be compared
+     * @param m2 the other {@link Module} to be compared
+     * @return true or false
+     */
+    public boolean differOnlyInTheNumber(Module m1, Module m2) {
+        if (modulesByNo.get(m1.getModuleNo()) == m1 && modulesByNo.get(m2.getModuleNo()) == m2) {
+            return relatedPairs.contains(ModulePair.of(m1, m2));
+        }
+        if (m1.getShortModuleNo() == null || m2.getShortModuleNo() == null) {
+            return ModuleService.doTheModulesDifferOnlyInTheNumber(m1, m2);
+        }
+        return stemOf(m1.getShortModuleNo()).equals(stemOf(m2.getShortModuleNo()))
+                && ModuleService.doTheModulesDifferOnlyInTheNumber(m1, m2);
+    }
+
+    /**
+     * Pair the modules which differ only in the number. Every module without a consecutive module number is paired
+     * with the first unpaired module of the same stem, in the order the index was built with.
+     * @return map with the first module of each pair as key.
+     */
+    public Map<Module, Module> findConsecutivePairs() {
+        var pairs = new LinkedHashMap<Module, Module>();
+        var pairedModuleNos = new HashSet<String>();
+        for (var m1 : modules) {
+            if (pairedModuleNos.contains(m1.getModuleNo()) || isConsecutiveFieldSet(m1)
+                    || m1.getShortModuleNo() == null) {
+                continue;
+            }
+            for (var m2 : modulesByStem.get(stemOf(m1.getShortModuleNo()))) {
+                if (!m1.equals(m2) && !pairedModuleNos.contains(m2.getModuleNo()) && !isConsecutiveFieldSet(m2)
+                        && relatedPairs.contains(ModulePair.of(m1, m2))) {
+                    pairs.put(m1, m2);
+                    pairedModuleNos.add(m1.getModuleNo());
+                    pairedModuleNos.add(m2.getModuleNo());
+                    break;
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Returns the short module number without digits.
+     * @param shortModuleNo the short module number (WV.AI1-EN).
+     * @return the stem (WV.AI-EN).
+     */
+    public static String stemOf(String shortModuleNo) {
+        var stem = new StringBuilder(shortModuleNo.length());
+        for (var i = 0; i < shortModuleNo.length(); i++) {
+            var character = shortModuleNo.charAt(i);
+            if (!Character.isDigit(character)) {
+                stem.append(character);
+            }
+        }
+        return stem.toString();
+    }
+
+    private static boolean isConsecutiveFieldSet(Module module) {
+        return module.getConsecutiveModuleNo() != null && !module.getConsecutiveModuleNo().isBlank();
+    }
+}
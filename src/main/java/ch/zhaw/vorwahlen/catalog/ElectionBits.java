@@ -0,0 +1,167 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
+import ch.zhaw.vorwahlen.validation.ElectionCounts;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Elected modules as one bit per module of a {@link ModuleOrdinalIndex}.<br/>
+ *
+ * Instead of a set of module entities, an election is a few words. Two elections with the same modules of the same
+ * catalog version have equal bits, so the bits are the key of the elected modules in the {@code ElectionResultCache}
+ * without hashing the module entities. The counts per category, the credit sums and the english modules are
+ * popcounts of the bits intersected with the masks of the index.<br/>
+ *
+ * Elected modules which are not in the catalog, for example deleted modules, are kept by their module number. They
+ * are part of {@link #equals(Object)}, but not of the counts, so the counts are only complete if
+ * {@link #isComplete()}.
+ */
+public final class ElectionBits implements ElectionCounts {
+    private final ModuleOrdinalIndex index;
+    private final long[] words;
+    private final Set<String> unknownModuleNos;
+    private final int hashCode;
+
+    private ElectionBits(ModuleOrdinalIndex index, long[] words, Set<String> unknownModuleNos) {
+        this.index = index;
+        this.words = words;
+        this.unknownModuleNos = unknownModuleNos;
+        this.hashCode = 31 * Arrays.hashCode(words) + unknownModuleNos.hashCode();
+    }
+
+    /**
+     * Create the bits of the elected modules.
+     * @param modules the elected modules.
+     * @param index the index of the current catalog version.
+     * @return ElectionBits
+     */
+    public static ElectionBits of(Collection<Module> modules, ModuleOrdinalIndex index) {
+        var words = new long[index.getWordCount()];
+        Set<String> unknownModuleNos = null;
+        for (var module : modules) {
+            var ordinal = index.ordinalOf(module.getModuleNo());
+            if (ordinal >= 0) {
+                words[ordinal / Long.SIZE] |= 1L << ordinal;
+            } else {
+                if (unknownModuleNos == null) {
+                    unknownModuleNos = new HashSet<>();
+                }
+                unknownModuleNos.add(module.getModuleNo());
+            }
+        }
+        return new ElectionBits(index, words, unknownModuleNos == null ? Set.of() : Set.copyOf(unknownModuleNos));
+    }
+
+    /**
+     * Returns the version of the catalog the bits belong to.
+     * @return the version.
+     */
+    public long getVersion() {
+        return index.getVersion();
+    }
+
+    /**
+     * Returns if all elected modules are in the catalog.
+     * @return true or false.
+     */
+    public boolean isComplete() {
+        return unknownModuleNos.isEmpty();
+    }
+
+    /**
+     * Returns the number of elected modules.
+     * @return the count.
+     */
+    public int size() {
+        var count = unknownModuleNos.size();
+        for (var word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns if the module is elected.
+     * @param moduleNo the module number.
+     * @return true or false.
+     */
+    public boolean contains(String moduleNo) {
+        var ordinal = index.ordinalOf(moduleNo);
+        if (ordinal < 0) {
+            return unknownModuleNos.contains(moduleNo);
+        }
+        return (words[ordinal / Long.SIZE] & 1L << ordinal) != 0;
+    }
+
+    @Override
+    public int countCategory(ModuleCategory moduleCategory) {
+        return countIntersection(index.getCategoryMask(moduleCategory));
+    }
+
+    @Override
+    public int getCreditSum() {
+        return sumCredits(null);
+    }
+
+    @Override
+    public int getEnglishCreditSum() {
+        return sumCredits(index.getEnglishMask());
+    }
+
+    @Override
+    public boolean containsEnglishModuleIcam() {
+        var englishMask = index.getEnglishMask();
+        var icamMask = index.getIcamMask();
+        var count = 0;
+        for (var i = 0; i < words.length; i++) {
+            count += Long.bitCount(words[i] & englishMask[i] & icamMask[i]);
+        }
+        return count == 1;
+    }
+
+    @Override
+    public int countShortModuleNo(String shortModuleNo) {
+        var mask = index.getShortModuleNoMask(shortModuleNo);
+        return mask == null ? 0 : countIntersection(mask);
+    }
+
+    private int countIntersection(long[] mask) {
+        var count = 0;
+        for (var i = 0; i < words.length; i++) {
+            count += Long.bitCount(words[i] & mask[i]);
+        }
+        return count;
+    }
+
+    private int sumCredits(long[] mask) {
+        var sum = 0;
+        for (var i = 0; i < words.length; i++) {
+            var word = mask == null ? words[i] : words[i] & mask[i];
+            while (word != 0) {
+                sum += index.getCredits(i * Long.SIZE + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ElectionBits that)) return false;
+        return getVersion() == that.getVersion()
+                && Arrays.equals(words, that.words)
+                && Objects.equals(unknownModuleNos, that.unknownModuleNos);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -0,0 +1,104 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A body composed of segments which are compressed one by one.<br/>
+ *
+ * Every segment is deflated on its own and ends with a sync flush, so it is byte aligned, does not end the deflate
+ * stream and does not refer to the data of another segment. The gzip body is the gzip header, the compressed segments
+ * one after the other and the trailer. A segment which is part of many bodies is compressed once and copied into
+ * each body as it is, only the checksum is calculated over all the data per body.<br/>
+ *
+ * The byte arrays of a segment are shared and must not be modified.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class GzipSegments {
+    private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+    // empty block with fixed codes marked as the last block of the deflate stream
+    private static final byte[] LAST_BLOCK = { 0x03, 0x00 };
+    private static final int TRAILER_LENGTH = 8;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final List<Segment> segments;
+
+    /**
+     * Data and its deflated form.
+     * @param data the data.
+     * @param compressed the deflated data ending with a sync flush.
+     */
+    public record Segment(byte[] data, byte[] compressed) {}
+
+    /**
+     * Compress the data of a segment.
+     * @param data the data.
+     * @return {@link Segment}
+     */
+    public static Segment compress(byte[] data) {
+        var deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(data);
+            var compressed = new ByteArrayOutputStream(data.length / 4 + 16);
+            var buffer = new byte[BUFFER_SIZE];
+            int length;
+            do {
+                length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                compressed.write(buffer, 0, length);
+            } while (length == buffer.length);
+            return new Segment(data, compressed.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Compose a body of the segments.
+     * @param segments the segments in order.
+     * @return {@link GzipSegments}
+     */
+    public static GzipSegments of(Segment... segments) {
+        return new GzipSegments(List.of(segments));
+    }
+
+    /**
+     * Returns the data of all segments.
+     * @return the uncompressed body.
+     */
+    public byte[] toBytes() {
+        var length = segments.stream().mapToInt(segment -> segment.data().length).sum();
+        var body = ByteBuffer.allocate(length);
+        segments.forEach(segment -> body.put(segment.data()));
+        return body.array();
+    }
+
+    /**
+     * Returns the compressed segments as gzip.
+     * @return the gzipped body.
+     */
+    public byte[] toGzip() {
+        var crc = new CRC32();
+        var size = 0;
+        var length = HEADER.length + LAST_BLOCK.length + TRAILER_LENGTH;
+        for (var segment : segments) {
+            crc.update(segment.data());
+            size += segment.data().length;
+            length += segment.compressed().length;
+        }
+
+        var gzip = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        gzip.put(HEADER);
+        segments.forEach(segment -> gzip.put(segment.compressed()));
+        gzip.put(LAST_BLOCK);
+        gzip.putInt((int) crc.getValue());
+        gzip.putInt(size);
+        return gzip.array();
+    }
+}
@@ -0,0 +1,124 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.repository.ModuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory snapshot of all modules.<br/>
+ *
+ * The module table only changes when an admin imports, adds, replaces or deletes modules.
+ * Instead of querying the database on every election save, the modules are held in an immutable {@link Snapshot}
+ * which is replaced as a whole by {@link #rebuild()} after each of these writes.
+ * Readers always see one consistent version of the catalog.<br/>
+ *
+ * The returned {@link Module} instances are shared between all readers and must not be modified.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ModuleCatalog {
+    private final ModuleRepository moduleRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Immutable version of the module catalog.
+     * @param version increases with every rebuild.
+     * @param modules the modules by their module number.
+     * @param consecutivePairIndex the consecutive modules of this version.
+     * @param ordinalIndex the module ordinals of this version.
+     */
+    public record Snapshot(long version, Map<String, Module> modules, ConsecutivePairIndex consecutivePairIndex,
+                           ModuleOrdinalIndex ordinalIndex) {
+        private static Snapshot of(long version, Collection<Module> modules) {
+            var moduleMap = new LinkedHashMap<String, Module>();
+            modules.forEach(module -> moduleMap.put(module.getModuleNo(), module));
+            return new Snapshot(version, Collections.unmodifiableMap(moduleMap),
+                                ConsecutivePairIndex.of(moduleMap.values()),
+                                ModuleOrdinalIndex.of(version, moduleMap.values()));
+        }
+    }
+
+    /**
+     * Returns the current snapshot, the first call loads it from the database.
+     * @return {@link Snapshot}
+     */
+    public Snapshot getSnapshot() {
+        var current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load(1);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reload all modules from the database and replace the current snapshot.
+     */
+    public synchronized void rebuild() {
+        var nextVersion = snapshot == null ? 1 : snapshot.version() + 1;
+        snapshot = load(nextVersion);
+    }
+
+    /**
+     * Get module by its module number.
+     * @param moduleNo the module number.
+     * @return the module or an empty optional.
+     */
+    public Optional<Module> findById(String moduleNo) {
+        return Optional.ofNullable(getSnapshot().modules().get(moduleNo));
+    }
+
+    /**
+     * Get all modules of the current snapshot.
+     * @return unmodifiable list of {@link Module}.
+     */
+    public List<Module> findAll() {
+        return List.copyOf(getSnapshot().modules().values());
+    }
+
+    /**
+     * Returns the consecutive pair index of the current snapshot.
+     * @return {@link ConsecutivePairIndex}
+     */
+    public ConsecutivePairIndex getConsecutivePairIndex() {
+        return getSnapshot().consecutivePairIndex();
+    }
+
+    /**
+     * Returns the module ordinal index of the current snapshot.
+     * @return {@link ModuleOrdinalIndex}
+     */
+    public ModuleOrdinalIndex getOrdinalIndex() {
+        return getSnapshot().ordinalIndex();
+    }
+
+    /**
+     * Returns the version of the current snapshot.
+     * @return the version.
+     */
+    public long getVersion() {
+        return getSnapshot().version();
+    }
+
+    private Snapshot load(long version) {
+        var loaded = Snapshot.of(version, moduleRepository.findAll());
+        log.debug("module catalog version {} loaded with {} modules", version, loaded.modules().size());
+        return loaded;
+    }
+}
@@ -0,0 +1,114 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
+import ch.zhaw.vorwahlen.mapper.Mapper;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.module.ModuleDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The module list of the {@link ModuleCatalog} serialized as JSON.<br/>
+ *
+ * The module list is the same for every student, so it is serialized and gzipped once per version of the modules
+ * and every request writes the same bytes. After a change of the modules {@link #refresh()} builds the next
+ * {@link Snapshot} in the background, a request which comes earlier builds it itself.<br/>
+ *
+ * The returned byte arrays are shared between all requests and must not be modified.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ModuleCatalogJson {
+    private static final String GZIP = "gzip";
+
+    private final ModuleCatalog moduleCatalog;
+    private final ResourceVersions resourceVersions;
+    private final Mapper<ModuleDTO, Module> moduleMapper;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Serialized module list of one version.
+     * @param version the {@link Resource#MODULES} version.
+     * @param json the module list as JSON.
+     * @param gzip the gzipped JSON.
+     * @param etag the ETag of the JSON.
+     * @param gzipETag the ETag of the gzipped JSON.
+     */
+    public record Snapshot(long version, byte[] json, byte[] gzip, String etag, String gzipETag) {
+        /**
+         * Create a snapshot with the gzipped variant of the JSON.
+         * @param version the version of the modules.
+         * @param json the module list as JSON.
+         * @param etag the ETag of the JSON.
+         * @param gzipETag the ETag of the gzipped JSON.
+         * @return {@link Snapshot}
+         */
+        public static Snapshot of(long version, byte[] json, String etag, String gzipETag) {
+            return new Snapshot(version, json, compress(json), etag, gzipETag);
+        }
+    }
+
+    /**
+     * Returns the snapshot of the current version, builds it if it is missing or outdated.
+     * @return {@link Snapshot}
+     */
+    public Snapshot getSnapshot() {
+        var current = snapshot;
+        if (current == null || current.version() < resourceVersions.getVersion(Resource.MODULES)) {
+            current = rebuildIfStale();
+        }
+        return current;
+    }
+
+    /**
+     * Build the snapshot of the current version in the background.
+     */
+    @Async
+    public void refresh() {
+        rebuildIfStale();
+    }
+
+    private synchronized Snapshot rebuildIfStale() {
+        // the version is read before the modules, a change in between is caught by the next request
+        var version = resourceVersions.getVersion(Resource.MODULES);
+        var current = snapshot;
+        if (current != null && current.version() >= version) {
+            return current;
+        }
+
+        try {
+            var modules = moduleCatalog.findAll().stream().map(moduleMapper::toDto).toList();
+            var json = objectMapper.writeValueAsBytes(modules);
+            current = Snapshot.of(version, json,
+                                  resourceVersions.getETag(Resource.MODULES, version, null),
+                                  resourceVersions.getETag(Resource.MODULES, version, GZIP));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("module list version {} serialized with {} bytes, {} bytes gzipped",
+                  version, current.json().length, current.gzip().length);
+        snapshot = current;
+        return current;
+    }
+
+    private static byte[] compress(byte[] json) {
+        var compressed = new ByteArrayOutputStream(json.length / 4);
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
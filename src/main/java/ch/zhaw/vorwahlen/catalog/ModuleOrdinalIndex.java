@@ -0,0 +1,136 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense ordinal for every module of one catalog version.<br/>
+ *
+ * The modules are numbered in the order of the catalog, an {@link ElectionBits} of the index has one bit per ordinal.
+ * The attributes needed for the validation are stored per ordinal as bit masks over the modules, so an
+ * {@link ElectionBits} of the same index is counted with mask intersections instead of looking at the modules. The
+ * ordinals are only valid for the version of the index.
+ */
+public class ModuleOrdinalIndex {
+    public static final ModuleOrdinalIndex EMPTY = of(0, List.of());
+
+    private static final String LANGUAGE_ENGLISH = "Englisch";
+    private static final String MODULE_ICAM = "WVK.ICAM-EN";
+
+    private final long version;
+    private final Map<String, Integer> ordinals;
+    private final byte[] credits;
+    private final long[][] categoryMasks;
+    private final long[] englishMask;
+    private final long[] icamMask;
+    private final Map<String, long[]> shortModuleNoMasks;
+
+    private ModuleOrdinalIndex(long version, Map<String, Integer> ordinals, byte[] credits, long[][] categoryMasks,
+                               long[] englishMask, long[] icamMask, Map<String, long[]> shortModuleNoMasks) {
+        this.version = version;
+        this.ordinals = ordinals;
+        this.credits = credits;
+        this.categoryMasks = categoryMasks;
+        this.englishMask = englishMask;
+        this.icamMask = icamMask;
+        this.shortModuleNoMasks = shortModuleNoMasks;
+    }
+
+    /**
+     * Number the given modules.
+     * @param version the version of the catalog.
+     * @param modules the modules of the catalog.
+     * @return ModuleOrdinalIndex
+     */
+    public static ModuleOrdinalIndex of(long version, Collection<Module> modules) {
+        var ordinals = new HashMap<String, Integer>();
+        var credits = new byte[modules.size()];
+        var numWords = wordCount(modules.size());
+        var categoryMasks = new long[ModuleCategory.values().length][numWords];
+        var englishMask = new long[numWords];
+        var icamMask = new long[numWords];
+        var shortModuleNoMasks = new HashMap<String, long[]>();
+
+        for (var module : modules) {
+            var ordinal = ordinals.size();
+            if (ordinals.putIfAbsent(module.getModuleNo(), ordinal) != null) {
+                continue;
+            }
+            credits[ordinal] = module.getCredits();
+            var category = ModuleCategory.parse(module.getModuleNo(), module.getModuleGroup());
+            if (category != null) {
+                setBit(categoryMasks[category.ordinal()], ordinal);
+            }
+            if (LANGUAGE_ENGLISH.equals(module.getLanguage())) {
+                setBit(englishMask, ordinal);
+            }
+            if (module.getShortModuleNo() != null) {
+                if (module.getShortModuleNo().contains(MODULE_ICAM)) {
+                    setBit(icamMask, ordinal);
+                }
+                setBit(shortModuleNoMasks.computeIfAbsent(module.getShortModuleNo(), key -> new long[numWords]),
+                       ordinal);
+            }
+        }
+        return new ModuleOrdinalIndex(version, Map.copyOf(ordinals), credits, categoryMasks, englishMask, icamMask,
+                                      Map.copyOf(shortModuleNoMasks));
+    }
+
+    /**
+     * Returns the version of the catalog the ordinals belong to.
+     * @return the version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of words of an {@link ElectionBits} of this index.
+     * @return the number of words.
+     */
+    public int getWordCount() {
+        return englishMask.length;
+    }
+
+    /**
+     * Returns the ordinal of the module.
+     * @param moduleNo the module number.
+     * @return the ordinal or -1 if the module is not in the catalog.
+     */
+    public int ordinalOf(String moduleNo) {
+        return ordinals.getOrDefault(moduleNo, -1);
+    }
+
+    byte getCredits(int ordinal) {
+        return credits[ordinal];
+    }
+
+    long[] getCategoryMask(ModuleCategory moduleCategory) {
+        return categoryMasks[moduleCategory.ordinal()];
+    }
+
+    long[] getEnglishMask() {
+        return englishMask;
+    }
+
+    long[] getIcamMask() {
+        return icamMask;
+    }
+
+    long[] getShortModuleNoMask(String shortModuleNo) {
+        return shortModuleNoMasks.get(shortModuleNo);
+    }
+
+    static int wordCount(int numBits) {
+        return (numBits + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static void setBit(long[] words, int ordinal) {
+        words[ordinal / Long.SIZE] |= 1L << ordinal;
+    }
+}
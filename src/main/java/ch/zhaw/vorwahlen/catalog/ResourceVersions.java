@@ -0,0 +1,87 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions of the public, read-mostly resources for conditional requests.<br/>
+ *
+ * A version only increases when an admin changes the resource, so a controller compares the ETag of the client with
+ * the current version and answers 304 without reading the resource. The versions start at 1 after every restart,
+ * the ETag contains the start time of the application to tell them apart.<br/>
+ *
+ * A writer increases the version after the change is stored, so a client never keeps old content under a new ETag.
+ */
+@Component
+public class ResourceVersions {
+    private final String instance = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<Resource, AtomicLong> versions = new EnumMap<>(Resource.class);
+
+    /**
+     * The versioned resources.
+     */
+    public enum Resource {
+        MODULES, EVENTO_DATA, PAGE_TEXTS
+    }
+
+    /**
+     * Create instance, every resource starts with version 1.
+     */
+    public ResourceVersions() {
+        for (var resource : Resource.values()) {
+            versions.put(resource, new AtomicLong(1));
+        }
+    }
+
+    /**
+     * Returns the current version of the resource.
+     * @param resource the resource.
+     * @return the version.
+     */
+    public long getVersion(Resource resource) {
+        return versions.get(resource).get();
+    }
+
+    /**
+     * Mark the resource as changed.
+     * @param resource the changed resource.
+     */
+    public void increment(Resource resource) {
+        versions.get(resource).incrementAndGet();
+    }
+
+    /**
+     * Returns the strong ETag of the current version.
+     * @param resource the resource.
+     * @return the quoted ETag.
+     */
+    public String getETag(Resource resource) {
+        return getETag(resource, null);
+    }
+
+    /**
+     * Returns the strong ETag of the current version of a representation.
+     * @param resource the resource.
+     * @param variant distinguishes representations of the same version like the content encoding, or null.
+     * @return the quoted ETag.
+     */
+    public String getETag(Resource resource, String variant) {
+        return getETag(resource, getVersion(resource), variant);
+    }
+
+    /**
+     * Returns the strong ETag of a representation of the given version.
+     * @param resource the resource.
+     * @param version the version the representation was built from.
+     * @param variant distinguishes representations of the same version like the content encoding, or null.
+     * @return the quoted ETag.
+     */
+    public String getETag(Resource resource, long version, String variant) {
+        var etag = resource.name().toLowerCase(Locale.ROOT).replace('_', '-') + "-" + instance + "-" + version;
+        return "\"" + (variant == null ? etag : etag + "-" + variant) + "\"";
+    }
+}
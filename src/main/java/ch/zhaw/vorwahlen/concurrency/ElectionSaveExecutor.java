@@ -0,0 +1,95 @@
+package ch.zhaw.vorwahlen.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs the saves of an election one after the other per student.<br/>
+ *
+ * Within one node, the saves of a student are serialized with {@link StripedLocks}, saves of different students run in
+ * parallel. Across nodes the version of the election detects a concurrent save, in this case the save is retried in a
+ * new transaction and reads the election again. A unique key violation of two concurrent inserts is retried the same
+ * way.
+ */
+@Slf4j
+public class ElectionSaveExecutor {
+    private final StripedLocks locks;
+    private final TransactionOperations transactionOperations;
+    private final int maxAttempts;
+
+    /**
+     * Create instance.
+     * @param settings number of locks and attempts.
+     * @param transactionOperations runs each attempt in a transaction.
+     */
+    public ElectionSaveExecutor(ElectionSaveSettings settings, TransactionOperations transactionOperations) {
+        this.locks = new StripedLocks(settings.getLockStripes());
+        this.transactionOperations = transactionOperations;
+        this.maxAttempts = Math.max(1, settings.getMaxAttempts());
+    }
+
+    /**
+     * Run the save of the election of the student.
+     * @param studentEmail email of the student.
+     * @param save the save, has to read the election again on every call.
+     * @param <T> result type of the save.
+     * @return the result of the save.
+     */
+    public <T> T execute(String studentEmail, Supplier<T> save) {
+        return execute(studentEmail, save, result -> {});
+    }
+
+    /**
+     * Run the save of the election of the student and pass its result to a callback.<br/>
+     *
+     * The callback runs after the transaction committed and before the next save of the student starts, it does not
+     * run for an attempt that is retried.
+     * @param studentEmail email of the student.
+     * @param save the save, has to read the election again on every call.
+     * @param onCommitted receives the result of the committed save.
+     * @param <T> result type of the save.
+     * @return the result of the save.
+     */
+    public <T> T execute(String studentEmail, Supplier<T> save, Consumer<T> onCommitted) {
+        return executeAndThen(studentEmail, save, result -> {
+            onCommitted.accept(result);
+            return result;
+        });
+    }
+
+    /**
+     * Run the save of the election of the student and map its result with a callback.<br/>
+     *
+     * The callback runs after the transaction committed and before the next save of the student starts, it does not
+     * run for an attempt that is retried. Whatever the callback sends is therefore in the order of the saves.
+     * @param studentEmail email of the student.
+     * @param save the save, has to read the election again on every call.
+     * @param onCommitted maps the result of the committed save.
+     * @param <T> result type of the save.
+     * @param <R> result type of the callback.
+     * @return the result of the callback.
+     */
+    public <T, R> R executeAndThen(String studentEmail, Supplier<T> save, Function<T, R> onCommitted) {
+        return locks.withLock(studentEmail, () -> {
+            for (var attempt = 1; ; attempt++) {
+                try {
+                    var result = transactionOperations.execute(status -> save.get());
+                    return onCommitted.apply(result);
+                } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    if (attempt >= maxAttempts) {
+                        log.warn("save of election of {} failed after {} attempts", studentEmail, attempt);
+                        throw e;
+                    }
+                    log.debug("concurrent save of election of {}, attempt {} of {}", studentEmail, attempt,
+                              maxAttempts);
+                }
+            }
+        });
+    }
+}
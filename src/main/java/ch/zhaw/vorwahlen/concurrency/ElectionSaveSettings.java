@@ -0,0 +1,13 @@
+package ch.zhaw.vorwahlen.concurrency;
+
+import lombok.Data;
+
+/**
+ * Model class for the settings of the election saves and the {@link ElectionSaveExecutor}.
+ */
+@Data
+public class ElectionSaveSettings {
+    private int lockStripes = 1024;
+    private int maxAttempts = 3;
+    private int maxBatchSize = 100;
+}
@@ -0,0 +1,53 @@
+package ch.zhaw.vorwahlen.concurrency;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last applied sequence number of the saves of one websocket session.<br/>
+ *
+ * The client numbers its saves ascending, starting with 1. A save with a number that is not greater than the last
+ * applied one is a duplicate or arrived out of order and must not be applied again.
+ */
+public class SaveSequence {
+    public static final String SESSION_ATTRIBUTE = "electionSaveSequence";
+
+    private final AtomicLong lastApplied = new AtomicLong();
+
+    /**
+     * Returns the sequence stored in the session attributes, a new one is added if missing.
+     * @param sessionAttributes attributes of the websocket session, may be null.
+     * @return the {@link SaveSequence} of the session, a new unstored one without session attributes.
+     */
+    public static SaveSequence of(Map<String, Object> sessionAttributes) {
+        if (sessionAttributes == null) {
+            return new SaveSequence();
+        }
+        return (SaveSequence) sessionAttributes.computeIfAbsent(SESSION_ATTRIBUTE, key -> new SaveSequence());
+    }
+
+    /**
+     * Checks if the save with the sequence number has to be dropped.
+     * @param sequence sequence number of the save.
+     * @return true if a save with the same or a greater number was applied already.
+     */
+    public boolean isApplied(long sequence) {
+        return sequence <= lastApplied.get();
+    }
+
+    /**
+     * Marks the save with the sequence number as applied.
+     * @param sequence sequence number of the save.
+     */
+    public void markApplied(long sequence) {
+        lastApplied.accumulateAndGet(sequence, Math::max);
+    }
+
+    /**
+     * Returns the sequence number of the last applied save.
+     * @return the sequence number, 0 if no save was applied.
+     */
+    public long getLastApplied() {
+        return lastApplied.get();
+    }
+}
@@ -0,0 +1,66 @@
+package ch.zhaw.vorwahlen.concurrency;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed table of locks, a key always maps to the same lock.<br/>
+ *
+ * Actions for the same key never run at the same time, actions for different keys only wait for each other if
+ * their keys share a stripe. The number of stripes is rounded up to a power of two.
+ */
+public class StripedLocks {
+    private static final int MAX_STRIPES = 1 << 16;
+
+    private final ReentrantLock[] locks;
+
+    /**
+     * Create instance.
+     * @param stripes the number of locks.
+     */
+    public StripedLocks(int stripes) {
+        if (stripes < 1 || stripes > MAX_STRIPES) {
+            throw new IllegalArgumentException("stripes must be between 1 and " + MAX_STRIPES);
+        }
+        var size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        locks = new ReentrantLock[size];
+        for (var i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Run the action while holding the lock of the key.
+     * @param key the key, for example the email of a student.
+     * @param action the action.
+     * @param <T> result type of the action.
+     * @return the result of the action.
+     */
+    public <T> T withLock(String key, Supplier<T> action) {
+        var lock = lockFor(key);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of stripes.
+     * @return the number of locks.
+     */
+    public int getStripes() {
+        return locks.length;
+    }
+
+    ReentrantLock lockFor(String key) {
+        var hash = key.hashCode();
+        // spread the high bits, the table is indexed with the low bits
+        hash ^= hash >>> 16;
+        return locks[hash & (locks.length - 1)];
+    }
+}
@@ -1,61 +1,68 @@
 package ch.zhaw.vorwahlen.config;
 
-import ch.zhaw.vorwahlen.constants.ResourceMessageConstants;
-import ch.zhaw.vorwahlen.exception.StudentNotFoundException;
+import ch.zhaw.vorwahlen.catalog.ModuleCatalog;
+import ch.zhaw.vorwahlen.concurrency.ElectionSaveExecutor;
+import ch.zhaw.vorwahlen.concurrency.ElectionSaveSettings;
 import ch.zhaw.vorwahlen.exporter.ExcelElectionExporter;
 import ch.zhaw.vorwahlen.exporter.ElectionExporter;
 import ch.zhaw.vorwahlen.model.modulestructure.ElectionSemesters;
-import ch.zhaw.vorwahlen.model.core.student.Student;
 import ch.zhaw.vorwahlen.model.modulestructure.ModuleDefinition;
-import ch.zhaw.vorwahlen.repository.StudentRepository;
-import ch.zhaw.vorwahlen.security.model.User;
-import ch.zhaw.vorwahlen.validation.ElectionValidator;
+import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureEngine;
+import ch.zhaw.vorwahlen.validation.ElectionResultCache;
+import ch.zhaw.vorwahlen.validation.ElectionResultCacheSettings;
+import ch.zhaw.vorwahlen.validation.ElectionValidatorRegistry;
 import ch.zhaw.vorwahlen.validation.FullTimeElectionValidator;
 import ch.zhaw.vorwahlen.validation.PartTimeElectionValidator;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.config.BeanDefinition;
+import ch.zhaw.vorwahlen.writebehind.WriteBehindSettings;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Primary;
-import org.springframework.context.annotation.Scope;
-import org.springframework.context.annotation.ScopedProxyMode;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Configuration for the election.
  */
 @Configuration
-@RequiredArgsConstructor
 public class ElectionConfig {
 
-    private final StudentRepository studentRepository;
+    /**
+     * Returns the validator registry, the validators are stateless and shared by all students.
+     * @param moduleCatalog catalog with the consecutive pair index.
+     * @return ElectionValidatorRegistry
+     */
+    @Bean
+    public ElectionValidatorRegistry electionValidatorRegistry(ModuleCatalog moduleCatalog) {
+        return new ElectionValidatorRegistry(new FullTimeElectionValidator(moduleCatalog::getConsecutivePairIndex),
+                                             new PartTimeElectionValidator(moduleCatalog::getConsecutivePairIndex));
+    }
 
     /**
-     * Returns the validator based on the current student.
-     * @return ElectionValidator
+     * Returns the cache for the election structure and status, the entries are bound to the module catalog version.
+     * @param moduleCatalog catalog with the module ordinals of the current version.
+     * @return ElectionResultCache
      */
     @Bean
-    @Scope(value = BeanDefinition.SCOPE_PROTOTYPE, proxyMode = ScopedProxyMode.TARGET_CLASS)
-    public ElectionValidator electionValidator() {
-        var student = getStudentFromSecurityContext();
-        ElectionValidator electionValidator = new FullTimeElectionValidator(student);
-        if (student.isTZ()) {
-            electionValidator = new PartTimeElectionValidator(student);
-        }
-        return electionValidator;
+    public ElectionResultCache electionResultCache(ModuleCatalog moduleCatalog) {
+        return new ElectionResultCache(electionResultCacheSettings(), moduleCatalog::getOrdinalIndex);
     }
 
     /**
-     * Returns the module definition. Values loaded based on the current student.
-     * @return ModuleDefinition
+     * Returns a new election result cache settings instance. Values loaded by election.result-cache prefix.
+     * @return ElectionResultCacheSettings
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "election.result-cache")
+    public ElectionResultCacheSettings electionResultCacheSettings() {
+        return new ElectionResultCacheSettings();
+    }
+
+    /**
+     * Returns the structure engine, the module definitions are prepared once for all students.
+     * @return ModuleStructureEngine
      */
     @Bean
-    @Primary
-    @Scope(value = BeanDefinition.SCOPE_PROTOTYPE, proxyMode = ScopedProxyMode.TARGET_CLASS)
-    public ModuleDefinition moduleDefinition() {
-        var student = getStudentFromSecurityContext();
-        return student.isTZ() ? moduleDefinitionPartTime() : moduleDefinitionFullTime();
+    public ModuleStructureEngine moduleStructureEngine() {
+        return new ModuleStructureEngine(moduleDefinitionFullTime(), moduleDefinitionPartTime(), electionSemesters());
     }
 
     /**
@@ -88,6 +95,36 @@ public class ElectionConfig {
         return new ElectionSemesters();
     }
 
+    /**
+     * Returns the executor for the election saves, the saves are serialized per student.
+     * @param transactionTemplate runs each attempt of a save in a transaction.
+     * @return ElectionSaveExecutor
+     */
+    @Bean
+    public ElectionSaveExecutor electionSaveExecutor(TransactionTemplate transactionTemplate) {
+        return new ElectionSaveExecutor(electionSaveSettings(), transactionTemplate);
+    }
+
+    /**
+     * Returns a new election save settings instance. Values loaded by election.save prefix.
+     * @return ElectionSaveSettings
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "election.save")
+    public ElectionSaveSettings electionSaveSettings() {
+        return new ElectionSaveSettings();
+    }
+
+    /**
+     * Returns a new write-behind settings instance. Values loaded by election.write-behind prefix.
+     * @return WriteBehindSettings
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "election.write-behind")
+    public WriteBehindSettings writeBehindSettings() {
+        return new WriteBehindSettings();
+    }
+
     /**
      * Returns a new election exporter instance.
      * @return ElectionExporter
@@ -96,15 +133,4 @@ public class ElectionConfig {
     public ElectionExporter electionExporter() {
         return new ExcelElectionExporter();
     }
-
-    private Student getStudentFromSecurityContext() {
-        var user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        var id = user.getMail();
-        return studentRepository.findById(id)
-                .orElseThrow(() -> {
-                    var formatString =
-                            ResourceBundleMessageLoader.getMessage(ResourceMessageConstants.ERROR_STUDENT_NOT_FOUND);
-                    return new StudentNotFoundException(String.format(formatString, id));
-                });
-    }
 }
@@ -0,0 +1,113 @@
+package ch.zhaw.vorwahlen.config;
+
+import ch.zhaw.vorwahlen.model.evento.EventoData;
+import ch.zhaw.vorwahlen.model.evento.EventoDataDTO;
+import ch.zhaw.vorwahlen.model.evento.EventoDataDocumentConverter;
+import ch.zhaw.vorwahlen.repository.EventoDataRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Copies the evento data of the former column per field into the gzipped document.<br/>
+ *
+ * Hibernate adds the document column on update but keeps the old columns. Every row without a document is read from
+ * the old columns and saved again in one transaction. Afterwards every stored document is read back and compared with
+ * the old columns, on a difference the transaction is rolled back and the startup fails.<br/>
+ *
+ * The old columns are left in place, they are no longer mapped and can be dropped by hand once the documents are
+ * verified. A row with a document is never migrated again, so the migration does nothing on later startups.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventoDataMigration {
+    private static final List<String> LEGACY_COLUMNS = List.of(
+            "learning_objectives", "module_contents", "literature", "supp_literature",
+            "prerequisites", "module_structure", "exams", "remarks");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventoDataRepository eventoDataRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Migrate the rows without document if the old columns exist.
+     */
+    @PostConstruct
+    public void migrate() {
+        var columns = jdbcTemplate.queryForList("""
+                SELECT column_name FROM information_schema.columns
+                WHERE table_schema = DATABASE() AND table_name = 'evento_data'
+                """, String.class);
+        if (!columns.stream().map(String::toLowerCase).toList().containsAll(LEGACY_COLUMNS)) {
+            return;
+        }
+
+        var migrated = transactionTemplate.execute(status -> {
+            var eventoDataList = readLegacyColumns();
+            eventoDataRepository.saveAllAndFlush(eventoDataList);
+            eventoDataList.forEach(this::verify);
+            return eventoDataList.size();
+        });
+        if (migrated != null && migrated > 0) {
+            log.info("copied the evento data of {} modules into the document, the columns {} are no longer used",
+                     migrated, LEGACY_COLUMNS);
+        }
+    }
+
+    private List<EventoData> readLegacyColumns() {
+        return jdbcTemplate.query("SELECT module_no, short_description, coordinator, "
+                + String.join(", ", LEGACY_COLUMNS) + " FROM evento_data WHERE document IS NULL", (rs, rowNum) -> {
+            var eventoData = new EventoData();
+            eventoData.setModuleNo(rs.getString("module_no"));
+            eventoData.setShortDescription(rs.getString("short_description"));
+            eventoData.setCoordinator(rs.getString("coordinator"));
+            eventoData.setLearningObjectives(rs.getString("learning_objectives"));
+            eventoData.setModuleContents(rs.getString("module_contents"));
+            eventoData.setLiterature(rs.getString("literature"));
+            eventoData.setSuppLiterature(rs.getString("supp_literature"));
+            eventoData.setPrerequisites(rs.getString("prerequisites"));
+            eventoData.setModuleStructure(rs.getString("module_structure"));
+            eventoData.setExams(rs.getString("exams"));
+            eventoData.setRemarks(rs.getString("remarks"));
+            return eventoData;
+        });
+    }
+
+    private void verify(EventoData eventoData) {
+        var moduleNo = eventoData.getModuleNo();
+        var compressed = eventoDataRepository.findCompressedDocument(moduleNo)
+                .orElseThrow(() -> new IllegalStateException("no evento data document stored for " + moduleNo));
+        EventoDataDTO stored;
+        try {
+            stored = objectMapper.readValue(EventoDataDocumentConverter.decompress(compressed), EventoDataDTO.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("unreadable evento data document stored for " + moduleNo, e);
+        }
+
+        var expected = EventoDataDTO.builder()
+                .shortDescription(eventoData.getShortDescription())
+                .coordinator(eventoData.getCoordinator())
+                .learningObjectives(eventoData.getLearningObjectives())
+                .moduleContents(eventoData.getModuleContents())
+                .literature(eventoData.getLiterature())
+                .suppLiterature(eventoData.getSuppLiterature())
+                .prerequisites(eventoData.getPrerequisites())
+                .moduleStructure(eventoData.getModuleStructure())
+                .exams(eventoData.getExams())
+                .remarks(eventoData.getRemarks())
+                .build();
+        if (!Objects.equals(expected, stored)) {
+            throw new IllegalStateException("evento data document of " + moduleNo + " differs from the old columns");
+        }
+    }
+}
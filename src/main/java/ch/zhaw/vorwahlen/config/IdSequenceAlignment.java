@@ -0,0 +1,48 @@
+package ch.zhaw.vorwahlen.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+
+/**
+ * Moves the id sequences of the election and the validation setting past the existing ids.<br/>
+ *
+ * MySQL has no sequences, Hibernate emulates them with a table which starts at 1 when it is created. Rows inserted
+ * while the ids were generated by the database (auto increment) or by the data.sql are not known to the table.
+ * The ids are allocated as pooled-lo, so the stored value is the next free id and has to be above the largest id.
+ * The sequence tables are created by Hibernate (ddl-auto), so this runs after the entity manager factory and after the
+ * data.sql, but still during the startup and therefore before the first insert of the application.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceAlignment {
+    private static final Map<String, String> SEQUENCE_TABLES = Map.of(
+            "module_election_seq", "module_election",
+            "validation_setting_seq", "validation_setting");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Align every sequence with its table.
+     */
+    @PostConstruct
+    public void align() {
+        SEQUENCE_TABLES.forEach((sequence, table) -> {
+            var maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            var updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val <= ?",
+                                              maxId + 1, maxId);
+            if (updated > 0) {
+                log.info("moved sequence {} to {}", sequence, maxId + 1);
+            }
+        });
+    }
+}
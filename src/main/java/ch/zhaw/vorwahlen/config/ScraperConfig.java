@@ -0,0 +1,37 @@
+package ch.zhaw.vorwahlen.config;
+
+import ch.zhaw.vorwahlen.scraper.HttpPageFetcher;
+import ch.zhaw.vorwahlen.scraper.PageFetcher;
+import ch.zhaw.vorwahlen.scraper.ScraperSettings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the evento scraper.
+ */
+@Configuration
+public class ScraperConfig {
+
+    /**
+     * Returns a new scraper settings instance. Values loaded by evento.scraper prefix.
+     * @return ScraperSettings
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "evento.scraper")
+    public ScraperSettings scraperSettings() {
+        return new ScraperSettings();
+    }
+
+    /**
+     * Returns the page fetcher of the scraper, shared by all workers.
+     * @param scraperSettings the settings of the scraper.
+     * @return PageFetcher
+     */
+    @Bean
+    public PageFetcher pageFetcher(ScraperSettings scraperSettings) {
+        return new HttpPageFetcher(Duration.ofMillis(scraperSettings.getTimeoutMs()));
+    }
+}
@@ -1,7 +1,12 @@
 package ch.zhaw.vorwahlen.config;
 
+import ch.zhaw.vorwahlen.messaging.CborMessageConverter;
+import ch.zhaw.vorwahlen.messaging.MessageEncodingNegotiation;
 import ch.zhaw.vorwahlen.security.config.CORSAdvice;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -9,6 +14,8 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
 
+import java.util.List;
+
 /**
  * Configure websocket for modules.
  */
@@ -21,6 +28,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.enableSimpleBroker("/queue");
         registry.setUserDestinationPrefix("/user");
         registry.setApplicationDestinationPrefixes("/app");
+        // delta updates of the election build on each other and have to arrive in the order they were sent
+        registry.setPreservePublishOrder(true);
     }
 
     @Override
@@ -30,5 +39,37 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setHandshakeHandler(new DefaultHandshakeHandler())
                 .addInterceptors(new HttpSessionHandshakeInterceptor())
                 .withSockJS();
+        // plain websocket without SockJS fallback, only it can carry the binary frames of CBOR messages
+        registry.addEndpoint("/stomp-ws-endpoint-native")
+                .setAllowedOrigins(CORSAdvice.ALLOWED_ORIGINS)
+                .setHandshakeHandler(new DefaultHandshakeHandler())
+                .addInterceptors(new HttpSessionHandshakeInterceptor(),
+                                 messageEncodingNegotiation().binaryFramesHandshakeInterceptor());
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new CborMessageConverter(messageEncodingNegotiation()));
+        // keep the default converters, JSON stays the encoding of messages without content type
+        return true;
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(messageEncodingNegotiation().inboundInterceptor());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(messageEncodingNegotiation().outboundInterceptor());
+    }
+
+    /**
+     * Negotiates the encoding of the messages per websocket session.
+     * @return {@link MessageEncodingNegotiation}
+     */
+    @Bean
+    public MessageEncodingNegotiation messageEncodingNegotiation() {
+        return new MessageEncodingNegotiation();
     }
 }
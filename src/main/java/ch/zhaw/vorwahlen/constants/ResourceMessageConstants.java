@@ -29,4 +29,6 @@ public class ResourceMessageConstants {
     public static final String ERROR_MODULE_ELECTION_CONFLICT = "error.module_election_conflict";
     public static final String ERROR_MAIL_TEMPLATE_CONFLICT = "error.mail_template_conflict";
     public static final String ERROR_ELECTION_CANNOT_ELECT = "error.election_cannot_elect";
+    public static final String ERROR_ELECTION_BATCH_INVALID = "error.election_batch_invalid";
+    public static final String ERROR_ELECTION_SAVE_INVALID = "error.election_save_invalid";
 }
@@ -0,0 +1,113 @@
+package ch.zhaw.vorwahlen.controller;
+
+import ch.zhaw.vorwahlen.catalog.ResourceVersions;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Responses for conditional GET requests on resources versioned by {@link ResourceVersions}.<br/>
+ *
+ * The client may store the response, but has to revalidate it with If-None-Match before every use. Because the ETag is
+ * compared before the resource is read, an unchanged resource costs neither the database nor the serialization. A
+ * resource which may not exist, like the data of one module, has to be looked up by the caller before, so a missing
+ * resource is answered with 404 and not with 304 for {@code If-None-Match: *}.<br/>
+ *
+ * A resource which is held as serialized JSON is sent gzipped as it is to a client which accepts gzip. The gzipped and
+ * the plain representation have different ETags.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ConditionalResponses {
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+    static final String GZIP = "gzip";
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+    private static final Pattern GZIP_REFUSED = Pattern.compile(";q=0(\\.0*)?$");
+
+    /**
+     * Returns the resource or 304 if the client has the current version.
+     * @param ifNoneMatch the If-None-Match header of the request or null.
+     * @param etag the ETag of the current version.
+     * @param body reads the resource, only called if the client does not have the current version.
+     * @return {@link ResponseEntity} with ETag and Cache-Control.
+     */
+    static <T> ResponseEntity<T> versioned(String ifNoneMatch, String etag, Supplier<T> body) {
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body.get());
+    }
+
+    /**
+     * Returns the serialized JSON or 304 if the client has the current version.
+     * @param ifNoneMatch the If-None-Match header of the request or null.
+     * @param etag the ETag of the current version of the representation.
+     * @param gzip whether the body is gzipped.
+     * @param body reads the JSON, only called if the client does not have the current version.
+     * @return {@link ResponseEntity} with ETag, Cache-Control and Vary.
+     */
+    static ResponseEntity<byte[]> versionedJson(String ifNoneMatch, String etag, boolean gzip,
+                                                Supplier<byte[]> body) {
+        if (isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body.get());
+    }
+
+    /**
+     * Checks whether the client accepts a gzipped body.
+     * @param acceptEncoding the Accept-Encoding header of the request or null.
+     * @return true if gzip is listed and not refused with q=0.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        return Arrays.stream(acceptEncoding.split(","))
+                .map(coding -> coding.replace(" ", "").toLowerCase(Locale.ROOT))
+                .anyMatch(coding -> coding.startsWith(GZIP) && !GZIP_REFUSED.matcher(coding).find());
+    }
+
+    /**
+     * Checks whether the client has the current version.
+     * @param ifNoneMatch the If-None-Match header of the request or null.
+     * @param etag the ETag of the current version.
+     * @return true if one of the ETags of the client matches.
+     */
+    static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag)
+                .anyMatch(tag -> tag.equals(etag) || tag.equals(ANY));
+    }
+
+    /**
+     * Returns 304 with the ETag and Cache-Control.
+     * @param etag the ETag of the current version.
+     * @return {@link ResponseEntity} without body.
+     */
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+}
@@ -4,16 +4,24 @@ import ch.zhaw.vorwahlen.config.ResourceBundleMessageLoader;
 import ch.zhaw.vorwahlen.constants.ResourceMessageConstants;
 import ch.zhaw.vorwahlen.exception.SessionNotFoundException;
 import ch.zhaw.vorwahlen.exception.UserNotFoundException;
+import ch.zhaw.vorwahlen.messaging.MessageEncodingNegotiation;
+import ch.zhaw.vorwahlen.model.ElectionBatchDTO;
+import ch.zhaw.vorwahlen.model.ElectionSaveDTO;
 import ch.zhaw.vorwahlen.model.ElectionTransferDTO;
 import ch.zhaw.vorwahlen.model.core.election.ElectionDTO;
 import ch.zhaw.vorwahlen.security.model.User;
+import ch.zhaw.vorwahlen.service.ElectionDeltaService;
 import ch.zhaw.vorwahlen.service.ElectionService;
+import ch.zhaw.vorwahlen.validation.ElectionResultCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -24,8 +32,8 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.transaction.Transactional;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -37,7 +45,11 @@ import java.util.List;
 @RequestMapping("elections")
 public class ElectionController {
     public static final String EXCEL_MIME = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    public static final String SAVE_STATUS_DESTINATION = "/queue/electionSaveStatus";
     private final ElectionService electionService;
+    private final ElectionDeltaService electionDeltaService;
+    private final MessageEncodingNegotiation messageEncodingNegotiation;
+    private final SimpMessageSendingOperations messagingTemplate;
 
     /**
      * Stores the selection from student in session.
@@ -46,10 +58,75 @@ public class ElectionController {
      * @return {@link ElectionTransferDTO}
      */
     @MessageMapping("/save")
-    @SendToUser("/queue/electionSaveStatus")
-    @Transactional
+    @SendToUser(SAVE_STATUS_DESTINATION)
     public ElectionTransferDTO saveElection(SimpMessageHeaderAccessor headerAccessor,
                                             String moduleNo) {
+        var user = getUserInSession(headerAccessor);
+        return reply(headerAccessor, electionService.saveElection(user.getMail(), moduleNo, headerAccessor));
+    }
+
+    /**
+     * Stores a batch of changes to the selection from student in session.
+     * @param headerAccessor header data which contains the user session.
+     * @param batch the modules to add or remove, in the order to apply them.
+     * @return {@link ElectionTransferDTO}
+     */
+    @MessageMapping("/save-batch")
+    @SendToUser(SAVE_STATUS_DESTINATION)
+    public ElectionTransferDTO saveElectionBatch(SimpMessageHeaderAccessor headerAccessor,
+                                                 @Payload ElectionBatchDTO batch) {
+        var user = getUserInSession(headerAccessor);
+        return reply(headerAccessor, electionService.saveElectionBatch(user.getMail(), batch, headerAccessor));
+    }
+
+    /**
+     * Adds or removes a module of the selection from student in session, saves with a sequence number that was
+     * applied already are dropped.
+     * @param headerAccessor header data which contains the user session.
+     * @param save the module, if it is added or removed and the sequence number of the client.
+     * @return {@link ElectionTransferDTO} containing the last applied sequence number.
+     */
+    @MessageMapping("/save-change")
+    @SendToUser(SAVE_STATUS_DESTINATION)
+    public ElectionTransferDTO saveElectionChange(SimpMessageHeaderAccessor headerAccessor,
+                                                  @Payload ElectionSaveDTO save) {
+        var user = getUserInSession(headerAccessor);
+        return reply(headerAccessor, electionService.saveElectionChange(user.getMail(), save, headerAccessor));
+    }
+
+    /**
+     * Sends the whole election of the student in session to {@value ElectionDeltaService#DELTA_DESTINATION} and
+     * switches the session to delta updates.
+     * After the resync, saves of the session are answered there with the changes since the previous update instead of
+     * the whole election.
+     * @param headerAccessor header data which contains the user session.
+     */
+    @MessageMapping("/resync")
+    public void resyncElection(SimpMessageHeaderAccessor headerAccessor) {
+        var user = getUserInSession(headerAccessor);
+        electionDeltaService.resync(headerAccessor, electionService.getElection(user.getMail()));
+    }
+
+    /**
+     * The replies of JSON sessions are sent to all sessions of the user by {@link SendToUser}. Without a session id
+     * the converter cannot see the encoding of a session, so the reply of a CBOR session is sent to this session only.
+     * @param headerAccessor header data which contains the user session.
+     * @param election the election after the save, may be null.
+     * @return the reply for all sessions of the user, null if it was sent to the CBOR session.
+     */
+    private ElectionTransferDTO reply(SimpMessageHeaderAccessor headerAccessor, ElectionTransferDTO election) {
+        if (election == null || !messageEncodingNegotiation.isCborSession(headerAccessor.getSessionId())) {
+            return election;
+        }
+        var headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(headerAccessor.getSessionId());
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(headerAccessor.getUser().getName(), SAVE_STATUS_DESTINATION, election,
+                                               headers.getMessageHeaders());
+        return null;
+    }
+
+    private User getUserInSession(SimpMessageHeaderAccessor headerAccessor) {
         var sessionAttributes = headerAccessor.getSessionAttributes();
         if(sessionAttributes == null) {
             throw new SessionNotFoundException(ResourceBundleMessageLoader.getMessage(ResourceMessageConstants.ERROR_SESSION_NOT_FOUND));
@@ -57,8 +134,7 @@ public class ElectionController {
 
         if (headerAccessor.getUser() instanceof UsernamePasswordAuthenticationToken authToken &&
                 authToken.getPrincipal() instanceof User user) {
-
-            return electionService.saveElection(user.getMail(), moduleNo, headerAccessor);
+            return user;
         } else {
             throw new UserNotFoundException(ResourceBundleMessageLoader.getMessage(ResourceMessageConstants.ERROR_USER_NOT_FOUND));
         }
@@ -140,15 +216,25 @@ public class ElectionController {
 
     /**
      * Returns all stored  elections as MS-Excel file.
-     * @return {@link ResponseEntity} containing byte array with the file data.
+     * The file is written directly to the response while the elections are read.
+     * @return {@link ResponseEntity} containing {@link StreamingResponseBody} which writes the file data.
      */
     @GetMapping(path = "/export")
-    public ResponseEntity<byte[]> exportElection() {
+    public ResponseEntity<StreamingResponseBody> exportElection() {
         var fileName = "attachment; filename=module_election.xlsx";
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(EXCEL_MIME))
                 .header(HttpHeaders.CONTENT_DISPOSITION, fileName)
-                .body(electionService.exportElection());
+                .body(electionService::exportElection);
+    }
+
+    /**
+     * Returns the statistics of the cache for the election structure and status.
+     * @return {@link ResponseEntity} containing the {@link ElectionResultCache.Statistics}.
+     */
+    @GetMapping(path = "cache-statistics")
+    public ResponseEntity<ElectionResultCache.Statistics> getElectionResultCacheStatistics() {
+        return ResponseEntity.ok(electionService.getElectionResultCacheStatistics());
     }
 
     /**
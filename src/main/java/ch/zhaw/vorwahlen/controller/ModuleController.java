@@ -1,9 +1,14 @@
 package ch.zhaw.vorwahlen.controller;
 
+import ch.zhaw.vorwahlen.catalog.ModuleCatalogJson;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
 import ch.zhaw.vorwahlen.model.evento.EventoDataDTO;
+import ch.zhaw.vorwahlen.model.evento.EventoDataSummaryDTO;
 import ch.zhaw.vorwahlen.model.core.module.ModuleDTO;
 import ch.zhaw.vorwahlen.service.ModuleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,13 +17,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
-import java.util.List;
 
 /**
  * Controller for a module.
@@ -27,15 +32,27 @@ import java.util.List;
 @RestController
 @RequestMapping("modules")
 public class ModuleController {
+    private static final String SUMMARY = "summary";
+
     private final ModuleService moduleService;
+    private final ResourceVersions resourceVersions;
+    private final ModuleCatalogJson moduleCatalogJson;
 
     /**
      * Return all modules.
-     * @return {@link ResponseEntity} containing list of {@link ModuleDTO}.
+     * The module list is serialized once per version, a client which accepts gzip gets the gzipped bytes.
+     * @param acceptEncoding the accepted content encodings of the client.
+     * @param ifNoneMatch the ETag of the modules the client has.
+     * @return {@link ResponseEntity} containing list of {@link ModuleDTO} as JSON or 304 if the modules are unchanged.
      */
     @GetMapping(path = "")
-    public ResponseEntity<List<ModuleDTO>> getAllModules() {
-        return ResponseEntity.ok().body(moduleService.getAllModules());
+    public ResponseEntity<byte[]> getAllModules(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var snapshot = moduleCatalogJson.getSnapshot();
+        var gzip = ConditionalResponses.acceptsGzip(acceptEncoding);
+        return ConditionalResponses.versionedJson(ifNoneMatch, gzip ? snapshot.gzipETag() : snapshot.etag(), gzip,
+                                                  () -> gzip ? snapshot.gzip() : snapshot.json());
     }
 
     /**
@@ -97,11 +114,35 @@ public class ModuleController {
 
     /**
      * Returns the additional data of a module.
-     * @return {@link ResponseEntity} containing the {@link EventoDataDTO}.
+     * The data is stored gzipped, a client which accepts gzip gets the stored bytes with Content-Encoding gzip.
+     * @param id of the module.
+     * @param acceptEncoding the accepted content encodings of the client.
+     * @param ifNoneMatch the ETag of the data the client has.
+     * @return {@link ResponseEntity} containing the {@link EventoDataDTO} as JSON or 304 if the data is unchanged.
      */
     @GetMapping(path = "{id}/eventodata")
-    public ResponseEntity<EventoDataDTO> getAdditionalModuleDataByKuerzel(@PathVariable String id) {
-        return ResponseEntity.ok().body(moduleService.getEventoDataById(id));
+    public ResponseEntity<byte[]> getAdditionalModuleDataByKuerzel(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        moduleService.checkEventoDataExists(id);
+        var gzip = ConditionalResponses.acceptsGzip(acceptEncoding);
+        var etag = resourceVersions.getETag(Resource.EVENTO_DATA, gzip ? ConditionalResponses.GZIP : null);
+        return ConditionalResponses.versionedJson(ifNoneMatch, etag, gzip,
+                () -> gzip ? moduleService.getCompressedEventoDataById(id) : moduleService.getEventoDataById(id));
+    }
+
+    /**
+     * Returns the summary of the additional data of a module.
+     * @param id of the module.
+     * @param ifNoneMatch the ETag of the data the client has.
+     * @return {@link ResponseEntity} containing the {@link EventoDataSummaryDTO} or 304 if the data is unchanged.
+     */
+    @GetMapping(path = "{id}/eventodata/summary")
+    public ResponseEntity<EventoDataSummaryDTO> getAdditionalModuleDataSummary(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        moduleService.checkEventoDataExists(id);
+        var etag = resourceVersions.getETag(Resource.EVENTO_DATA, SUMMARY);
+        return ConditionalResponses.versioned(ifNoneMatch, etag, () -> moduleService.getEventoDataSummaryById(id));
     }
 
     /**
@@ -114,6 +155,16 @@ public class ModuleController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Parse the cached pages of the external website again.
+     * @return {@link ResponseEntity} containing {@link Void}.
+     */
+    @PostMapping(path = "/eventodata/reparse")
+    public ResponseEntity<Void> reparseCachedEventoData() {
+        moduleService.reparseCachedEventoData();
+        return ResponseEntity.ok().build();
+    }
+
     /**
      * Scrape external website to retrieve additional data for selected module.
      * @param id of the module
@@ -1,8 +1,11 @@
 package ch.zhaw.vorwahlen.controller;
 
+import ch.zhaw.vorwahlen.catalog.ResourceVersions;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
 import ch.zhaw.vorwahlen.model.pagetext.PageTextDTO;
 import ch.zhaw.vorwahlen.service.PageTextService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,6 +13,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -25,33 +29,44 @@ import java.util.Set;
 public class PageTextController {
 
     private final PageTextService pageTextService;
+    private final ResourceVersions resourceVersions;
 
     /**
      * Return all page texts.
-     * @return {@link ResponseEntity} containing list of {@link PageTextDTO}.
+     * @param ifNoneMatch the ETag of the page texts the client has.
+     * @return {@link ResponseEntity} containing list of {@link PageTextDTO} or 304 if the page texts are unchanged.
      */
     @GetMapping(path = "")
-    public ResponseEntity<Set<PageTextDTO>> getAllPageTexts() {
-        return ResponseEntity.ok(pageTextService.getAllPageTexts());
+    public ResponseEntity<Set<PageTextDTO>> getAllPageTexts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var etag = resourceVersions.getETag(Resource.PAGE_TEXTS);
+        return ConditionalResponses.versioned(ifNoneMatch, etag, pageTextService::getAllPageTexts);
     }
 
     /**
      * Return all page texts for a certain page.
-     * @return {@link ResponseEntity} containing list of {@link PageTextDTO}.
+     * @param ifNoneMatch the ETag of the page texts the client has.
+     * @return {@link ResponseEntity} containing list of {@link PageTextDTO} or 304 if the page texts are unchanged.
      */
     @GetMapping(path = "/{page}")
-    public ResponseEntity<Set<PageTextDTO>> getPageTexts(@PathVariable String page) {
-        return ResponseEntity.ok(pageTextService.getPageTexts(page));
+    public ResponseEntity<Set<PageTextDTO>> getPageTexts(@PathVariable String page,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var etag = resourceVersions.getETag(Resource.PAGE_TEXTS);
+        return ConditionalResponses.versioned(ifNoneMatch, etag, () -> pageTextService.getPageTexts(page));
     }
 
     /**
      * Return all page texts for a certain page and usertype.
-     * @return {@link ResponseEntity} containing list of {@link PageTextDTO}.
+     * @param ifNoneMatch the ETag of the page texts the client has.
+     * @return {@link ResponseEntity} containing list of {@link PageTextDTO} or 304 if the page texts are unchanged.
      */
     @GetMapping(path = "/{page}/{userType}")
     public ResponseEntity<Set<PageTextDTO>> getPageTextsByUserType(@PathVariable("page") String page,
-                                                                   @PathVariable("userType") String userType) {
-        return ResponseEntity.ok(pageTextService.getPageTextsByUserType(page, userType));
+            @PathVariable("userType") String userType,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var etag = resourceVersions.getETag(Resource.PAGE_TEXTS);
+        return ConditionalResponses.versioned(ifNoneMatch, etag,
+                                              () -> pageTextService.getPageTextsByUserType(page, userType));
     }
 
     /**
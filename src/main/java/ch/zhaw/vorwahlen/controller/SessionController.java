@@ -3,11 +3,17 @@ package ch.zhaw.vorwahlen.controller;
 import ch.zhaw.vorwahlen.mapper.UserMapper;
 import ch.zhaw.vorwahlen.model.UserDTO;
 import ch.zhaw.vorwahlen.security.model.User;
+import ch.zhaw.vorwahlen.service.BootstrapService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -19,6 +25,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class SessionController {
 
     private final UserMapper mapper;
+    private final BootstrapService bootstrapService;
 
     /**
      * Get the user information of the current session.
@@ -29,6 +36,32 @@ public class SessionController {
         return ResponseEntity.ok(mapper.toDto(user));
     }
 
+    /**
+     * Get everything the election page needs on the first load in one response.
+     * A client which accepts gzip gets the response gzipped with the module list compressed only once per version.
+     * @param page the page to load the page texts for.
+     * @param modulesVersion the version of the modules the client has.
+     * @param pageTextsVersion the version of the page texts the client has.
+     * @param acceptEncoding the accepted content encodings of the client.
+     * @return {@link ResponseEntity} containing the JSON described by {@link BootstrapService}.
+     */
+    @GetMapping(path = "bootstrap")
+    public ResponseEntity<byte[]> getBootstrap(@AuthenticationPrincipal User user,
+            @RequestParam("page") String page,
+            @RequestParam(value = "modulesVersion", required = false) String modulesVersion,
+            @RequestParam(value = "pageTextsVersion", required = false) String pageTextsVersion,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        var bootstrap = bootstrapService.getBootstrap(user, page, modulesVersion, pageTextsVersion);
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noStore())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (ConditionalResponses.acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, ConditionalResponses.GZIP).body(bootstrap.toGzip());
+        }
+        return response.body(bootstrap.toBytes());
+    }
+
     /**
      * Says if the user in the current session is an admin.
      * @return {@link ResponseEntity} containing true or false.
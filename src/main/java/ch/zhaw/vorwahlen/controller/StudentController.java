@@ -129,14 +129,13 @@ public class StudentController {
     /**
      * Import dispensation list from Excel.
      * @param file the Excel file.
-     * @return {@link ResponseEntity} containing {@link Void}.
+     * @return {@link ResponseEntity} containing the emails which matched no student.
      */
     @PostMapping(path = "/dispensations", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<Void> saveDispensationListFromExcel(@RequestParam("file") MultipartFile file,
-                                                              @RequestParam("worksheet") String worksheet) {
+    public ResponseEntity<List<String>> saveDispensationListFromExcel(@RequestParam("file") MultipartFile file,
+                                                                      @RequestParam("worksheet") String worksheet) {
         if (file.isEmpty()) return ResponseEntity.badRequest().build();
-        studentService.importDispensationExcel(file, worksheet);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(studentService.importDispensationExcel(file, worksheet));
     }
 
     /**
@@ -0,0 +1,152 @@
+package ch.zhaw.vorwahlen.delta;
+
+import ch.zhaw.vorwahlen.model.ElectionDeltaDTO;
+import ch.zhaw.vorwahlen.model.ElectionTransferDTO;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatusDTO;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatusElementDTO;
+import ch.zhaw.vorwahlen.model.modulestructure.ElectionStructureDTO;
+import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Election last sent to one websocket session, the next update only contains what changed since then.<br/>
+ *
+ * Each update increments the version, an update is based on the version of the previous one. The tracker is stored in
+ * the session attributes when the client resyncs, sessions without tracker get the whole election on every save.
+ */
+public class ElectionDeltaTracker {
+    public static final String SESSION_ATTRIBUTE = "electionDeltaTracker";
+
+    private static final Map<String, Function<ElectionStatusDTO, ElectionStatusElementDTO>> STATUS_SECTIONS =
+            createStatusSections();
+
+    private long version;
+    private ElectionTransferDTO lastSent;
+
+    /**
+     * Returns the tracker stored in the session attributes, a new one is added if missing.
+     * @param sessionAttributes attributes of the websocket session.
+     * @return the {@link ElectionDeltaTracker} of the session.
+     */
+    public static ElectionDeltaTracker of(Map<String, Object> sessionAttributes) {
+        return (ElectionDeltaTracker) sessionAttributes.computeIfAbsent(SESSION_ATTRIBUTE,
+                                                                        key -> new ElectionDeltaTracker());
+    }
+
+    /**
+     * Returns the tracker stored in the session attributes.
+     * @param sessionAttributes attributes of the websocket session, may be null.
+     * @return the {@link ElectionDeltaTracker} or empty if the session did not resync yet.
+     */
+    public static Optional<ElectionDeltaTracker> find(Map<String, Object> sessionAttributes) {
+        if (sessionAttributes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((ElectionDeltaTracker) sessionAttributes.get(SESSION_ATTRIBUTE));
+    }
+
+    /**
+     * Create a full snapshot of the election and pass it to the sender, the following updates are based on it.<br/>
+     *
+     * The sender is called while holding the tracker, so the updates are sent in the order of their versions.
+     * @param current the election.
+     * @param sender sends the update to the session.
+     */
+    public synchronized void publishSnapshot(ElectionTransferDTO current, Consumer<ElectionDeltaDTO> sender) {
+        sender.accept(snapshot(current));
+    }
+
+    /**
+     * Create the changes of the election since the previous update and pass them to the sender.<br/>
+     *
+     * The sender is called while holding the tracker, so the updates are sent in the order of their versions.
+     * @param current the election.
+     * @param sender sends the update to the session.
+     */
+    public synchronized void publish(ElectionTransferDTO current, Consumer<ElectionDeltaDTO> sender) {
+        sender.accept(delta(current));
+    }
+
+    /**
+     * Returns the version of the last update.
+     * @return the version, 0 if nothing was sent yet.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    synchronized ElectionDeltaDTO snapshot(ElectionTransferDTO current) {
+        lastSent = current;
+        version++;
+        return new ElectionDeltaDTO(version, null, current, null, null, Collections.emptyMap(),
+                                    current.electionSaved(), current.electionValid(), current.lastAppliedSequence());
+    }
+
+    synchronized ElectionDeltaDTO delta(ElectionTransferDTO current) {
+        if (lastSent == null) {
+            return snapshot(current);
+        }
+        var previous = lastSent;
+        var baseVersion = version;
+        lastSent = current;
+        version++;
+
+        var previousStructure = structureOf(previous);
+        var currentStructure = structureOf(current);
+        return new ElectionDeltaDTO(version, baseVersion, null,
+                                    diff(previousStructure.electedModules(), currentStructure.electedModules()),
+                                    diff(previousStructure.overflowedModules(), currentStructure.overflowedModules()),
+                                    diff(previous.electionStatusDTO(), current.electionStatusDTO()),
+                                    current.electionSaved(), current.electionValid(), current.lastAppliedSequence());
+    }
+
+    static ElectionDeltaDTO.ElementsDelta diff(List<ModuleStructureElement> previous,
+                                               List<ModuleStructureElement> current) {
+        if (previous.equals(current)) {
+            return null;
+        }
+        var changed = new ArrayList<ElectionDeltaDTO.ChangedElement>();
+        for (var i = 0; i < current.size(); i++) {
+            var element = current.get(i);
+            if (i >= previous.size() || !element.equals(previous.get(i))) {
+                changed.add(new ElectionDeltaDTO.ChangedElement(i, element));
+            }
+        }
+        return new ElectionDeltaDTO.ElementsDelta(current.size(), changed);
+    }
+
+    static Map<String, ElectionStatusElementDTO> diff(ElectionStatusDTO previous, ElectionStatusDTO current) {
+        var changed = new LinkedHashMap<String, ElectionStatusElementDTO>();
+        STATUS_SECTIONS.forEach((name, section) -> {
+            var element = current == null ? null : section.apply(current);
+            var previousElement = previous == null ? null : section.apply(previous);
+            if (!Objects.equals(element, previousElement)) {
+                changed.put(name, element);
+            }
+        });
+        return changed;
+    }
+
+    private static ElectionStructureDTO structureOf(ElectionTransferDTO transferDTO) {
+        var structure = transferDTO.electionStructure();
+        return structure == null ? new ElectionStructureDTO(List.of(), List.of()) : structure;
+    }
+
+    private static Map<String, Function<ElectionStatusDTO, ElectionStatusElementDTO>> createStatusSections() {
+        var sections = new LinkedHashMap<String, Function<ElectionStatusDTO, ElectionStatusElementDTO>>();
+        sections.put("subjectValidation", ElectionStatusDTO::subjectValidation);
+        sections.put("contextValidation", ElectionStatusDTO::contextValidation);
+        sections.put("interdisciplinaryValidation", ElectionStatusDTO::interdisciplinaryValidation);
+        sections.put("additionalValidation", ElectionStatusDTO::additionalValidation);
+        return Collections.unmodifiableMap(sections);
+    }
+}
@@ -2,16 +2,26 @@ package ch.zhaw.vorwahlen.exporter;
 
 import ch.zhaw.vorwahlen.model.core.election.Election;
 
-import java.util.Set;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface which defines a contract for the output format.
  */
 public interface ElectionExporter {
     /**
-     * Exports the election from the provided list as byte array.
-     * @param electionSet list containing all elections.
-     * @return byte array which can either be sent via http or saved in a file.
+     * Exports the elections of the source to the output stream.
+     * @param electionSource provides the elections page by page.
+     * @param outputStream the stream the export is written to, for example the http response.
      */
-    byte[] export(Set<Election> electionSet);
+    void export(ElectionSource electionSource, OutputStream outputStream);
+
+    /**
+     * Provides the elections to be exported page by page, a page is not used anymore once the consumer returns.
+     */
+    @FunctionalInterface
+    interface ElectionSource {
+        void forEachPage(Consumer<List<Election>> pageConsumer);
+    }
 }
@@ -7,43 +7,48 @@ import ch.zhaw.vorwahlen.model.core.module.Module;
 import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
 import ch.zhaw.vorwahlen.model.core.election.Election;
 import lombok.extern.java.Log;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
- * Export all elections in the desired output format provided by @fame.
+ * Export all elections in the desired output format provided by @fame.<br/>
+ *
+ * The sheet is written with {@link SXSSFWorkbook}, only the last rows are kept in memory and the others are flushed
+ * to a temporary file until the workbook is written to the output stream.
  */
 @Log
 public class ExcelElectionExporter implements ElectionExporter {
     private static final String[] HEADER_DATA = {"E-Mail", "Name", "In welcher Klasse sind Sie?",
             "Konsekutive Wahlpflichmodule", "Wahlpflichmodule", "Wahlmodule", "Wahlgültigkeit"};
     private static final String DELIMITER = "; ";
+    private static final int ROW_ACCESS_WINDOW_SIZE = 100;
 
     @Override
-    public byte[] export(Set<Election> electionSet) {
-        try (var workbook = new XSSFWorkbook()) {
+    public void export(ElectionSource electionSource, OutputStream outputStream) {
+        var workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+        workbook.setCompressTempFiles(true);
+        try (workbook) {
             var sheet = workbook.createSheet("Modulvorwahlen");
             writeHeaderToSheet(sheet);
-            writeElectionsToSheet(electionSet, sheet);
-
-            try (var os = new ByteArrayOutputStream()) {
-                workbook.write(os);
-                return os.toByteArray();
-            }
+            var rowCounter = new AtomicInteger(1);
+            electionSource.forEachPage(elections -> writeElectionsToSheet(elections, sheet, rowCounter));
+            workbook.write(outputStream);
         } catch (IOException e) {
             throw new ExportException(ResourceBundleMessageLoader.getMessage(ResourceMessageConstants.ERROR_EXPORT_EXCEPTION), e);
+        } finally {
+            workbook.dispose();
         }
     }
 
-    private void writeHeaderToSheet(XSSFSheet sheet) {
+    private void writeHeaderToSheet(Sheet sheet) {
         var cellIndex = 0;
         var headerRow = sheet.createRow(0);
         for (String data : HEADER_DATA) {
@@ -51,10 +56,9 @@ public class ExcelElectionExporter implements ElectionExporter {
         }
     }
 
-    private void writeElectionsToSheet(Set<Election> electionSet, XSSFSheet sheet) {
-        var rowCounter = 1;
-        for (var election : electionSet) {
-            var row = sheet.createRow(rowCounter++);
+    private void writeElectionsToSheet(List<Election> elections, Sheet sheet, AtomicInteger rowCounter) {
+        for (var election : elections) {
+            var row = sheet.createRow(rowCounter.getAndIncrement());
             var cellCounter = 0;
             var electionData = transformElectionToData(election);
 
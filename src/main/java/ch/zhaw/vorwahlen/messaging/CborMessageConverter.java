@@ -0,0 +1,83 @@
+package ch.zhaw.vorwahlen.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+
+/**
+ * Converts the payload of messages with the content type {@code application/cbor} with Jackson.<br/>
+ *
+ * CBOR is a binary encoding of the same data model as JSON, the dtos are mapped the same way as with the JSON
+ * converter. Only messages that declare the content type are converted, JSON stays the default. Messages without
+ * content type sent to a single session that negotiated CBOR are written as CBOR directly, the
+ * {@link MessageEncodingNegotiation} sends them as binary frames.
+ */
+public class CborMessageConverter extends AbstractMessageConverter {
+    public static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.cbor().build();
+    private final MessageEncodingNegotiation negotiation;
+
+    /**
+     * Create instance that only converts messages with the content type.
+     */
+    public CborMessageConverter() {
+        this(null);
+    }
+
+    /**
+     * Create instance.
+     * @param negotiation the encodings of the sessions or null.
+     */
+    public CborMessageConverter(MessageEncodingNegotiation negotiation) {
+        super(APPLICATION_CBOR);
+        setStrictContentTypeMatch(true);
+        this.negotiation = negotiation;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    protected boolean canConvertTo(Object payload, MessageHeaders headers) {
+        if (negotiation != null && headers != null && headers.get(MessageHeaders.CONTENT_TYPE) == null
+                && negotiation.isCborSession(SimpMessageHeaderAccessor.getSessionId(headers))) {
+            return true;
+        }
+        return super.canConvertTo(payload, headers);
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        var type = conversionHint instanceof MethodParameter parameter
+                ? objectMapper.constructType(parameter.getGenericParameterType())
+                : objectMapper.constructType(targetClass);
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            throw new MessageConversionException(message, "CBOR payload has to be binary");
+        }
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (IOException e) {
+            throw new MessageConversionException(message, "Could not read CBOR: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new MessageConversionException("Could not write CBOR: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ch.zhaw.vorwahlen.messaging;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Negotiates the encoding of the messages sent to a websocket session, JSON or CBOR.<br/>
+ *
+ * A client opts in with the header {@value #ENCODING_HEADER}{@code :cbor} in the CONNECT frame. CBOR needs binary
+ * frames, which SockJS does not support, so only sessions connected to a plain websocket endpoint are switched.
+ * Messages sent to one session, with its session id in the headers, are written as CBOR by the
+ * {@link CborMessageConverter}. Messages sent to all sessions of a user carry no session id and are written as JSON,
+ * also to CBOR sessions, so senders address CBOR sessions one by one. Clients may send their messages as CBOR in
+ * binary frames with the content type {@code application/cbor}.<br/>
+ *
+ * The STOMP handler sends a message in a binary frame only if its content type is {@code application/octet-stream},
+ * every other body is sent as text and a CBOR body would be broken by its UTF-8 decoding. CBOR messages therefore
+ * leave with the content type {@code application/octet-stream} and the header {@value #ENCODING_HEADER}{@code :cbor}.
+ */
+public class MessageEncodingNegotiation {
+    public static final String ENCODING_HEADER = "election-encoding";
+    public static final String CBOR_ENCODING = "cbor";
+    public static final String BINARY_FRAMES_ATTRIBUTE = "binaryFrames";
+
+    private final Set<String> cborSessions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns the interceptor for the handshake of the plain websocket endpoint, which marks its sessions as able to
+     * receive binary frames.
+     * @return {@link HandshakeInterceptor}
+     */
+    public HandshakeInterceptor binaryFramesHandshakeInterceptor() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                           WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                attributes.put(BINARY_FRAMES_ATTRIBUTE, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Exception exception) {
+                // nothing to do after the handshake
+            }
+        };
+    }
+
+    /**
+     * Returns the interceptor for the messages from the clients, which reads the encoding of CONNECT frames.
+     * @return {@link ChannelInterceptor}
+     */
+    public ChannelInterceptor inboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                negotiate(message);
+                return message;
+            }
+        };
+    }
+
+    /**
+     * Returns the interceptor for the messages to the clients, which marks CBOR messages to be sent as binary frames.
+     * @return {@link ChannelInterceptor}
+     */
+    public ChannelInterceptor outboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                return toBinaryFrame(message);
+            }
+        };
+    }
+
+    /**
+     * Checks if messages to the session are sent as CBOR.
+     * @param sessionId id of the websocket session.
+     * @return true if the session negotiated CBOR.
+     */
+    public boolean isCborSession(String sessionId) {
+        return sessionId != null && cborSessions.contains(sessionId);
+    }
+
+    void negotiate(Message<?> message) {
+        var accessor = StompHeaderAccessor.wrap(message);
+        var sessionId = accessor.getSessionId();
+        if (sessionId == null) {
+            return;
+        }
+        if (accessor.getCommand() == StompCommand.CONNECT || accessor.getCommand() == StompCommand.STOMP) {
+            var sessionAttributes = accessor.getSessionAttributes();
+            var binaryFrames = sessionAttributes != null
+                    && Boolean.TRUE.equals(sessionAttributes.get(BINARY_FRAMES_ATTRIBUTE));
+            if (binaryFrames && CBOR_ENCODING.equalsIgnoreCase(accessor.getFirstNativeHeader(ENCODING_HEADER))) {
+                cborSessions.add(sessionId);
+            }
+        } else if (accessor.getMessageType() == SimpMessageType.DISCONNECT) {
+            cborSessions.remove(sessionId);
+        }
+    }
+
+    Message<?> toBinaryFrame(Message<?> message) {
+        var headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE
+                || !isCborSession(SimpMessageHeaderAccessor.getSessionId(headers))
+                || !isCbor(headers)) {
+            return message;
+        }
+        var accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setNativeHeader(ENCODING_HEADER, CBOR_ENCODING);
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+
+    private static boolean isCbor(MessageHeaders headers) {
+        var contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        var mimeType = contentType instanceof String value ? MimeTypeUtils.parseMimeType(value) : (MimeType) contentType;
+        return mimeType != null && CborMessageConverter.APPLICATION_CBOR.isCompatibleWith(mimeType);
+    }
+}
@@ -0,0 +1,10 @@
+package ch.zhaw.vorwahlen.model;
+
+import java.util.List;
+
+/**
+ * Dto for a batch of election changes, which are applied in their order.
+ * @param replaceSelection if all elected modules are removed before the changes are applied.
+ * @param changes the changes.
+ */
+public record ElectionBatchDTO(boolean replaceSelection, List<ElectionChangeDTO> changes) {}
@@ -0,0 +1,14 @@
+package ch.zhaw.vorwahlen.model;
+
+/**
+ * Dto for one change of a batch of election changes.
+ * @param moduleNo the module number.
+ * @param action if the module is added to or removed from the election.
+ */
+public record ElectionChangeDTO(String moduleNo, Action action) {
+
+    /**
+     * Change of a module in the election.
+     */
+    public enum Action { ADD, REMOVE }
+}
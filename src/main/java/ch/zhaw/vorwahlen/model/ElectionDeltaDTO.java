@@ -0,0 +1,49 @@
+package ch.zhaw.vorwahlen.model;
+
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatusElementDTO;
+import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureElement;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dto with the changes of the election since the previous update sent to the websocket session.<br/>
+ *
+ * A full snapshot has no base version and contains the whole {@link ElectionTransferDTO}. Otherwise only the changed
+ * structure elements and status sections are included, the client applies the update if its version equals the base
+ * version and has to resync if not.
+ * @param version the version of the election after this update.
+ * @param baseVersion the version the changes are based on or null for a full snapshot.
+ * @param snapshot the whole election for a full snapshot or null.
+ * @param electedModules changes of the elected modules or null if unchanged.
+ * @param overflowedModules changes of the overflowed modules or null if unchanged.
+ * @param electionStatus changed status sections by the name of the section in the election status.
+ * @param electionSaved if the save action succeeded.
+ * @param electionValid if the election is valid.
+ * @param lastAppliedSequence sequence number of the last applied save of the session or null.
+ */
+public record ElectionDeltaDTO(long version,
+                               @JsonInclude(JsonInclude.Include.NON_NULL) Long baseVersion,
+                               @JsonInclude(JsonInclude.Include.NON_NULL) ElectionTransferDTO snapshot,
+                               @JsonInclude(JsonInclude.Include.NON_NULL) ElementsDelta electedModules,
+                               @JsonInclude(JsonInclude.Include.NON_NULL) ElementsDelta overflowedModules,
+                               @JsonInclude(JsonInclude.Include.NON_EMPTY) Map<String, ElectionStatusElementDTO> electionStatus,
+                               boolean electionSaved,
+                               boolean electionValid,
+                               @JsonInclude(JsonInclude.Include.NON_NULL) Long lastAppliedSequence) {
+
+    /**
+     * Changes of a list of structure elements.
+     * @param size the new size of the list, elements after it are removed.
+     * @param changed the elements that are new or differ from the previous update.
+     */
+    public record ElementsDelta(int size, List<ChangedElement> changed) {}
+
+    /**
+     * Structure element at a position of the list.
+     * @param index the position in the list.
+     * @param element the element.
+     */
+    public record ChangedElement(int index, ModuleStructureElement element) {}
+}
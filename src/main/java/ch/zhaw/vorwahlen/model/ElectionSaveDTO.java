@@ -0,0 +1,9 @@
+package ch.zhaw.vorwahlen.model;
+
+/**
+ * Dto for a save of one module with a sequence number of the client.
+ * @param sequence ascending number of the save within the websocket session, starting with 1.
+ * @param moduleNo the module number.
+ * @param action if the module is added to or removed from the election.
+ */
+public record ElectionSaveDTO(long sequence, String moduleNo, ElectionChangeDTO.Action action) {}
@@ -5,9 +5,21 @@ import ch.zhaw.vorwahlen.model.modulestructure.ElectionStructureDTO;
 
 /**
  * Dto wrapper for {@link ElectionStructureDTO}, {@link ElectionStatusDTO},
- * if the save action succeeded and if the election is valid.
+ * if the save action succeeded, if the election is valid
+ * and the sequence number of the last applied save of the session, null for saves without sequence number.
  */
 public record ElectionTransferDTO(ElectionStructureDTO electionStructure,
                                   ElectionStatusDTO electionStatusDTO,
                                   boolean electionSaved,
-                                  boolean electionValid) {}
+                                  boolean electionValid,
+                                  Long lastAppliedSequence) {
+
+    /**
+     * Returns a copy with the sequence number of the last applied save.
+     * @param sequence the sequence number.
+     * @return {@link ElectionTransferDTO}
+     */
+    public ElectionTransferDTO withLastAppliedSequence(long sequence) {
+        return new ElectionTransferDTO(electionStructure, electionStatusDTO, electionSaved, electionValid, sequence);
+    }
+}
@@ -6,6 +6,9 @@ import ch.zhaw.vorwahlen.model.core.module.Module;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.util.Objects;
@@ -21,7 +24,13 @@ import java.util.Set;
 public class Election {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "module_election_seq")
+    @GenericGenerator(name = "module_election_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "module_election_seq"),
+                    @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+                    @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+            })
     private Long id;
 
     @OneToOne
@@ -34,6 +43,10 @@ public class Election {
     @Column(columnDefinition = "tinyint(1) default 0")
     private boolean isElectionValid;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private long version;
+
     @ManyToMany
     @JoinTable(name  = "elected_modules",
             joinColumns = @JoinColumn(name = "election_id", referencedColumnName = "id"),
@@ -50,7 +50,7 @@ public class Student {
     @Column(columnDefinition = "tinyint(1) default 1")
     private boolean canElect;
 
-    @OneToOne(cascade = CascadeType.MERGE, orphanRemoval = true)
+    @OneToOne(cascade = {CascadeType.MERGE, CascadeType.PERSIST}, orphanRemoval = true)
     @JoinColumn(name = "election_id")
     private Election election;
 
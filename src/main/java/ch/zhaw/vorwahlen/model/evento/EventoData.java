@@ -1,10 +1,12 @@
 package ch.zhaw.vorwahlen.model.evento;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import java.util.Objects;
@@ -23,22 +25,90 @@ public class EventoData {
     @Column(columnDefinition = "text")
     private String shortDescription;
     private String coordinator;
-    @Column(columnDefinition = "blob")
-    private String learningObjectives;
+
+    /**
+     * All fields as one gzipped JSON document.
+     * The short description and the coordinator are kept as columns too, so the summary is read without the document.
+     */
+    @Convert(converter = EventoDataDocumentConverter.class)
     @Column(columnDefinition = "mediumblob")
-    private String moduleContents;
-    @Column(columnDefinition = "blob")
-    private String literature;
-    @Column(columnDefinition = "blob")
-    private String suppLiterature;
-    @Column(columnDefinition = "blob")
-    private String prerequisites;
-    @Column(columnDefinition = "blob")
-    private String moduleStructure;
-    @Column(columnDefinition = "blob")
-    private String exams;
-    @Column(columnDefinition = "blob")
-    private String remarks;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private EventoDataDTO document = new EventoDataDTO();
+
+    public void setShortDescription(String shortDescription) {
+        this.shortDescription = shortDescription;
+        document.setShortDescription(shortDescription);
+    }
+
+    public void setCoordinator(String coordinator) {
+        this.coordinator = coordinator;
+        document.setCoordinator(coordinator);
+    }
+
+    public String getLearningObjectives() {
+        return document.getLearningObjectives();
+    }
+
+    public void setLearningObjectives(String learningObjectives) {
+        document.setLearningObjectives(learningObjectives);
+    }
+
+    public String getModuleContents() {
+        return document.getModuleContents();
+    }
+
+    public void setModuleContents(String moduleContents) {
+        document.setModuleContents(moduleContents);
+    }
+
+    public String getLiterature() {
+        return document.getLiterature();
+    }
+
+    public void setLiterature(String literature) {
+        document.setLiterature(literature);
+    }
+
+    public String getSuppLiterature() {
+        return document.getSuppLiterature();
+    }
+
+    public void setSuppLiterature(String suppLiterature) {
+        document.setSuppLiterature(suppLiterature);
+    }
+
+    public String getPrerequisites() {
+        return document.getPrerequisites();
+    }
+
+    public void setPrerequisites(String prerequisites) {
+        document.setPrerequisites(prerequisites);
+    }
+
+    public String getModuleStructure() {
+        return document.getModuleStructure();
+    }
+
+    public void setModuleStructure(String moduleStructure) {
+        document.setModuleStructure(moduleStructure);
+    }
+
+    public String getExams() {
+        return document.getExams();
+    }
+
+    public void setExams(String exams) {
+        document.setExams(exams);
+    }
+
+    public String getRemarks() {
+        return document.getRemarks();
+    }
+
+    public void setRemarks(String remarks) {
+        document.setRemarks(remarks);
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,61 @@
+package ch.zhaw.vorwahlen.model.evento;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores the {@link EventoDataDTO} of a module as gzipped JSON.<br/>
+ *
+ * The stored bytes are the same JSON as the response of the evento data endpoint, so they can be sent with
+ * {@code Content-Encoding: gzip} as they are. The converter does not depend on a Spring bean, it writes with an
+ * {@link ObjectMapper} with the same defaults as the one of the endpoints.
+ */
+@Converter
+public class EventoDataDocumentConverter implements AttributeConverter<EventoDataDTO, byte[]> {
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    @Override
+    public byte[] convertToDatabaseColumn(EventoDataDTO document) {
+        if (document == null) return null;
+        try {
+            var compressed = new ByteArrayOutputStream();
+            try (var gzip = new GZIPOutputStream(compressed)) {
+                OBJECT_MAPPER.writeValue(gzip, document);
+            }
+            return compressed.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public EventoDataDTO convertToEntityAttribute(byte[] column) {
+        if (column == null) return null;
+        try {
+            return OBJECT_MAPPER.readValue(decompress(column), EventoDataDTO.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decompress a stored document.
+     * @param document the gzipped JSON.
+     * @return the JSON.
+     * @throws IOException if the document is not gzipped.
+     */
+    public static byte[] decompress(byte[] document) throws IOException {
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(document))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
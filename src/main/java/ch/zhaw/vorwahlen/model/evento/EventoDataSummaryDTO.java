@@ -0,0 +1,18 @@
+package ch.zhaw.vorwahlen.model.evento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dto for the summary of the {@link EventoData}, without the large text fields.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class EventoDataSummaryDTO {
+    private String shortDescription;
+    private String coordinator;
+}
@@ -0,0 +1,42 @@
+package ch.zhaw.vorwahlen.model.evento;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.util.Objects;
+
+/**
+ * Model / Entity class for the state of the evento page of a module at the last scrape.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoPageFingerprint {
+
+    @Id
+    private String moduleNo;
+    private String contentHash;
+    private String etag;
+    private String lastModified;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EventoPageFingerprint that)) return false;
+        return Objects.equals(getModuleNo(), that.getModuleNo())
+                && Objects.equals(getContentHash(), that.getContentHash())
+                && Objects.equals(getEtag(), that.getEtag())
+                && Objects.equals(getLastModified(), that.getLastModified());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getModuleNo(), getContentHash(), getEtag(), getLastModified());
+    }
+
+}
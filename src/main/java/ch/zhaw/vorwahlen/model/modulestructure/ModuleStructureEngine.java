@@ -0,0 +1,287 @@
+package ch.zhaw.vorwahlen.model.modulestructure;
+
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the structure to be displayed in the frontend, with the same result as the
+ * {@link ModuleStructureGenerator}.<br/>
+ *
+ * The module definitions of the three student profiles are prepared once, together with their placeholder elements.
+ * A structure is generated by counting the elected modules per category and semester into arrays. The missing
+ * placeholders, the overflowed modules and the dispensed elements are calculated from these counts, then the
+ * structure is emitted in one pass over the elected modules and placeholders.<br/>
+ *
+ * The placeholder elements are shared between all structures.
+ */
+public class ModuleStructureEngine {
+    private static final ModuleCategory[] CATEGORIES = ModuleCategory.values();
+    private static final int SUBJECT = ModuleCategory.SUBJECT_MODULE.ordinal();
+    private static final int PROJECT = ModuleCategory.PROJECT_MODULE.ordinal();
+    private static final int SECOND_ELECTION_SEMESTER_OFFSET = 2;
+    private static final String NOT_AVAILABLE_MODULE_NO = "N/A";
+
+    private final Template fullTime;
+    private final Template partTimeFirstElection;
+    private final Template partTimeSecondElection;
+
+    /**
+     * Create instance.
+     * @param fullTimeDefinition the module definition for fulltime students.
+     * @param partTimeDefinition the module definition for parttime students.
+     * @param electionSemesters the semesters of the election per student profile.
+     */
+    public ModuleStructureEngine(ModuleDefinition fullTimeDefinition, ModuleDefinition partTimeDefinition,
+                                 ElectionSemesters electionSemesters) {
+        fullTime = Template.of(fullTimeDefinition, null);
+        partTimeFirstElection = Template.of(partTimeDefinition,
+                                            Set.copyOf(electionSemesters.getPartTimeSemestersFirstElection()));
+        partTimeSecondElection = Template.of(partTimeDefinition,
+                                             Set.copyOf(electionSemesters.getPartTimeSemestersSecondElection()));
+    }
+
+    /**
+     * Definition of one category for a student profile.
+     * @param semesters the semesters in the order of the definition.
+     * @param counts the number of modules per semester.
+     * @param placeholders the placeholder per semester.
+     * @param total the number of modules in the semesters of the election.
+     * @param overflowLimit the number of modules before the next one overflows.
+     */
+    private record CategoryTemplate(int[] semesters, int[] counts, ModuleStructureElement[] placeholders,
+                                    int total, int overflowLimit) {}
+
+    /**
+     * Prepared module definition of a student profile.
+     * @param categories the definitions by category ordinal.
+     * @param semesterBound upper bound of the defined semesters.
+     */
+    private record Template(CategoryTemplate[] categories, int semesterBound) {
+        /**
+         * Prepare the module definition.
+         * @param moduleDefinition the module definition.
+         * @param electionSemesters the semesters of the election or null to keep all semesters of the definition.
+         * @return Template
+         */
+        static Template of(ModuleDefinition moduleDefinition, Set<Integer> electionSemesters) {
+            var categories = new CategoryTemplate[CATEGORIES.length];
+            var semesterBound = 0;
+            for (var category : CATEGORIES) {
+                var definition = moduleDefinition.getDefinitionByCategory(category);
+                if (definition == null) definition = Map.of();
+                // same map as ModuleStructureGenerator#cleanModuleDefinitions, it has the same iteration order
+                var cleaned = electionSemesters == null
+                        ? definition
+                        : definition.entrySet().stream()
+                                .filter(entry -> electionSemesters.contains(entry.getKey()))
+                                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+                var semesters = new int[cleaned.size()];
+                var counts = new int[cleaned.size()];
+                var placeholders = new ModuleStructureElement[cleaned.size()];
+                var i = 0;
+                for (var entry : cleaned.entrySet()) {
+                    semesters[i] = entry.getKey();
+                    counts[i] = entry.getValue();
+                    placeholders[i] = createPlaceholder(category, entry.getKey());
+                    i++;
+                }
+                for (var semester : definition.keySet()) {
+                    semesterBound = Math.max(semesterBound, semester + 1);
+                }
+
+                var total = sum(cleaned);
+                var overflowLimit = ModuleCategory.CONTEXT_MODULE.equals(category) ? sum(definition) : total;
+                categories[category.ordinal()] = new CategoryTemplate(semesters, counts, placeholders, total,
+                                                                      overflowLimit);
+            }
+            return new Template(categories, semesterBound);
+        }
+
+        private static int sum(Map<Integer, Integer> definition) {
+            var sum = 0;
+            for (var count : definition.values()) {
+                sum += count;
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Generate the election structure.
+     * @param student the student of the election.
+     * @param election the election.
+     * @return ElectionStructureDTO
+     */
+    public ElectionStructureDTO generateStructure(Student student, Election election) {
+        var template = getTemplate(student);
+        var categories = template.categories();
+        var semesterBound = template.semesterBound();
+        var semesterOffset = student.isTZ() && student.isSecondElection() ? SECOND_ELECTION_SEMESTER_OFFSET : 0;
+
+        // the elected modules in the order of the generator, then counted per category and semester
+        var modules = new ArrayList<>(Set.copyOf(election.getElectedModules()));
+        modules.sort(Comparator.comparingInt(module -> module.getSemester().getSemester()));
+
+        var elements = new ArrayList<ModuleStructureElement>(modules.size() + 2 * CATEGORIES.length);
+        var electedCount = new int[CATEGORIES.length];
+        var electedCountBySemester = new int[CATEGORIES.length * semesterBound];
+        for (var module : modules) {
+            var element = toElement(module, semesterOffset);
+            var category = element.category().ordinal();
+            electedCount[category]++;
+            if (element.semester() < semesterBound) {
+                electedCountBySemester[category * semesterBound + element.semester()]++;
+            }
+            elements.add(element);
+        }
+
+        var placeholderCount = new int[CATEGORIES.length];
+        for (var category = 0; category < CATEGORIES.length; category++) {
+            placeholderCount[category] = addMissingPlaceholders(categories[category], electedCount[category],
+                                                                electedCountBySemester, category * semesterBound,
+                                                                elements);
+        }
+
+        // the first elements of a category overflow, the elected modules come before the placeholders
+        var overflowCount = new int[CATEGORIES.length];
+        var overflowOffset = new int[CATEGORIES.length];
+        var totalOverflowCount = 0;
+        for (var category = 0; category < CATEGORIES.length; category++) {
+            var count = electedCount[category] + placeholderCount[category] - categories[category].overflowLimit();
+            overflowCount[category] = Math.max(0, count);
+            overflowOffset[category] = totalOverflowCount;
+            totalOverflowCount += overflowCount[category];
+        }
+
+        // the dispensations replace the first remaining placeholders, then the first remaining elected modules
+        var dispensedPlaceholders = new int[CATEGORIES.length];
+        var dispensedModules = new int[CATEGORIES.length];
+        if (!student.isTZ() || student.isSecondElection()) {
+            countDispensed(SUBJECT, student.getWpmDispensation(), ModuleCategory.DISPENSED_WPM_MODULE,
+                           electedCount, placeholderCount, overflowCount, dispensedPlaceholders, dispensedModules);
+            countDispensed(PROJECT, student.getPaDispensation(), ModuleCategory.DISPENSED_PA_MODULE,
+                           electedCount, placeholderCount, overflowCount, dispensedPlaceholders, dispensedModules);
+        }
+
+        var electedModules = new ArrayList<ModuleStructureElement>(elements.size());
+        var overflowedModules = new ModuleStructureElement[totalOverflowCount + dispensedModules[SUBJECT]];
+        var dispensedOverflowIndex = totalOverflowCount;
+        for (var element : elements) {
+            var category = element.category().ordinal();
+            if (overflowCount[category] > 0) {
+                overflowCount[category]--;
+                overflowedModules[overflowOffset[category]++] = element;
+            } else if (element.isPlaceholder() && dispensedPlaceholders[category] > 0) {
+                dispensedPlaceholders[category]--;
+                electedModules.add(createDispensedPlaceholder(category, element.semester()));
+            } else if (!element.isPlaceholder() && dispensedModules[category] > 0) {
+                dispensedModules[category]--;
+                electedModules.add(createDispensedPlaceholder(category, element.semester()));
+                if (category == SUBJECT) {
+                    overflowedModules[dispensedOverflowIndex++] = element;
+                }
+            } else {
+                electedModules.add(element);
+            }
+        }
+        return new ElectionStructureDTO(electedModules, Arrays.asList(overflowedModules));
+    }
+
+    private Template getTemplate(Student student) {
+        if (!student.isTZ()) return fullTime;
+        return student.isSecondElection() ? partTimeSecondElection : partTimeFirstElection;
+    }
+
+    /**
+     * Add the placeholders for the missing modules of a category, like the generator does.
+     * @return the number of added placeholders.
+     */
+    private static int addMissingPlaceholders(CategoryTemplate template, int electedCount,
+                                              int[] electedCountBySemester, int semesterIndexOffset,
+                                              ArrayList<ModuleStructureElement> elements) {
+        var total = template.total();
+        if (electedCount >= total) return 0;
+
+        var semesters = template.semesters();
+        var counts = template.counts();
+        var added = 0;
+        if (semesters.length == 1) {
+            elements.add(template.placeholders()[0]);
+            added++;
+        }
+        for (var i = 1; i < semesters.length; i++) {
+            var electedCount1 = electedCountBySemester[semesterIndexOffset + semesters[i - 1]];
+            var electedCount2 = electedCountBySemester[semesterIndexOffset + semesters[i]];
+            var balance = electedCount1 + electedCount2;
+
+            if (electedCount1 < counts[i - 1] && electedCount2 < counts[i]) {
+                added += addPlaceholders(template.placeholders()[i - 1], counts[i - 1] - electedCount1, elements);
+                added += addPlaceholders(template.placeholders()[i], counts[i] - electedCount2, elements);
+            } else if (electedCount1 < counts[i - 1]) {
+                added += addPlaceholders(template.placeholders()[i - 1], total - balance, elements);
+            } else if (electedCount2 < counts[i]) {
+                added += addPlaceholders(template.placeholders()[i], total - balance, elements);
+            }
+        }
+        return added;
+    }
+
+    private static int addPlaceholders(ModuleStructureElement placeholder, int count,
+                                       ArrayList<ModuleStructureElement> elements) {
+        for (var i = 0; i < count; i++) {
+            elements.add(placeholder);
+        }
+        return Math.max(0, count);
+    }
+
+    private static void countDispensed(int category, int dispensedCredits, ModuleCategory replacementCategory,
+                                       int[] electedCount, int[] placeholderCount, int[] overflowCount,
+                                       int[] dispensedPlaceholders, int[] dispensedModules) {
+        if (dispensedCredits <= 0) return;
+        var replacementCredits = replacementCategory.getCredits();
+        var replacements = (dispensedCredits + replacementCredits - 1) / replacementCredits;
+
+        var overflowedModules = Math.min(overflowCount[category], electedCount[category]);
+        var remainingModules = electedCount[category] - overflowedModules;
+        var remainingPlaceholders = placeholderCount[category] - (overflowCount[category] - overflowedModules);
+
+        dispensedPlaceholders[category] = Math.min(replacements, remainingPlaceholders);
+        dispensedModules[category] = Math.min(replacements - dispensedPlaceholders[category], remainingModules);
+    }
+
+    private static ModuleStructureElement toElement(Module module, int semesterOffset) {
+        var moduleCategory = ModuleCategory.parse(module.getModuleNo(), module.getModuleGroup());
+        return new ModuleStructureElement(module.getModuleTitle(),
+                                          module.getModuleNo(),
+                                          false,
+                                          module.getSemester().getSemester() + semesterOffset,
+                                          moduleCategory,
+                                          moduleCategory.getCredits());
+    }
+
+    private static ModuleStructureElement createDispensedPlaceholder(int category, int semester) {
+        var replacementCategory = category == SUBJECT
+                ? ModuleCategory.DISPENSED_WPM_MODULE
+                : ModuleCategory.DISPENSED_PA_MODULE;
+        return createPlaceholder(replacementCategory, semester);
+    }
+
+    private static ModuleStructureElement createPlaceholder(ModuleCategory category, int semester) {
+        return new ModuleStructureElement(category.getDescription(),
+                                          NOT_AVAILABLE_MODULE_NO,
+                                          true,
+                                          semester,
+                                          category,
+                                          category.getCredits());
+    }
+}
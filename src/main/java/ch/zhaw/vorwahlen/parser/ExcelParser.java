@@ -3,13 +3,25 @@ package ch.zhaw.vorwahlen.parser;
 import ch.zhaw.vorwahlen.parser.lookup.LookupTable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.java.Log;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Abstract excel parser for type {@code <T>}.<br/>
@@ -19,12 +31,16 @@ import java.util.List;
  * This lookup table is an Enum which has to contain the header string and the cell number (default: -1).<br/>
  * With this string the parser can scan the Excel sheet and set the cell number (which column the header was found).<br/>
  *
+ * Large sheets can be parsed with {@link #parseFromXLSX(int, Consumer)}, which streams the rows instead of loading the
+ * whole workbook.<br/>
+ *
  * @param <T> type to be parsed from the provided Excel sheet.
  * @param <S> lookup table from type enum.
  */
 @RequiredArgsConstructor
 @Log
 public abstract class ExcelParser<T, S extends LookupTable<?>> {
+    public static final int DEFAULT_CHUNK_SIZE = 200;
 
     private final InputStream fileInputStream;
     private final String workSheet;
@@ -58,6 +74,82 @@ public abstract class ExcelParser<T, S extends LookupTable<?>> {
         return moduleList;
     }
 
+    /**
+     * Parse the provided Excel sheet row by row.<br/>
+     * The sheet is read with SAX, so only the current row and one chunk of {@code <T>} are held in memory.
+     * @param chunkSize maximum number of objects passed to the consumer at once.
+     * @param chunkConsumer gets the parsed objects in chunks, for example to persist them.
+     * @throws IOException if file not found, file not an Excel sheet or the worksheet does not exist.
+     */
+    public void parseFromXLSX(int chunkSize, Consumer<List<T>> chunkConsumer) throws IOException {
+        var tempFile = Files.createTempFile("excel-import", ".xlsx");
+        try {
+            try (var fis = fileInputStream) {
+                Files.copy(fis, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (var opcPackage = OPCPackage.open(tempFile.toFile(), PackageAccess.READ);
+                 var scratchWorkbook = new XSSFWorkbook()) {
+                var reader = new XSSFReader(opcPackage);
+                var sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+                var sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                while (sheets.hasNext()) {
+                    try (var sheet = sheets.next()) {
+                        if (workSheet.equals(sheets.getSheetName())) {
+                            var rowCollector = new RowCollector(chunkSize, chunkConsumer);
+                            var xmlReader = XMLHelper.newXMLReader();
+                            xmlReader.setContentHandler(new SheetRowHandler(sharedStrings,
+                                                                            scratchWorkbook.createSheet(),
+                                                                            rowCollector));
+                            xmlReader.parse(new InputSource(sheet));
+                            rowCollector.flush();
+                            return;
+                        }
+                    }
+                }
+            }
+            throw new IOException(String.format("worksheet %s not found", workSheet));
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException(e);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private class RowCollector implements Consumer<Row> {
+        private final int chunkSize;
+        private final Consumer<List<T>> chunkConsumer;
+        private List<T> chunk = new ArrayList<>();
+        private boolean headerRow = true;
+
+        private RowCollector(int chunkSize, Consumer<List<T>> chunkConsumer) {
+            this.chunkSize = chunkSize;
+            this.chunkConsumer = chunkConsumer;
+        }
+
+        @Override
+        public void accept(Row row) {
+            if (headerRow) {
+                setCellNumbersInLookupTableFromHeaderRow(row);
+                headerRow = false;
+                return;
+            }
+            var object = createObjectFromRow(row);
+            if (object != null) {
+                chunk.add(object);
+                if (chunk.size() >= chunkSize) {
+                    flush();
+                }
+            }
+        }
+
+        private void flush() {
+            if (!chunk.isEmpty()) {
+                chunkConsumer.accept(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+    }
+
     private void setCellNumbersInLookupTableFromHeaderRow(Row row) {
         for (var cell : row) {
             try {
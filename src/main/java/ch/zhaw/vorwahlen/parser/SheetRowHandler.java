@@ -0,0 +1,110 @@
+package ch.zhaw.vorwahlen.parser;
+
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.function.Consumer;
+
+/**
+ * SAX handler for the sheet XML of a xlsx file.<br/>
+ *
+ * Every row of the sheet is copied into a single row of a scratch sheet, which is replaced by the next row.
+ * The cells keep their type (string, numeric, boolean, error or blank), so a parser sees the same values as with the
+ * row of a loaded workbook. Formula cells contain their cached result.
+ */
+class SheetRowHandler extends DefaultHandler {
+    private static final String ELEMENT_ROW = "row";
+    private static final String ELEMENT_CELL = "c";
+    private static final String ELEMENT_VALUE = "v";
+    private static final String ELEMENT_INLINE_TEXT = "t";
+    private static final String ATTRIBUTE_REFERENCE = "r";
+    private static final String ATTRIBUTE_TYPE = "t";
+
+    private final SharedStrings sharedStrings;
+    private final XSSFSheet scratchSheet;
+    private final Consumer<Row> rowConsumer;
+
+    private final StringBuilder value = new StringBuilder();
+    private XSSFRow row;
+    private int nextRowNum;
+    private int nextColumnIndex;
+    private String cellReference;
+    private String cellType;
+    private boolean inValue;
+
+    /**
+     * Create instance.
+     * @param sharedStrings the shared strings of the workbook.
+     * @param scratchSheet empty sheet which holds the current row.
+     * @param rowConsumer gets every row of the sheet, the row is only valid during the call.
+     */
+    SheetRowHandler(SharedStrings sharedStrings, XSSFSheet scratchSheet, Consumer<Row> rowConsumer) {
+        this.sharedStrings = sharedStrings;
+        this.scratchSheet = scratchSheet;
+        this.rowConsumer = rowConsumer;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        switch (localName) {
+            case ELEMENT_ROW -> {
+                var reference = attributes.getValue(ATTRIBUTE_REFERENCE);
+                var rowNum = reference == null ? nextRowNum : Integer.parseInt(reference) - 1;
+                if (row != null) {
+                    scratchSheet.removeRow(row);
+                }
+                row = scratchSheet.createRow(rowNum);
+                nextRowNum = rowNum + 1;
+                nextColumnIndex = 0;
+            }
+            case ELEMENT_CELL -> {
+                cellReference = attributes.getValue(ATTRIBUTE_REFERENCE);
+                cellType = attributes.getValue(ATTRIBUTE_TYPE);
+                value.setLength(0);
+            }
+            case ELEMENT_VALUE, ELEMENT_INLINE_TEXT -> inValue = true;
+            default -> { }
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (inValue) {
+            value.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        switch (localName) {
+            case ELEMENT_VALUE, ELEMENT_INLINE_TEXT -> inValue = false;
+            case ELEMENT_CELL -> addCell();
+            case ELEMENT_ROW -> rowConsumer.accept(row);
+            default -> { }
+        }
+    }
+
+    private void addCell() {
+        var columnIndex = cellReference == null ? nextColumnIndex : new CellReference(cellReference).getCol();
+        nextColumnIndex = columnIndex + 1;
+        var cell = row.createCell(columnIndex);
+        var data = value.toString();
+        if (data.isEmpty() && !"inlineStr".equals(cellType) && !"str".equals(cellType)) {
+            return;
+        }
+
+        switch (cellType == null ? "n" : cellType) {
+            case "s" -> cell.setCellValue(sharedStrings.getItemAt(Integer.parseInt(data)).getString());
+            case "inlineStr", "str" -> cell.setCellValue(data);
+            case "b" -> cell.setCellValue("1".equals(data));
+            case "e" -> cell.setCellErrorValue(FormulaError.forString(data));
+            default -> cell.setCellValue(Double.parseDouble(data));
+        }
+    }
+}
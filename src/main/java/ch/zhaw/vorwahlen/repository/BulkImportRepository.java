@@ -0,0 +1,17 @@
+package ch.zhaw.vorwahlen.repository;
+
+import java.util.Collection;
+
+/**
+ * Repository fragment to write the entities of an import.
+ * @param <T> type of the entities.
+ */
+public interface BulkImportRepository<T> {
+
+    /**
+     * Insert or update the entities in JDBC batches, new entities are persisted and existing ones merged.
+     * The persistence context is flushed and cleared after every batch, the given entities are detached afterwards.
+     * @param entities the entities to be written.
+     */
+    void importAll(Collection<T> entities);
+}
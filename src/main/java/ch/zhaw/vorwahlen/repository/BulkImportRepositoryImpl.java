@@ -0,0 +1,83 @@
+package ch.zhaw.vorwahlen.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of the {@link BulkImportRepository}.<br/>
+ *
+ * The whole collection is written in one transaction. The persistence context is flushed every
+ * {@code hibernate.jdbc.batch_size} entities, so the statements of a flush fit into one JDBC batch, and cleared
+ * afterwards so it does not grow with the size of the import.<br/>
+ *
+ * The ids are assigned, so a merge would select every entity before writing it. Instead the existing ids of a batch
+ * are looked up with one query, new entities are persisted and only the existing ones are merged. Persist cascades
+ * only to associations mapped with {@code CascadeType.PERSIST}.
+ * @param <T> type of the entities.
+ */
+public class BulkImportRepositoryImpl<T> implements BulkImportRepository<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public void importAll(Collection<T> entities) {
+        var batch = new ArrayList<T>(batchSize);
+        for (var entity : entities) {
+            batch.add(entity);
+            if (batch.size() == batchSize) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+        writeBatch(batch);
+    }
+
+    private void writeBatch(List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        var persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        var existingIds = findExistingIds(batch);
+        for (var entity : batch) {
+            // an id which is twice in the batch is merged into the entity persisted first
+            if (existingIds.add(persistenceUnitUtil.getIdentifier(entity))) {
+                entityManager.persist(entity);
+            } else {
+                entityManager.merge(entity);
+            }
+        }
+        flushAndClear();
+    }
+
+    private Set<Object> findExistingIds(List<T> batch) {
+        var persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        var entityType = entityManager.getMetamodel().entity(batch.get(0).getClass());
+        var idName = entityType.getSingularAttributes().stream()
+                .filter(SingularAttribute::isId)
+                .map(SingularAttribute::getName)
+                .findFirst()
+                .orElseThrow();
+        var ids = batch.stream().map(persistenceUnitUtil::getIdentifier).toList();
+        var query = "SELECT e." + idName + " FROM " + entityType.getName() + " e WHERE e." + idName + " IN :ids";
+        return new HashSet<>(entityManager.createQuery(query, Object.class).setParameter("ids", ids).getResultList());
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,20 @@
+package ch.zhaw.vorwahlen.repository;
+
+import ch.zhaw.vorwahlen.model.core.student.Student;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository fragment to update the dispensations of the {@link Student}.
+ */
+public interface DispensationUpdateRepository {
+
+    /**
+     * Set the pa and wpm dispensation of the students in one transaction.
+     * If an email is contained more than once, the last one is applied.
+     * @param dispensations students with the email and the dispensations to be set.
+     * @return the emails which matched no student, in the order of the dispensations.
+     */
+    List<String> updateDispensations(Collection<Student> dispensations);
+}
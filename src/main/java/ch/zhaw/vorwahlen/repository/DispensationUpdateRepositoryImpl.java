@@ -0,0 +1,77 @@
+package ch.zhaw.vorwahlen.repository;
+
+import ch.zhaw.vorwahlen.model.core.student.Student;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Implementation of the {@link DispensationUpdateRepository}.<br/>
+ *
+ * A dispensation list has only a few distinct combinations of pa and wpm dispensation, so the students are grouped by
+ * the combination and every group is written with one {@code UPDATE ... WHERE email IN} statement. The number of
+ * statements depends on the combinations and not on the number of students.
+ */
+public class DispensationUpdateRepositoryImpl implements DispensationUpdateRepository {
+    private static final int MAX_IN_PARAMETERS = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private record Dispensation(int paDispensation, int wpmDispensation) {}
+
+    @Override
+    @Transactional
+    public List<String> updateDispensations(Collection<Student> dispensations) {
+        var dispensationByEmail = new LinkedHashMap<String, Dispensation>();
+        dispensations.forEach(student -> dispensationByEmail.put(student.getEmail(),
+                new Dispensation(student.getPaDispensation(), student.getWpmDispensation())));
+
+        var emails = new ArrayList<>(dispensationByEmail.keySet());
+        var existingEmails = new HashSet<String>();
+        for (var chunk : partition(emails)) {
+            existingEmails.addAll(entityManager.createQuery(
+                            "SELECT s.email FROM Student s WHERE s.email IN :emails", String.class)
+                    .setParameter("emails", chunk)
+                    .getResultList());
+        }
+
+        var emailsByDispensation = new LinkedHashMap<Dispensation, List<String>>();
+        dispensationByEmail.forEach((email, dispensation) -> {
+            if (existingEmails.contains(email)) {
+                emailsByDispensation.computeIfAbsent(dispensation, d -> new ArrayList<>()).add(email);
+            }
+        });
+        emailsByDispensation.forEach(this::update);
+
+        return emails.stream().filter(email -> !existingEmails.contains(email)).toList();
+    }
+
+    private void update(Dispensation dispensation, List<String> emails) {
+        for (var chunk : partition(emails)) {
+            entityManager.createQuery("""
+                    UPDATE Student s
+                    SET s.paDispensation = :paDispensation, s.wpmDispensation = :wpmDispensation
+                    WHERE s.email IN :emails
+                    """)
+                    .setParameter("paDispensation", dispensation.paDispensation())
+                    .setParameter("wpmDispensation", dispensation.wpmDispensation())
+                    .setParameter("emails", chunk)
+                    .executeUpdate();
+        }
+    }
+
+    private static List<List<String>> partition(List<String> emails) {
+        var chunks = new ArrayList<List<String>>();
+        for (var i = 0; i < emails.size(); i += MAX_IN_PARAMETERS) {
+            chunks.add(emails.subList(i, Math.min(i + MAX_IN_PARAMETERS, emails.size())));
+        }
+        return chunks;
+    }
+}
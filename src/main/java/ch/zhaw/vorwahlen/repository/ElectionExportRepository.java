@@ -0,0 +1,20 @@
+package ch.zhaw.vorwahlen.repository;
+
+import ch.zhaw.vorwahlen.model.core.election.Election;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Repository fragment to read all the {@link Election} page by page.
+ */
+public interface ElectionExportRepository {
+
+    /**
+     * Read all elections with their student, class, validation setting and modules, ordered by id.
+     * Every page is read and consumed in a read-only transaction, its elections are detached once the consumer returns.
+     * @param pageSize number of elections per page.
+     * @param pageConsumer gets every page.
+     */
+    void forEachPageWithModules(int pageSize, Consumer<List<Election>> pageConsumer);
+}
@@ -0,0 +1,86 @@
+package ch.zhaw.vorwahlen.repository;
+
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the {@link ElectionExportRepository}.<br/>
+ *
+ * The pages are selected by the last id of the previous page, so every page is an index range on the primary key
+ * regardless of how far the export is. The ids are selected first and the associations are fetched for these ids
+ * only, because a limit on a query with a fetched collection is applied in memory.<br/>
+ *
+ * The export runs on the thread of the streamed response, outside of a transaction. Every page is read and consumed
+ * in its own read-only transaction, the persistence context is cleared afterwards so it does not grow with the
+ * number of pages, also if it is bound to the request.
+ */
+public class ElectionExportRepositoryImpl implements ElectionExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Create instance.
+     * @param transactionManager starts the transaction of every page.
+     */
+    public ElectionExportRepositoryImpl(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void forEachPageWithModules(int pageSize, Consumer<List<Election>> pageConsumer) {
+        var lastId = Long.MIN_VALUE;
+        List<Long> ids;
+        do {
+            var pageStart = lastId;
+            ids = readOnlyTransaction.execute(status -> readPage(pageStart, pageSize, pageConsumer));
+            if (ids == null || ids.isEmpty()) {
+                return;
+            }
+            lastId = ids.get(ids.size() - 1);
+        } while (ids.size() == pageSize);
+    }
+
+    private List<Long> readPage(long lastId, int pageSize, Consumer<List<Election>> pageConsumer) {
+        try {
+            var ids = entityManager.createQuery("""
+                    SELECT e.id
+                    FROM Election e
+                    WHERE e.id > :lastId
+                    ORDER BY e.id
+                    """, Long.class)
+                    .setParameter("lastId", lastId)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+            if (ids.isEmpty()) {
+                return ids;
+            }
+
+            var elections = entityManager.createQuery("""
+                    SELECT DISTINCT e
+                    FROM Election e
+                    LEFT JOIN FETCH e.student s
+                    LEFT JOIN FETCH s.studentClass
+                    LEFT JOIN FETCH e.validationSetting
+                    LEFT JOIN FETCH e.electedModules
+                    WHERE e.id IN :ids
+                    ORDER BY e.id
+                    """, Election.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+            pageConsumer.accept(elections);
+            return ids;
+        } finally {
+            entityManager.clear();
+        }
+    }
+}
@@ -15,7 +15,7 @@ import java.util.Set;
  * Repository for the {@link Election}.
  */
 @Repository
-public interface ElectionRepository extends JpaRepository<Election, Long> {
+public interface ElectionRepository extends JpaRepository<Election, Long>, ElectionExportRepository {
 
     @Query("""
     SELECT e
@@ -0,0 +1,18 @@
+package ch.zhaw.vorwahlen.repository;
+
+import ch.zhaw.vorwahlen.model.evento.EventoData;
+
+import java.util.Optional;
+
+/**
+ * Repository fragment to read the stored document of {@link EventoData} without decompressing it.
+ */
+public interface EventoDataDocumentRepository {
+
+    /**
+     * Read the gzipped JSON document of a module as it is stored.
+     * @param moduleNo the module number.
+     * @return the gzipped document or empty if there is no evento data for the module.
+     */
+    Optional<byte[]> findCompressedDocument(String moduleNo);
+}
@@ -0,0 +1,31 @@
+package ch.zhaw.vorwahlen.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the {@link EventoDataDocumentRepository}.<br/>
+ *
+ * The column is read with a native query, a JPQL query would pass the document through the converter.
+ */
+public class EventoDataDocumentRepositoryImpl implements EventoDataDocumentRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<byte[]> findCompressedDocument(String moduleNo) {
+        Stream<?> result = entityManager
+                .createNativeQuery("SELECT document FROM evento_data WHERE module_no = ?1")
+                .setParameter(1, moduleNo)
+                .getResultStream();
+        try (result) {
+            return result
+                    .filter(byte[].class::isInstance)
+                    .map(byte[].class::cast)
+                    .findFirst();
+        }
+    }
+}
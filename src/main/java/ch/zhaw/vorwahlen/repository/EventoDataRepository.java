@@ -1,12 +1,28 @@
 package ch.zhaw.vorwahlen.repository;
 
 import ch.zhaw.vorwahlen.model.evento.EventoData;
+import ch.zhaw.vorwahlen.model.evento.EventoDataSummaryDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+import java.util.Set;
+
 /**
  * Repository for {@link EventoData}.
  */
 @Repository
-public interface EventoDataRepository extends JpaRepository<EventoData, String> {
+public interface EventoDataRepository extends JpaRepository<EventoData, String>, EventoDataDocumentRepository {
+
+    @Query("SELECT e.moduleNo FROM EventoData e")
+    Set<String> findAllModuleNos();
+
+    @Query("""
+    SELECT new ch.zhaw.vorwahlen.model.evento.EventoDataSummaryDTO(e.shortDescription, e.coordinator)
+    FROM EventoData e
+    WHERE e.moduleNo = :moduleNo
+    """)
+    Optional<EventoDataSummaryDTO> findSummaryByModuleNo(@Param("moduleNo") String moduleNo);
 }
@@ -0,0 +1,12 @@
+package ch.zhaw.vorwahlen.repository;
+
+import ch.zhaw.vorwahlen.model.evento.EventoPageFingerprint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for {@link EventoPageFingerprint}.
+ */
+@Repository
+public interface EventoPageFingerprintRepository extends JpaRepository<EventoPageFingerprint, String> {
+}
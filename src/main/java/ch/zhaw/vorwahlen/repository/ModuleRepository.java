@@ -8,6 +8,6 @@ import org.springframework.stereotype.Repository;
  * Repository for {@link Module}.
  */
 @Repository
-public interface ModuleRepository extends JpaRepository<Module, String> {
+public interface ModuleRepository extends JpaRepository<Module, String>, BulkImportRepository<Module> {
 
 }
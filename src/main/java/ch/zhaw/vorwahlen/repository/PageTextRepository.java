@@ -28,4 +28,11 @@ public interface PageTextRepository extends JpaRepository<PageText, Long> {
     """)
     Set<PageText> findAllByUserType(@Param("page") String page, @Param("userType") UserType userType);
 
+    @Query("""
+    SELECT DISTINCT p.page
+    FROM PageText p
+    WHERE p.page IS NOT NULL
+    """)
+    Set<String> findAllPages();
+
 }
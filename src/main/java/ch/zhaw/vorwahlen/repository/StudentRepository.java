@@ -12,7 +12,8 @@ import javax.transaction.Transactional;
  * Repository for {@link Student}.
  */
 @Repository
-public interface StudentRepository extends JpaRepository<Student, String> {
+public interface StudentRepository extends JpaRepository<Student, String>, BulkImportRepository<Student>,
+        DispensationUpdateRepository {
     @Transactional
     @Modifying
     @Query("UPDATE Student s set s.canElect = false")
@@ -0,0 +1,16 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import org.jsoup.nodes.Document;
+
+/**
+ * Answer of eventoweb for a module page.
+ * @param url the requested url.
+ * @param notModified true if eventoweb answered a conditional request with 304, there is no document then.
+ * @param document the parsed page or null.
+ * @param body the raw html, decompressed, or an empty array.
+ * @param etag the ETag header or null.
+ * @param lastModified the Last-Modified header or null.
+ * @param statistics the measurements of the load.
+ */
+public record EventoPage(String url, boolean notModified, Document document, byte[] body, String etag,
+                         String lastModified, FetchStatistics statistics) {}
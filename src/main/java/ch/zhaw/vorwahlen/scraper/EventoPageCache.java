@@ -0,0 +1,79 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk cache of the raw evento pages, one gzipped file per module id.<br/>
+ *
+ * The cache keeps the last page of every module, so the parser can be run again over all modules without loading
+ * them from eventoweb. A file is written to a temporary file first and moved in place, so a reader never sees a
+ * partial page.
+ */
+@Component
+@Slf4j
+public class EventoPageCache {
+    private static final String FILE_SUFFIX = ".html.gz";
+
+    private final Path directory;
+
+    /**
+     * Create instance.
+     * @param scraperSettings scraper settings containing the cache directory.
+     */
+    public EventoPageCache(ScraperSettings scraperSettings) {
+        this.directory = Path.of(scraperSettings.getCacheDirectory());
+    }
+
+    /**
+     * Store the raw page of the module, a failure is logged and does not stop the scraper.
+     * @param moduleId evento id of the module.
+     * @param page the raw html.
+     */
+    public void write(int moduleId, byte[] page) {
+        var target = pathOf(moduleId);
+        try {
+            Files.createDirectories(directory);
+            var tmp = Files.createTempFile(directory, moduleId + "-", ".tmp");
+            try (var os = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                os.write(page);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("could not cache the evento page of module {}", moduleId, e);
+        }
+    }
+
+    /**
+     * Read the cached page of the module.
+     * @param moduleId evento id of the module.
+     * @return the raw html or an empty optional if the module is not cached.
+     * @throws IOException if the cached file cannot be read.
+     */
+    public Optional<byte[]> read(int moduleId) throws IOException {
+        var path = pathOf(moduleId);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try (var is = new GZIPInputStream(Files.newInputStream(path))) {
+            return Optional.of(is.readAllBytes());
+        }
+    }
+
+    private Path pathOf(int moduleId) {
+        return directory.resolve(moduleId + FILE_SUFFIX);
+    }
+}
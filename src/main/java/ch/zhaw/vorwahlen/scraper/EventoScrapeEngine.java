@@ -0,0 +1,219 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.evento.EventoData;
+import ch.zhaw.vorwahlen.model.evento.EventoPageFingerprint;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Scrapes the evento data of many modules with a bounded number of workers.<br/>
+ *
+ * All requests to eventoweb pass the same {@link TokenBucket}, so the rate does not depend on the number of workers.
+ * A failed module is retried with an exponential backoff, except if eventoweb answered with a client error. Every
+ * scraped module is handed to the consumer as soon as it is parsed, so a crash only loses the modules in progress.<br/>
+ *
+ * With the {@link EventoPageFingerprint} of the last run the page is requested conditionally. A page which is not
+ * modified or whose module fields have the same hash is not parsed into {@link EventoData}, the consumer only gets
+ * the new fingerprint if the ETag or Last-Modified changed.
+ * The raw pages are kept in the {@link EventoPageCache}, so {@link #reparseCached(Collection, Consumer)} can run
+ * the parser again without eventoweb.<br/>
+ *
+ * The pages are loaded by the {@link PageFetcher}, the report sums up its {@link FetchStatistics}.
+ */
+@Component
+@Slf4j
+public class EventoScrapeEngine {
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVER_ERROR = 500;
+
+    private final ScraperSettings scraperSettings;
+    private final EventoPageCache eventoPageCache;
+    private final PageFetcher pageFetcher;
+    private final TokenBucket tokenBucket;
+
+    /**
+     * Result of a scrape run.
+     * @param scraped number of modules which were changed and consumed.
+     * @param unchanged number of modules which were not changed since the last run.
+     * @param failedModuleNos module numbers which could not be scraped.
+     * @param statistics the summed up measurements of the page loads.
+     */
+    public record ScrapeReport(int scraped, int unchanged, List<String> failedModuleNos,
+                               FetchStatistics statistics) {}
+
+    /**
+     * Scraped module to be stored.
+     * @param eventoData the parsed data or null if the module fields are unchanged.
+     * @param fingerprint the fingerprint of the page.
+     * @param statistics the measurements of the page load.
+     */
+    public record ScrapedModule(EventoData eventoData, EventoPageFingerprint fingerprint,
+                                FetchStatistics statistics) {}
+
+    /**
+     * Create instance.
+     * @param scraperSettings the settings of the scraper.
+     * @param eventoPageCache the cache for the raw pages.
+     * @param pageFetcher loads the pages.
+     */
+    public EventoScrapeEngine(ScraperSettings scraperSettings, EventoPageCache eventoPageCache,
+                              PageFetcher pageFetcher) {
+        this.scraperSettings = scraperSettings;
+        this.eventoPageCache = eventoPageCache;
+        this.pageFetcher = pageFetcher;
+        this.tokenBucket = new TokenBucket(scraperSettings.getRequestsPerSecond(), scraperSettings.getBurst());
+    }
+
+    /**
+     * Scrape all modules, blocks until every module is done.
+     * @param modules the modules to be scraped.
+     * @param fingerprints the fingerprints of the last run by module number, a module without is always scraped.
+     * @param consumer gets every changed module, is called by the workers concurrently.
+     * @return {@link ScrapeReport}
+     */
+    public ScrapeReport scrapeAll(Collection<Module> modules, Map<String, EventoPageFingerprint> fingerprints,
+                                  Consumer<ScrapedModule> consumer) {
+        var scraped = new AtomicInteger();
+        var unchanged = new AtomicInteger();
+        var failedModuleNos = new ConcurrentLinkedQueue<String>();
+        var statistics = new AtomicReference<>(FetchStatistics.NONE);
+        var tasks = modules.stream()
+                .map(module -> (Callable<Void>) () -> {
+                    try {
+                        var previous = fingerprints.get(module.getModuleNo());
+                        var scrapedModule = scrape(module, previous);
+                        statistics.accumulateAndGet(scrapedModule.statistics(), FetchStatistics::plus);
+                        if (scrapedModule.eventoData() == null) {
+                            unchanged.incrementAndGet();
+                        } else {
+                            scraped.incrementAndGet();
+                        }
+                        if (!scrapedModule.fingerprint().equals(previous)) {
+                            consumer.accept(scrapedModule);
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.error("could not scrape module {}", module.getModuleNo(), e);
+                        failedModuleNos.add(module.getModuleNo());
+                    }
+                    return null;
+                })
+                .toList();
+
+        runAll(tasks);
+        return new ScrapeReport(scraped.get(), unchanged.get(), List.copyOf(failedModuleNos), statistics.get());
+    }
+
+    /**
+     * Scrape one module.
+     * @param module the module to be scraped.
+     * @param previous the fingerprint of the last scrape or null.
+     * @return {@link ScrapedModule}, without data if the module is unchanged.
+     * @throws IOException if the module could not be scraped within the attempts.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public ScrapedModule scrape(Module module, EventoPageFingerprint previous)
+            throws IOException, InterruptedException {
+        var url = String.format(scraperSettings.getSiteUrl(), module.getModuleId());
+        var backoffMs = scraperSettings.getInitialBackoffMs();
+        for (var attempt = 1; ; attempt++) {
+            tokenBucket.acquire();
+            try {
+                return scrape(url, module, previous);
+            } catch (IOException e) {
+                if (attempt >= scraperSettings.getMaxAttempts() || !isRetryable(e)) {
+                    throw e;
+                }
+                log.warn("attempt {} to scrape module {} failed, retrying in {} ms",
+                         attempt, module.getModuleNo(), backoffMs, e);
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, scraperSettings.getMaxBackoffMs());
+            }
+        }
+    }
+
+    /**
+     * Parse the cached pages of the modules again.
+     * @param modules the modules to be parsed, modules without a cached page are skipped.
+     * @param eventoDataConsumer gets every parsed module.
+     * @return number of parsed modules.
+     */
+    public int reparseCached(Collection<Module> modules, Consumer<EventoData> eventoDataConsumer) {
+        var parsed = 0;
+        for (var module : modules) {
+            try {
+                var page = eventoPageCache.read(module.getModuleId());
+                if (page.isPresent()) {
+                    var document = Jsoup.parse(new ByteArrayInputStream(page.get()), null,
+                                               String.format(scraperSettings.getSiteUrl(), module.getModuleId()));
+                    eventoDataConsumer.accept(EventoScraper.parseModule(document, module));
+                    parsed++;
+                }
+            } catch (IOException e) {
+                log.error("could not parse the cached page of module {}", module.getModuleNo(), e);
+            }
+        }
+        return parsed;
+    }
+
+    private ScrapedModule scrape(String url, Module module, EventoPageFingerprint previous) throws IOException {
+        var page = previous == null
+                ? pageFetcher.fetch(url, null, null)
+                : pageFetcher.fetch(url, previous.getEtag(), previous.getLastModified());
+        if (page.notModified()) {
+            return new ScrapedModule(null, previous, page.statistics());
+        }
+
+        eventoPageCache.write(module.getModuleId(), page.body());
+        var document = page.document();
+        var fingerprint = new EventoPageFingerprint(module.getModuleNo(), EventoScraper.fingerprint(document),
+                                                    page.etag(), page.lastModified());
+        if (previous != null && fingerprint.getContentHash().equals(previous.getContentHash())) {
+            return new ScrapedModule(null, fingerprint, page.statistics());
+        }
+        return new ScrapedModule(EventoScraper.parseModule(document, module), fingerprint, page.statistics());
+    }
+
+    private void runAll(List<Callable<Void>> tasks) {
+        var executor = Executors.newFixedThreadPool(scraperSettings.getWorkers(), workerThreadFactory());
+        try {
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            log.warn("scraping was interrupted", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean isRetryable(IOException e) {
+        if (e instanceof PageStatusException statusException) {
+            var status = statusException.getStatusCode();
+            return status == HTTP_TOO_MANY_REQUESTS || status >= HTTP_SERVER_ERROR;
+        }
+        return true;
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        var counter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, "evento-scraper-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
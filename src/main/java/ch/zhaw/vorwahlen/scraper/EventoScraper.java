@@ -5,14 +5,17 @@ import ch.zhaw.vorwahlen.model.core.module.Module;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.java.Log;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 /**
  * Scraper class to retrieve detailed data of a module on eventoweb.zhaw.ch.
+ * The pages are loaded by a {@link PageFetcher}.
  */
 @Log
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -21,37 +24,51 @@ public class EventoScraper {
     public static final String SITE_URL =
             "https://eventoweb.zhaw.ch/Evt_Pages/Brn_ModulDetailAZ.aspx?IDAnlass=%d&IdLanguage=1&date=662249088000000000";
 
-    private static final int SITE_LOADING_TIMEOUT_MS = 30000;
     private static final int COLUMNS_PER_ROW = 2;
+    private static final String FIELD_SELECTOR = ".DetailDialog_FormLabelCell, .DetailDialog_FormValueCell";
 
 
     /**
-     * Retrieve the parsed module.
-     * @param url Eventoweb module website.
-     * @return {@link EventoData}
+     * Returns a hash of the module fields of the page.
+     * The rest of the page, like the view state of the form, changes on every request and is not included.
+     * @param modulePage the module website.
+     * @return SHA-256 as hex string.
      */
-    public static EventoData parseModuleByURL(String url, Module module) {
+    public static String fingerprint(Document modulePage) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var column : modulePage.select(FIELD_SELECTOR)) {
+                digest.update(column.outerHtml().getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parse the loaded module website.
+     * @param modulePage the module website.
+     * @param module the module of the website.
+     * @return {@link EventoData}, only with the module number if a field is missing.
+     */
+    public static EventoData parseModule(Document modulePage, Module module) {
         var eventoData = new EventoData();
         eventoData.setModuleNo(module.getModuleNo());
-        try {
-            var modulePage = getWebsiteContent(url);
-            var columns = modulePage.select(".DetailDialog_FormLabelCell, .DetailDialog_FormValueCell");
+        var columns = modulePage.select(FIELD_SELECTOR);
 
-            if(columns.size() % 2 == 0) {
-                for (var i = 1; i < columns.size(); i += COLUMNS_PER_ROW) {
-                    var rowTitleElement = columns.get(i - 1);
-                    var rowValueElement = columns.get(i);
+        if(columns.size() % 2 == 0) {
+            for (var i = 1; i < columns.size(); i += COLUMNS_PER_ROW) {
+                var rowTitleElement = columns.get(i - 1);
+                var rowValueElement = columns.get(i);
 
-                    var fieldName = rowTitleElement.text().trim();
-                    var dataText = valueIsHtmlStructure(rowValueElement)
-                            ? rowValueElement.html()
-                            : rowValueElement.text();
+                var fieldName = rowTitleElement.text().trim();
+                var dataText = valueIsHtmlStructure(rowValueElement)
+                        ? rowValueElement.html()
+                        : rowValueElement.text();
 
-                    setEventoDataField(fieldName, eventoData, dataText);
-                }
+                setEventoDataField(fieldName, eventoData, dataText);
             }
-        } catch (IOException | NullPointerException e) {
-            log.severe(e.getMessage());
         }
         if(doesEventoDataContainNull(eventoData)) {
             eventoData = new EventoData();
@@ -80,14 +97,6 @@ public class EventoScraper {
                 !rowValueElement.select("li").isEmpty();
     }
 
-    private static Document getWebsiteContent(String url) throws IOException {
-        return Jsoup
-                .connect(url)
-                .timeout(SITE_LOADING_TIMEOUT_MS)
-                .execute()
-                .parse();
-    }
-
     private static void setEventoDataField(String value, EventoData eventoData, String dataText) {
         switch (value) {
             case "Kurzbeschrieb" -> eventoData.setShortDescription(dataText);
@@ -0,0 +1,21 @@
+package ch.zhaw.vorwahlen.scraper;
+
+/**
+ * Measurements of one page load.
+ * @param durationNanos time from sending the request until the page is parsed.
+ * @param bytesReceived bytes of the body as transferred, compressed if the server compressed it.
+ * @param bodyBytes bytes of the decompressed body.
+ */
+public record FetchStatistics(long durationNanos, long bytesReceived, long bodyBytes) {
+    public static final FetchStatistics NONE = new FetchStatistics(0, 0, 0);
+
+    /**
+     * Sum up two measurements.
+     * @param other the other measurement.
+     * @return the sum.
+     */
+    public FetchStatistics plus(FetchStatistics other) {
+        return new FetchStatistics(durationNanos + other.durationNanos, bytesReceived + other.bytesReceived,
+                                   bodyBytes + other.bodyBytes);
+    }
+}
@@ -0,0 +1,145 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import org.jsoup.Jsoup;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * {@link PageFetcher} on the {@link HttpClient} of the JDK.<br/>
+ *
+ * One client is used for all requests, so the connections to eventoweb are kept alive and reused by the workers.
+ * The body is requested gzip or deflate compressed, the decompressed bytes are parsed by Jsoup and kept for the
+ * page cache.
+ */
+public class HttpPageFetcher implements PageFetcher {
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final int HTTP_BAD_REQUEST = 400;
+    private static final Pattern CHARSET_PATTERN = Pattern.compile("charset=\"?([^\";\\s]+)", Pattern.CASE_INSENSITIVE);
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+
+    /**
+     * Create instance.
+     * @param timeout timeout to connect and to receive the answer.
+     */
+    public HttpPageFetcher(Duration timeout) {
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public EventoPage fetch(String url, String etag, String lastModified) throws IOException {
+        var start = System.nanoTime();
+        var request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("Accept-Encoding", "gzip, deflate")
+                .GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            var interrupted = new InterruptedIOException("fetching " + url + " was interrupted");
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+
+        var headers = response.headers();
+        try (var received = new CountingInputStream(response.body())) {
+            var status = response.statusCode();
+            if (status == HTTP_NOT_MODIFIED) {
+                return new EventoPage(url, true, null, new byte[0], etag, lastModified,
+                                      new FetchStatistics(System.nanoTime() - start, 0, 0));
+            }
+            if (status < HTTP_OK || status >= HTTP_BAD_REQUEST) {
+                throw new PageStatusException(status, url);
+            }
+
+            // read up to the end of the body, the connection is only reused if the body was consumed completely
+            var encoding = headers.firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+            var body = decode(received, encoding).readAllBytes();
+            received.transferTo(OutputStream.nullOutputStream());
+            var charset = headers.firstValue("Content-Type").map(HttpPageFetcher::charsetOf).orElse(null);
+            var document = Jsoup.parse(new ByteArrayInputStream(body), charset, url);
+            return new EventoPage(url, false, document, body,
+                                  headers.firstValue("ETag").orElse(null),
+                                  headers.firstValue("Last-Modified").orElse(null),
+                                  new FetchStatistics(System.nanoTime() - start, received.count, body.length));
+        }
+    }
+
+    private static InputStream decode(InputStream is, String encoding) throws IOException {
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(is);
+            case "deflate" -> new InflaterInputStream(is);
+            default -> is;
+        };
+    }
+
+    private static String charsetOf(String contentType) {
+        var matcher = CHARSET_PATTERN.matcher(contentType);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Counts the bytes read.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            var b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            var read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            var skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import java.io.IOException;
+
+/**
+ * Loads the pages of eventoweb.
+ */
+public interface PageFetcher {
+
+    /**
+     * Load and parse the page, the request is conditional if the etag or the last modified date is given.
+     * @param url the url of the page.
+     * @param etag the ETag of the last load or null.
+     * @param lastModified the Last-Modified of the last load or null.
+     * @return the {@link EventoPage}
+     * @throws PageStatusException if the server answered with an error status.
+     * @throws IOException if the page could not be loaded.
+     */
+    EventoPage fetch(String url, String etag, String lastModified) throws IOException;
+}
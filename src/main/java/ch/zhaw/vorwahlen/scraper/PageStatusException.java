@@ -0,0 +1,20 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a page is answered with an error status.
+ */
+@Getter
+public class PageStatusException extends IOException {
+    private final int statusCode;
+    private final String url;
+
+    public PageStatusException(int statusCode, String url) {
+        super(String.format("HTTP status %d for %s", statusCode, url));
+        this.statusCode = statusCode;
+        this.url = url;
+    }
+}
@@ -0,0 +1,19 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import lombok.Data;
+
+/**
+ * Model class for the settings of the evento scraper.
+ */
+@Data
+public class ScraperSettings {
+    private String siteUrl = EventoScraper.SITE_URL;
+    private int workers = 4;
+    private double requestsPerSecond = 1;
+    private int burst = 2;
+    private int maxAttempts = 3;
+    private long initialBackoffMs = 2000;
+    private long maxBackoffMs = 30000;
+    private long timeoutMs = 30000;
+    private String cacheDirectory = "./data/evento-cache";
+}
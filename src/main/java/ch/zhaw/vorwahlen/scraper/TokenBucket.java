@@ -0,0 +1,62 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket rate limiter shared by all scraper workers.<br/>
+ *
+ * The bucket holds up to {@code capacity} tokens and is refilled with {@code permitsPerSecond}. A caller which finds
+ * the bucket empty reserves the next token anyway and sleeps until it is refilled, so the waiting callers are served
+ * in the order they arrived and the rate is never exceeded.
+ */
+public class TokenBucket {
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Create instance.
+     * @param permitsPerSecond the sustained rate.
+     * @param capacity the number of permits which can be taken at once after an idle time.
+     */
+    public TokenBucket(double permitsPerSecond, int capacity) {
+        this(permitsPerSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int capacity, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("the rate and the capacity have to be positive");
+        }
+        this.tokensPerNano = permitsPerSecond / NANOS_PER_SECOND;
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Take one permit, waits until it is available.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(reserve());
+    }
+
+    /**
+     * Take one permit.
+     * @return nanoseconds until the permit may be used.
+     */
+    synchronized long reserve() {
+        var now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
@@ -0,0 +1,165 @@
+package ch.zhaw.vorwahlen.service;
+
+import ch.zhaw.vorwahlen.catalog.GzipSegments;
+import ch.zhaw.vorwahlen.catalog.GzipSegments.Segment;
+import ch.zhaw.vorwahlen.catalog.ModuleCatalogJson;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
+import ch.zhaw.vorwahlen.mapper.Mapper;
+import ch.zhaw.vorwahlen.model.UserDTO;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+import ch.zhaw.vorwahlen.model.pagetext.UserType;
+import ch.zhaw.vorwahlen.repository.StudentRepository;
+import ch.zhaw.vorwahlen.security.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the data for the first load of the election page in one JSON object.<br/>
+ *
+ * The object has the fields {@code modulesVersion}, {@code modules}, {@code pageTextsVersion}, {@code pageTexts},
+ * {@code user} and {@code election}. The modules and the page texts are only included if the version the client sent
+ * is outdated, otherwise they are null and the client keeps its copy of this version.<br/>
+ *
+ * The module list and the page texts are the same for many students. Their {@link Segment}s are serialized and
+ * compressed once per version and copied into every response as they are, only the user and the election are
+ * serialized and compressed per request. The page texts are cached for the known pages only, every other page has
+ * no page texts.
+ */
+@RequiredArgsConstructor
+@Service
+@Slf4j
+public class BootstrapService {
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+
+    private final StudentRepository studentRepository;
+    private final ElectionService electionService;
+    private final PageTextService pageTextService;
+    private final ModuleCatalogJson moduleCatalogJson;
+    private final ResourceVersions resourceVersions;
+    private final Mapper<UserDTO, User> userMapper;
+    private final ObjectMapper objectMapper;
+
+    private final Map<PageTextsKey, Segment> pageTextsSegments = new ConcurrentHashMap<>();
+    private volatile ModulesSegments modulesSegments;
+
+    /**
+     * Segments of the module list of one version.
+     * @param version the ETag of the modules.
+     * @param included the segment with the module list.
+     * @param omitted the segment without the module list.
+     */
+    private record ModulesSegments(String version, Segment included, Segment omitted) {}
+
+    /**
+     * Key of a page texts segment, page and user type are null if the page texts are omitted.
+     */
+    private record PageTextsKey(String version, boolean included, String page, UserType userType) {}
+
+    /**
+     * Returns the data for the page.
+     * @param user the user of the session.
+     * @param page the page to load the page texts for.
+     * @param knownModulesVersion the version of the modules the client has, or null.
+     * @param knownPageTextsVersion the version of the page texts the client has, or null.
+     * @return the JSON object as {@link GzipSegments}.
+     */
+    public GzipSegments getBootstrap(User user, String page, String knownModulesVersion,
+                                     String knownPageTextsVersion) {
+        var student = studentRepository.findById(user.getMail());
+        var userType = student.map(BootstrapService::getUserType).orElse(UserType.ANONYMOUS);
+
+        var modules = getModulesSegments();
+        var includeModules = !modules.version().equals(knownModulesVersion);
+
+        // the version is read before the page texts, a change in between is sent with the next load
+        var pageTextsVersion = resourceVersions.getETag(Resource.PAGE_TEXTS);
+        var includePageTexts = !pageTextsVersion.equals(knownPageTextsVersion);
+        var pageTexts = getPageTextsSegment(pageTextsVersion, includePageTexts, page, userType);
+
+        var election = student.map(s -> electionService.getElection(s.getEmail())).orElse(null);
+        var request = new ByteArrayOutputStream();
+        writeField(request, "user", serialize(userMapper.toDto(user)));
+        request.write(',');
+        writeField(request, "election", serialize(election));
+        request.write('}');
+
+        log.debug("bootstrap for {} with modules: {}, page texts: {}", user.getMail(), includeModules,
+                  includePageTexts);
+        return GzipSegments.of(includeModules ? modules.included() : modules.omitted(), pageTexts,
+                               GzipSegments.compress(request.toByteArray()));
+    }
+
+    private ModulesSegments getModulesSegments() {
+        var catalog = moduleCatalogJson.getSnapshot();
+        var current = modulesSegments;
+        if (current == null || !current.version().equals(catalog.etag())) {
+            var version = serialize(catalog.etag());
+            current = new ModulesSegments(catalog.etag(), modulesSegment(version, catalog.json()),
+                                          modulesSegment(version, NULL));
+            modulesSegments = current;
+        }
+        return current;
+    }
+
+    private static Segment modulesSegment(byte[] version, byte[] modules) {
+        var json = new ByteArrayOutputStream(modules.length + 64);
+        json.write('{');
+        writeField(json, "modulesVersion", version);
+        json.write(',');
+        writeField(json, "modules", modules);
+        json.write(',');
+        return GzipSegments.compress(json.toByteArray());
+    }
+
+    private Segment getPageTextsSegment(String version, boolean included, String page, UserType userType) {
+        var key = included
+                ? new PageTextsKey(version, true, pageTextService.isKnownPage(page) ? page : null, userType)
+                : new PageTextsKey(version, false, null, null);
+        var segment = pageTextsSegments.get(key);
+        if (segment == null) {
+            pageTextsSegments.keySet().removeIf(other -> !other.version().equals(version));
+            segment = pageTextsSegments.computeIfAbsent(key, this::pageTextsSegment);
+        }
+        return segment;
+    }
+
+    private Segment pageTextsSegment(PageTextsKey key) {
+        var pageTexts = key.included()
+                ? serialize(pageTextService.getCachedPageTextsByUserType(key.page(), key.userType()))
+                : NULL;
+        var json = new ByteArrayOutputStream(pageTexts.length + 64);
+        writeField(json, "pageTextsVersion", serialize(key.version()));
+        json.write(',');
+        writeField(json, "pageTexts", pageTexts);
+        json.write(',');
+        return GzipSegments.compress(json.toByteArray());
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeField(ByteArrayOutputStream json, String name, byte[] value) {
+        json.writeBytes(('"' + name + "\":").getBytes(StandardCharsets.UTF_8));
+        json.writeBytes(value);
+    }
+
+    private static UserType getUserType(Student student) {
+        if (!student.isTZ()) return UserType.FULL_TIME;
+        return student.isSecondElection() ? UserType.PART_TIME_SECOND_ELECTION : UserType.PART_TIME_FIRST_ELECTION;
+    }
+}
@@ -0,0 +1,64 @@
+package ch.zhaw.vorwahlen.service;
+
+import ch.zhaw.vorwahlen.delta.ElectionDeltaTracker;
+import ch.zhaw.vorwahlen.model.ElectionDeltaDTO;
+import ch.zhaw.vorwahlen.model.ElectionTransferDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sends the changes of the election to the websocket sessions that resynced, instead of the whole election.<br/>
+ *
+ * A session switches to delta updates with a resync, which sends a full snapshot. Every save of the session is then
+ * answered with the changes since the previous update. Sessions that never resynced get the whole election.<br/>
+ *
+ * The updates of a session are based on each other, so they are published while the saves of the student are
+ * serialized, see {@link ch.zhaw.vorwahlen.concurrency.ElectionSaveExecutor}.
+ */
+@RequiredArgsConstructor
+@Service
+public class ElectionDeltaService {
+    public static final String DELTA_DESTINATION = "/queue/electionDelta";
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    /**
+     * Switch the session to delta updates and send a full snapshot, the following updates are based on it.
+     * @param headerAccessor header data which contains the user session.
+     * @param election the current election of the student.
+     */
+    public void resync(SimpMessageHeaderAccessor headerAccessor, ElectionTransferDTO election) {
+        var tracker = ElectionDeltaTracker.of(headerAccessor.getSessionAttributes());
+        tracker.publishSnapshot(election, delta -> send(headerAccessor, delta));
+    }
+
+    /**
+     * Send the changes of the election to the session if it resynced before.
+     * @param headerAccessor header data which contains the user session, may be null.
+     * @param election the election after the save, may be null if nothing was saved.
+     * @return the election to reply with, null if the changes were sent as delta update.
+     */
+    public ElectionTransferDTO publish(SimpMessageHeaderAccessor headerAccessor, ElectionTransferDTO election) {
+        if (election == null || headerAccessor == null) {
+            return election;
+        }
+        var tracker = ElectionDeltaTracker.find(headerAccessor.getSessionAttributes());
+        if (tracker.isEmpty()) {
+            return election;
+        }
+        tracker.get().publish(election, delta -> send(headerAccessor, delta));
+        return null;
+    }
+
+    private void send(SimpMessageHeaderAccessor headerAccessor, ElectionDeltaDTO delta) {
+        var headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(headerAccessor.getSessionId());
+        headers.setLeaveMutable(true);
+        // with the session id only this session receives the update, not all sessions of the user
+        messagingTemplate.convertAndSendToUser(headerAccessor.getUser().getName(), DELTA_DESTINATION, delta,
+                                               headers.getMessageHeaders());
+    }
+}
@@ -1,27 +1,37 @@
 package ch.zhaw.vorwahlen.service;
 
+import ch.zhaw.vorwahlen.catalog.ModuleCatalog;
+import ch.zhaw.vorwahlen.concurrency.ElectionSaveExecutor;
+import ch.zhaw.vorwahlen.concurrency.ElectionSaveSettings;
+import ch.zhaw.vorwahlen.concurrency.SaveSequence;
 import ch.zhaw.vorwahlen.config.ResourceBundleMessageLoader;
 import ch.zhaw.vorwahlen.config.UserBean;
 import ch.zhaw.vorwahlen.constants.ResourceMessageConstants;
 import ch.zhaw.vorwahlen.exception.ElectionConflictException;
 import ch.zhaw.vorwahlen.exception.ElectionNotFoundException;
+import ch.zhaw.vorwahlen.exception.ModuleNotFoundException;
 import ch.zhaw.vorwahlen.exception.StudentNotFoundException;
 import ch.zhaw.vorwahlen.exporter.ElectionExporter;
 import ch.zhaw.vorwahlen.mapper.Mapper;
 import ch.zhaw.vorwahlen.model.core.election.ElectionDTO;
 import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
 import ch.zhaw.vorwahlen.model.core.election.ElectionStatusDTO;
+import ch.zhaw.vorwahlen.model.ElectionBatchDTO;
+import ch.zhaw.vorwahlen.model.ElectionChangeDTO;
+import ch.zhaw.vorwahlen.model.ElectionSaveDTO;
 import ch.zhaw.vorwahlen.model.ElectionTransferDTO;
-import ch.zhaw.vorwahlen.model.modulestructure.ElectionSemesters;
 import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.module.Module;
 import ch.zhaw.vorwahlen.model.core.student.Student;
 import ch.zhaw.vorwahlen.model.core.validationsetting.ValidationSetting;
-import ch.zhaw.vorwahlen.model.modulestructure.ModuleDefinition;
-import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureGenerator;
+import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureEngine;
 import ch.zhaw.vorwahlen.repository.ElectionRepository;
-import ch.zhaw.vorwahlen.repository.ModuleRepository;
 import ch.zhaw.vorwahlen.repository.StudentRepository;
-import ch.zhaw.vorwahlen.validation.ElectionValidator;
+import ch.zhaw.vorwahlen.validation.ElectionResultCache;
+import ch.zhaw.vorwahlen.validation.ElectionTally;
+import ch.zhaw.vorwahlen.validation.ElectionValidatorRegistry;
+import ch.zhaw.vorwahlen.validation.IncrementalElectionValidator;
+import ch.zhaw.vorwahlen.writebehind.ElectionWriteBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -32,6 +42,8 @@ import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -45,16 +57,23 @@ import static ch.zhaw.vorwahlen.constants.ResourceMessageConstants.*;
 @Slf4j
 @RequiredArgsConstructor
 public class ElectionService {
+    private static final int EXPORT_PAGE_SIZE = 200;
+
     private final ElectionRepository electionRepository;
-    private final ModuleRepository moduleRepository;
+    private final ModuleCatalog moduleCatalog;
     private final StudentRepository studentRepository;
-    private final ElectionValidator electionValidator;
-    private final ModuleDefinition moduleDefinition;
+    private final ElectionValidatorRegistry electionValidatorRegistry;
+    private final IncrementalElectionValidator incrementalElectionValidator;
+    private final ModuleStructureEngine moduleStructureEngine;
     private final ElectionExporter exporter;
-    private final ElectionSemesters electionSemesters;
     private final Mapper<ElectionDTO, Election>  electionMapper;
     private final Mapper<ElectionStatusDTO, ElectionStatus> electionStatusMapper;
     private final UserBean userBean;
+    private final ElectionWriteBuffer electionWriteBuffer;
+    private final ElectionResultCache electionResultCache;
+    private final ElectionSaveExecutor electionSaveExecutor;
+    private final ElectionSaveSettings electionSaveSettings;
+    private final ElectionDeltaService electionDeltaService;
 
     @Qualifier("clientOutboundChannel")
     private final MessageChannel clientOutboundChannel;
@@ -64,6 +83,7 @@ public class ElectionService {
      * @return list of {@link ElectionDTO}
      */
     public List<ElectionDTO> getAllElections() {
+        electionWriteBuffer.flush();
         return electionRepository.findAllModules()
                 .stream()
                 .map( electionMapper::toDto)
@@ -76,6 +96,7 @@ public class ElectionService {
      * @return ElectionDTO
      */
     public ElectionDTO getElectionById(Long id) {
+        electionWriteBuffer.flush();
         return  electionMapper.toDto(fetchElectionById(id));
     }
 
@@ -108,6 +129,8 @@ public class ElectionService {
             log.debug("User: {} requested to delete  election with id: {}", user.getMail(), id)
         );
         var  election = fetchElectionById(id);
+        electionWriteBuffer.flush(election.getStudent().getEmail());
+        incrementalElectionValidator.forget(election.getStudent().getEmail());
          election.getStudent().setElection(null);
          election.setStudent(null);
         electionRepository.delete( election);
@@ -122,13 +145,16 @@ public class ElectionService {
     public void updateElection(Long id, ElectionDTO electionDTO) {
 
         var savedElection = fetchElectionById(id);
+        electionWriteBuffer.flush(savedElection.getStudent().getEmail());
         var newElection =  electionMapper.toInstance(electionDTO);
         newElection.setId(savedElection.getId());
+        newElection.setVersion(savedElection.getVersion());
         userBean.getUserFromSecurityContext().ifPresent(user ->
                 log.debug("User: {} requested to update  election {} with {}",
                         user.getMail(), savedElection, newElection)
         );
         electionRepository.save(newElection);
+        incrementalElectionValidator.forget(savedElection.getStudent().getEmail());
         log.debug(" election was successfully updated");
     }
 
@@ -140,8 +166,8 @@ public class ElectionService {
     public ElectionTransferDTO getElection(String studentId) {
         var student = fetchStudentById(studentId);
         var  election = loadElectionForStudent(student);
-        var  electionStatus = electionValidator.validate( election);
-        return createElectionTransferDTO(student,  electionStatus,  election, false);
+        var result = getElectionResult(student, election);
+        return createElectionTransferDTO(result, election, false);
     }
 
     /**
@@ -157,32 +183,103 @@ public class ElectionService {
      * Saves the election to the database.
      * @param studentId student in session
      * @param moduleNo module that should be saved
-     * @return ElectionTransferDTO containing the election data
+     * @return ElectionTransferDTO containing the election data, null if it was sent as delta update
      */
     public ElectionTransferDTO saveElection(String studentId, String moduleNo, SimpMessageHeaderAccessor headerAccessor) {
-        var student = fetchStudentById(studentId);
-        if(!student.isCanElect()) {
-            var message = ResourceBundleMessageLoader.getMessage(ResourceMessageConstants.ERROR_ELECTION_CANNOT_ELECT);
-            var newHeaderAccessor = StompHeaderAccessor.create(StompCommand.ERROR);
+        ElectionChanges changes = election -> migrateElectionChanges(election, moduleNo);
+        return electionSaveExecutor.executeAndThen(studentId,
+                () -> applySave(studentId, headerAccessor, changes),
+                transferDTO -> electionDeltaService.publish(headerAccessor, transferDTO));
+    }
 
-            newHeaderAccessor.setMessage(message);
-            newHeaderAccessor.setSessionId(headerAccessor.getSessionId());
-            newHeaderAccessor.setSessionAttributes(headerAccessor.getSessionAttributes());
+    /**
+     * Saves a batch of changes to the election, the election is validated once after all changes.
+     * @param studentId student in session
+     * @param batch the changes in the order to apply them
+     * @param headerAccessor header data which contains the user session
+     * @return ElectionTransferDTO containing the election data, null if it was sent as delta update
+     */
+    public ElectionTransferDTO saveElectionBatch(String studentId, ElectionBatchDTO batch,
+                                                 SimpMessageHeaderAccessor headerAccessor) {
+        var maxBatchSize = electionSaveSettings.getMaxBatchSize();
+        if (!isValidBatch(batch, maxBatchSize)) {
+            var formatString = ResourceBundleMessageLoader.getMessage(ResourceMessageConstants.ERROR_ELECTION_BATCH_INVALID);
+            sendError(headerAccessor, String.format(formatString, maxBatchSize));
+            return null;
+        }
+        // resolved before the election is touched, an unknown module leaves the election unchanged
+        var resolvedChanges = new ArrayList<ResolvedChange>(batch.changes().size());
+        for (var change : batch.changes()) {
+            var module = moduleCatalog.findById(change.moduleNo()).orElseThrow(() -> {
+                var formatString = ResourceBundleMessageLoader.getMessage(ERROR_MODULE_NOT_FOUND);
+                return new ModuleNotFoundException(String.format(formatString, change.moduleNo()));
+            });
+            resolvedChanges.add(new ResolvedChange(module, change.action()));
+        }
+        ElectionChanges changes = election -> migrateElectionChanges(election, batch.replaceSelection(),
+                                                                     resolvedChanges);
+        return electionSaveExecutor.executeAndThen(studentId,
+                () -> applySave(studentId, headerAccessor, changes),
+                transferDTO -> electionDeltaService.publish(headerAccessor, transferDTO));
+    }
 
-            clientOutboundChannel.send(MessageBuilder.createMessage(new byte[0], newHeaderAccessor.getMessageHeaders()));
+    /**
+     * Saves one module to the election if the save was not applied before in the websocket session.<br/>
+     *
+     * A save with a sequence number that is not greater than the last applied one of the session is a duplicate or
+     * arrived out of order, it is dropped and answered with the current election. A late save must not undo a newer
+     * change. The reply always contains the last applied sequence number of the session.
+     * @param studentId student in session
+     * @param save the module, if it is added or removed and the sequence number of the client
+     * @param headerAccessor header data which contains the user session
+     * @return ElectionTransferDTO containing the election data and the last applied sequence number, null if it was
+     * sent as delta update
+     */
+    public ElectionTransferDTO saveElectionChange(String studentId, ElectionSaveDTO save,
+                                                  SimpMessageHeaderAccessor headerAccessor) {
+        if (save == null || save.sequence() < 1 || save.moduleNo() == null || save.action() == null) {
+            sendError(headerAccessor, ResourceBundleMessageLoader.getMessage(ResourceMessageConstants.ERROR_ELECTION_SAVE_INVALID));
             return null;
         }
+        var module = moduleCatalog.findById(save.moduleNo()).orElseThrow(() -> {
+            var formatString = ResourceBundleMessageLoader.getMessage(ERROR_MODULE_NOT_FOUND);
+            return new ModuleNotFoundException(String.format(formatString, save.moduleNo()));
+        });
+        var sequence = SaveSequence.of(headerAccessor == null ? null : headerAccessor.getSessionAttributes());
+        var changes = List.of(new ResolvedChange(module, save.action()));
 
-        var  election = loadElectionForStudent(student);
-        migrateElectionChanges( election, moduleNo);
+        return electionSaveExecutor.executeAndThen(studentId, () -> {
+            if (sequence.isApplied(save.sequence())) {
+                return getElection(studentId);
+            }
+            return applySave(studentId, headerAccessor,
+                             election -> migrateElectionChanges(election, false, changes));
+        }, transferDTO -> {
+            if (transferDTO != null && transferDTO.electionSaved()) {
+                sequence.markApplied(save.sequence());
+            }
+            var reply = transferDTO == null ? null : transferDTO.withLastAppliedSequence(sequence.getLastApplied());
+            return electionDeltaService.publish(headerAccessor, reply);
+        });
+    }
 
-        var moduleSetting = Optional.ofNullable( election.getValidationSetting()).orElse(new ValidationSetting());
-         election.setValidationSetting(moduleSetting);
+    private ElectionTransferDTO applySave(String studentId, SimpMessageHeaderAccessor headerAccessor,
+                                          ElectionChanges changes) {
+        var student = fetchStudentById(studentId);
+        if(!student.isCanElect()) {
+            sendError(headerAccessor, ResourceBundleMessageLoader.getMessage(ResourceMessageConstants.ERROR_ELECTION_CANNOT_ELECT));
+            return null;
+        }
 
-        var  electionStatus = electionValidator.validate( election);
-         election.setElectionValid( electionStatus.isValid());
+        if (electionWriteBuffer.isEnabled()) {
+            return electionWriteBuffer.modify(student, () -> loadElectionForStudent(student),
+                                              election -> applyElectionChanges(student, election, changes));
+        }
+
+        var  election = loadElectionForStudent(student);
+        var transferDTO = applyElectionChanges(student, election, changes);
         electionRepository.save( election);
-        return createElectionTransferDTO(student,  electionStatus,  election, true);
+        return transferDTO;
     }
 
     /**
@@ -191,12 +288,13 @@ public class ElectionService {
      */
     public void updateValidation(String studentId) {
         var student = fetchStudentById(studentId);
+        electionWriteBuffer.flush(student.getEmail());
         var  election = loadElectionForStudent(student);
 
         var moduleSetting = Optional.ofNullable( election.getValidationSetting()).orElse(new ValidationSetting());
          election.setValidationSetting(moduleSetting);
 
-        var  electionStatus = electionValidator.validate( election);
+        var  electionStatus = electionValidatorRegistry.validate(student,  election);
          election.setElectionValid( electionStatus.isValid());
         electionRepository.save( election);
     }
@@ -212,10 +310,13 @@ public class ElectionService {
 
     /**
      * Export all  elections.
-     * @return byte array containing the formatted  election.
+     * The elections are read page by page and written to the stream, so the export does not hold all of them.
+     * @param outputStream the stream to write the formatted elections to.
      */
-    public byte[] exportElection() {
-        return exporter.export(electionRepository.findAllModules());
+    public void exportElection(OutputStream outputStream) {
+        electionWriteBuffer.flush();
+        exporter.export(pageConsumer -> electionRepository.forEachPageWithModules(EXPORT_PAGE_SIZE, pageConsumer),
+                        outputStream);
     }
 
     /**
@@ -225,21 +326,105 @@ public class ElectionService {
         studentRepository.closeElection();
     }
 
-    private void migrateElectionChanges(Election election, String moduleNo) {
-        var module = moduleRepository.findById(moduleNo).orElseThrow();
+    private void sendError(SimpMessageHeaderAccessor headerAccessor, String message) {
+        var newHeaderAccessor = StompHeaderAccessor.create(StompCommand.ERROR);
+
+        newHeaderAccessor.setMessage(message);
+        newHeaderAccessor.setSessionId(headerAccessor.getSessionId());
+        newHeaderAccessor.setSessionAttributes(headerAccessor.getSessionAttributes());
+
+        clientOutboundChannel.send(MessageBuilder.createMessage(new byte[0], newHeaderAccessor.getMessageHeaders()));
+    }
+
+    private static boolean isValidBatch(ElectionBatchDTO batch, int maxBatchSize) {
+        if (batch == null || batch.changes() == null || batch.changes().size() > maxBatchSize) {
+            return false;
+        }
+        return batch.changes().stream().allMatch(change -> change != null && change.moduleNo() != null
+                && change.action() != null);
+    }
+
+    private ElectionTransferDTO applyElectionChanges(Student student, Election election, ElectionChanges changes) {
+        var appliedChanges = changes.applyTo(election);
+        var tally = incrementalElectionValidator.update(student.getEmail(), election, appliedChanges,
+                                                        moduleCatalog.getVersion());
+
+        var moduleSetting = Optional.ofNullable(election.getValidationSetting()).orElse(new ValidationSetting());
+        election.setValidationSetting(moduleSetting);
+
+        var result = getElectionResult(student, election, tally);
+        election.setElectionValid(result.status().isValid());
+        return createElectionTransferDTO(result, election, true);
+    }
+
+    private record ResolvedChange(Module module, ElectionChangeDTO.Action action) {}
+
+    /**
+     * Changes of a save, returns the modules it added and removed.
+     */
+    @FunctionalInterface
+    private interface ElectionChanges {
+        List<ElectionTally.Change> applyTo(Election election);
+    }
+
+    private List<ElectionTally.Change> migrateElectionChanges(Election election, boolean replaceSelection,
+                                                              List<ResolvedChange> changes) {
         var electedModules = election.getElectedModules();
-        if (!electedModules.removeIf(m -> moduleNo.equals(m.getModuleNo()))) {
-            electedModules.add(module);
+        var appliedChanges = new ArrayList<ElectionTally.Change>();
+        if (replaceSelection) {
+            electedModules.forEach(module -> appliedChanges.add(new ElectionTally.Change(module, false)));
+            electedModules.clear();
+        }
+        for (var change : changes) {
+            var module = change.module();
+            var moduleNo = module.getModuleNo();
+            if (electedModules.removeIf(m -> moduleNo.equals(m.getModuleNo()))) {
+                appliedChanges.add(new ElectionTally.Change(module, false));
+            }
+            if (change.action() == ElectionChangeDTO.Action.ADD) {
+                electedModules.add(module);
+                appliedChanges.add(new ElectionTally.Change(module, true));
+            }
         }
+        return appliedChanges;
     }
 
-    private ElectionTransferDTO createElectionTransferDTO(Student student, ElectionStatus status,
+    private List<ElectionTally.Change> migrateElectionChanges(Election election, String moduleNo) {
+        var module = moduleCatalog.findById(moduleNo).orElseThrow();
+        var electedModules = election.getElectedModules();
+        if (electedModules.removeIf(m -> moduleNo.equals(m.getModuleNo()))) {
+            return List.of(new ElectionTally.Change(module, false));
+        }
+        electedModules.add(module);
+        return List.of(new ElectionTally.Change(module, true));
+    }
+
+    private ElectionResultCache.Result getElectionResult(Student student, Election election) {
+        return getElectionResult(student, election, null);
+    }
+
+    private ElectionResultCache.Result getElectionResult(Student student, Election election, ElectionTally tally) {
+        return electionResultCache.get(student, election, electedModules -> {
+            var status = tally == null ? incrementalElectionValidator.validate(student, election, electedModules)
+                                       : incrementalElectionValidator.validate(student, election, tally);
+            var electionStructure = moduleStructureEngine.generateStructure(student, election);
+            return new ElectionResultCache.Result(electionStructure, status);
+        });
+    }
+
+    private ElectionTransferDTO createElectionTransferDTO(ElectionResultCache.Result result,
                                                           Election election, boolean saved) {
-        var electionStructure =
-                new ModuleStructureGenerator(moduleDefinition, student, election, electionSemesters).generateStructure();
+        return new ElectionTransferDTO(result.structure(),
+                                       electionStatusMapper.toDto(result.status()), saved, election.isElectionValid(),
+                                       null);
+    }
 
-        return new ElectionTransferDTO(electionStructure,
-                                       electionStatusMapper.toDto(status), saved, election.isElectionValid());
+    /**
+     * Returns the statistics of the cache for the election structure and status.
+     * @return {@link ElectionResultCache.Statistics}
+     */
+    public ElectionResultCache.Statistics getElectionResultCacheStatistics() {
+        return electionResultCache.getStatistics();
     }
 
     private Election fetchElectionById(Long id) {
@@ -251,12 +436,14 @@ public class ElectionService {
     }
 
     private Election loadElectionForStudent(Student student) {
-        return electionRepository.findElectionByStudent(student.getEmail()).orElseGet(() -> {
-                var  election = new Election();
-                 election.setStudent(student);
-                 election.setValidationSetting(new ValidationSetting());
-                 election.setElectedModules(new HashSet<>());
-                return  election;
-        });
+        return electionWriteBuffer.find(student.getEmail())
+                .or(() -> electionRepository.findElectionByStudent(student.getEmail()))
+                .orElseGet(() -> {
+                    var  election = new Election();
+                     election.setStudent(student);
+                     election.setValidationSetting(new ValidationSetting());
+                     election.setElectedModules(new HashSet<>());
+                    return  election;
+                });
     }
 }
@@ -1,5 +1,10 @@
 package ch.zhaw.vorwahlen.service;
 
+import ch.zhaw.vorwahlen.catalog.ConsecutivePairIndex;
+import ch.zhaw.vorwahlen.catalog.ModuleCatalog;
+import ch.zhaw.vorwahlen.catalog.ModuleCatalogJson;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
 import ch.zhaw.vorwahlen.config.ResourceBundleMessageLoader;
 import ch.zhaw.vorwahlen.config.UserBean;
 import ch.zhaw.vorwahlen.constants.ResourceMessageConstants;
@@ -9,14 +14,20 @@ import ch.zhaw.vorwahlen.exception.ModuleConflictException;
 import ch.zhaw.vorwahlen.exception.ModuleNotFoundException;
 import ch.zhaw.vorwahlen.mapper.Mapper;
 import ch.zhaw.vorwahlen.model.evento.EventoDataDTO;
+import ch.zhaw.vorwahlen.model.evento.EventoDataDocumentConverter;
+import ch.zhaw.vorwahlen.model.evento.EventoDataSummaryDTO;
 import ch.zhaw.vorwahlen.model.core.module.ModuleDTO;
 import ch.zhaw.vorwahlen.model.evento.EventoData;
+import ch.zhaw.vorwahlen.model.evento.EventoPageFingerprint;
 import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.parser.ExcelParser;
 import ch.zhaw.vorwahlen.parser.ModuleParser;
 import ch.zhaw.vorwahlen.repository.ElectionRepository;
 import ch.zhaw.vorwahlen.repository.EventoDataRepository;
+import ch.zhaw.vorwahlen.repository.EventoPageFingerprintRepository;
 import ch.zhaw.vorwahlen.repository.ModuleRepository;
-import ch.zhaw.vorwahlen.scraper.EventoScraper;
+import ch.zhaw.vorwahlen.scraper.EventoScrapeEngine;
+import ch.zhaw.vorwahlen.writebehind.ElectionWriteBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -27,9 +38,10 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static ch.zhaw.vorwahlen.constants.ResourceMessageConstants.ERROR_EVENTO_MODULE_NOT_FOUND;
 
@@ -42,10 +54,16 @@ import static ch.zhaw.vorwahlen.constants.ResourceMessageConstants.ERROR_EVENTO_
 public class ModuleService {
     private final ModuleRepository moduleRepository;
     private final EventoDataRepository eventoDataRepository;
+    private final EventoPageFingerprintRepository eventoPageFingerprintRepository;
     private final ElectionRepository electionRepository;
     private final Mapper<ModuleDTO, Module> moduleMapper;
     private final Mapper<EventoDataDTO, EventoData> eventoDataMapper;
     private final UserBean userBean;
+    private final ModuleCatalog moduleCatalog;
+    private final ResourceVersions resourceVersions;
+    private final ModuleCatalogJson moduleCatalogJson;
+    private final EventoScrapeEngine eventoScrapeEngine;
+    private final ElectionWriteBuffer electionWriteBuffer;
 
     /**
      * Importing the Excel file and storing the needed content into the database.
@@ -54,10 +72,13 @@ public class ModuleService {
     public void importModuleExcel(MultipartFile file, String worksheet) {
         try {
             var moduleParser = new ModuleParser(file.getInputStream(), worksheet);
-            var modules = moduleParser.parseFromXLSX();
-            moduleRepository.saveAll(modules);
-            var updatedModules = setConsecutiveModules(modules);
-            moduleRepository.saveAll(updatedModules);
+            var modules = new ArrayList<Module>();
+            moduleParser.parseFromXLSX(ExcelParser.DEFAULT_CHUNK_SIZE, modules::addAll);
+            setConsecutiveModules(modules);
+            moduleRepository.importAll(modules);
+            moduleCatalog.rebuild();
+            resourceVersions.increment(Resource.MODULES);
+            moduleCatalogJson.refresh();
         } catch (IOException e) {
             var formatString = ResourceBundleMessageLoader.getMessage(ResourceMessageConstants.ERROR_IMPORT_EXCEPTION);
             var message = String.format(formatString, file.getOriginalFilename());
@@ -65,22 +86,11 @@ public class ModuleService {
         }
     }
 
-    private Set<Module> setConsecutiveModules(List<Module> modules) {
-        var consecutiveSet = new HashSet<Module>();
-        for (var m1: modules) {
-            for(var m2: modules) {
-                if(!m1.equals(m2)
-                        && isModuleConsecutiveFieldNotSet(m1)
-                        && isModuleConsecutiveFieldNotSet(m2)
-                        && doTheModulesDifferOnlyInTheNumber(m1, m2)) {
-                    consecutiveSet.add(m1);
-                    consecutiveSet.add(m2);
-                    m1.setConsecutiveModuleNo(m2.getModuleNo());
-                    m2.setConsecutiveModuleNo(m1.getModuleNo());
-                }
-            }
-        }
-        return consecutiveSet;
+    private void setConsecutiveModules(List<Module> modules) {
+        ConsecutivePairIndex.of(modules).findConsecutivePairs().forEach((m1, m2) -> {
+            m1.setConsecutiveModuleNo(m2.getModuleNo());
+            m2.setConsecutiveModuleNo(m1.getModuleNo());
+        });
     }
 
     /**
@@ -112,16 +122,12 @@ public class ModuleService {
         return isValid;
     }
 
-    private boolean isModuleConsecutiveFieldNotSet(Module module) {
-        return module.getConsecutiveModuleNo() == null || module.getConsecutiveModuleNo().isBlank();
-    }
-
     /**
-     * Get all modules from the database.
+     * Get all modules from the {@link ModuleCatalog}.
      * @return a list of {@link ModuleDTO}.
      */
     public List<ModuleDTO> getAllModules() {
-        return moduleRepository.findAll().stream().map(moduleMapper::toDto).toList();
+        return moduleCatalog.findAll().stream().map(moduleMapper::toDto).toList();
     }
 
     /**
@@ -141,6 +147,9 @@ public class ModuleService {
         }
         var module = moduleMapper.toInstance(moduleDTO);
         module = moduleRepository.save(module);
+        moduleCatalog.rebuild();
+        resourceVersions.increment(Resource.MODULES);
+        moduleCatalogJson.refresh();
         log.debug("Module: {} was saved successfully to the database", module);
         return moduleMapper.toDto(module);
     }
@@ -169,6 +178,8 @@ public class ModuleService {
             log.debug("User: {} requested to delete a module with id: {}", user.getMail(), id)
         );
         var module = fetchModuleById(id);
+        // buffered elections with the module have to be in the database before it is removed from them
+        electionWriteBuffer.flush();
         var elections = electionRepository.findAllByElectedModulesContaining(module);
 
         elections.forEach(election -> {
@@ -176,9 +187,13 @@ public class ModuleService {
             election.setElectionValid(false);
         });
         moduleRepository.deleteById(id);
+        moduleCatalog.rebuild();
+        resourceVersions.increment(Resource.MODULES);
+        moduleCatalogJson.refresh();
         log.debug("module was deleted successfully");
         if(eventoDataRepository.existsById(id)) {
             eventoDataRepository.deleteById(id);
+            resourceVersions.increment(Resource.EVENTO_DATA);
             log.debug("evento data entry for deleted module {} was deleted successfully", id);
         }
     }
@@ -198,48 +213,112 @@ public class ModuleService {
                       user.getMail(), storedModule, newModule)
         );
         var module = moduleRepository.save(newModule);
+        moduleCatalog.rebuild();
+        resourceVersions.increment(Resource.MODULES);
+        moduleCatalogJson.refresh();
         log.debug("module was successfully updated");
         return moduleMapper.toDto(module);
     }
 
     /**
-     * Get additional information by the module id
+     * Get the summary of the additional information by the module id, the large text fields are not read.
      * @param id module id
-     * @return additional data as {@link EventoDataDTO}
+     * @return summary as {@link EventoDataSummaryDTO}
      */
-    public EventoDataDTO getEventoDataById(String id) {
-        var eventoData = eventoDataRepository.findById(id).orElseThrow(() -> {
-            var errorMessage = String.format(ResourceBundleMessageLoader.getMessage(ERROR_EVENTO_MODULE_NOT_FOUND), id);
-            return new EventoDataNotFoundException(errorMessage);
-        });
-        return eventoDataMapper.toDto(eventoData);
+    public EventoDataSummaryDTO getEventoDataSummaryById(String id) {
+        return eventoDataRepository.findSummaryByModuleNo(id).orElseThrow(() -> createEventoDataNotFoundException(id));
+    }
+
+    /**
+     * Check that there is additional information for the module id, the document is not read.
+     * @param id module id
+     */
+    public void checkEventoDataExists(String id) {
+        if (!eventoDataRepository.existsById(id)) {
+            throw createEventoDataNotFoundException(id);
+        }
+    }
+
+    /**
+     * Get additional information by the module id as it is stored.
+     * @param id module id
+     * @return additional data as gzipped JSON of {@link EventoDataDTO}
+     */
+    public byte[] getCompressedEventoDataById(String id) {
+        return eventoDataRepository.findCompressedDocument(id).orElseThrow(() -> createEventoDataNotFoundException(id));
+    }
+
+    /**
+     * Get additional information by the module id.
+     * @param id module id
+     * @return additional data as JSON of {@link EventoDataDTO}
+     */
+    public byte[] getEventoDataById(String id) {
+        try {
+            return EventoDataDocumentConverter.decompress(getCompressedEventoDataById(id));
+        } catch (IOException e) {
+            throw new IllegalStateException("stored evento data of module " + id + " is not gzipped", e);
+        }
     }
 
     /**
      * Runs the scraper for all modules to retrieve additional data.
+     * Only the modules whose evento page changed since the last run are saved, each as soon as it is scraped.
      */
     @Async
     public void scrapeEventoDataForAllModules() {
-        var eventoDataList = new ArrayList<EventoData>();
-        var modules = moduleRepository.findAll();
-        for (var module : modules) {
-            var eventoUrl = String.format(EventoScraper.SITE_URL, module.getModuleId());
-            var data = EventoScraper.parseModuleByURL(eventoUrl, module);
-            eventoDataList.add(data);
-            log.info(data.toString());
-            try {
-                Thread.sleep(5000);
-            } catch (InterruptedException e) {
-                log.warn(e.getLocalizedMessage(), e);
+        var storedModuleNos = eventoDataRepository.findAllModuleNos();
+        var fingerprints = eventoPageFingerprintRepository.findAll().stream()
+                .filter(fingerprint -> storedModuleNos.contains(fingerprint.getModuleNo()))
+                .collect(Collectors.toMap(EventoPageFingerprint::getModuleNo, Function.identity()));
+
+        var report = eventoScrapeEngine.scrapeAll(moduleRepository.findAll(), fingerprints, scrapedModule -> {
+            if (scrapedModule.eventoData() != null) {
+                eventoDataRepository.save(scrapedModule.eventoData());
+                resourceVersions.increment(Resource.EVENTO_DATA);
             }
+            eventoPageFingerprintRepository.save(scrapedModule.fingerprint());
+        });
+        var statistics = report.statistics();
+        log.info("scraped {} modules, unchanged: {}, failed: {}, received {} of {} bytes in {} ms",
+                 report.scraped(), report.unchanged(), report.failedModuleNos(),
+                 statistics.bytesReceived(), statistics.bodyBytes(),
+                 TimeUnit.NANOSECONDS.toMillis(statistics.durationNanos()));
+    }
+
+    /**
+     * Parse the cached evento pages of all modules again, eventoweb is not requested.
+     */
+    public void reparseCachedEventoData() {
+        var parsed = eventoScrapeEngine.reparseCached(moduleRepository.findAll(), eventoDataRepository::save);
+        if (parsed > 0) {
+            resourceVersions.increment(Resource.EVENTO_DATA);
         }
-        eventoDataRepository.saveAll(eventoDataList);
+        log.info("parsed {} cached evento pages", parsed);
     }
 
     public EventoDataDTO scrapeEventoDataForId(String id) {
         var module = fetchModuleById(id);
-        var eventoUrl = String.format(EventoScraper.SITE_URL, module.getModuleId());
-        return eventoDataMapper.toDto(eventoDataRepository.save(EventoScraper.parseModuleByURL(eventoUrl, module)));
+        var eventoData = new EventoData();
+        eventoData.setModuleNo(module.getModuleNo());
+        try {
+            var scrapedModule = eventoScrapeEngine.scrape(module, null);
+            eventoData = scrapedModule.eventoData();
+            eventoPageFingerprintRepository.save(scrapedModule.fingerprint());
+        } catch (IOException e) {
+            log.error("could not scrape module {}", module.getModuleNo(), e);
+        } catch (InterruptedException e) {
+            log.warn("scraping module {} was interrupted", module.getModuleNo(), e);
+            Thread.currentThread().interrupt();
+        }
+        var saved = eventoDataRepository.save(eventoData);
+        resourceVersions.increment(Resource.EVENTO_DATA);
+        return eventoDataMapper.toDto(saved);
+    }
+
+    private EventoDataNotFoundException createEventoDataNotFoundException(String id) {
+        var errorMessage = String.format(ResourceBundleMessageLoader.getMessage(ERROR_EVENTO_MODULE_NOT_FOUND), id);
+        return new EventoDataNotFoundException(errorMessage);
     }
 
     private Module fetchModuleById(String id) {
@@ -1,5 +1,7 @@
 package ch.zhaw.vorwahlen.service;
 
+import ch.zhaw.vorwahlen.catalog.ResourceVersions;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
 import ch.zhaw.vorwahlen.config.ResourceBundleMessageLoader;
 import ch.zhaw.vorwahlen.config.UserBean;
 import ch.zhaw.vorwahlen.constants.ResourceMessageConstants;
@@ -14,7 +16,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -29,6 +33,19 @@ public class PageTextService {
     private final PageTextRepository pageTextRepository;
     private final Mapper<PageTextDTO, PageText> mapper;
     private final UserBean userBean;
+    private final ResourceVersions resourceVersions;
+    private volatile PageTextCache cache;
+
+    /**
+     * Page texts of one version, only the known pages are cached, so the cache is bounded by the stored page texts.
+     */
+    private record PageTextCache(long version, Set<String> pages, Map<PageTextKey, Set<PageTextDTO>> pageTexts) {
+        boolean isKnown(String page) {
+            return page != null && pages.contains(page);
+        }
+    }
+
+    private record PageTextKey(String page, UserType userType) {}
 
     private Set<PageTextDTO> mapSetToDto(Stream<PageText> stream) {
         return stream.map(mapper::toDto).collect(Collectors.toSet());
@@ -59,6 +76,29 @@ public class PageTextService {
         return mapSetToDto(pageTextRepository.findAllByUserType(page, userType).stream());
     }
 
+    /**
+     * Return all page texts by a certain page and user type, cached until the next change of the page texts.
+     * A page without page texts is not cached and has no page texts.
+     * @return unmodifiable set of {@link PageTextDTO}.
+     */
+    public Set<PageTextDTO> getCachedPageTextsByUserType(String page, UserType userType) {
+        var current = getCache();
+        if (!current.isKnown(page)) {
+            return Set.of();
+        }
+        return current.pageTexts().computeIfAbsent(new PageTextKey(page, userType), k ->
+                Set.copyOf(mapSetToDto(pageTextRepository.findAllByUserType(k.page(), k.userType()).stream())));
+    }
+
+    /**
+     * Says if there are page texts for a page.
+     * @param page the page.
+     * @return true if at least one page text belongs to the page.
+     */
+    public boolean isKnownPage(String page) {
+        return getCache().isKnown(page);
+    }
+
     /**
      * Add a new page text.
      * @param pageTextDTO to be added page text.
@@ -76,6 +116,7 @@ public class PageTextService {
         }
         var entity = mapper.toInstance(pageTextDTO);
         entity = pageTextRepository.save(entity);
+        resourceVersions.increment(Resource.PAGE_TEXTS);
         log.debug("Page Text: {} was saved successfully to the database", entity);
         return mapper.toDto(entity);
     }
@@ -95,6 +136,7 @@ public class PageTextService {
                       user.getMail(), storedPageText, newPageText)
         );
         pageTextRepository.save(newPageText);
+        resourceVersions.increment(Resource.PAGE_TEXTS);
         log.debug("page text was updated successfully");
     }
 
@@ -109,9 +151,22 @@ public class PageTextService {
         );
         var pageText = fetchPageTextById(pageTextId);
         pageTextRepository.deleteById(pageText.getId());
+        resourceVersions.increment(Resource.PAGE_TEXTS);
         log.debug("page text was deleted successfully");
     }
 
+    private PageTextCache getCache() {
+        // the version is read before the pages, a change in between is read again with the next version
+        var version = resourceVersions.getVersion(Resource.PAGE_TEXTS);
+        var current = cache;
+        if (current == null || current.version() != version) {
+            current = new PageTextCache(version, Set.copyOf(pageTextRepository.findAllPages()),
+                                        new ConcurrentHashMap<>());
+            cache = current;
+        }
+        return current;
+    }
+
     private PageText fetchPageTextById(long pageTextId) {
         return pageTextRepository
                 .findById(pageTextId)
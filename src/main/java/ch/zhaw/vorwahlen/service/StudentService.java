@@ -19,6 +19,7 @@ import ch.zhaw.vorwahlen.model.core.student.StudentClass;
 import ch.zhaw.vorwahlen.model.core.validationsetting.ValidationSetting;
 import ch.zhaw.vorwahlen.parser.ClassListParser;
 import ch.zhaw.vorwahlen.parser.DispensationParser;
+import ch.zhaw.vorwahlen.parser.ExcelParser;
 import ch.zhaw.vorwahlen.repository.ElectionRepository;
 import ch.zhaw.vorwahlen.repository.StudentClassRepository;
 import ch.zhaw.vorwahlen.repository.StudentRepository;
@@ -36,10 +37,13 @@ import javax.mail.internet.MimeMessage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static ch.zhaw.vorwahlen.constants.ResourceMessageConstants.*;
 
@@ -73,10 +77,12 @@ public class StudentService {
     public void importClassListExcel(MultipartFile file, String worksheet) {
         try {
             var classListParser = new ClassListParser(file.getInputStream(), worksheet);
-            var students = classListParser.parseFromXLSX();
-            setSecondElection(students);
-            createAndSetElection(students);
-            studentRepository.saveAll(students);
+            classListParser.parseFromXLSX(ExcelParser.DEFAULT_CHUNK_SIZE, students -> {
+                setSecondElection(students);
+                createAndSetElection(students);
+                saveStudentClasses(students);
+                studentRepository.importAll(students);
+            });
         } catch (IOException e) {
             var formatString = ResourceBundleMessageLoader.getMessage(ResourceMessageConstants.ERROR_IMPORT_EXCEPTION);
             var message = String.format(formatString, file.getOriginalFilename());
@@ -130,6 +136,15 @@ public class StudentService {
                 .forEach(student-> student.setSecondElection(isSecondElection(student.getStudentClass().getName())));
     }
 
+    private void saveStudentClasses(List<Student> students) {
+        // new students are persisted by the import, which does not cascade to their classes
+        var studentClasses = students.stream()
+                .map(Student::getStudentClass)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        studentClassRepository.saveAll(studentClasses);
+    }
+
     private void createAndSetElection(List<Student> students) {
         students.forEach(student -> {
                     var  election = new Election();
@@ -285,17 +300,20 @@ public class StudentService {
 
     /**
      * Importing the Excel file and storing the needed content into the database.
+     * The dispensations of all rows are applied in one transaction.
      * @param file the Excel file to be parsed and stored.
+     * @return the emails of the file which matched no student.
      */
-    public void importDispensationExcel(MultipartFile file, String worksheet) {
+    public List<String> importDispensationExcel(MultipartFile file, String worksheet) {
         try (InputStream is = file.getInputStream()) {
             var dispensationParser = new DispensationParser(is, worksheet);
-            var parsedList = dispensationParser.parseFromXLSX();
-            parsedList.forEach(student -> studentRepository.findById(student.getEmail()).ifPresent(dbStudent -> {
-                dbStudent.setPaDispensation(student.getPaDispensation());
-                dbStudent.setWpmDispensation(student.getWpmDispensation());
-                studentRepository.save(dbStudent);
-            }));
+            var dispensations = new ArrayList<Student>();
+            dispensationParser.parseFromXLSX(ExcelParser.DEFAULT_CHUNK_SIZE, dispensations::addAll);
+            var unmatchedEmails = studentRepository.updateDispensations(dispensations);
+            if (!unmatchedEmails.isEmpty()) {
+                log.info("{} dispensations matched no student: {}", unmatchedEmails.size(), unmatchedEmails);
+            }
+            return unmatchedEmails;
         } catch (IOException e) {
             var formatString = ResourceBundleMessageLoader.getMessage(ResourceMessageConstants.ERROR_IMPORT_EXCEPTION);
             var message = String.format(formatString, file.getOriginalFilename());
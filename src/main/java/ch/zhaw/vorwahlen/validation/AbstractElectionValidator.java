@@ -1,18 +1,16 @@
 package ch.zhaw.vorwahlen.validation;
 
-import ch.zhaw.vorwahlen.config.ResourceBundleMessageLoader;
+import ch.zhaw.vorwahlen.catalog.ConsecutivePairIndex;
 import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
 import ch.zhaw.vorwahlen.model.core.module.Module;
 import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
 import ch.zhaw.vorwahlen.model.core.election.Election;
 import ch.zhaw.vorwahlen.model.core.student.Student;
-import ch.zhaw.vorwahlen.service.ModuleService;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Abstract election validator with blueprint to what needs to be checked.
@@ -29,8 +27,6 @@ import java.util.Set;
  * Since the parttime student elects two times over two years and we don't store the election of the first year,
  * we skip some validation.
  */
-@RequiredArgsConstructor
-@Getter
 public abstract class AbstractElectionValidator implements ElectionValidator {
     public static final int NUM_ENGLISH_CREDITS = 20;
     public static final int CREDIT_PER_SUBJECT_MODULE = 4;
@@ -38,14 +34,27 @@ public abstract class AbstractElectionValidator implements ElectionValidator {
     public static final int MISSING_2_CONSECUTIVE_PAIRS = 2;
     public static final int MISSING_1_CONSECUTIVE_PAIR = 1;
 
-    private final ElectionStatus electionStatus = new ElectionStatus();
-    private final Student student;
+    static final Set<Pair<String>> SPECIAL_CONSECUTIVE_PAIRS = Set.of(new Pair<>("WV.PSPP", "WV.FUP"));
 
-    private record Pair<T>(T first, T second){}
+    record Pair<T>(T first, T second){}
+
+    private final Supplier<ConsecutivePairIndex> consecutivePairIndex;
+
+    protected AbstractElectionValidator() {
+        this(() -> ConsecutivePairIndex.EMPTY);
+    }
+
+    /**
+     * Create validator which looks up the consecutive modules in the index of the module catalog.
+     * @param consecutivePairIndex supplies the index of the current catalog version.
+     */
+    protected AbstractElectionValidator(Supplier<ConsecutivePairIndex> consecutivePairIndex) {
+        this.consecutivePairIndex = consecutivePairIndex;
+    }
 
     @Override
-    public ElectionStatus validate(Election election) {
-        var status = getElectionStatus();
+    public ElectionStatus validate(Student student, Election election) {
+        var status = new ElectionStatus();
 
         var subjectValidation = status.getSubjectValidation();
         var contextValidation = status.getContextValidation();
@@ -59,34 +68,38 @@ public abstract class AbstractElectionValidator implements ElectionValidator {
             additionalValidation.setValid(true);
         } else {
             subjectValidation.setModuleCategory(ModuleCategory.SUBJECT_MODULE);
-            subjectValidation.setValid(validSubjectElection(election));
-            subjectValidation.andValid(validConsecutiveModulePairsInElection(election));
+            subjectValidation.setValid(validSubjectElection(student, election, status));
+            subjectValidation.andValid(validConsecutiveModulePairsInElection(student, election, status));
 
             contextValidation.setModuleCategory(ModuleCategory.CONTEXT_MODULE);
-            contextValidation.setValid(validContextElection(election));
+            contextValidation.setValid(validContextElection(student, election, status));
 
             interdisciplinaryValidation.setModuleCategory(ModuleCategory.INTERDISCIPLINARY_MODULE);
-            interdisciplinaryValidation.setValid(validInterdisciplinaryElection(election));
+            interdisciplinaryValidation.setValid(validInterdisciplinaryElection(student, election, status));
 
-            additionalValidation.setValid(isCreditSumValid(election));
-            additionalValidation.andValid(validIpElection(election));
+            additionalValidation.setValid(isCreditSumValid(student, election, status));
+            additionalValidation.andValid(validIpElection(student, election, status));
         }
 
         return status;
     }
 
-    protected boolean validConsecutiveModulePairsInElection(Election election) {
+    protected boolean validConsecutiveModulePairsInElection(Student student, Election election, ElectionStatus status) {
         var consecutiveMap = calculateConsecutiveMap(election);
-        return consecutiveModuleExtraChecks(election, consecutiveMap);
+        return consecutiveModuleExtraChecks(student, election, status, consecutiveMap);
     }
 
     protected Map<Module, Module> calculateConsecutiveMap(Election election) {
+        return consecutiveMapOf(election.getElectedModules(), consecutivePairIndex.get());
+    }
+
+    static Map<Module, Module> consecutiveMapOf(Set<Module> electedModules, ConsecutivePairIndex consecutivePairIndex) {
         var consecutiveMap = new HashMap<Module, Module>();
-        for(var m1: election.getElectedModules()) {
-            for(var m2: election.getElectedModules()) {
-                if(!m1.equals(m2) && areModulesConsecutive(m1, m2)) {
+        for(var m1: electedModules) {
+            for(var m2: electedModules) {
+                if(!m1.equals(m2) && isConsecutiveModule(m1) && isConsecutiveModule(m2)) {
                     consecutiveMap.putIfAbsent(m1, null);
-                    if (ModuleService.doTheModulesDifferOnlyInTheNumber(m1, m2)){
+                    if (consecutivePairIndex.differOnlyInTheNumber(m1, m2)){
                         consecutiveMap.put(m1, m2);
                     }
                 }
@@ -98,13 +111,13 @@ public abstract class AbstractElectionValidator implements ElectionValidator {
         return consecutiveMap;
     }
 
-    protected abstract boolean consecutiveModuleExtraChecks(Election election, Map<Module, Module> consecutiveMap);
+    protected abstract boolean consecutiveModuleExtraChecks(Student student, Election election, ElectionStatus status,
+                                                            Map<Module, Module> consecutiveMap);
 
     protected int countSpecialConsecutiveModulePairs(Election election) {
         var count = 0;
         var modules = election.getElectedModules();
-        var specialConsecutivePairSet = Set.of(new Pair<>("WV.PSPP", "WV.FUP"));
-        for (var pair: specialConsecutivePairSet) {
+        for (var pair: SPECIAL_CONSECUTIVE_PAIRS) {
             if(containsModule(modules, pair.first) && containsModule(modules, pair.second)) {
                 count++;
             }
@@ -113,8 +126,11 @@ public abstract class AbstractElectionValidator implements ElectionValidator {
     }
 
     protected boolean areModulesConsecutive(Module m1, Module m2) {
-        return m1.getConsecutiveModuleNo() != null && !m1.getConsecutiveModuleNo().isBlank()
-                && m2.getConsecutiveModuleNo() != null && !m2.getConsecutiveModuleNo().isBlank();
+        return isConsecutiveModule(m1) && isConsecutiveModule(m2);
+    }
+
+    static boolean isConsecutiveModule(Module module) {
+        return module.getConsecutiveModuleNo() != null && !module.getConsecutiveModuleNo().isBlank();
     }
 
     protected boolean containsModule(Set<Module> modules, String moduleNo) {
@@ -131,9 +147,10 @@ public abstract class AbstractElectionValidator implements ElectionValidator {
                 .count();
     }
 
-    protected abstract boolean validIpElection(Election election);
+    protected abstract boolean validIpElection(Student student, Election election, ElectionStatus status);
 
-    protected boolean validElectionCountByCategory(Election election, int neededModules, ModuleCategory moduleCategory) {
+    protected boolean validElectionCountByCategory(Election election, int neededModules, ModuleCategory moduleCategory,
+                                                   ElectionStatus electionStatus) {
         var count = countModuleCategory(election, moduleCategory);
         var isValid = count == neededModules;
         if (!isValid) {
@@ -148,33 +165,20 @@ public abstract class AbstractElectionValidator implements ElectionValidator {
     }
 
     protected void addReasonWhenCountByCategoryNotValid(ModuleCategory moduleCategory, ElectionStatus.ElectionStatusElement statusElement, long count, int neededModules) {
-        var category = switch (moduleCategory) {
-            case CONTEXT_MODULE -> ResourceBundleMessageLoader.getMessage("election_status.context");
-            case SUBJECT_MODULE -> ResourceBundleMessageLoader.getMessage("election_status.subject");
-            case INTERDISCIPLINARY_MODULE -> ResourceBundleMessageLoader.getMessage("election_status.interdisciplinary");
-            default -> "";
-        };
-        statusElement.addReason(count > neededModules
-                                        ? String.format(ResourceBundleMessageLoader.getMessage("election_status.too_much_modules_of_category"), (count - neededModules), category)
-                                        : String.format(ResourceBundleMessageLoader.getMessage("election_status.too_less_modules_of_category"), (neededModules - count), category));
+        ElectionReasons.addCountByCategoryReason(moduleCategory, statusElement, count, neededModules);
     }
 
-    protected void addReasonWhenCreditSumNotValid(int sum, int minNeededCredits, int maxNeededCredits) {
-        var status = getElectionStatus().getAdditionalValidation();
-        if(sum > maxNeededCredits) {
-            status.addReason(String.format(ResourceBundleMessageLoader.getMessage("election_status.too_much_credits"), (sum - maxNeededCredits)));
-        } else if(sum < minNeededCredits) {
-            status.addReason(String.format(ResourceBundleMessageLoader.getMessage("election_status.too_less_credits"), (minNeededCredits - sum)));
-        }
+    protected void addReasonWhenCreditSumNotValid(ElectionStatus status, int sum, int minNeededCredits, int maxNeededCredits) {
+        ElectionReasons.addCreditSumReason(status.getAdditionalValidation(), sum, minNeededCredits, maxNeededCredits);
     }
 
-    protected abstract boolean validInterdisciplinaryElection(Election election);
+    protected abstract boolean validInterdisciplinaryElection(Student student, Election election, ElectionStatus status);
 
-    protected abstract boolean validSubjectElection(Election election);
+    protected abstract boolean validSubjectElection(Student student, Election election, ElectionStatus status);
 
-    protected abstract boolean validContextElection(Election election);
+    protected abstract boolean validContextElection(Student student, Election election, ElectionStatus status);
 
-    protected abstract boolean isCreditSumValid(Election election);
+    protected abstract boolean isCreditSumValid(Student student, Election election, ElectionStatus status);
 
     protected int sumCreditsInclusiveDispensation(Election election, int dispensations) {
         // PA dispensation für die rechnung irrelevant
@@ -0,0 +1,73 @@
+package ch.zhaw.vorwahlen.validation;
+
+import ch.zhaw.vorwahlen.catalog.ConsecutivePairIndex;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Counts over the elected modules of one election, which the rules of the {@link IncrementalElectionValidator} check.
+ * They are either kept up to date per toggle by an {@link ElectionTally} or counted with the masks of the catalog by
+ * {@link ch.zhaw.vorwahlen.catalog.ElectionBits}.
+ */
+public interface ElectionCounts {
+
+    /**
+     * Returns the number of elected modules of a category.
+     * @param moduleCategory the category.
+     * @return the count.
+     */
+    int countCategory(ModuleCategory moduleCategory);
+
+    /**
+     * Returns the sum of the credits of the elected modules.
+     * @return the credit sum.
+     */
+    int getCreditSum();
+
+    /**
+     * Returns the sum of the credits of the elected english modules.
+     * @return the credit sum.
+     */
+    int getEnglishCreditSum();
+
+    /**
+     * Returns if exactly one english module of the international profile is elected.
+     * @return true or false.
+     */
+    boolean containsEnglishModuleIcam();
+
+    /**
+     * Returns the number of elected modules with the short module number.
+     * @param shortModuleNo the short module number.
+     * @return the count.
+     */
+    int countShortModuleNo(String shortModuleNo);
+
+    /**
+     * Returns the number of elected special consecutive pairs like PSPP and FUP.
+     * @return the count.
+     */
+    default int countSpecialConsecutivePairs() {
+        var count = 0;
+        for (var pair : AbstractElectionValidator.SPECIAL_CONSECUTIVE_PAIRS) {
+            if (countShortModuleNo(pair.first()) == 1 && countShortModuleNo(pair.second()) == 1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of consecutive module pairs.
+     * @param electedModules the elected modules of the election.
+     * @return the count.
+     */
+    default long countConsecutivePairs(Set<Module> electedModules) {
+        return AbstractElectionValidator.consecutiveMapOf(electedModules, ConsecutivePairIndex.EMPTY).values().stream()
+                .filter(Objects::nonNull)
+                .count();
+    }
+}
@@ -0,0 +1,75 @@
+package ch.zhaw.vorwahlen.validation;
+
+import ch.zhaw.vorwahlen.config.ResourceBundleMessageLoader;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
+import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Localized reasons why an election is not valid.
+ */
+@UtilityClass
+class ElectionReasons {
+
+    /**
+     * Add the reason that too many or too less modules of a category are elected.
+     * @param moduleCategory the category of the modules.
+     * @param statusElement the status element to add the reason to.
+     * @param count the elected modules of the category.
+     * @param neededModules the needed modules of the category.
+     */
+    void addCountByCategoryReason(ModuleCategory moduleCategory, ElectionStatus.ElectionStatusElement statusElement,
+                                  long count, int neededModules) {
+        var category = switch (moduleCategory) {
+            case CONTEXT_MODULE -> ResourceBundleMessageLoader.getMessage("election_status.context");
+            case SUBJECT_MODULE -> ResourceBundleMessageLoader.getMessage("election_status.subject");
+            case INTERDISCIPLINARY_MODULE -> ResourceBundleMessageLoader.getMessage("election_status.interdisciplinary");
+            default -> "";
+        };
+        statusElement.addReason(count > neededModules
+                                        ? String.format(ResourceBundleMessageLoader.getMessage("election_status.too_much_modules_of_category"), (count - neededModules), category)
+                                        : String.format(ResourceBundleMessageLoader.getMessage("election_status.too_less_modules_of_category"), (neededModules - count), category));
+    }
+
+    /**
+     * Add the reason that the credit sum is out of range, nothing is added if the sum is within the range.
+     * @param statusElement the status element to add the reason to.
+     * @param sum the elected credits.
+     * @param minNeededCredits lower bound of the credits.
+     * @param maxNeededCredits upper bound of the credits.
+     */
+    void addCreditSumReason(ElectionStatus.ElectionStatusElement statusElement, int sum,
+                            int minNeededCredits, int maxNeededCredits) {
+        if(sum > maxNeededCredits) {
+            statusElement.addReason(String.format(ResourceBundleMessageLoader.getMessage("election_status.too_much_credits"), (sum - maxNeededCredits)));
+        } else if(sum < minNeededCredits) {
+            statusElement.addReason(String.format(ResourceBundleMessageLoader.getMessage("election_status.too_less_credits"), (minNeededCredits - sum)));
+        }
+    }
+
+    /**
+     * Add the reason that consecutive module pairs are missing.
+     * @param statusElement the status element to add the reason to.
+     * @param missingPairs the number of missing pairs.
+     */
+    void addConsecutiveReason(ElectionStatus.ElectionStatusElement statusElement, int missingPairs) {
+        statusElement.addReason(String.format(ResourceBundleMessageLoader.getMessage("election_status.too_less_consecutive"), missingPairs));
+    }
+
+    /**
+     * Add the reason that english credits are missing.
+     * @param statusElement the status element to add the reason to.
+     * @param missingCredits the number of missing credits.
+     */
+    void addEnglishCreditsReason(ElectionStatus.ElectionStatusElement statusElement, int missingCredits) {
+        statusElement.addReason(String.format(ResourceBundleMessageLoader.getMessage("election_status.too_less_english"), missingCredits));
+    }
+
+    /**
+     * Add the reason that the module ICAM is missing.
+     * @param statusElement the status element to add the reason to.
+     */
+    void addModuleIcamMissingReason(ElectionStatus.ElectionStatusElement statusElement) {
+        statusElement.addReason(ResourceBundleMessageLoader.getMessage("election_status.module_icam_missing"));
+    }
+}
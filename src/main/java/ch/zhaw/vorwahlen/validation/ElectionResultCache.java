@@ -0,0 +1,154 @@
+package ch.zhaw.vorwahlen.validation;
+
+import ch.zhaw.vorwahlen.catalog.ElectionBits;
+import ch.zhaw.vorwahlen.catalog.ModuleOrdinalIndex;
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+import ch.zhaw.vorwahlen.model.core.validationsetting.ValidationSetting;
+import ch.zhaw.vorwahlen.model.modulestructure.ElectionStructureDTO;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache for the election structure and the election status.<br/>
+ *
+ * Both only depend on the profile of the student, the validation settings of the election and the elected modules.
+ * Many students with the same profile elect the same modules, so the result is computed once and shared. The key
+ * holds the elected modules as {@link ElectionBits} of the current catalog version, a change of the modules makes all
+ * entries unreachable until they are evicted. A missing result is computed with the bits of the key. The module definitions and election semesters are only loaded on
+ * startup.<br/>
+ *
+ * The least recently used entry is evicted when the cache is full, an entry expires a fixed time after it was
+ * computed. The cached results are shared between students and must not be modified.
+ */
+public class ElectionResultCache {
+    private final ElectionResultCacheSettings settings;
+    private final Supplier<ModuleOrdinalIndex> ordinalIndex;
+    private final LongSupplier nanoClock;
+    private final long expireAfterNanos;
+    private final Map<Key, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    /**
+     * Structure and status of an election.
+     * @param structure the election structure.
+     * @param status the validation result.
+     */
+    public record Result(ElectionStructureDTO structure, ElectionStatus status) {}
+
+    /**
+     * Statistics of the cache since the start.
+     * @param hits number of results returned from the cache.
+     * @param misses number of computed results.
+     * @param hitRatio hits per lookup, 0 without lookups.
+     * @param savedMillis computation time of the results returned from the cache.
+     * @param size current number of entries.
+     */
+    public record Statistics(long hits, long misses, double hitRatio, long savedMillis, int size) {}
+
+    private record Key(boolean isTZ, boolean isSecondElection, boolean isIP,
+                       int wpmDispensation, int paDispensation, boolean isRepetent,
+                       boolean alreadyElectedTwoConsecutiveModules, boolean isSkipConsecutiveModuleCheck,
+                       int electedContextModulesInFirstElection, ElectionBits electedModules) {}
+
+    private record Entry(Result result, long computeNanos, long expiresAt) {}
+
+    /**
+     * Create instance.
+     * @param settings size and expiry of the cache.
+     * @param ordinalIndex returns the module ordinal index of the current catalog version.
+     */
+    public ElectionResultCache(ElectionResultCacheSettings settings, Supplier<ModuleOrdinalIndex> ordinalIndex) {
+        this(settings, ordinalIndex, System::nanoTime);
+    }
+
+    ElectionResultCache(ElectionResultCacheSettings settings, Supplier<ModuleOrdinalIndex> ordinalIndex,
+                        LongSupplier nanoClock) {
+        this.settings = settings;
+        this.ordinalIndex = ordinalIndex;
+        this.nanoClock = nanoClock;
+        this.expireAfterNanos = TimeUnit.MILLISECONDS.toNanos(settings.getExpireAfterMs());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > settings.getMaxSize();
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the election or computes it.
+     * @param student the student of the election.
+     * @param election the election.
+     * @param compute computes the result with the bits of the elected modules if it is not cached.
+     * @return {@link Result}
+     */
+    public Result get(Student student, Election election, Function<ElectionBits, Result> compute) {
+        var electedModules = ElectionBits.of(election.getElectedModules(), ordinalIndex.get());
+        if (!settings.isEnabled()) {
+            return compute.apply(electedModules);
+        }
+        var key = createKey(student, election, electedModules);
+        var cached = find(key);
+        if (cached.isPresent()) {
+            hits.incrementAndGet();
+            savedNanos.addAndGet(cached.get().computeNanos());
+            return cached.get().result();
+        }
+
+        misses.incrementAndGet();
+        var start = nanoClock.getAsLong();
+        var result = compute.apply(electedModules);
+        var end = nanoClock.getAsLong();
+        synchronized (entries) {
+            entries.put(key, new Entry(result, end - start, end + expireAfterNanos));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the statistics of the cache.
+     * @return {@link Statistics}
+     */
+    public Statistics getStatistics() {
+        var hitCount = hits.get();
+        var missCount = misses.get();
+        var lookups = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Statistics(hitCount, missCount, lookups == 0 ? 0 : (double) hitCount / lookups,
+                              TimeUnit.NANOSECONDS.toMillis(savedNanos.get()), size);
+    }
+
+    private Optional<Entry> find(Key key) {
+        synchronized (entries) {
+            var entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - nanoClock.getAsLong() <= 0) {
+                entries.remove(key);
+                entry = null;
+            }
+            return Optional.ofNullable(entry);
+        }
+    }
+
+    private Key createKey(Student student, Election election, ElectionBits electedModules) {
+        var setting = Optional.ofNullable(election.getValidationSetting()).orElseGet(ValidationSetting::new);
+        return new Key(student.isTZ(), student.isSecondElection(), student.isIP(),
+                       student.getWpmDispensation(), student.getPaDispensation(), setting.isRepetent(),
+                       setting.hadAlreadyElectedTwoConsecutiveModules(), setting.isSkipConsecutiveModuleCheck(),
+                       setting.getElectedContextModulesInFirstElection(), electedModules);
+    }
+}
@@ -0,0 +1,13 @@
+package ch.zhaw.vorwahlen.validation;
+
+import lombok.Data;
+
+/**
+ * Model class for the settings of the {@link ElectionResultCache}.
+ */
+@Data
+public class ElectionResultCacheSettings {
+    private boolean enabled = true;
+    private int maxSize = 10000;
+    private long expireAfterMs = 600000;
+}
@@ -0,0 +1,195 @@
+package ch.zhaw.vorwahlen.validation;
+
+import ch.zhaw.vorwahlen.catalog.ConsecutivePairIndex;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
+import ch.zhaw.vorwahlen.service.ModuleService;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running counters over the elected modules of one election.<br/>
+ *
+ * Adding or removing a module updates the counters per {@link ModuleCategory}, the credit sums and the
+ * consecutive pair index in constant time, so a toggle in the election does not need to look at the other
+ * elected modules again.<br/>
+ *
+ * Consecutive modules are indexed by their module number without digits, since two modules which differ only
+ * in the number always share this stem. A stem with two elected modules is one pair if
+ * {@link ModuleService#doTheModulesDifferOnlyInTheNumber(Module, Module)} holds. As soon as a stem has more than
+ * two elected modules, the pairs depend on the iteration order of the election, in this case they are counted the
+ * same way as {@link AbstractElectionValidator#calculateConsecutiveMap} does.
+ */
+public class ElectionTally implements ElectionCounts {
+    private static final String LANGUAGE_ENGLISH = "Englisch";
+    private static final String MODULE_ICAM = "WVK.ICAM-EN";
+
+    private final Map<String, Module> electedModules = new HashMap<>();
+    private final int[] categoryCounts = new int[ModuleCategory.values().length];
+    private final Map<String, Integer> shortModuleNoCounts = new HashMap<>();
+    private final Map<String, List<Module>> consecutiveStems = new HashMap<>();
+
+    /**
+     * A module added to or removed from the election by a save.
+     * @param module the module.
+     * @param added true if the module was added, false if it was removed.
+     */
+    public record Change(Module module, boolean added) {}
+
+    @Getter
+    private int creditSum;
+    @Getter
+    private int englishCreditSum;
+    private int englishIcamCount;
+    private int consecutivePairs;
+    private int ambiguousStems;
+
+    /**
+     * Create tally over the given modules.
+     * @param modules the elected modules.
+     * @return ElectionTally
+     */
+    public static ElectionTally of(Set<Module> modules) {
+        var tally = new ElectionTally();
+        modules.forEach(tally::add);
+        return tally;
+    }
+
+    /**
+     * Add an elected module.
+     * @param module the module.
+     */
+    public void add(Module module) {
+        if (electedModules.putIfAbsent(module.getModuleNo(), module) != null) {
+            return;
+        }
+        update(module, 1);
+    }
+
+    /**
+     * Remove an elected module.
+     * @param module the module.
+     */
+    public void remove(Module module) {
+        var removed = electedModules.remove(module.getModuleNo());
+        if (removed != null) {
+            update(removed, -1);
+        }
+    }
+
+    /**
+     * Apply the toggles of a save in their order.
+     * @param changes the added and removed modules.
+     */
+    public void apply(List<Change> changes) {
+        for (var change : changes) {
+            if (change.added()) {
+                add(change.module());
+            } else {
+                remove(change.module());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of modules in the tally.
+     * @return the count.
+     */
+    public int size() {
+        return electedModules.size();
+    }
+
+    /**
+     * Checks if the tally counts exactly the given modules.
+     * @param modules the elected modules.
+     * @return true if the module numbers of the tally and the modules are the same.
+     */
+    public boolean countsExactly(Set<Module> modules) {
+        if (modules.size() != electedModules.size()) {
+            return false;
+        }
+        for (var module : modules) {
+            if (!electedModules.containsKey(module.getModuleNo())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int countCategory(ModuleCategory moduleCategory) {
+        return categoryCounts[moduleCategory.ordinal()];
+    }
+
+    @Override
+    public boolean containsEnglishModuleIcam() {
+        return englishIcamCount == 1;
+    }
+
+    @Override
+    public int countShortModuleNo(String shortModuleNo) {
+        return shortModuleNoCounts.getOrDefault(shortModuleNo, 0);
+    }
+
+    /**
+     * Returns the number of consecutive module pairs.
+     * @param electedModules the elected modules of the election, only used if a stem is ambiguous.
+     * @return the count.
+     */
+    @Override
+    public long countConsecutivePairs(Set<Module> electedModules) {
+        if (ambiguousStems > 0) {
+            return ElectionCounts.super.countConsecutivePairs(electedModules);
+        }
+        return consecutivePairs;
+    }
+
+    private void update(Module module, int delta) {
+        var category = ModuleCategory.parse(module.getModuleNo(), module.getModuleGroup());
+        if (category != null) {
+            categoryCounts[category.ordinal()] += delta;
+        }
+        creditSum += delta * module.getCredits();
+        if (module.getShortModuleNo() != null) {
+            shortModuleNoCounts.merge(module.getShortModuleNo(), delta, Integer::sum);
+        }
+        if (LANGUAGE_ENGLISH.equals(module.getLanguage())) {
+            englishCreditSum += delta * module.getCredits();
+            if (module.getShortModuleNo().contains(MODULE_ICAM)) {
+                englishIcamCount += delta;
+            }
+        }
+        if (AbstractElectionValidator.isConsecutiveModule(module)) {
+            updateConsecutiveStem(module, delta);
+        }
+    }
+
+    private void updateConsecutiveStem(Module module, int delta) {
+        var stem = ConsecutivePairIndex.stemOf(module.getShortModuleNo());
+        var stemModules = consecutiveStems.computeIfAbsent(stem, key -> new ArrayList<>(2));
+        countStem(stemModules, -1);
+        if (delta > 0) {
+            stemModules.add(module);
+        } else {
+            stemModules.remove(module);
+        }
+        countStem(stemModules, 1);
+        if (stemModules.isEmpty()) {
+            consecutiveStems.remove(stem);
+        }
+    }
+
+    private void countStem(List<Module> stemModules, int delta) {
+        if (stemModules.size() > 2) {
+            ambiguousStems += delta;
+        } else if (stemModules.size() == 2
+                && ModuleService.doTheModulesDifferOnlyInTheNumber(stemModules.get(0), stemModules.get(1))) {
+            consecutivePairs += delta;
+        }
+    }
+}
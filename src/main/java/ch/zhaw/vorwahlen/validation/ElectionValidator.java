@@ -2,6 +2,7 @@ package ch.zhaw.vorwahlen.validation;
 
 import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
 import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.student.Student;
 
 /**
  * Contract for a validator.
@@ -10,8 +11,9 @@ public interface ElectionValidator {
 
     /**
      * Validate the elected modules.
+     * @param student the {@link Student} of the election
      * @param election the {@link Election}
-     * @return ElectionStatus
+     * @return a new ElectionStatus
      */
-    ElectionStatus validate(Election election);
+    ElectionStatus validate(Student student, Election election);
 }
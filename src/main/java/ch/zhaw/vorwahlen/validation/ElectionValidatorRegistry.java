@@ -0,0 +1,30 @@
+package ch.zhaw.vorwahlen.validation;
+
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Picks the validator by the type of the student.
+ * The validators are stateless, so one instance per type is shared by all students.
+ */
+@RequiredArgsConstructor
+public class ElectionValidatorRegistry implements ElectionValidator {
+    private final ElectionValidator fullTimeElectionValidator;
+    private final ElectionValidator partTimeElectionValidator;
+
+    /**
+     * Returns the validator for the student.
+     * @param student the student.
+     * @return ElectionValidator
+     */
+    public ElectionValidator getValidator(Student student) {
+        return student.isTZ() ? partTimeElectionValidator : fullTimeElectionValidator;
+    }
+
+    @Override
+    public ElectionStatus validate(Student student, Election election) {
+        return getValidator(student).validate(student, election);
+    }
+}
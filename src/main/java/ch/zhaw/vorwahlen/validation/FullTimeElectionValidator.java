@@ -1,13 +1,16 @@
 package ch.zhaw.vorwahlen.validation;
 
+import ch.zhaw.vorwahlen.catalog.ConsecutivePairIndex;
 import ch.zhaw.vorwahlen.config.ResourceBundleMessageLoader;
 import ch.zhaw.vorwahlen.model.core.module.Module;
 import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
 import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
 import ch.zhaw.vorwahlen.model.core.student.Student;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -20,12 +23,21 @@ public class FullTimeElectionValidator extends AbstractElectionValidator {
     public static final int NUM_SUBJECT_MODULES = 8;
     public static final int NUM_INTERDISCIPLINARY_MODULES = 1;
 
-    public FullTimeElectionValidator(Student student) {
-        super(student);
+    public FullTimeElectionValidator() {
+        super();
+    }
+
+    /**
+     * Create validator which looks up the consecutive modules in the index of the module catalog.
+     * @param consecutivePairIndex supplies the index of the current catalog version.
+     */
+    public FullTimeElectionValidator(Supplier<ConsecutivePairIndex> consecutivePairIndex) {
+        super(consecutivePairIndex);
     }
 
     @Override
-    protected boolean consecutiveModuleExtraChecks(Election election, Map<Module, Module> consecutiveMap) {
+    protected boolean consecutiveModuleExtraChecks(Student student, Election election, ElectionStatus status,
+                                                   Map<Module, Module> consecutiveMap) {
         var settings = election.getValidationSetting();
         if (settings.isSkipConsecutiveModuleCheck()) {
             return true;
@@ -43,15 +55,15 @@ public class FullTimeElectionValidator extends AbstractElectionValidator {
         if (!isValid) {
             var missingPairs = countConsecutivePairs == 0 ? MISSING_2_CONSECUTIVE_PAIRS : MISSING_1_CONSECUTIVE_PAIR;
             var reason = String.format(ResourceBundleMessageLoader.getMessage("election_status.too_less_consecutive"), missingPairs);
-            getElectionStatus().getSubjectValidation().addReason(reason);
+            status.getSubjectValidation().addReason(reason);
         }
         return isValid;
     }
 
     @Override
-    protected boolean validIpElection(Election election)  {
+    protected boolean validIpElection(Student student, Election election, ElectionStatus status) {
         var isValid = true;
-        if(getStudent().isIP()) {
+        if(student.isIP()) {
             var englishModules = election.getElectedModules().stream()
                     .filter(module -> "Englisch".equals(module.getLanguage()))
                     .collect(Collectors.toSet());
@@ -65,12 +77,12 @@ public class FullTimeElectionValidator extends AbstractElectionValidator {
                     .filter(module -> module.getShortModuleNo().contains("WVK.ICAM-EN"))
                     .count() == 1;
 
-            var status = getElectionStatus().getAdditionalValidation();
+            var additionalValidation = status.getAdditionalValidation();
             if(creditSum < NUM_ENGLISH_CREDITS) {
-                status.addReason(String.format(ResourceBundleMessageLoader.getMessage("election_status.too_less_english"), (NUM_ENGLISH_CREDITS - creditSum)));
+                additionalValidation.addReason(String.format(ResourceBundleMessageLoader.getMessage("election_status.too_less_english"), (NUM_ENGLISH_CREDITS - creditSum)));
             }
             if(!doesElectionContainModuleICAM) {
-                status.addReason(ResourceBundleMessageLoader.getMessage("election_status.module_icam_missing"));
+                additionalValidation.addReason(ResourceBundleMessageLoader.getMessage("election_status.module_icam_missing"));
             }
 
             isValid = isEnglishCreditSumValid && doesElectionContainModuleICAM;
@@ -79,34 +91,34 @@ public class FullTimeElectionValidator extends AbstractElectionValidator {
     }
 
     @Override
-    protected boolean validInterdisciplinaryElection(Election election) {
+    protected boolean validInterdisciplinaryElection(Student student, Election election, ElectionStatus status) {
         // IT19 Vollzeit: Sie müssen eines dieser Wahlmodule wählen (Sie können auch mehrere wählen, angerechnet werden kann aber nur ein Wahlmodul).
-        return validElectionCountByCategory(election, NUM_INTERDISCIPLINARY_MODULES, ModuleCategory.INTERDISCIPLINARY_MODULE);
+        return validElectionCountByCategory(election, NUM_INTERDISCIPLINARY_MODULES, ModuleCategory.INTERDISCIPLINARY_MODULE, status);
     }
 
     @Override
-    protected boolean validSubjectElection(Election election) {
+    protected boolean validSubjectElection(Student student, Election election, ElectionStatus status) {
         // IT 19 Vollzeit: Zusammen mit den oben gewählten konsekutiven Modulen wählen Sie total acht Module.
-        var dispensCount = getStudent().getWpmDispensation() / CREDIT_PER_SUBJECT_MODULE;
+        var dispensCount = student.getWpmDispensation() / CREDIT_PER_SUBJECT_MODULE;
         var count = dispensCount + countModuleCategory(election, ModuleCategory.SUBJECT_MODULE);
         var isValid = count == NUM_SUBJECT_MODULES;
         if(!isValid) {
-            addReasonWhenCountByCategoryNotValid(ModuleCategory.SUBJECT_MODULE, getElectionStatus().getSubjectValidation(), count, NUM_SUBJECT_MODULES);
+            addReasonWhenCountByCategoryNotValid(ModuleCategory.SUBJECT_MODULE, status.getSubjectValidation(), count, NUM_SUBJECT_MODULES);
         }
         return isValid;
     }
 
     @Override
-    protected boolean validContextElection(Election election) {
+    protected boolean validContextElection(Student student, Election election, ElectionStatus status) {
         // IT19 Vollzeit: Dies gehört zur Modulgruppe IT5. Sie können bis zu drei dieser Module wählen.
-        return validElectionCountByCategory(election, NUM_CONTEXT_MODULES, ModuleCategory.CONTEXT_MODULE);
+        return validElectionCountByCategory(election, NUM_CONTEXT_MODULES, ModuleCategory.CONTEXT_MODULE, status);
     }
 
     @Override
-    protected boolean isCreditSumValid(Election election) {
+    protected boolean isCreditSumValid(Student student, Election election, ElectionStatus status) {
         // PA dispensation für die rechnung irrelevant
-        var sum = sumCreditsInclusiveDispensation(election, getStudent().getWpmDispensation());
-        addReasonWhenCreditSumNotValid(sum, MAX_CREDITS_PER_YEAR_WITHOUT_PA_AND_BA, MAX_CREDITS_PER_YEAR_WITHOUT_PA_AND_BA);
+        var sum = sumCreditsInclusiveDispensation(election, student.getWpmDispensation());
+        addReasonWhenCreditSumNotValid(status, sum, MAX_CREDITS_PER_YEAR_WITHOUT_PA_AND_BA, MAX_CREDITS_PER_YEAR_WITHOUT_PA_AND_BA);
         return sum == MAX_CREDITS_PER_YEAR_WITHOUT_PA_AND_BA;
     }
 
@@ -0,0 +1,371 @@
+package ch.zhaw.vorwahlen.validation;
+
+import ch.zhaw.vorwahlen.catalog.ElectionBits;
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
+import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+import ch.zhaw.vorwahlen.model.core.validationsetting.ValidationSetting;
+import ch.zhaw.vorwahlen.security.model.User;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ch.zhaw.vorwahlen.validation.AbstractElectionValidator.*;
+
+/**
+ * Validator which keeps an {@link ElectionTally} per student.<br/>
+ *
+ * A save passes the modules it added and removed to {@link #update}, which applies only these toggles to the tally of
+ * the student. The tally is built again from the elected modules if it does not exist yet, the module catalog changed
+ * or it does not count exactly the elected modules after the toggles, which is the case if the election was changed
+ * outside of the saves, e.g. by another node. The toggles are applied within the transaction of the save, if it rolls
+ * back the tally is dropped. The tally is also dropped when the websocket session of the student closes or the
+ * election is changed by an admin.
+ * An election without a tally is validated with the {@link ElectionBits} of its elected modules, which count with the
+ * masks of the catalog.
+ * The rules and the reasons of the returned {@link ElectionStatus} are the same as in
+ * {@link FullTimeElectionValidator} and {@link PartTimeElectionValidator}.
+ */
+@Component
+public class IncrementalElectionValidator implements ElectionValidator {
+    private final Map<String, TrackedTally> tallies = new ConcurrentHashMap<>();
+
+    private record TrackedTally(ElectionTally tally, long catalogVersion) {}
+
+    /**
+     * Validate the election of the student with a new tally over its elected modules.
+     * @param student the student of the election.
+     * @param election the election.
+     * @return ElectionStatus
+     */
+    @Override
+    public ElectionStatus validate(Student student, Election election) {
+        return validate(student, election, ElectionTally.of(election.getElectedModules()));
+    }
+
+    /**
+     * Apply the toggles of a save to the tally of the student.
+     * The saves of a student have to be serialized.
+     * @param studentEmail email of the student.
+     * @param election the election after the save.
+     * @param changes the modules added and removed by the save.
+     * @param catalogVersion version of the module catalog the modules are from.
+     * @return the tally over the elected modules of the election.
+     */
+    public ElectionTally update(String studentEmail, Election election, List<ElectionTally.Change> changes,
+                                long catalogVersion) {
+        forgetOnRollback(studentEmail);
+        var tracked = tallies.get(studentEmail);
+        if (tracked != null && tracked.catalogVersion() == catalogVersion) {
+            var tally = tracked.tally();
+            tally.apply(changes);
+            if (tally.countsExactly(election.getElectedModules())) {
+                return tally;
+            }
+        }
+        var tally = ElectionTally.of(election.getElectedModules());
+        tallies.put(studentEmail, new TrackedTally(tally, catalogVersion));
+        return tally;
+    }
+
+    /**
+     * Drop the tally of the student.
+     * @param studentEmail email of the student.
+     */
+    public void forget(String studentEmail) {
+        tallies.remove(studentEmail);
+    }
+
+    private void forgetOnRollback(String studentEmail) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    forget(studentEmail);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop the tally of the student when the websocket session is closed.
+     * @param event the disconnect event.
+     */
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        if (event.getUser() instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof User user) {
+            forget(user.getMail());
+        }
+    }
+
+    /**
+     * Validate the election with the bits of its elected modules. If an elected module is not in the catalog, the bits
+     * do not count it and a new tally over the elected modules is used instead.
+     * @param student the student of the election.
+     * @param election the election.
+     * @param electedModules the bits of the elected modules of the election.
+     * @return ElectionStatus
+     */
+    public ElectionStatus validate(Student student, Election election, ElectionBits electedModules) {
+        ElectionCounts counts = electedModules.isComplete() ? electedModules
+                                                            : ElectionTally.of(election.getElectedModules());
+        return validate(student, election, counts);
+    }
+
+    /**
+     * Validate the election with counts over its elected modules.
+     * @param student the student of the election.
+     * @param election the election.
+     * @param tally the counts over the elected modules of the election.
+     * @return ElectionStatus
+     */
+    public ElectionStatus validate(Student student, Election election, ElectionCounts tally) {
+        var status = new ElectionStatus();
+        var rules = student.isTZ() ? new PartTimeRules(student, election, tally, status)
+                                   : new FullTimeRules(student, election, tally, status);
+
+        var subjectValidation = status.getSubjectValidation();
+        var contextValidation = status.getContextValidation();
+        var interdisciplinaryValidation = status.getInterdisciplinaryValidation();
+        var additionalValidation = status.getAdditionalValidation();
+
+        if(election.getValidationSetting().isRepetent()) {
+            subjectValidation.setValid(true);
+            contextValidation.setValid(true);
+            interdisciplinaryValidation.setValid(true);
+            additionalValidation.setValid(true);
+        } else {
+            subjectValidation.setModuleCategory(ModuleCategory.SUBJECT_MODULE);
+            subjectValidation.setValid(rules.validSubjectElection());
+            subjectValidation.andValid(rules.validConsecutivePairs());
+
+            contextValidation.setModuleCategory(ModuleCategory.CONTEXT_MODULE);
+            contextValidation.setValid(rules.validContextElection());
+
+            interdisciplinaryValidation.setModuleCategory(ModuleCategory.INTERDISCIPLINARY_MODULE);
+            interdisciplinaryValidation.setValid(rules.validInterdisciplinaryElection());
+
+            additionalValidation.setValid(rules.isCreditSumValid());
+            additionalValidation.andValid(rules.validIpElection());
+        }
+        return status;
+    }
+
+    private abstract static class Rules {
+        protected final Student student;
+        protected final Election election;
+        protected final ValidationSetting settings;
+        protected final ElectionCounts tally;
+        protected final ElectionStatus status;
+
+        Rules(Student student, Election election, ElectionCounts tally, ElectionStatus status) {
+            this.student = student;
+            this.election = election;
+            this.settings = election.getValidationSetting();
+            this.tally = tally;
+            this.status = status;
+        }
+
+        abstract boolean validSubjectElection();
+        abstract boolean validConsecutivePairs();
+        abstract boolean validContextElection();
+        abstract boolean validInterdisciplinaryElection();
+        abstract boolean isCreditSumValid();
+        abstract boolean validIpElection();
+
+        long countConsecutivePairs() {
+            return tally.countConsecutivePairs(election.getElectedModules()) + tally.countSpecialConsecutivePairs();
+        }
+
+        boolean validCount(ModuleCategory moduleCategory, ElectionStatus.ElectionStatusElement statusElement,
+                           long count, int neededModules) {
+            var isValid = count == neededModules;
+            if (!isValid) {
+                ElectionReasons.addCountByCategoryReason(moduleCategory, statusElement, count, neededModules);
+            }
+            return isValid;
+        }
+
+        boolean validCreditSum(int sum, int minNeededCredits, int maxNeededCredits) {
+            ElectionReasons.addCreditSumReason(status.getAdditionalValidation(), sum, minNeededCredits, maxNeededCredits);
+            return sum >= minNeededCredits && sum <= maxNeededCredits;
+        }
+    }
+
+    private static class FullTimeRules extends Rules {
+        FullTimeRules(Student student, Election election, ElectionCounts tally, ElectionStatus status) {
+            super(student, election, tally, status);
+        }
+
+        @Override
+        boolean validSubjectElection() {
+            var count = student.getWpmDispensation() / CREDIT_PER_SUBJECT_MODULE
+                    + tally.countCategory(ModuleCategory.SUBJECT_MODULE);
+            return validCount(ModuleCategory.SUBJECT_MODULE, status.getSubjectValidation(), count,
+                              FullTimeElectionValidator.NUM_SUBJECT_MODULES);
+        }
+
+        @Override
+        boolean validConsecutivePairs() {
+            if (settings.isSkipConsecutiveModuleCheck()) {
+                return true;
+            }
+            var countConsecutivePairs = countConsecutivePairs();
+            var isValid = countConsecutivePairs > 1;
+            if (!isValid) {
+                var missingPairs = countConsecutivePairs == 0 ? MISSING_2_CONSECUTIVE_PAIRS : MISSING_1_CONSECUTIVE_PAIR;
+                ElectionReasons.addConsecutiveReason(status.getSubjectValidation(), missingPairs);
+            }
+            return isValid;
+        }
+
+        @Override
+        boolean validContextElection() {
+            return validCount(ModuleCategory.CONTEXT_MODULE, status.getContextValidation(),
+                              tally.countCategory(ModuleCategory.CONTEXT_MODULE),
+                              FullTimeElectionValidator.NUM_CONTEXT_MODULES);
+        }
+
+        @Override
+        boolean validInterdisciplinaryElection() {
+            return validCount(ModuleCategory.INTERDISCIPLINARY_MODULE, status.getInterdisciplinaryValidation(),
+                              tally.countCategory(ModuleCategory.INTERDISCIPLINARY_MODULE),
+                              FullTimeElectionValidator.NUM_INTERDISCIPLINARY_MODULES);
+        }
+
+        @Override
+        boolean isCreditSumValid() {
+            var credits = FullTimeElectionValidator.MAX_CREDITS_PER_YEAR_WITHOUT_PA_AND_BA;
+            return validCreditSum(tally.getCreditSum() + student.getWpmDispensation(), credits, credits);
+        }
+
+        @Override
+        boolean validIpElection() {
+            if (!student.isIP()) {
+                return true;
+            }
+            var creditSum = tally.getEnglishCreditSum();
+            var additionalValidation = status.getAdditionalValidation();
+            if (creditSum < NUM_ENGLISH_CREDITS) {
+                ElectionReasons.addEnglishCreditsReason(additionalValidation, NUM_ENGLISH_CREDITS - creditSum);
+            }
+            if (!tally.containsEnglishModuleIcam()) {
+                ElectionReasons.addModuleIcamMissingReason(additionalValidation);
+            }
+            return creditSum >= NUM_ENGLISH_CREDITS && tally.containsEnglishModuleIcam();
+        }
+    }
+
+    private static class PartTimeRules extends Rules {
+        PartTimeRules(Student student, Election election, ElectionCounts tally, ElectionStatus status) {
+            super(student, election, tally, status);
+        }
+
+        @Override
+        boolean validSubjectElection() {
+            var dispensCount = 0;
+            var neededSubjectModules = PartTimeElectionValidator.NUM_SUBJECT_MODULES_FIRST_ELECTION;
+            if (student.isSecondElection()) {
+                dispensCount = student.getWpmDispensation() / CREDIT_PER_SUBJECT_MODULE;
+                neededSubjectModules = PartTimeElectionValidator.NUM_SUBJECT_MODULES_SECOND_ELECTION;
+            }
+            var count = dispensCount + tally.countCategory(ModuleCategory.SUBJECT_MODULE);
+            return validCount(ModuleCategory.SUBJECT_MODULE, status.getSubjectValidation(), count,
+                              neededSubjectModules);
+        }
+
+        @Override
+        boolean validConsecutivePairs() {
+            if (!student.isSecondElection() || settings.isSkipConsecutiveModuleCheck()) {
+                return true;
+            }
+            var countConsecutivePairs = countConsecutivePairs();
+            var isValid = countConsecutivePairs > 1;
+            var missingPairs = countConsecutivePairs == 0 ? MISSING_2_CONSECUTIVE_PAIRS : MISSING_1_CONSECUTIVE_PAIR;
+            if (settings.hadAlreadyElectedTwoConsecutiveModules()) {
+                isValid = countConsecutivePairs > 0;
+                missingPairs = MISSING_1_CONSECUTIVE_PAIR;
+            }
+            if (!isValid) {
+                ElectionReasons.addConsecutiveReason(status.getSubjectValidation(), missingPairs);
+            }
+            return isValid;
+        }
+
+        @Override
+        boolean validContextElection() {
+            var totalNumContextModules = PartTimeElectionValidator.NUM_CONTEXT_MODULES_FIRST_ELECTION
+                    + PartTimeElectionValidator.NUM_CONTEXT_MODULES_SECOND_ELECTION;
+            var count = tally.countCategory(ModuleCategory.CONTEXT_MODULE);
+            var isValid = count >= PartTimeElectionValidator.NUM_CONTEXT_MODULES_FIRST_ELECTION
+                    && count <= totalNumContextModules;
+
+            if (student.isSecondElection()) {
+                count += settings.getElectedContextModulesInFirstElection();
+                isValid = count == totalNumContextModules;
+            } else {
+                totalNumContextModules = PartTimeElectionValidator.NUM_CONTEXT_MODULES_FIRST_ELECTION;
+            }
+
+            if (!isValid) {
+                ElectionReasons.addCountByCategoryReason(ModuleCategory.CONTEXT_MODULE, status.getContextValidation(),
+                                                         count, totalNumContextModules);
+            }
+            return isValid;
+        }
+
+        @Override
+        boolean validInterdisciplinaryElection() {
+            var neededInterdisciplinaryModules = student.isSecondElection()
+                    ? PartTimeElectionValidator.NUM_INTERDISCIPLINARY_MODULES_SECOND_ELECTION
+                    : PartTimeElectionValidator.NUM_INTERDISCIPLINARY_MODULES_FIRST_ELECTION;
+            return validCount(ModuleCategory.INTERDISCIPLINARY_MODULE, status.getInterdisciplinaryValidation(),
+                              tally.countCategory(ModuleCategory.INTERDISCIPLINARY_MODULE),
+                              neededInterdisciplinaryModules);
+        }
+
+        @Override
+        boolean isCreditSumValid() {
+            var firstElectionContextCredits = PartTimeElectionValidator.NUM_CONTEXT_MODULES_FIRST_ELECTION
+                    * CREDITS_PER_CONTEXT_MODULE;
+            var secondElectionContextCredits = PartTimeElectionValidator.NUM_CONTEXT_MODULES_SECOND_ELECTION
+                    * CREDITS_PER_CONTEXT_MODULE;
+            var totalContextCredits = firstElectionContextCredits + secondElectionContextCredits;
+
+            var minNeededCredits = PartTimeElectionValidator.MIN_CREDITS_FIRST_ELECTION + firstElectionContextCredits;
+            var maxNeededCredits = PartTimeElectionValidator.MIN_CREDITS_FIRST_ELECTION + totalContextCredits;
+            var dispensation = 0;
+
+            if (student.isSecondElection()) {
+                var contextCreditsAlreadyDone = settings.getElectedContextModulesInFirstElection()
+                        * CREDITS_PER_CONTEXT_MODULE;
+                if (totalContextCredits >= contextCreditsAlreadyDone) {
+                    totalContextCredits -= contextCreditsAlreadyDone;
+                }
+                minNeededCredits = PartTimeElectionValidator.MIN_CREDITS_SECOND_ELECTION_WITHOUT_PA_AND_BA
+                        + totalContextCredits;
+                maxNeededCredits = minNeededCredits;
+                dispensation = student.getWpmDispensation();
+            }
+            return validCreditSum(tally.getCreditSum() + dispensation, minNeededCredits, maxNeededCredits);
+        }
+
+        @Override
+        boolean validIpElection() {
+            // NOTE: IP not checked because we don't store the elected modules from the previous year.
+            return true;
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package ch.zhaw.vorwahlen.validation;
 
+import ch.zhaw.vorwahlen.catalog.ConsecutivePairIndex;
 import ch.zhaw.vorwahlen.config.ResourceBundleMessageLoader;
 import ch.zhaw.vorwahlen.model.core.module.Module;
 import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
 import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
 import ch.zhaw.vorwahlen.model.core.student.Student;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Concrete validator for parttime students.
@@ -26,15 +29,24 @@ public class PartTimeElectionValidator extends AbstractElectionValidator {
     public static final int NUM_INTERDISCIPLINARY_MODULES_FIRST_ELECTION = 0;
     public static final int NUM_INTERDISCIPLINARY_MODULES_SECOND_ELECTION = 1;
 
-    public PartTimeElectionValidator(Student student) {
-        super(student);
+    public PartTimeElectionValidator() {
+        super();
+    }
+
+    /**
+     * Create validator which looks up the consecutive modules in the index of the module catalog.
+     * @param consecutivePairIndex supplies the index of the current catalog version.
+     */
+    public PartTimeElectionValidator(Supplier<ConsecutivePairIndex> consecutivePairIndex) {
+        super(consecutivePairIndex);
     }
 
     @Override
-    protected boolean consecutiveModuleExtraChecks(Election election, Map<Module, Module> consecutiveMap) {
+    protected boolean consecutiveModuleExtraChecks(Student student, Election election, ElectionStatus status,
+                                                   Map<Module, Module> consecutiveMap) {
         // IT18 Teilzeit: Wenn Sie im aktuellen Studienjahr schon zwei konsekutive Module belegt haben, wählen Sie mindestens einmal zwei konsekutive Module, ansonsten mindestens zweimal zwei konsekutive Module.
         // IT19 Teilzeit: Wählen Sie bis zu zwei konsekutive Module (empfohlen: zwei Module). Achten Sie speziell auf die nötigen Vorkenntnisse der Module.
-        if(!getStudent().isSecondElection()) {
+        if(!student.isSecondElection()) {
             return true;
         }
 
@@ -56,7 +68,7 @@ public class PartTimeElectionValidator extends AbstractElectionValidator {
             isValid = countConsecutivePairs > 0;
             if (!isValid) {
                 var reason = String.format(ResourceBundleMessageLoader.getMessage("election_status.too_less_consecutive"), MISSING_1_CONSECUTIVE_PAIR);
-                getElectionStatus().getSubjectValidation().addReason(reason);
+                status.getSubjectValidation().addReason(reason);
             }
         } else {
             /*
@@ -68,7 +80,7 @@ public class PartTimeElectionValidator extends AbstractElectionValidator {
             if (!isValid) {
                 var missingPairs = countConsecutivePairs == 0 ? MISSING_2_CONSECUTIVE_PAIRS : MISSING_1_CONSECUTIVE_PAIR;
                 var reason = String.format(ResourceBundleMessageLoader.getMessage("election_status.too_less_consecutive"), missingPairs);
-                getElectionStatus().getSubjectValidation().addReason(reason);
+                status.getSubjectValidation().addReason(reason);
             }
         }
 
@@ -76,63 +88,63 @@ public class PartTimeElectionValidator extends AbstractElectionValidator {
     }
 
     @Override
-    protected boolean validIpElection(Election election) {
+    protected boolean validIpElection(Student student, Election election, ElectionStatus status) {
         // NOTE: IP not checked because we don't store the elected modules from the previous year.
         return true;
     }
 
     @Override
-    protected boolean validInterdisciplinaryElection(Election election) {
+    protected boolean validInterdisciplinaryElection(Student student, Election election, ElectionStatus status) {
         // IT18 Teilzeit: Sie können bis zu einem der oben gewählten Wahlpflichtmodule durch ein Wahlmodule ersetzen.
         // IT19 Teilzeit: In der Regel wählen Sie jetzt noch keines dieser Wahlmodule, da es mit grosser Wahrscheinlichkeit mit Ihrem obligatorischen Stundenplan nicht kompatibel ist.
-        var neededInterdisciplinaryModules = getStudent().isSecondElection()
+        var neededInterdisciplinaryModules = student.isSecondElection()
                 ? NUM_INTERDISCIPLINARY_MODULES_SECOND_ELECTION
                 : NUM_INTERDISCIPLINARY_MODULES_FIRST_ELECTION;
-        return validElectionCountByCategory(election, neededInterdisciplinaryModules, ModuleCategory.INTERDISCIPLINARY_MODULE);
+        return validElectionCountByCategory(election, neededInterdisciplinaryModules, ModuleCategory.INTERDISCIPLINARY_MODULE, status);
     }
 
     @Override
-    protected boolean validSubjectElection(Election election) {
+    protected boolean validSubjectElection(Student student, Election election, ElectionStatus status) {
         // IT18 Teilzeit: Zusammen mit den oben gewählten konsekutiven Modulen, wählen Sie total sieben Module (mit genehmigter Dispensation aus der beruflichen Anrechnung fünf Module)
         // IT19 Teilzeit: Zusammen mit den oben gewählten konsekutiven Modulen wählen Sie total zwei Module. In der Regel wählen Sie hier also kein Modul.
         var dispensCount = 0;
         var neededSubjectModules = NUM_SUBJECT_MODULES_FIRST_ELECTION;
 
-        if(getStudent().isSecondElection()) {
-            dispensCount = getStudent().getWpmDispensation() / CREDIT_PER_SUBJECT_MODULE;
+        if(student.isSecondElection()) {
+            dispensCount = student.getWpmDispensation() / CREDIT_PER_SUBJECT_MODULE;
             neededSubjectModules = NUM_SUBJECT_MODULES_SECOND_ELECTION;
         }
         var count = dispensCount + countModuleCategory(election, ModuleCategory.SUBJECT_MODULE);
         var isValid = count == neededSubjectModules;
         if(!isValid) {
-            addReasonWhenCountByCategoryNotValid(ModuleCategory.SUBJECT_MODULE, getElectionStatus().getSubjectValidation(), count, neededSubjectModules);
+            addReasonWhenCountByCategoryNotValid(ModuleCategory.SUBJECT_MODULE, status.getSubjectValidation(), count, neededSubjectModules);
         }
         return isValid;
     }
 
     @Override
-    protected boolean validContextElection(Election election) {
+    protected boolean validContextElection(Student student, Election election, ElectionStatus status) {
         var totalNumContextModules = NUM_CONTEXT_MODULES_FIRST_ELECTION + NUM_CONTEXT_MODULES_SECOND_ELECTION;
         var count = countModuleCategory(election, ModuleCategory.CONTEXT_MODULE);
 
         var isValid = count >= NUM_CONTEXT_MODULES_FIRST_ELECTION && count <= totalNumContextModules;
 
-        if(getStudent().isSecondElection()) {
+        if(student.isSecondElection()) {
             count += election.getValidationSetting().getElectedContextModulesInFirstElection();
             isValid = count == totalNumContextModules;
         }
 
         if(!isValid) {
-            if(!getStudent().isSecondElection()) {
+            if(!student.isSecondElection()) {
                 totalNumContextModules = NUM_CONTEXT_MODULES_FIRST_ELECTION;
             }
-            addReasonWhenCountByCategoryNotValid(ModuleCategory.CONTEXT_MODULE, getElectionStatus().getContextValidation(), count, totalNumContextModules);
+            addReasonWhenCountByCategoryNotValid(ModuleCategory.CONTEXT_MODULE, status.getContextValidation(), count, totalNumContextModules);
         }
         return isValid;
     }
 
     @Override
-    protected boolean isCreditSumValid(Election election) {
+    protected boolean isCreditSumValid(Student student, Election election, ElectionStatus status) {
         // apply context modules
         var firstElectionContextCredits = NUM_CONTEXT_MODULES_FIRST_ELECTION * CREDITS_PER_CONTEXT_MODULE;
         var secondElectionContextCredits = NUM_CONTEXT_MODULES_SECOND_ELECTION * CREDITS_PER_CONTEXT_MODULE;
@@ -142,7 +154,7 @@ public class PartTimeElectionValidator extends AbstractElectionValidator {
         var maxNeededCredits = MIN_CREDITS_FIRST_ELECTION + totalContextCredits;
         var dispensation = 0;
 
-        if(getStudent().isSecondElection()) {
+        if(student.isSecondElection()) {
             var contextCreditsAlreadyDone = election.getValidationSetting().getElectedContextModulesInFirstElection()
                     * CREDITS_PER_CONTEXT_MODULE;
             if(totalContextCredits >= contextCreditsAlreadyDone) {
@@ -150,12 +162,12 @@ public class PartTimeElectionValidator extends AbstractElectionValidator {
             }
             minNeededCredits = MIN_CREDITS_SECOND_ELECTION_WITHOUT_PA_AND_BA + totalContextCredits;
             maxNeededCredits = MIN_CREDITS_SECOND_ELECTION_WITHOUT_PA_AND_BA + totalContextCredits;
-            dispensation = getStudent().getWpmDispensation();
+            dispensation = student.getWpmDispensation();
         }
 
         // validate
         var sum = sumCreditsInclusiveDispensation(election, dispensation);
-        addReasonWhenCreditSumNotValid(sum, minNeededCredits, maxNeededCredits);
+        addReasonWhenCreditSumNotValid(status, sum, minNeededCredits, maxNeededCredits);
         return sum >= minNeededCredits && sum <= maxNeededCredits;
     }
 
@@ -0,0 +1,248 @@
+package ch.zhaw.vorwahlen.writebehind;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal for buffered election changes.<br/>
+ *
+ * Every change is written as the complete set of elected modules of a student, so replaying the journal only has
+ * to keep the last entry per student. The journal is split into numbered segments: {@link #rotate()} closes the
+ * current segment before a flush and {@link #deleteUpTo(long)} removes the segments after the flush committed.
+ * Segments left over from a crash are read by {@link #readRecovered()}.<br/>
+ *
+ * Appends are committed in groups: an appending thread queues its line and waits until a write that contains the
+ * line was forced to disk. The first waiting thread writes all queued lines and forces them with one call, the threads
+ * that queued their lines in the meantime return without another force.
+ */
+@Component
+@Slf4j
+public class ElectionJournal {
+    private static final String SEGMENT_PREFIX = "election-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile(SEGMENT_PREFIX + "(\\d+)" + SEGMENT_SUFFIX);
+    private static final String FIELD_DELIMITER = "\t";
+    private static final String MODULE_DELIMITER = ",";
+    private static final String LINE_DELIMITER = "\n";
+
+    private final Path directory;
+    private final long firstSegment;
+
+    // guards the queued lines, appending threads only hold it to queue their line
+    private final Object queueLock = new Object();
+    private final ByteArrayOutputStream queuedLines = new ByteArrayOutputStream();
+    private long queuedCount;
+
+    // guards the segment files, held while a group is written and forced
+    private final Object writeLock = new Object();
+    private long durableCount;
+    private FileChannel channel;
+    private long currentSegment;
+
+    /**
+     * Journal entry.
+     * @param studentEmail email of the student.
+     * @param electedModules module numbers of the elected modules after the change.
+     */
+    public record Entry(String studentEmail, Set<String> electedModules) {}
+
+    /**
+     * Create instance.
+     * @param settings write-behind settings containing the journal directory.
+     */
+    public ElectionJournal(WriteBehindSettings settings) {
+        this.directory = Path.of(settings.getJournalDirectory());
+        this.firstSegment = listSegments().stream().mapToLong(Long::longValue).max().orElse(0) + 1;
+        this.currentSegment = firstSegment;
+    }
+
+    /**
+     * Append an entry and wait until it is forced to disk.
+     * @param studentEmail email of the student.
+     * @param electedModules module numbers of the elected modules.
+     */
+    public void append(String studentEmail, Set<String> electedModules) {
+        var line = studentEmail + FIELD_DELIMITER + String.join(MODULE_DELIMITER, electedModules) + LINE_DELIMITER;
+        long ticket;
+        synchronized (queueLock) {
+            queuedLines.writeBytes(line.getBytes(StandardCharsets.UTF_8));
+            ticket = ++queuedCount;
+        }
+        awaitDurable(ticket);
+    }
+
+    private void awaitDurable(long ticket) {
+        synchronized (writeLock) {
+            if (durableCount >= ticket) {
+                // written and forced with the group of another thread
+                return;
+            }
+            byte[] group;
+            long groupCount;
+            synchronized (queueLock) {
+                group = queuedLines.toByteArray();
+                groupCount = queuedCount;
+                queuedLines.reset();
+            }
+            try {
+                writeAndForce(group);
+            } catch (IOException e) {
+                requeue(group);
+                // a partially written line stays the incomplete last line of its segment
+                close();
+                currentSegment++;
+                throw new UncheckedIOException(e);
+            }
+            durableCount = groupCount;
+        }
+    }
+
+    private void writeAndForce(byte[] group) throws IOException {
+        if (channel == null) {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(segmentPath(currentSegment), StandardOpenOption.CREATE,
+                                       StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        var buffer = ByteBuffer.wrap(group);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    private void requeue(byte[] group) {
+        synchronized (queueLock) {
+            var laterLines = queuedLines.toByteArray();
+            queuedLines.reset();
+            queuedLines.writeBytes(group);
+            queuedLines.writeBytes(laterLines);
+        }
+    }
+
+    /**
+     * Close the current segment, following appends go to a new segment.
+     * @return the number of the last closed segment.
+     */
+    public long rotate() {
+        synchronized (writeLock) {
+            if (channel != null) {
+                close();
+                currentSegment++;
+            }
+            return currentSegment - 1;
+        }
+    }
+
+    /**
+     * Delete all closed segments up to and including the given number.
+     * @param segment the segment number returned by {@link #rotate()}.
+     */
+    public void deleteUpTo(long segment) {
+        synchronized (writeLock) {
+            for (var number : listSegments()) {
+                if (number <= segment) {
+                    try {
+                        Files.deleteIfExists(segmentPath(number));
+                    } catch (IOException e) {
+                        log.warn("could not delete journal segment {}", number, e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Read all segments left over from a previous run, oldest entries first.
+     * Incomplete lines at the end of a segment are skipped.
+     * @return list of {@link Entry}.
+     */
+    public List<Entry> readRecovered() {
+        var entries = new ArrayList<Entry>();
+        for (var number : listSegments()) {
+            if (number >= firstSegment) {
+                continue;
+            }
+            try {
+                var content = Files.readString(segmentPath(number), StandardCharsets.UTF_8);
+                var lines = content.split(LINE_DELIMITER, -1);
+                // the last element is either empty or an incomplete line
+                for (var i = 0; i < lines.length - 1; i++) {
+                    entries.add(parseLine(lines[i]));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Delete all segments left over from a previous run.
+     */
+    public void deleteRecovered() {
+        deleteUpTo(firstSegment - 1);
+    }
+
+    /**
+     * Close the open segment.
+     */
+    public void close() {
+        synchronized (writeLock) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("could not close journal segment {}", currentSegment, e);
+            }
+            channel = null;
+        }
+    }
+
+    private Entry parseLine(String line) {
+        var fields = line.split(FIELD_DELIMITER, -1);
+        var modules = new LinkedHashSet<String>();
+        if (fields.length > 1 && !fields[1].isEmpty()) {
+            modules.addAll(Arrays.asList(fields[1].split(MODULE_DELIMITER)));
+        }
+        return new Entry(fields[0], modules);
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    private List<Long> listSegments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> SEGMENT_PATTERN.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
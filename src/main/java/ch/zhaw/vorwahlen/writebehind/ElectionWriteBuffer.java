@@ -0,0 +1,468 @@
+package ch.zhaw.vorwahlen.writebehind;
+
+import ch.zhaw.vorwahlen.catalog.ModuleCatalog;
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+import ch.zhaw.vorwahlen.model.core.validationsetting.ValidationSetting;
+import ch.zhaw.vorwahlen.repository.ElectionRepository;
+import ch.zhaw.vorwahlen.repository.StudentRepository;
+import ch.zhaw.vorwahlen.security.model.User;
+import ch.zhaw.vorwahlen.validation.ElectionValidatorRegistry;
+import ch.zhaw.vorwahlen.validation.IncrementalElectionValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind buffer for the elections of the students.<br/>
+ *
+ * Every click in the election page toggles one module. Instead of writing the election to the database on every
+ * click, the changes are applied to a copy of the buffered election per student and written to the
+ * {@link ElectionJournal} before the client gets an answer, the copy replaces the buffered election only if the
+ * journal entry was written. The buffered elections are written in one batch on a fixed interval, when the
+ * websocket session of the student closes and on shutdown. After a flush the buffered copies are evicted, so other
+ * readers see the database state again after at most one flush interval. An election that could not be written
+ * stays buffered, it is journaled again in the new segment so the segments of the flush can be deleted anyway. If
+ * another node saved the election in the meantime, the modules the student added and removed since the election was
+ * buffered are merged into the saved election. A buffered election is given up if the election or the student was
+ * deleted, elected modules that were deleted are removed from it.<br/>
+ *
+ * Journal segments left over from a crash are replayed on startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ElectionWriteBuffer {
+    private static final int FAILED_FLUSHES_BEFORE_ERROR = 5;
+
+    private final ElectionRepository electionRepository;
+    private final StudentRepository studentRepository;
+    private final ModuleCatalog moduleCatalog;
+    private final ElectionJournal electionJournal;
+    private final ElectionValidatorRegistry electionValidatorRegistry;
+    private final IncrementalElectionValidator incrementalElectionValidator;
+    private final WriteBehindSettings writeBehindSettings;
+
+    private final Map<String, BufferedElection> buffer = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    private static class BufferedElection {
+        private Election election;
+        // module numbers of the election in the database that the buffered changes are based on
+        private Set<String> baseModuleNos;
+        private boolean dirty;
+        private boolean evicted;
+        private int failedAttempts;
+
+        private BufferedElection(Election election) {
+            this.election = election;
+            this.baseModuleNos = toModuleNumbers(election.getElectedModules());
+        }
+    }
+
+    private record PendingWrite(BufferedElection entry, Election copy) {}
+
+    /**
+     * Returns if the write-behind is enabled, otherwise the elections have to be saved directly.
+     * @return true if enabled.
+     */
+    public boolean isEnabled() {
+        return writeBehindSettings.isEnabled();
+    }
+
+    /**
+     * Apply a change to the buffered election of the student.
+     * The change is journaled before this method returns.
+     * @param student the student of the election.
+     * @param loader loads the election if it is not buffered yet.
+     * @param modification the change, gets the buffered election.
+     * @param <T> result type of the change.
+     * @return the result of the change.
+     */
+    public <T> T modify(Student student, Supplier<Election> loader, Function<Election, T> modification) {
+        var email = student.getEmail();
+        while (true) {
+            var entry = buffer.get(email);
+            if (entry == null) {
+                var loaded = new BufferedElection(copyOf(loader.get()));
+                entry = Optional.ofNullable(buffer.putIfAbsent(email, loaded)).orElse(loaded);
+            }
+            synchronized (entry) {
+                if (entry.evicted) {
+                    continue;
+                }
+                var modified = copyOf(entry.election);
+                var result = modification.apply(modified);
+                electionJournal.append(email, toModuleNumbers(modified.getElectedModules()));
+                entry.election = modified;
+                entry.dirty = true;
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Get a copy of the buffered election of the student.
+     * @param studentEmail email of the student.
+     * @return the buffered election or an empty optional.
+     */
+    public Optional<Election> find(String studentEmail) {
+        var entry = buffer.get(studentEmail);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        synchronized (entry) {
+            return entry.evicted ? Optional.empty() : Optional.of(copyOf(entry.election));
+        }
+    }
+
+    /**
+     * Write all buffered elections to the database.
+     */
+    @Scheduled(fixedDelayString = "${election.write-behind.flush-interval-ms:2000}")
+    public void flush() {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (flushLock) {
+            var segment = electionJournal.rotate();
+            var failed = flushEntries(new ArrayList<>(buffer.values()));
+            if (journalAgain(failed)) {
+                electionJournal.deleteUpTo(segment);
+            }
+        }
+    }
+
+    /**
+     * Write the buffered election of one student to the database.
+     * @param studentEmail email of the student.
+     */
+    public void flush(String studentEmail) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (flushLock) {
+            Optional.ofNullable(buffer.get(studentEmail)).ifPresent(entry -> flushEntries(List.of(entry)));
+        }
+    }
+
+    /**
+     * Flush the election of the student when the websocket session is closed.
+     * @param event the disconnect event.
+     */
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        if (event.getUser() instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof User user) {
+            flush(user.getMail());
+        }
+    }
+
+    /**
+     * Replay the journal segments left over from a previous run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayJournal() {
+        if (!isEnabled()) {
+            return;
+        }
+        var lastEntries = new LinkedHashMap<String, Set<String>>();
+        electionJournal.readRecovered().forEach(entry -> lastEntries.put(entry.studentEmail(), entry.electedModules()));
+        if (lastEntries.isEmpty()) {
+            return;
+        }
+
+        log.info("replaying {} elections from the journal", lastEntries.size());
+        var complete = true;
+        for (var lastEntry : lastEntries.entrySet()) {
+            try {
+                replayElection(lastEntry.getKey(), lastEntry.getValue());
+            } catch (RuntimeException e) {
+                complete = false;
+                log.error("could not replay election of {}", lastEntry.getKey(), e);
+            }
+        }
+        if (complete) {
+            electionJournal.deleteRecovered();
+        } else {
+            log.error("keeping the journal segments of the previous run, they are replayed again on the next start");
+        }
+    }
+
+    /**
+     * Flush the remaining elections on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        electionJournal.close();
+    }
+
+    private List<BufferedElection> flushEntries(Collection<BufferedElection> entries) {
+        var pending = new ArrayList<PendingWrite>();
+        for (var entry : entries) {
+            synchronized (entry) {
+                if (entry.dirty && !entry.evicted) {
+                    pending.add(new PendingWrite(entry, copyOf(entry.election)));
+                    entry.dirty = false;
+                }
+            }
+        }
+
+        List<BufferedElection> failed = List.of();
+        if (!pending.isEmpty()) {
+            try {
+                var saved = electionRepository.saveAll(pending.stream().map(PendingWrite::copy).toList());
+                for (var i = 0; i < pending.size(); i++) {
+                    applySaved(pending.get(i).entry(), saved.get(i));
+                }
+                log.debug("flushed {} buffered elections", pending.size());
+            } catch (RuntimeException e) {
+                log.warn("batch flush of {} elections failed, retrying one by one", pending.size(), e);
+                failed = flushOneByOne(pending);
+            }
+        }
+
+        entries.forEach(this::evictIfClean);
+        return failed;
+    }
+
+    private List<BufferedElection> flushOneByOne(List<PendingWrite> pending) {
+        var failed = new ArrayList<BufferedElection>();
+        for (var write : pending) {
+            var entry = write.entry();
+            try {
+                // the copy of the failed batch may carry ids of the rolled back transaction
+                Election copy;
+                synchronized (entry) {
+                    copy = copyOf(entry.election);
+                }
+                applySaved(entry, electionRepository.save(copy));
+            } catch (RuntimeException e) {
+                if (e instanceof OptimisticLockingFailureException && !mergeWithCurrent(entry)
+                        || e instanceof DataIntegrityViolationException && !removeDeletedModules(entry)) {
+                    continue;
+                }
+                failed.add(entry);
+                synchronized (entry) {
+                    // the change was acknowledged to the student, it stays buffered and journaled until it is saved
+                    entry.failedAttempts++;
+                    entry.dirty = true;
+                    if (entry.failedAttempts >= FAILED_FLUSHES_BEFORE_ERROR) {
+                        log.error("flush of buffered election of {} failed {} times, keeping it buffered",
+                                  entry.election.getStudent().getEmail(), entry.failedAttempts, e);
+                    } else {
+                        log.warn("flush of buffered election of {} failed", entry.election.getStudent().getEmail(), e);
+                    }
+                }
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Journal the elections that are still buffered after a failed flush in the current segment.
+     * @return true if all of them were journaled, the segments of the flush are no longer needed then.
+     */
+    private boolean journalAgain(List<BufferedElection> entries) {
+        try {
+            for (var entry : entries) {
+                synchronized (entry) {
+                    if (!entry.evicted) {
+                        electionJournal.append(entry.election.getStudent().getEmail(),
+                                               toModuleNumbers(entry.election.getElectedModules()));
+                    }
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.error("could not journal the buffered elections again, keeping the journal segments", e);
+            return false;
+        }
+    }
+
+    /**
+     * Remove the elected modules which no longer exist from the buffered election.
+     * @return false if the student no longer exists and the buffered election was given up.
+     */
+    private boolean removeDeletedModules(BufferedElection entry) {
+        String email;
+        synchronized (entry) {
+            email = entry.election.getStudent().getEmail();
+        }
+        try {
+            if (!studentRepository.existsById(email)) {
+                giveUp(entry, "the student was deleted");
+                return false;
+            }
+        } catch (RuntimeException e) {
+            log.warn("could not check the student of the buffered election of {}", email, e);
+            return true;
+        }
+        synchronized (entry) {
+            var election = entry.election;
+            var existing = election.getElectedModules().stream()
+                    .filter(module -> moduleCatalog.findById(module.getModuleNo()).isPresent())
+                    .collect(Collectors.toCollection(HashSet::new));
+            if (existing.size() < election.getElectedModules().size()) {
+                log.warn("removing {} deleted modules from the buffered election of {}",
+                         election.getElectedModules().size() - existing.size(), email);
+                election.setElectedModules(existing);
+                election.setElectionValid(electionValidatorRegistry.validate(election.getStudent(), election)
+                                                  .isValid());
+                incrementalElectionValidator.forget(email);
+            }
+        }
+        return true;
+    }
+
+    private void giveUp(BufferedElection entry, String reason) {
+        synchronized (entry) {
+            var email = entry.election.getStudent().getEmail();
+            entry.evicted = true;
+            entry.dirty = false;
+            buffer.remove(email, entry);
+            incrementalElectionValidator.forget(email);
+            log.error("giving up the buffered election of {}, {}", email, reason);
+        }
+    }
+
+    /**
+     * Merge the buffered changes into the election saved by another node.
+     * The modules added and removed since the buffered election was loaded are applied to the current election, the
+     * merged election is written with the current version on the next flush.
+     * @return false if the election was deleted and the buffered election was given up.
+     */
+    private boolean mergeWithCurrent(BufferedElection entry) {
+        Long id;
+        synchronized (entry) {
+            id = entry.election.getId();
+        }
+        var current = id == null ? Optional.<Election>empty() : electionRepository.findById(id);
+        if (current.isEmpty()) {
+            giveUp(entry, "the election was deleted");
+            return false;
+        }
+        var currentElection = current.get();
+        synchronized (entry) {
+            var election = entry.election;
+            var bufferedModuleNos = toModuleNumbers(election.getElectedModules());
+            var merged = new HashSet<Module>();
+            for (var module : currentElection.getElectedModules()) {
+                var moduleNo = module.getModuleNo();
+                // removed by the student since the buffered election was loaded
+                if (bufferedModuleNos.contains(moduleNo) || !entry.baseModuleNos.contains(moduleNo)) {
+                    merged.add(module);
+                }
+            }
+            var mergedModuleNos = toModuleNumbers(merged);
+            for (var module : election.getElectedModules()) {
+                var moduleNo = module.getModuleNo();
+                // added by the student since the buffered election was loaded
+                if (!entry.baseModuleNos.contains(moduleNo) && !mergedModuleNos.contains(moduleNo)) {
+                    merged.add(module);
+                }
+            }
+            election.setElectedModules(merged);
+            election.setVersion(currentElection.getVersion());
+            election.setValidationSetting(copyOf(currentElection.getValidationSetting()));
+            election.setElectionValid(electionValidatorRegistry.validate(election.getStudent(), election).isValid());
+            entry.baseModuleNos = toModuleNumbers(currentElection.getElectedModules());
+            var email = election.getStudent().getEmail();
+            electionJournal.append(email, toModuleNumbers(merged));
+            // the tally of the student does not know the modules of the other node
+            incrementalElectionValidator.forget(email);
+            log.info("merged buffered election of {} with the election saved by another node", email);
+        }
+        return true;
+    }
+
+    private void applySaved(BufferedElection entry, Election saved) {
+        synchronized (entry) {
+            entry.election.setId(saved.getId());
+            entry.election.setVersion(saved.getVersion());
+            entry.election.setValidationSetting(copyOf(saved.getValidationSetting()));
+            entry.baseModuleNos = toModuleNumbers(saved.getElectedModules());
+            entry.failedAttempts = 0;
+        }
+    }
+
+    private void evictIfClean(BufferedElection entry) {
+        synchronized (entry) {
+            if (!entry.dirty && !entry.evicted) {
+                entry.evicted = true;
+                buffer.remove(entry.election.getStudent().getEmail(), entry);
+            }
+        }
+    }
+
+    private void replayElection(String email, Set<String> moduleNos) {
+        var student = studentRepository.findById(email).orElse(null);
+        if (student == null) {
+            log.warn("skipping journaled election of unknown student {}", email);
+            return;
+        }
+        var election = electionRepository.findElectionByStudent(email).orElseGet(() -> {
+            var newElection = new Election();
+            newElection.setStudent(student);
+            newElection.setValidationSetting(new ValidationSetting());
+            return newElection;
+        });
+        var modules = new HashSet<Module>();
+        moduleNos.forEach(moduleNo -> moduleCatalog.findById(moduleNo).ifPresent(modules::add));
+        election.setElectedModules(modules);
+        election.setElectionValid(electionValidatorRegistry.validate(student, election).isValid());
+        electionRepository.save(election);
+    }
+
+    private static Set<String> toModuleNumbers(Set<Module> modules) {
+        return modules.stream().map(Module::getModuleNo).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static Election copyOf(Election election) {
+        var copy = new Election();
+        copy.setId(election.getId());
+        copy.setStudent(election.getStudent());
+        copy.setValidationSetting(copyOf(election.getValidationSetting()));
+        copy.setElectionValid(election.isElectionValid());
+        copy.setVersion(election.getVersion());
+        copy.setElectedModules(new HashSet<>(election.getElectedModules()));
+        return copy;
+    }
+
+    private static ValidationSetting copyOf(ValidationSetting validationSetting) {
+        if (validationSetting == null) {
+            return null;
+        }
+        var copy = new ValidationSetting();
+        copy.setId(validationSetting.getId());
+        copy.setRepetent(validationSetting.isRepetent());
+        copy.setAlreadyElectedTwoConsecutiveModules(validationSetting.hadAlreadyElectedTwoConsecutiveModules());
+        copy.setSkipConsecutiveModuleCheck(validationSetting.isSkipConsecutiveModuleCheck());
+        copy.setElectedContextModulesInFirstElection(validationSetting.getElectedContextModulesInFirstElection());
+        return copy;
+    }
+}
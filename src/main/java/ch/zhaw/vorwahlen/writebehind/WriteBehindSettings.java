@@ -0,0 +1,13 @@
+package ch.zhaw.vorwahlen.writebehind;
+
+import lombok.Data;
+
+/**
+ * Model class for the write-behind settings of the election.
+ */
+@Data
+public class WriteBehindSettings {
+    private boolean enabled;
+    private long flushIntervalMs = 2000;
+    private String journalDirectory = "./data/journal";
+}
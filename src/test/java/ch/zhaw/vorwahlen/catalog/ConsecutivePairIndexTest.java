@@ -0,0 +1,127 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.service.ModuleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsecutivePairIndexTest {
+
+    private static final long SEED = 20221018L;
+    private static final int NUM_SHUFFLES = 50;
+    private static final List<String> SHORT_MODULE_NOS = List.of(
+            "WV.AI1-EN", "WV.AI2-EN", "WV.MC1", "WV.MC2", "WV.ML1", "WV.ML2", "WV.ML3", "WV.A1B", "WV.AB1",
+            "WV.X12", "WV.X21", "WV.CCP1", "WV.CCP2", "WV.PSPP", "WV.FUP", "WVK.ICAM-EN", "WM.PHMOD", "XX.PA");
+
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(SEED);
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testFindConsecutivePairs_SameAsNestedLoop() {
+        for (var i = 0; i < NUM_SHUFFLES; i++) {
+            var shortModuleNos = new ArrayList<>(SHORT_MODULE_NOS);
+            Collections.shuffle(shortModuleNos, random);
+            var modules = createModules(shortModuleNos);
+
+            var expected = nestedLoopPairs(createModules(shortModuleNos));
+            var actual = new LinkedHashMap<String, String>();
+            ConsecutivePairIndex.of(modules).findConsecutivePairs()
+                    .forEach((m1, m2) -> actual.put(m1.getShortModuleNo(), m2.getShortModuleNo()));
+
+            assertEquals(expected, actual, shortModuleNos.toString());
+        }
+    }
+
+    @Test
+    void testFindConsecutivePairs_KeepsExistingConsecutiveModules() {
+        var modules = createModules(List.of("WV.MC1", "WV.MC2", "WV.MC3"));
+        modules.get(0).setConsecutiveModuleNo("t.BA.WV.MC3.19HS");
+
+        var pairs = ConsecutivePairIndex.of(modules).findConsecutivePairs();
+
+        assertEquals(1, pairs.size());
+        assertEquals(modules.get(2), pairs.get(modules.get(1)));
+    }
+
+    @Test
+    void testDifferOnlyInTheNumber() {
+        var modules = createModules(SHORT_MODULE_NOS);
+        var index = ConsecutivePairIndex.of(modules);
+        var unindexed = createModules(SHORT_MODULE_NOS);
+
+        for (var i = 0; i < modules.size(); i++) {
+            for (var j = 0; j < modules.size(); j++) {
+                if (i == j) {
+                    continue;
+                }
+                var expected = ModuleService.doTheModulesDifferOnlyInTheNumber(modules.get(i), modules.get(j));
+                assertEquals(expected, index.differOnlyInTheNumber(modules.get(i), modules.get(j)));
+                assertEquals(expected, index.differOnlyInTheNumber(unindexed.get(i), modules.get(j)));
+                assertEquals(expected, ConsecutivePairIndex.EMPTY.differOnlyInTheNumber(modules.get(i), modules.get(j)));
+            }
+        }
+    }
+
+    @Test
+    void testStemOf() {
+        assertEquals("WV.AI-EN", ConsecutivePairIndex.stemOf("WV.AI1-EN"));
+        assertEquals("WV.X", ConsecutivePairIndex.stemOf("WV.X12"));
+        assertEquals("WV.PSPP", ConsecutivePairIndex.stemOf("WV.PSPP"));
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testFindConsecutivePairs_NoShortModuleNo() {
+        var modules = List.of(Module.builder().moduleNo("t.BA.XX.PA.19HS").build());
+        assertTrue(ConsecutivePairIndex.of(modules).findConsecutivePairs().isEmpty());
+    }
+
+    /**
+     * The pairing of the module import before the {@link ConsecutivePairIndex}.
+     */
+    private static Map<String, String> nestedLoopPairs(List<Module> modules) {
+        var pairs = new LinkedHashMap<String, String>();
+        for (var m1 : modules) {
+            for (var m2 : modules) {
+                if (!m1.equals(m2)
+                        && m1.getConsecutiveModuleNo() == null
+                        && m2.getConsecutiveModuleNo() == null
+                        && ModuleService.doTheModulesDifferOnlyInTheNumber(m1, m2)) {
+                    m1.setConsecutiveModuleNo(m2.getModuleNo());
+                    m2.setConsecutiveModuleNo(m1.getModuleNo());
+                    pairs.put(m1.getShortModuleNo(), m2.getShortModuleNo());
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static List<Module> createModules(List<String> shortModuleNos) {
+        return shortModuleNos.stream()
+                .map(shortModuleNo -> Module.builder()
+                        .moduleNo("t.BA." + shortModuleNo + ".19HS")
+                        .shortModuleNo(shortModuleNo)
+                        .build())
+                .toList();
+    }
+}
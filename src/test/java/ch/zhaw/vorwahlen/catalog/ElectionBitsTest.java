@@ -0,0 +1,163 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
+import ch.zhaw.vorwahlen.validation.ElectionTally;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ElectionBitsTest {
+
+    private static final long SEED = 20221018L;
+    private static final int NUM_ELECTIONS = 200;
+    private static final int NUM_MODULES = 150;
+    private static final String ENGLISH = "Englisch";
+    private static final String GERMAN = "Deutsch";
+    private static final String[][] PREFIXES = {{"WV.", "IT6"}, {"WVK.", "IT5"}, {"WM.", "IT7"}, {"XX.", "IT6"},
+                                                {"XX.", "IT5"}, {"XX.", "PA"}};
+
+    private final List<Module> modules = new ArrayList<>();
+    private ModuleOrdinalIndex index;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(SEED);
+        for (var i = 0; i < NUM_MODULES; i++) {
+            var prefix = PREFIXES[i % PREFIXES.length];
+            var language = random.nextBoolean() ? ENGLISH : GERMAN;
+            modules.add(createModule(prefix[0] + "M" + i, prefix[1], 2 + random.nextInt(3) * 2, language));
+        }
+        modules.add(createModule("WVK.ICAM-EN", "IT5", 2, ENGLISH));
+        index = ModuleOrdinalIndex.of(1, modules);
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testContains_SameAsModules() {
+        for (var i = 0; i < NUM_ELECTIONS; i++) {
+            // prepare
+            var elected = randomElection();
+
+            // execute
+            var bits = ElectionBits.of(elected, index);
+
+            // verify
+            var message = elected.stream().map(Module::getShortModuleNo).sorted().toList().toString();
+            assertEquals(elected.size(), bits.size(), message);
+            assertTrue(bits.isComplete(), message);
+            for (var module : modules) {
+                assertEquals(elected.contains(module), bits.contains(module.getModuleNo()), message);
+            }
+        }
+    }
+
+    @Test
+    void testCounts_SameAsTally() {
+        for (var i = 0; i < NUM_ELECTIONS; i++) {
+            // prepare
+            var elected = randomElection();
+
+            // execute
+            var bits = ElectionBits.of(elected, index);
+
+            // verify
+            var tally = ElectionTally.of(elected);
+            var message = elected.stream().map(Module::getShortModuleNo).sorted().toList().toString();
+            for (var category : ModuleCategory.values()) {
+                assertEquals(tally.countCategory(category), bits.countCategory(category), message);
+            }
+            assertEquals(tally.getCreditSum(), bits.getCreditSum(), message);
+            assertEquals(tally.getEnglishCreditSum(), bits.getEnglishCreditSum(), message);
+            assertEquals(tally.containsEnglishModuleIcam(), bits.containsEnglishModuleIcam(), message);
+            assertEquals(elected.contains(modules.get(NUM_MODULES)), bits.containsEnglishModuleIcam(), message);
+            for (var module : modules) {
+                assertEquals(tally.countShortModuleNo(module.getShortModuleNo()),
+                             bits.countShortModuleNo(module.getShortModuleNo()), message);
+            }
+        }
+    }
+
+    @Test
+    void testEquals_SameModules() {
+        var elected = randomElection();
+        var bits = ElectionBits.of(elected, index);
+        var sameBits = ElectionBits.of(new ArrayList<>(elected), index);
+
+        assertEquals(bits, sameBits);
+        assertEquals(bits.hashCode(), sameBits.hashCode());
+    }
+
+    @Test
+    void testEquals_DifferentVersion() {
+        var elected = randomElection();
+        var bits = ElectionBits.of(elected, index);
+        var otherVersion = ElectionBits.of(elected, ModuleOrdinalIndex.of(2, modules));
+
+        assertNotEquals(bits, otherVersion);
+        assertEquals(2, otherVersion.getVersion());
+    }
+
+    @Test
+    void testOf_ModuleNotInCatalog() {
+        // prepare
+        var unknownModule = createModule("WV.UNKNOWN", "IT6", 4, GERMAN);
+        var elected = Set.of(modules.get(0), unknownModule);
+
+        // execute
+        var bits = ElectionBits.of(elected, index);
+
+        // verify
+        assertFalse(bits.isComplete());
+        assertEquals(2, bits.size());
+        assertTrue(bits.contains(unknownModule.getModuleNo()));
+        assertTrue(bits.contains(modules.get(0).getModuleNo()));
+        // only the modules of the catalog are counted
+        assertEquals(modules.get(0).getCredits(), bits.getCreditSum());
+        assertEquals(bits, ElectionBits.of(Set.of(unknownModule, modules.get(0)), index));
+        assertNotEquals(bits, ElectionBits.of(Set.of(modules.get(0)), index));
+    }
+
+    @Test
+    void testOf_EmptyIndex() {
+        var bits = ElectionBits.of(Set.of(modules.get(0)), ModuleOrdinalIndex.EMPTY);
+
+        assertFalse(bits.isComplete());
+        assertEquals(1, bits.size());
+        assertTrue(bits.contains(modules.get(0).getModuleNo()));
+        assertEquals(0, bits.getCreditSum());
+        assertEquals(0, bits.countShortModuleNo(modules.get(0).getShortModuleNo()));
+    }
+
+    private Set<Module> randomElection() {
+        var elected = new HashSet<Module>();
+        for (var module : modules) {
+            if (random.nextInt(10) == 0) {
+                elected.add(module);
+            }
+        }
+        return elected;
+    }
+
+    private static Module createModule(String shortModuleNo, String moduleGroup, int credits, String language) {
+        return Module.builder()
+                .moduleNo("t.BA." + shortModuleNo + ".19HS")
+                .shortModuleNo(shortModuleNo)
+                .moduleGroup(moduleGroup)
+                .credits((byte) credits)
+                .language(language)
+                .build();
+    }
+
+}
@@ -0,0 +1,80 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GzipSegmentsTest {
+
+    private static final String SHARED = "{\"modules\":[" + "{\"moduleNo\":\"t.BA.WM.SWP.19HS\"},".repeat(2000) + "{}],";
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testToGzip_SharedSegment() throws IOException {
+        // prepare
+        var shared = GzipSegments.compress(SHARED.getBytes(StandardCharsets.UTF_8));
+        var first = GzipSegments.of(shared, GzipSegments.compress(bytes("\"user\":\"student1@mail.com\"}")));
+        var second = GzipSegments.of(shared, GzipSegments.compress(bytes("\"user\":\"student2@mail.com\"}")));
+
+        // execute
+        var firstGzip = first.toGzip();
+        var secondGzip = second.toGzip();
+
+        // verify
+        assertArrayEquals(bytes(SHARED + "\"user\":\"student1@mail.com\"}"), first.toBytes());
+        assertArrayEquals(first.toBytes(), decompress(firstGzip));
+        assertArrayEquals(second.toBytes(), decompress(secondGzip));
+        assertTrue(shared.compressed().length < shared.data().length / 10);
+    }
+
+    @Test
+    void testToGzip_LargeRandomSegment() throws IOException {
+        // prepare
+        var random = new byte[100_000];
+        new Random(42).nextBytes(random);
+        var segments = GzipSegments.of(GzipSegments.compress(bytes("[")), GzipSegments.compress(random),
+                                       GzipSegments.compress(bytes("]")));
+
+        // execute
+        var gzip = segments.toGzip();
+
+        // verify
+        assertArrayEquals(segments.toBytes(), decompress(gzip));
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testToGzip_EmptySegments() throws IOException {
+        // prepare
+        var empty = GzipSegments.compress(new byte[0]);
+
+        // execute
+        var gzip = GzipSegments.of(empty, empty).toGzip();
+
+        // verify
+        assertEquals(0, decompress(gzip).length);
+        assertEquals(0, decompress(GzipSegments.of().toGzip()).length);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] decompress(byte[] gzip) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
+import ch.zhaw.vorwahlen.mapper.ModuleMapper;
+import ch.zhaw.vorwahlen.model.ExecutionSemester;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.module.ModuleDTO;
+import ch.zhaw.vorwahlen.repository.ModuleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ModuleCatalogJsonTest {
+
+    private static final String MODULE_NO_1 = "t.BA.WV.AI1-EN.19HS";
+    private static final String MODULE_NO_2 = "t.BA.WV.AI2-EN.19HS";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ModuleRepository moduleRepositoryMock;
+    private ModuleCatalog moduleCatalog;
+    private ResourceVersions resourceVersions;
+    private ModuleCatalogJson moduleCatalogJson;
+
+    @BeforeEach
+    void setUp() {
+        moduleRepositoryMock = mock(ModuleRepository.class);
+        when(moduleRepositoryMock.findAll()).thenReturn(List.of(createModule(MODULE_NO_1)));
+        moduleCatalog = new ModuleCatalog(moduleRepositoryMock);
+        resourceVersions = new ResourceVersions();
+        moduleCatalogJson = new ModuleCatalogJson(moduleCatalog, resourceVersions, new ModuleMapper(), objectMapper);
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testGetSnapshot() throws Exception {
+        var snapshot = moduleCatalogJson.getSnapshot();
+
+        var modules = objectMapper.readValue(snapshot.json(), ModuleDTO[].class);
+        assertEquals(1, modules.length);
+        assertEquals(MODULE_NO_1, modules[0].getModuleNo());
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(snapshot.gzip()))) {
+            assertArrayEquals(snapshot.json(), gzip.readAllBytes());
+        }
+        assertEquals(resourceVersions.getETag(Resource.MODULES), snapshot.etag());
+        assertEquals(resourceVersions.getETag(Resource.MODULES, "gzip"), snapshot.gzipETag());
+
+        // serialized only once per version
+        assertSame(snapshot, moduleCatalogJson.getSnapshot());
+    }
+
+    @Test
+    void testGetSnapshot_AfterChange() throws Exception {
+        var snapshot = moduleCatalogJson.getSnapshot();
+
+        when(moduleRepositoryMock.findAll()).thenReturn(List.of(createModule(MODULE_NO_1),
+                                                                createModule(MODULE_NO_2)));
+        moduleCatalog.rebuild();
+        resourceVersions.increment(Resource.MODULES);
+        moduleCatalogJson.refresh();
+
+        var next = moduleCatalogJson.getSnapshot();
+        assertEquals(2, next.version());
+        assertEquals(2, objectMapper.readValue(next.json(), ModuleDTO[].class).length);
+        assertNotEquals(snapshot.etag(), next.etag());
+    }
+
+    private static Module createModule(String moduleNo) {
+        return Module.builder().moduleNo(moduleNo).semester(ExecutionSemester.AUTUMN).build();
+    }
+
+}
@@ -0,0 +1,70 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.repository.ModuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ModuleCatalogTest {
+
+    private static final String MODULE_NO_1 = "t.BA.WV.AI1-EN.19HS";
+    private static final String MODULE_NO_2 = "t.BA.WV.AI2-EN.19HS";
+
+    private ModuleRepository moduleRepositoryMock;
+    private ModuleCatalog moduleCatalog;
+
+    @BeforeEach
+    void setUp() {
+        moduleRepositoryMock = mock(ModuleRepository.class);
+        when(moduleRepositoryMock.findAll()).thenReturn(List.of(Module.builder().moduleNo(MODULE_NO_1).build()));
+        moduleCatalog = new ModuleCatalog(moduleRepositoryMock);
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testFindById() {
+        assertTrue(moduleCatalog.findById(MODULE_NO_1).isPresent());
+        assertTrue(moduleCatalog.findById(MODULE_NO_2).isEmpty());
+        assertEquals(1, moduleCatalog.findAll().size());
+
+        // snapshot is loaded only once
+        verify(moduleRepositoryMock, times(1)).findAll();
+    }
+
+    @Test
+    void testRebuild() {
+        var snapshot = moduleCatalog.getSnapshot();
+        assertEquals(1, snapshot.version());
+
+        when(moduleRepositoryMock.findAll()).thenReturn(List.of(Module.builder().moduleNo(MODULE_NO_1).build(),
+                                                                Module.builder().moduleNo(MODULE_NO_2).build()));
+        moduleCatalog.rebuild();
+
+        assertEquals(2, moduleCatalog.getVersion());
+        assertTrue(moduleCatalog.findById(MODULE_NO_2).isPresent());
+
+        // old snapshot stays untouched
+        assertEquals(1, snapshot.modules().size());
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testSnapshot_Unmodifiable() {
+        var modules = moduleCatalog.getSnapshot().modules();
+        var module = Module.builder().moduleNo(MODULE_NO_2).build();
+        assertThrows(UnsupportedOperationException.class, () -> modules.put(MODULE_NO_2, module));
+        assertThrows(UnsupportedOperationException.class, () -> moduleCatalog.findAll().add(module));
+    }
+
+}
@@ -0,0 +1,51 @@
+package ch.zhaw.vorwahlen.catalog;
+
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceVersionsTest {
+
+    private ResourceVersions resourceVersions;
+
+    @BeforeEach
+    void setUp() {
+        resourceVersions = new ResourceVersions();
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testIncrement() {
+        var modulesETag = resourceVersions.getETag(Resource.MODULES);
+        var pageTextsETag = resourceVersions.getETag(Resource.PAGE_TEXTS);
+
+        resourceVersions.increment(Resource.MODULES);
+
+        assertEquals(2, resourceVersions.getVersion(Resource.MODULES));
+        assertNotEquals(modulesETag, resourceVersions.getETag(Resource.MODULES));
+        assertEquals(pageTextsETag, resourceVersions.getETag(Resource.PAGE_TEXTS));
+    }
+
+    @Test
+    void testGetETag() {
+        var etag = resourceVersions.getETag(Resource.EVENTO_DATA);
+        var gzipETag = resourceVersions.getETag(Resource.EVENTO_DATA, "gzip");
+
+        assertTrue(etag.matches("\"evento-data-[0-9a-z]+-1\""), etag);
+        assertEquals(etag.substring(0, etag.length() - 1) + "-gzip\"", gzipETag);
+        assertEquals(etag, resourceVersions.getETag(Resource.EVENTO_DATA));
+    }
+
+    @Test
+    void testGetETag_DiffersBetweenInstances() throws InterruptedException {
+        var etag = resourceVersions.getETag(Resource.MODULES);
+        Thread.sleep(2);
+
+        assertNotEquals(etag, new ResourceVersions().getETag(Resource.MODULES));
+    }
+}
@@ -0,0 +1,258 @@
+package ch.zhaw.vorwahlen.concurrency;
+
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ElectionSaveExecutorTest {
+
+    private static final String STUDENT_1 = "student1@mail.com";
+    private static final String STUDENT_2 = "student2@mail.com";
+    private static final int NUM_THREADS = 8;
+    private static final int NUM_SAVES = 200;
+
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final AtomicInteger transactions = new AtomicInteger();
+    private ElectionSaveExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        var settings = new ElectionSaveSettings();
+        settings.setLockStripes(16);
+        settings.setMaxAttempts(3);
+        executor = new ElectionSaveExecutor(settings, new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                transactions.incrementAndGet();
+                return TransactionOperations.withoutTransaction().execute(action);
+            }
+        });
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testExecute_RetryOnConflict() {
+        var result = executor.execute(STUDENT_1, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Election.class, 1L);
+            }
+            return "saved";
+        });
+
+        assertEquals("saved", result);
+        assertEquals(3, attempts.get());
+        assertEquals(3, transactions.get());
+    }
+
+    @Test
+    void testExecute_RetryOnUniqueKeyViolation() {
+        var result = executor.execute(STUDENT_1, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new DataIntegrityViolationException("duplicate entry");
+            }
+            return "saved";
+        });
+
+        assertEquals("saved", result);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testExecute_SameStudentSerialized() throws InterruptedException {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var saves = new AtomicInteger();
+        var pool = Executors.newFixedThreadPool(NUM_THREADS);
+        for (var i = 0; i < NUM_SAVES; i++) {
+            pool.execute(() -> executor.execute(STUDENT_1, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                // not atomic on purpose, a lost update shows a missing lock
+                var count = saves.get();
+                Thread.yield();
+                saves.set(count + 1);
+                running.decrementAndGet();
+                return null;
+            }));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, maxRunning.get());
+        assertEquals(NUM_SAVES, saves.get());
+    }
+
+    @Test
+    void testExecute_DifferentStudentsConcurrent() throws InterruptedException {
+        var locks = new StripedLocks(16);
+        assertNotSame(locks.lockFor(STUDENT_1), locks.lockFor(STUDENT_2));
+
+        var bothRunning = new CountDownLatch(2);
+        var pool = Executors.newFixedThreadPool(2);
+        for (var student : new String[] {STUDENT_1, STUDENT_2}) {
+            pool.execute(() -> executor.execute(student, () -> {
+                bothRunning.countDown();
+                try {
+                    return bothRunning.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+        }
+        pool.shutdown();
+
+        assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testExecute_OnCommittedAfterRetry() {
+        var committed = new ArrayList<String>();
+        var result = executor.execute(STUDENT_1, () -> {
+            if (attempts.incrementAndGet() < 2) {
+                throw new ObjectOptimisticLockingFailureException(Election.class, 1L);
+            }
+            return "saved";
+        }, committed::add);
+
+        assertEquals("saved", result);
+        assertEquals(List.of("saved"), committed);
+    }
+
+    @Test
+    void testExecuteAndThen_CallbackInSaveOrder() throws InterruptedException {
+        var saves = new AtomicInteger();
+        // not synchronized on purpose, the callbacks of a student must not run concurrently
+        var published = new ArrayList<Integer>();
+        var pool = Executors.newFixedThreadPool(NUM_THREADS);
+        for (var i = 0; i < NUM_SAVES; i++) {
+            pool.execute(() -> executor.executeAndThen(STUDENT_1, saves::incrementAndGet, save -> {
+                Thread.yield();
+                published.add(save);
+                return save;
+            }));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(NUM_SAVES, published.size());
+        for (var i = 0; i < NUM_SAVES; i++) {
+            assertEquals(i + 1, published.get(i));
+        }
+    }
+
+    @Test
+    void testExecuteAndThen_MappedResult() {
+        var result = executor.executeAndThen(STUDENT_1, () -> "saved", String::length);
+
+        assertEquals(5, result);
+        assertEquals(1, transactions.get());
+    }
+
+    @Test
+    void testSaveSequence_DropAppliedSequences() {
+        // prepare
+        var sessionAttributes = new HashMap<String, Object>();
+        var sequence = SaveSequence.of(sessionAttributes);
+
+        // execute
+        sequence.markApplied(1);
+        sequence.markApplied(3);
+        sequence.markApplied(2);
+
+        // verify
+        assertSame(sequence, SaveSequence.of(sessionAttributes));
+        assertEquals(3, sequence.getLastApplied());
+        assertTrue(sequence.isApplied(1));
+        assertTrue(sequence.isApplied(2));
+        assertTrue(sequence.isApplied(3));
+        assertFalse(sequence.isApplied(4));
+    }
+
+    @Test
+    void testSaveSequence_OutOfOrder() {
+        // prepare
+        var sequence = SaveSequence.of(new HashMap<>());
+        for (var i = 1; i <= 4; i++) {
+            sequence.markApplied(i);
+        }
+
+        // execute
+        sequence.markApplied(6);
+        var fiveDropped = sequence.isApplied(5);
+        sequence.markApplied(5);
+
+        // verify
+        assertTrue(fiveDropped);
+        assertTrue(sequence.isApplied(6));
+        assertFalse(sequence.isApplied(7));
+        assertEquals(6, sequence.getLastApplied());
+    }
+
+    @Test
+    void testStripedLocks_RoundedToPowerOfTwo() {
+        assertEquals(1, new StripedLocks(1).getStripes());
+        assertEquals(16, new StripedLocks(10).getStripes());
+        assertEquals(1024, new StripedLocks(1024).getStripes());
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testExecute_ConflictAfterMaxAttempts() {
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> executor.execute(STUDENT_1, () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Election.class, 1L);
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testExecute_NoRetryOnOtherFailure() {
+        assertThrows(DataAccessResourceFailureException.class, () -> executor.execute(STUDENT_1, () -> {
+            attempts.incrementAndGet();
+            throw new DataAccessResourceFailureException("down");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testExecute_NoOnCommittedOnFailure() {
+        var committed = new ArrayList<String>();
+        assertThrows(DataAccessResourceFailureException.class, () -> executor.<String>execute(STUDENT_1, () -> {
+            throw new DataAccessResourceFailureException("down");
+        }, committed::add));
+        assertTrue(committed.isEmpty());
+    }
+
+    @Test
+    void testSaveSequence_WithoutSessionAttributes() {
+        assertNotSame(SaveSequence.of(null), SaveSequence.of(null));
+    }
+
+    @Test
+    void testStripedLocks_InvalidStripes() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(0));
+    }
+
+}
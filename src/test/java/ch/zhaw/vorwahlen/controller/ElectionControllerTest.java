@@ -4,12 +4,18 @@ import ch.zhaw.vorwahlen.model.core.election.ElectionDTO;
 import ch.zhaw.vorwahlen.model.core.election.ElectionStatusDTO;
 import ch.zhaw.vorwahlen.model.core.election.ElectionStatusElementDTO;
 import ch.zhaw.vorwahlen.model.modulestructure.ElectionStructureDTO;
+import ch.zhaw.vorwahlen.model.ElectionBatchDTO;
+import ch.zhaw.vorwahlen.model.ElectionChangeDTO;
+import ch.zhaw.vorwahlen.model.ElectionDeltaDTO;
+import ch.zhaw.vorwahlen.model.ElectionSaveDTO;
 import ch.zhaw.vorwahlen.model.ElectionTransferDTO;
 import ch.zhaw.vorwahlen.model.core.validationsetting.ValidationSettingDTO;
 import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
 import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureElement;
+import ch.zhaw.vorwahlen.messaging.MessageEncodingNegotiation;
 import ch.zhaw.vorwahlen.service.ElectionService;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +24,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.simp.stomp.StompFrameHandler;
 import org.springframework.messaging.simp.stomp.StompHeaders;
@@ -25,11 +33,14 @@ import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHttpHeaders;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
 import org.springframework.web.socket.messaging.WebSocketStompClient;
 import org.springframework.web.socket.sockjs.client.SockJsClient;
 import org.springframework.web.socket.sockjs.client.WebSocketTransport;
 
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -43,6 +54,7 @@ import static ch.zhaw.vorwahlen.util.ObjectMapperUtil.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -54,6 +66,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest(properties = "classpath:settings.properties", webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
 class ElectionControllerTest {
     public static final String CONNECT_URL = "http://localhost:8080/stomp-ws-endpoint";
+    public static final String NATIVE_CONNECT_URL = "ws://localhost:8080/stomp-ws-endpoint-native";
     private static final String REQUEST_MAPPING_PREFIX = "/elections";
 
     @Autowired
@@ -83,7 +96,7 @@ class ElectionControllerTest {
                                               new ElectionStatusElementDTO(ModuleCategory.INTERDISCIPLINARY_MODULE, true, null),
                                               new ElectionStatusElementDTO(null, true, null));
         var transferDto = new ElectionTransferDTO(new ElectionStructureDTO(new ArrayList<>(), new ArrayList<>()),
-                                                  statusDto, false, true);
+                                                  statusDto, false, true, null);
         when(electionService.getElection(any())).thenReturn(transferDto);
 
         // execute
@@ -243,13 +256,19 @@ class ElectionControllerTest {
     void testExportElection() {
         // prepare
         var content = "Hello World!";
-        when(electionService.exportElection()).thenReturn(content.getBytes());
+        doAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(content.getBytes());
+            return null;
+        }).when(electionService).exportElection(any());
 
         // execute
         try {
-            var results = mockMvc.perform(MockMvcRequestBuilders
+            var asyncResult = mockMvc.perform(MockMvcRequestBuilders
                                                   .get(REQUEST_MAPPING_PREFIX + "/export")
                                                   .with(csrf()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            var results = mockMvc.perform(asyncDispatch(asyncResult))
                     .andExpect(status().isOk())
                     .andDo(print())
                     .andReturn();
@@ -262,7 +281,7 @@ class ElectionControllerTest {
         }
 
         // verify
-        verify(electionService, times(1)).exportElection();
+        verify(electionService, times(1)).exportElection(any());
     }
 
     @Test
@@ -301,7 +320,7 @@ class ElectionControllerTest {
                                                    new ElectionStatusElementDTO(ModuleCategory.INTERDISCIPLINARY_MODULE, false, null),
                                                    new ElectionStatusElementDTO(null, false, null));
         var electionStructure = new ElectionStructureDTO(List.of(structureElement), new ArrayList<>());
-        var electionTransfer = new ElectionTransferDTO(electionStructure, electionStatus,true, false);
+        var electionTransfer = new ElectionTransferDTO(electionStructure, electionStatus,true, false, null);
 
         when(electionService.saveElection(any(), any(), any())).thenReturn(electionTransfer);
 
@@ -309,4 +328,205 @@ class ElectionControllerTest {
         session.send("/app/save", moduleToElect);
         assertEquals(electionTransfer, blockingQueue.poll(5, TimeUnit.SECONDS));
     }
+
+    @Test
+    void testSaveElectionBatch() throws InterruptedException, ExecutionException, TimeoutException {
+        var blockingQueue = new ArrayBlockingQueue<ElectionTransferDTO>(1);
+
+        webSocketStompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        var session = webSocketStompClient
+                .connect(CONNECT_URL, new StompSessionHandlerAdapter() {})
+                .get(1, TimeUnit.SECONDS);
+
+        session.subscribe("/user/queue/electionSaveStatus", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return ElectionTransferDTO.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                blockingQueue.add((ElectionTransferDTO) payload);
+            }
+        });
+
+        var electionStatus = new ElectionStatusDTO(new ElectionStatusElementDTO(ModuleCategory.SUBJECT_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(ModuleCategory.CONTEXT_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(ModuleCategory.INTERDISCIPLINARY_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(null, false, null));
+        var electionStructure = new ElectionStructureDTO(new ArrayList<>(), new ArrayList<>());
+        var electionTransfer = new ElectionTransferDTO(electionStructure, electionStatus, true, false, null);
+
+        when(electionService.saveElectionBatch(any(), any(), any())).thenReturn(electionTransfer);
+
+        var batch = new ElectionBatchDTO(false, List.of(
+                new ElectionChangeDTO("t.BA.WM.RASOP-EN.19HS", ElectionChangeDTO.Action.ADD),
+                new ElectionChangeDTO("t.BA.WV.ESE.19HS", ElectionChangeDTO.Action.REMOVE)));
+        session.send("/app/save-batch", batch);
+        assertEquals(electionTransfer, blockingQueue.poll(5, TimeUnit.SECONDS));
+        verify(electionService, times(1)).saveElectionBatch(any(), eq(batch), any());
+    }
+
+    @Test
+    void testSaveElectionChange() throws InterruptedException, ExecutionException, TimeoutException {
+        var blockingQueue = new ArrayBlockingQueue<ElectionTransferDTO>(1);
+
+        webSocketStompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        var session = webSocketStompClient
+                .connect(CONNECT_URL, new StompSessionHandlerAdapter() {})
+                .get(1, TimeUnit.SECONDS);
+
+        session.subscribe("/user/queue/electionSaveStatus", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return ElectionTransferDTO.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                blockingQueue.add((ElectionTransferDTO) payload);
+            }
+        });
+
+        var electionStatus = new ElectionStatusDTO(new ElectionStatusElementDTO(ModuleCategory.SUBJECT_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(ModuleCategory.CONTEXT_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(ModuleCategory.INTERDISCIPLINARY_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(null, false, null));
+        var electionStructure = new ElectionStructureDTO(new ArrayList<>(), new ArrayList<>());
+        var electionTransfer = new ElectionTransferDTO(electionStructure, electionStatus, true, false, 7L);
+
+        when(electionService.saveElectionChange(any(), any(), any())).thenReturn(electionTransfer);
+
+        var save = new ElectionSaveDTO(7, "t.BA.WM.RASOP-EN.19HS", ElectionChangeDTO.Action.ADD);
+        session.send("/app/save-change", save);
+        assertEquals(electionTransfer, blockingQueue.poll(5, TimeUnit.SECONDS));
+        verify(electionService, times(1)).saveElectionChange(any(), eq(save), any());
+    }
+
+    @Test
+    void testSaveElectionChange_OtherSessionOfUser() throws InterruptedException, ExecutionException, TimeoutException {
+        var blockingQueue = new ArrayBlockingQueue<ElectionTransferDTO>(1);
+
+        webSocketStompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        var savingSession = webSocketStompClient
+                .connect(CONNECT_URL, new StompSessionHandlerAdapter() {})
+                .get(1, TimeUnit.SECONDS);
+        var otherSession = webSocketStompClient
+                .connect(CONNECT_URL, new StompSessionHandlerAdapter() {})
+                .get(1, TimeUnit.SECONDS);
+
+        // the save reply of a JSON session goes to the other tabs of the user as well
+        otherSession.subscribe("/user/queue/electionSaveStatus", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return ElectionTransferDTO.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                blockingQueue.add((ElectionTransferDTO) payload);
+            }
+        });
+
+        var electionStatus = new ElectionStatusDTO(new ElectionStatusElementDTO(ModuleCategory.SUBJECT_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(ModuleCategory.CONTEXT_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(ModuleCategory.INTERDISCIPLINARY_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(null, false, null));
+        var electionStructure = new ElectionStructureDTO(new ArrayList<>(), new ArrayList<>());
+        var electionTransfer = new ElectionTransferDTO(electionStructure, electionStatus, true, false, 5L);
+
+        when(electionService.saveElectionChange(any(), any(), any())).thenReturn(electionTransfer);
+
+        savingSession.send("/app/save-change", new ElectionSaveDTO(5, "t.BA.WM.RASOP-EN.19HS", ElectionChangeDTO.Action.ADD));
+        assertEquals(electionTransfer, blockingQueue.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSaveElectionChange_Cbor() throws Exception {
+        var blockingQueue = new ArrayBlockingQueue<StompHeaders>(1);
+        var payloads = new ArrayBlockingQueue<byte[]>(1);
+
+        var nativeStompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        nativeStompClient.setMessageConverter(new CompositeMessageConverter(
+                List.of(new ByteArrayMessageConverter(), new MappingJackson2MessageConverter())));
+
+        var connectHeaders = new StompHeaders();
+        connectHeaders.add(MessageEncodingNegotiation.ENCODING_HEADER, MessageEncodingNegotiation.CBOR_ENCODING);
+        var session = nativeStompClient
+                .connect(NATIVE_CONNECT_URL, new WebSocketHttpHeaders(), connectHeaders,
+                         new StompSessionHandlerAdapter() {})
+                .get(1, TimeUnit.SECONDS);
+
+        session.subscribe("/user/queue/electionSaveStatus", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                blockingQueue.add(headers);
+                payloads.add((byte[]) payload);
+            }
+        });
+
+        var electionStatus = new ElectionStatusDTO(new ElectionStatusElementDTO(ModuleCategory.SUBJECT_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(ModuleCategory.CONTEXT_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(ModuleCategory.INTERDISCIPLINARY_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(null, false, null));
+        var electionStructure = new ElectionStructureDTO(new ArrayList<>(), new ArrayList<>());
+        var electionTransfer = new ElectionTransferDTO(electionStructure, electionStatus, true, false, 3L);
+
+        when(electionService.saveElectionChange(any(), any(), any())).thenReturn(electionTransfer);
+
+        session.send("/app/save-change", new ElectionSaveDTO(3, "t.BA.WM.RASOP-EN.19HS", ElectionChangeDTO.Action.ADD));
+        var headers = blockingQueue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(headers);
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, headers.getContentType());
+        assertEquals(MessageEncodingNegotiation.CBOR_ENCODING,
+                     headers.getFirst(MessageEncodingNegotiation.ENCODING_HEADER));
+        // a CBOR body sent in a text frame would not survive the UTF-8 decoding
+        assertEquals(electionTransfer, new CBORMapper().readValue(payloads.poll(), ElectionTransferDTO.class));
+    }
+
+    @Test
+    void testResyncElection() throws InterruptedException, ExecutionException, TimeoutException {
+        var blockingQueue = new ArrayBlockingQueue<ElectionDeltaDTO>(1);
+
+        webSocketStompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        var session = webSocketStompClient
+                .connect(CONNECT_URL, new StompSessionHandlerAdapter() {})
+                .get(1, TimeUnit.SECONDS);
+
+        session.subscribe("/user/queue/electionDelta", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return ElectionDeltaDTO.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                blockingQueue.add((ElectionDeltaDTO) payload);
+            }
+        });
+
+        var electionStatus = new ElectionStatusDTO(new ElectionStatusElementDTO(ModuleCategory.SUBJECT_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(ModuleCategory.CONTEXT_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(ModuleCategory.INTERDISCIPLINARY_MODULE, false, null),
+                                                   new ElectionStatusElementDTO(null, false, null));
+        var electionStructure = new ElectionStructureDTO(new ArrayList<>(), new ArrayList<>());
+        var electionTransfer = new ElectionTransferDTO(electionStructure, electionStatus, false, false, null);
+
+        when(electionService.getElection(any())).thenReturn(electionTransfer);
+
+        session.send("/app/resync", "");
+        var delta = blockingQueue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(delta);
+        assertNull(delta.baseVersion());
+        assertEquals(electionTransfer, delta.snapshot());
+    }
 }
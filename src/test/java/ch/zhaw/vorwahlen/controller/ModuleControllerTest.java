@@ -1,6 +1,11 @@
 package ch.zhaw.vorwahlen.controller;
 
+import ch.zhaw.vorwahlen.catalog.ModuleCatalogJson;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
+import ch.zhaw.vorwahlen.exception.EventoDataNotFoundException;
 import ch.zhaw.vorwahlen.model.core.module.ModuleDTO;
+import ch.zhaw.vorwahlen.model.evento.EventoDataSummaryDTO;
 import ch.zhaw.vorwahlen.service.ModuleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
@@ -15,7 +21,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
 
 import static ch.zhaw.vorwahlen.util.ObjectMapperUtil.fromJsonResult;
 import static ch.zhaw.vorwahlen.util.ObjectMapperUtil.toJson;
@@ -26,6 +34,8 @@ import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +47,7 @@ class ModuleControllerTest {
     private static final String LANGUAGE_DE = "de";
     private static final String LANGUAGE_EN = "en";
     private static final String REQUEST_MAPPING_PREFIX = "/modules";
+    private static final String MODULE_NO = "t.BA.WM.DAST-EN.19HS";
     private static final String MULTIPART_FILE_REQUEST_PARAMETER = "file";
     private static final String MODULE_LIST_FILE_NAME = "Liste_alle_Module_SM2025_SGL_Def_1.7-2021-03-29.xlsx";
     private static final String WORKSHEET = "Module 2025";
@@ -52,6 +63,12 @@ class ModuleControllerTest {
     @MockBean
     ModuleService moduleService;
 
+    @MockBean
+    ModuleCatalogJson moduleCatalogJson;
+
+    @Autowired
+    ResourceVersions resourceVersions;
+
     ModuleDTO nonExistentModuleDto;
 
     static {
@@ -92,7 +109,11 @@ class ModuleControllerTest {
                                  .semester(SEMESTER_5)
                                  .build());
 
-        when(moduleService.getAllModules()).thenReturn(expectedList);
+        try {
+            when(moduleCatalogJson.getSnapshot()).thenReturn(createSnapshot(expectedList));
+        } catch (Exception e) {
+            fail(e);
+        }
 
         // execute
         try {
@@ -135,7 +156,39 @@ class ModuleControllerTest {
         }
 
         // verify
-        verify(moduleService, times(1)).getAllModules();
+        verify(moduleCatalogJson, times(1)).getSnapshot();
+        verify(moduleService, never()).getAllModules();
+    }
+
+    @Test
+    void testGetAllModules_Gzip() {
+        // prepare
+        ModuleCatalogJson.Snapshot snapshot = null;
+        try {
+            snapshot = createSnapshot(new ArrayList<>());
+        } catch (Exception e) {
+            fail(e);
+        }
+        when(moduleCatalogJson.getSnapshot()).thenReturn(snapshot);
+
+        // execute
+        try {
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX)
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br")
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                    .andExpect(header().string(HttpHeaders.ETAG, snapshot.gzipETag()))
+                    .andExpect(content().bytes(snapshot.gzip()))
+                    .andDo(print());
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        // verify
+        verify(moduleCatalogJson, times(1)).getSnapshot();
     }
 
     @Test
@@ -274,6 +327,159 @@ class ModuleControllerTest {
         verify(moduleService, times(1)).scrapeEventoDataForAllModules();
     }
 
+    @Test
+    void testGetAllModules_NotModified() {
+        // prepare
+        ModuleCatalogJson.Snapshot snapshot = null;
+        try {
+            snapshot = createSnapshot(new ArrayList<>());
+        } catch (Exception e) {
+            fail(e);
+        }
+        when(moduleCatalogJson.getSnapshot()).thenReturn(snapshot);
+        var etag = snapshot.etag();
+
+        // execute
+        try {
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX)
+                    .header(HttpHeaders.IF_NONE_MATCH, etag)
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                    .andDo(print());
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        // verify
+        verify(moduleService, never()).getAllModules();
+    }
+
+    @Test
+    void testGetAdditionalModuleData_NotModified() {
+        // prepare
+        var etag = resourceVersions.getETag(Resource.EVENTO_DATA, "gzip");
+
+        // execute
+        try {
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX + "/" + MODULE_NO + "/eventodata")
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                    .header(HttpHeaders.IF_NONE_MATCH, etag)
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andDo(print());
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX + "/" + MODULE_NO + "/eventodata")
+                    .header(HttpHeaders.IF_NONE_MATCH, etag)
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andDo(print());
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        // verify
+        verify(moduleService, never()).getCompressedEventoDataById(any());
+        verify(moduleService, times(1)).getEventoDataById(MODULE_NO);
+    }
+
+    @Test
+    void testGetAdditionalModuleData() {
+        // prepare
+        var json = "{\"shortDescription\":\"Short\"}".getBytes(StandardCharsets.UTF_8);
+        when(moduleService.getEventoDataById(MODULE_NO)).thenReturn(json);
+
+        // execute
+        try {
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX + "/" + MODULE_NO + "/eventodata")
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(jsonPath("$.shortDescription").value("Short"))
+                    .andDo(print());
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        // verify
+        verify(moduleService, times(1)).getEventoDataById(MODULE_NO);
+        verify(moduleService, never()).getCompressedEventoDataById(any());
+    }
+
+    @Test
+    void testGetAdditionalModuleData_Gzip() {
+        // prepare
+        var compressed = new byte[] { 31, -117, 8, 0 };
+        when(moduleService.getCompressedEventoDataById(MODULE_NO)).thenReturn(compressed);
+
+        // execute
+        try {
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX + "/" + MODULE_NO + "/eventodata")
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br")
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                    .andExpect(content().bytes(compressed))
+                    .andDo(print());
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        // verify
+        verify(moduleService, times(1)).getCompressedEventoDataById(MODULE_NO);
+        verify(moduleService, never()).getEventoDataById(any());
+    }
+
+    @Test
+    void testGetAdditionalModuleDataSummary() {
+        // prepare
+        when(moduleService.getEventoDataSummaryById(MODULE_NO))
+                .thenReturn(new EventoDataSummaryDTO("Short", "Max Muster (mumx)"));
+
+        // execute
+        try {
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX + "/" + MODULE_NO + "/eventodata/summary")
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.shortDescription").value("Short"))
+                    .andExpect(jsonPath("$.coordinator").value("Max Muster (mumx)"))
+                    .andDo(print());
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        // verify
+        verify(moduleService, times(1)).getEventoDataSummaryById(MODULE_NO);
+    }
+
+    @Test
+    void testReparseCachedEventoData() {
+        // prepare
+
+        // execute
+        try {
+            mockMvc.perform(MockMvcRequestBuilders
+                    .post(REQUEST_MAPPING_PREFIX + "/eventodata/reparse")
+                    .with(csrf())
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andDo(print());
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        // verify
+        verify(moduleService, times(1)).reparseCachedEventoData();
+    }
+
     /* **************************************************************************************************************
      * Negative tests
      * ************************************************************************************************************** */
@@ -301,4 +507,39 @@ class ModuleControllerTest {
         verify(moduleService, times(0)).importModuleExcel(mockMultipartFile, WORKSHEET);
     }
 
+    @Test
+    void testGetAdditionalModuleData_AnyETagOfUnknownModule() {
+        // prepare
+        doThrow(new EventoDataNotFoundException(MODULE_NO)).when(moduleService).checkEventoDataExists(MODULE_NO);
+
+        // execute
+        try {
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX + "/" + MODULE_NO + "/eventodata")
+                    .header(HttpHeaders.IF_NONE_MATCH, "*")
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotFound())
+                    .andDo(print());
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX + "/" + MODULE_NO + "/eventodata/summary")
+                    .header(HttpHeaders.IF_NONE_MATCH, "*")
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotFound())
+                    .andDo(print());
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        // verify
+        verify(moduleService, never()).getEventoDataById(any());
+        verify(moduleService, never()).getEventoDataSummaryById(any());
+    }
+
+    private ModuleCatalogJson.Snapshot createSnapshot(List<ModuleDTO> modules) throws Exception {
+        var version = resourceVersions.getVersion(Resource.MODULES);
+        return ModuleCatalogJson.Snapshot.of(version, toJson(modules),
+                                             resourceVersions.getETag(Resource.MODULES, version, null),
+                                             resourceVersions.getETag(Resource.MODULES, version, "gzip"));
+    }
+
 }
@@ -1,5 +1,7 @@
 package ch.zhaw.vorwahlen.controller;
 
+import ch.zhaw.vorwahlen.catalog.ResourceVersions;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
 import ch.zhaw.vorwahlen.model.pagetext.PageTextDTO;
 import ch.zhaw.vorwahlen.model.pagetext.UserType;
 import ch.zhaw.vorwahlen.service.PageTextService;
@@ -10,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -19,6 +22,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import static ch.zhaw.vorwahlen.util.ObjectMapperUtil.*;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.*;
@@ -41,6 +45,9 @@ class PageTextControllerTest {
     @MockBean
     PageTextService pageTextService;
 
+    @Autowired
+    ResourceVersions resourceVersions;
+
     Set<PageTextDTO> allPageDtos;
 
     @BeforeEach
@@ -76,6 +83,43 @@ class PageTextControllerTest {
         verify(pageTextService, times(1)).getAllPageTexts();
     }
 
+    @Test
+    void testGetAllPageTexts_NotModified() {
+        when(pageTextService.getAllPageTexts()).thenReturn(allPageDtos);
+
+        try {
+            var etag = mockMvc.perform(MockMvcRequestBuilders
+                                    .get(REQUEST_MAPPING_PREFIX)
+                                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(MockMvcRequestBuilders
+                                    .get(REQUEST_MAPPING_PREFIX)
+                                    .header(HttpHeaders.IF_NONE_MATCH, etag)
+                                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""))
+                    .andDo(print());
+            verify(pageTextService, times(1)).getAllPageTexts();
+
+            resourceVersions.increment(Resource.PAGE_TEXTS);
+            mockMvc.perform(MockMvcRequestBuilders
+                                    .get(REQUEST_MAPPING_PREFIX)
+                                    .header(HttpHeaders.IF_NONE_MATCH, etag)
+                                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                    .andDo(print());
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        verify(pageTextService, times(2)).getAllPageTexts();
+    }
+
     @Test
     void testGetPageTexts() {
         var expectedSet = allPageDtos.stream()
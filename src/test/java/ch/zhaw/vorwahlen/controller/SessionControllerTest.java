@@ -1,6 +1,7 @@
 package ch.zhaw.vorwahlen.controller;
 
 import ch.zhaw.vorwahlen.security.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -8,14 +9,22 @@ import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static ch.zhaw.vorwahlen.util.ObjectMapperUtil.fromJsonResult;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -26,6 +35,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class SessionControllerTest {
 
     private static final String REQUEST_MAPPING_PREFIX = "/session";
+    private static final String BOOTSTRAP_PAGE = "MODULE_SELECTION";
 
     @Autowired
     MockMvc mockMvc;
@@ -99,4 +109,68 @@ class SessionControllerTest {
             fail(e);
         }
     }
+
+    @Test
+    @Order(4)
+    void testGetBootstrap() {
+        try {
+            var result = mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX + "/bootstrap")
+                    .param("page", BOOTSTRAP_PAGE)
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.user.mail", is("dev@zhaw.ch")))
+                    .andExpect(jsonPath("$.modulesVersion").isNotEmpty())
+                    .andExpect(jsonPath("$.modules").isArray())
+                    .andExpect(jsonPath("$.pageTextsVersion").isNotEmpty())
+                    .andExpect(jsonPath("$.pageTexts").isArray())
+                    .andExpect(jsonPath("$.election.electionStructure").exists())
+                    .andDo(print())
+                    .andReturn();
+            var bootstrap = fromJsonResult(result, JsonNode.class);
+
+            // the client has the current versions
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX + "/bootstrap")
+                    .param("page", BOOTSTRAP_PAGE)
+                    .param("modulesVersion", bootstrap.get("modulesVersion").asText())
+                    .param("pageTextsVersion", bootstrap.get("pageTextsVersion").asText())
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.modules").value(nullValue()))
+                    .andExpect(jsonPath("$.pageTexts").value(nullValue()))
+                    .andExpect(jsonPath("$.election.electionStructure").exists())
+                    .andDo(print());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @Order(5)
+    void testGetBootstrap_Gzip() {
+        try {
+            var json = mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX + "/bootstrap")
+                    .param("page", BOOTSTRAP_PAGE)
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andReturn();
+            var result = mockMvc.perform(MockMvcRequestBuilders
+                    .get(REQUEST_MAPPING_PREFIX + "/bootstrap")
+                    .param("page", BOOTSTRAP_PAGE)
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                    .andDo(print())
+                    .andReturn();
+
+            try (var gzip = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+                assertArrayEquals(json.getResponse().getContentAsByteArray(), gzip.readAllBytes());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
 }
@@ -0,0 +1,178 @@
+package ch.zhaw.vorwahlen.delta;
+
+import ch.zhaw.vorwahlen.model.ElectionDeltaDTO;
+import ch.zhaw.vorwahlen.model.ElectionTransferDTO;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatusDTO;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatusElementDTO;
+import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
+import ch.zhaw.vorwahlen.model.modulestructure.ElectionStructureDTO;
+import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureElement;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ElectionDeltaTrackerTest {
+
+    private static final int NUM_SLOTS = 24;
+
+    private ElectionDeltaTracker tracker;
+    private List<ModuleStructureElement> placeholders;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ElectionDeltaTracker();
+        placeholders = IntStream.range(0, NUM_SLOTS)
+                .mapToObj(i -> new ModuleStructureElement(null, null, true, 5 + i / 8,
+                                                          ModuleCategory.SUBJECT_MODULE, 4))
+                .toList();
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testDelta_FirstUpdateIsSnapshot() {
+        // prepare
+        var election = transfer(placeholders, List.of(), status(false, List.of("fehlt")));
+
+        // execute
+        var delta = tracker.delta(election);
+
+        // verify
+        assertEquals(1, delta.version());
+        assertNull(delta.baseVersion());
+        assertEquals(election, delta.snapshot());
+    }
+
+    @Test
+    void testDelta_OnlyChangedElements() {
+        // prepare
+        tracker.snapshot(transfer(placeholders, List.of(), status(false, List.of("fehlt"))));
+        var elected = new ArrayList<>(placeholders);
+        var module = new ModuleStructureElement("Software Projekt", "t.BA.WM.SWP.19HS", false, 5,
+                                                ModuleCategory.SUBJECT_MODULE, 4);
+        elected.set(3, module);
+
+        // execute
+        var delta = tracker.delta(transfer(elected, List.of(), status(false, List.of("fehlt"))));
+
+        // verify
+        assertEquals(2, delta.version());
+        assertEquals(1L, delta.baseVersion());
+        assertNull(delta.snapshot());
+        assertEquals(new ElectionDeltaDTO.ElementsDelta(NUM_SLOTS, List.of(new ElectionDeltaDTO.ChangedElement(3, module))),
+                     delta.electedModules());
+        assertNull(delta.overflowedModules());
+        assertTrue(delta.electionStatus().isEmpty());
+        assertEquals(2, tracker.getVersion());
+    }
+
+    @Test
+    void testDelta_ChangedStatusSection() {
+        // prepare
+        tracker.snapshot(transfer(placeholders, List.of(), status(false, List.of("fehlt"))));
+        var valid = status(true, null);
+
+        // execute
+        var delta = tracker.delta(transfer(placeholders, List.of(), valid));
+
+        // verify
+        assertNull(delta.electedModules());
+        assertEquals(1, delta.electionStatus().size());
+        assertEquals(valid.subjectValidation(), delta.electionStatus().get("subjectValidation"));
+    }
+
+    @Test
+    void testDelta_ShorterList() {
+        // prepare
+        var overflowed = placeholders.subList(0, 3);
+        tracker.snapshot(transfer(placeholders, overflowed, status(true, null)));
+
+        // execute
+        var delta = tracker.delta(transfer(placeholders, overflowed.subList(0, 1), status(true, null)));
+
+        // verify
+        assertEquals(new ElectionDeltaDTO.ElementsDelta(1, List.of()), delta.overflowedModules());
+    }
+
+    @Test
+    void testDelta_SmallerThanSnapshot() throws JsonProcessingException {
+        // prepare
+        var objectMapper = new ObjectMapper();
+        var elected = new ArrayList<>(placeholders);
+        elected.set(0, new ModuleStructureElement("Software Projekt", "t.BA.WM.SWP.19HS", false, 5,
+                                                  ModuleCategory.SUBJECT_MODULE, 4));
+        var election = transfer(elected, List.of(), status(false, List.of("fehlt")));
+        tracker.snapshot(transfer(placeholders, List.of(), status(false, List.of("fehlt"))));
+
+        // execute
+        var delta = objectMapper.writeValueAsBytes(tracker.delta(election));
+        var snapshot = objectMapper.writeValueAsBytes(election);
+
+        // verify
+        assertTrue(delta.length * 5 < snapshot.length);
+    }
+
+    @Test
+    void testOf_StoredInSession() {
+        // prepare
+        var sessionAttributes = new HashMap<String, Object>();
+        assertTrue(ElectionDeltaTracker.find(sessionAttributes).isEmpty());
+
+        // execute
+        var stored = ElectionDeltaTracker.of(sessionAttributes);
+
+        // verify
+        assertSame(stored, ElectionDeltaTracker.of(sessionAttributes));
+        assertSame(stored, ElectionDeltaTracker.find(sessionAttributes).orElseThrow());
+    }
+
+    @Test
+    void testPublishSnapshot_Resync() {
+        // prepare
+        var election = transfer(placeholders, List.of(), status(true, null));
+        tracker.snapshot(election);
+        tracker.delta(election);
+        var sent = new ArrayList<ElectionDeltaDTO>();
+
+        // execute
+        tracker.publishSnapshot(election, sent::add);
+        tracker.publish(election, sent::add);
+
+        // verify
+        assertEquals(2, sent.size());
+        assertNull(sent.get(0).baseVersion());
+        assertEquals(sent.get(0).version(), sent.get(1).baseVersion());
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testFind_WithoutSessionAttributes() {
+        assertTrue(ElectionDeltaTracker.find(null).isEmpty());
+    }
+
+    private static ElectionTransferDTO transfer(List<ModuleStructureElement> elected,
+                                                List<ModuleStructureElement> overflowed,
+                                                ElectionStatusDTO status) {
+        return new ElectionTransferDTO(new ElectionStructureDTO(elected, overflowed), status, true, false, null);
+    }
+
+    private static ElectionStatusDTO status(boolean subjectValid, List<String> reasons) {
+        return new ElectionStatusDTO(new ElectionStatusElementDTO(ModuleCategory.SUBJECT_MODULE, subjectValid, reasons),
+                                     new ElectionStatusElementDTO(ModuleCategory.CONTEXT_MODULE, true, null),
+                                     new ElectionStatusElementDTO(ModuleCategory.INTERDISCIPLINARY_MODULE, true, null),
+                                     new ElectionStatusElementDTO(null, true, null));
+    }
+}
@@ -0,0 +1,268 @@
+package ch.zhaw.vorwahlen.messaging;
+
+import ch.zhaw.vorwahlen.model.ElectionBatchDTO;
+import ch.zhaw.vorwahlen.model.ElectionChangeDTO;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompDecoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MessageEncodingNegotiationTest {
+
+    private static final String SESSION_ID = "session1";
+    private static final String JSON = "{\"electionSaved\":true,\"electionValid\":false,\"modules\":[\"t.BA.WM.SWP.19HS\"]}";
+    private static final ElectionBatchDTO BATCH = new ElectionBatchDTO(true, List.of(
+            new ElectionChangeDTO("t.BA.WM.SWP.19HS", ElectionChangeDTO.Action.ADD)));
+
+    private final CBORMapper cborMapper = new CBORMapper();
+    private MessageEncodingNegotiation negotiation;
+
+    @BeforeEach
+    void setUp() {
+        negotiation = new MessageEncodingNegotiation();
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testToBinaryFrame_CborSession() throws IOException {
+        // prepare
+        negotiation.negotiate(connect(SESSION_ID, true, MessageEncodingNegotiation.CBOR_ENCODING));
+        var reply = cborReply(SESSION_ID);
+
+        // execute
+        var framed = negotiation.toBinaryFrame(reply);
+
+        // verify
+        var accessor = SimpMessageHeaderAccessor.wrap(framed);
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, accessor.getContentType());
+        assertEquals(MessageEncodingNegotiation.CBOR_ENCODING,
+                     accessor.getFirstNativeHeader(MessageEncodingNegotiation.ENCODING_HEADER));
+        assertSame(reply.getPayload(), framed.getPayload());
+        assertEquals(BATCH, cborMapper.readValue((byte[]) framed.getPayload(), ElectionBatchDTO.class));
+    }
+
+    @Test
+    void testToBinaryFrame_StompFrame() throws IOException {
+        // prepare
+        negotiation.negotiate(connect(SESSION_ID, true, MessageEncodingNegotiation.CBOR_ENCODING));
+        var converter = new CborMessageConverter(negotiation);
+        var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination("/user/queue/electionSaveStatus");
+        accessor.setLeaveMutable(true);
+        var session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(SESSION_ID);
+        var sent = ArgumentCaptor.forClass(WebSocketMessage.class);
+
+        // execute
+        var message = converter.toMessage(BATCH, accessor.getMessageHeaders());
+        assertNotNull(message);
+        new StompSubProtocolHandler().handleMessageToClient(session, negotiation.toBinaryFrame(message));
+
+        // verify
+        verify(session).sendMessage(sent.capture());
+        assertTrue(sent.getValue() instanceof BinaryMessage);
+        var decoded = new StompDecoder().decode(((BinaryMessage) sent.getValue()).getPayload());
+        assertEquals(1, decoded.size());
+        var headers = StompHeaderAccessor.wrap(decoded.get(0));
+        assertEquals(StompCommand.MESSAGE, headers.getCommand());
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, headers.getContentType());
+        assertEquals(MessageEncodingNegotiation.CBOR_ENCODING,
+                     headers.getFirstNativeHeader(MessageEncodingNegotiation.ENCODING_HEADER));
+        assertEquals(BATCH, cborMapper.readValue(decoded.get(0).getPayload(), ElectionBatchDTO.class));
+    }
+
+    @Test
+    void testNegotiate_Disconnect() {
+        // prepare
+        negotiation.negotiate(connect(SESSION_ID, true, MessageEncodingNegotiation.CBOR_ENCODING));
+        assertTrue(negotiation.isCborSession(SESSION_ID));
+        var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT);
+        accessor.setSessionId(SESSION_ID);
+
+        // execute
+        negotiation.negotiate(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+
+        // verify
+        assertFalse(negotiation.isCborSession(SESSION_ID));
+    }
+
+    @Test
+    void testConverter_ReadCbor() throws Exception {
+        // prepare
+        var converter = new CborMessageConverter();
+        var batch = new ElectionBatchDTO(true, List.of(new ElectionChangeDTO("t.BA.WM.SWP.19HS",
+                                                                            ElectionChangeDTO.Action.ADD)));
+        var headers = Map.<String, Object>of(MessageHeaders.CONTENT_TYPE, CborMessageConverter.APPLICATION_CBOR);
+
+        // execute
+        var message = converter.toMessage(batch, new MessageHeaders(headers));
+        var read = converter.fromMessage(message, ElectionBatchDTO.class);
+
+        // verify
+        assertNotNull(message);
+        assertEquals(batch, read);
+        assertEquals(batch, new CBORMapper().readValue((byte[]) message.getPayload(), ElectionBatchDTO.class));
+    }
+
+    @Test
+    void testConverter_WriteCborForSession() throws Exception {
+        // prepare
+        negotiation.negotiate(connect(SESSION_ID, true, MessageEncodingNegotiation.CBOR_ENCODING));
+        var converter = new CborMessageConverter(negotiation);
+        var batch = new ElectionBatchDTO(false, List.of());
+        var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setLeaveMutable(true);
+
+        // execute
+        var message = converter.toMessage(batch, accessor.getMessageHeaders());
+
+        // verify
+        assertNotNull(message);
+        assertEquals(CborMessageConverter.APPLICATION_CBOR, message.getHeaders().get(MessageHeaders.CONTENT_TYPE));
+        assertEquals(batch, new CBORMapper().readValue((byte[]) message.getPayload(), ElectionBatchDTO.class));
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testNegotiate_SockJsSessionStaysJson() throws IOException {
+        // prepare
+        negotiation.negotiate(connect(SESSION_ID, false, MessageEncodingNegotiation.CBOR_ENCODING));
+
+        // execute
+        var reply = negotiation.toBinaryFrame(cborReply(SESSION_ID));
+
+        // verify
+        assertFalse(negotiation.isCborSession(SESSION_ID));
+        assertEquals(CborMessageConverter.APPLICATION_CBOR, reply.getHeaders().get(MessageHeaders.CONTENT_TYPE));
+    }
+
+    @Test
+    void testToBinaryFrame_JsonIsDefault() {
+        // prepare
+        negotiation.negotiate(connect(SESSION_ID, true, null));
+        var reply = jsonReply(SESSION_ID);
+
+        // execute
+        var framed = negotiation.toBinaryFrame(reply);
+
+        // verify
+        assertSame(reply, framed);
+        assertFalse(negotiation.isCborSession(SESSION_ID));
+    }
+
+    @Test
+    void testToBinaryFrame_JsonToCborSessionNotTranscoded() {
+        // prepare
+        negotiation.negotiate(connect(SESSION_ID, true, MessageEncodingNegotiation.CBOR_ENCODING));
+        var reply = jsonReply(SESSION_ID);
+
+        // execute
+        var framed = negotiation.toBinaryFrame(reply);
+
+        // verify
+        assertSame(reply, framed);
+    }
+
+    @Test
+    void testToBinaryFrame_OtherSession() throws IOException {
+        // prepare
+        negotiation.negotiate(connect(SESSION_ID, true, MessageEncodingNegotiation.CBOR_ENCODING));
+        var reply = cborReply("session2");
+
+        // execute
+        var framed = negotiation.toBinaryFrame(reply);
+
+        // verify
+        assertSame(reply, framed);
+    }
+
+    @Test
+    void testConverter_JsonNotConverted() {
+        // prepare
+        var converter = new CborMessageConverter();
+        var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        var message = MessageBuilder.createMessage(JSON.getBytes(), accessor.getMessageHeaders());
+
+        // execute
+        var read = converter.fromMessage(message, ElectionBatchDTO.class);
+
+        // verify
+        assertNull(read);
+    }
+
+    @Test
+    void testConverter_JsonSessionNotConverted() {
+        // prepare
+        negotiation.negotiate(connect(SESSION_ID, true, null));
+        var converter = new CborMessageConverter(negotiation);
+        var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION_ID);
+
+        // execute
+        var message = converter.toMessage(new ElectionBatchDTO(false, List.of()), accessor.getMessageHeaders());
+
+        // verify
+        assertNull(message);
+    }
+
+    private static Message<byte[]> connect(String sessionId, boolean binaryFrames, String encoding) {
+        var accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        var sessionAttributes = new HashMap<String, Object>();
+        if (binaryFrames) {
+            sessionAttributes.put(MessageEncodingNegotiation.BINARY_FRAMES_ATTRIBUTE, Boolean.TRUE);
+        }
+        accessor.setSessionAttributes(sessionAttributes);
+        if (encoding != null) {
+            accessor.setNativeHeader(MessageEncodingNegotiation.ENCODING_HEADER, encoding);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> jsonReply(String sessionId) {
+        var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/user/queue/electionSaveStatus");
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(JSON.getBytes(), accessor.getMessageHeaders());
+    }
+
+    private Message<byte[]> cborReply(String sessionId) throws IOException {
+        var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/user/queue/electionSaveStatus");
+        accessor.setContentType(CborMessageConverter.APPLICATION_CBOR);
+        return MessageBuilder.createMessage(cborMapper.writeValueAsBytes(BATCH), accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,210 @@
+package ch.zhaw.vorwahlen.model.modulestructure;
+
+import ch.zhaw.vorwahlen.model.ExecutionSemester;
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Golden output test, the {@link ModuleStructureEngine} has to return the same structure as the
+ * {@link ModuleStructureGenerator} on randomized students and elections.
+ */
+class ModuleStructureEngineTest {
+
+    private static final long SEED = 20221018L;
+    private static final int NUM_ELECTIONS = 1000;
+    private static final int NUM_TOGGLES = 15;
+
+    private final List<Module> modulePool = new ArrayList<>();
+    private final ModuleDefinition fullTimeDefinition = new ModuleDefinition();
+    private final ModuleDefinition partTimeDefinition = new ModuleDefinition();
+    private final ElectionSemesters electionSemesters = new ElectionSemesters();
+    private ModuleStructureEngine engine;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(SEED);
+
+        // definitions of settings.properties
+        fullTimeDefinition.setContextModules(definition(5, 2, 6, 1));
+        fullTimeDefinition.setProjectModule(definition(5, 1));
+        fullTimeDefinition.setBachelorModule(definition(6, 1));
+        fullTimeDefinition.setInterdisciplinaryModules(definition(5, 1));
+        fullTimeDefinition.setSubjectModules(definition(5, 4, 6, 4));
+
+        partTimeDefinition.setContextModules(definition(5, 1, 6, 1, 7, 1));
+        partTimeDefinition.setProjectModule(definition(7, 1));
+        partTimeDefinition.setBachelorModule(definition(8, 1));
+        partTimeDefinition.setInterdisciplinaryModules(definition(7, 1));
+        partTimeDefinition.setSubjectModules(definition(5, 1, 6, 1, 7, 3, 8, 3));
+
+        electionSemesters.setFullTimeSemesters(List.of(5, 6));
+        electionSemesters.setPartTimeSemestersFirstElection(List.of(5, 6));
+        electionSemesters.setPartTimeSemestersSecondElection(List.of(7, 8));
+        engine = new ModuleStructureEngine(fullTimeDefinition, partTimeDefinition, electionSemesters);
+
+        // subject modules
+        addModule("WV.AI1-EN", "IT6", ExecutionSemester.AUTUMN);
+        addModule("WV.AI2-EN", "IT6", ExecutionSemester.SPRING);
+        addModule("WV.MC1", "IT6", ExecutionSemester.AUTUMN);
+        addModule("WV.MC2", "IT6", ExecutionSemester.SPRING);
+        addModule("WV.PSPP", "IT6", ExecutionSemester.AUTUMN);
+        addModule("WV.FUP", "IT6", ExecutionSemester.SPRING);
+        addModule("WV.ESE", "IT6", ExecutionSemester.AUTUMN);
+        addModule("WV.SCAD-EN", "IT6", ExecutionSemester.SPRING);
+        addModule("WV.RAP-EN", "IT6", ExecutionSemester.AUTUMN_AND_SPRING);
+        addModule("XX.DIGI", "IT6", ExecutionSemester.AUTUMN);
+
+        // context modules
+        addModule("WVK.ICAM-EN", "IT5", ExecutionSemester.AUTUMN);
+        addModule("WVK.ZURO", "IT5", ExecutionSemester.SPRING);
+        addModule("WVK.SIC-TAF", "IT5", ExecutionSemester.AUTUMN);
+        addModule("XXK.FUPRE", "IT5", ExecutionSemester.SPRING);
+        addModule("XX.KOM", "IT5", ExecutionSemester.AUTUMN);
+
+        // interdisciplinary modules
+        addModule("WM.PHMOD", "IT7", ExecutionSemester.AUTUMN);
+        addModule("WM.RASOP-EN", "IT7", ExecutionSemester.SPRING);
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testGenerateStructure_EmptyElection() {
+        // prepare
+        var student = Student.builder().email("student@mail.com").build();
+        var election = createElection(student);
+
+        // execute
+        var structure = engine.generateStructure(student, election);
+
+        // verify
+        assertEquals(generate(student, election), structure);
+        assertTrue(structure.electedModules().stream().allMatch(ModuleStructureElement::isPlaceholder));
+        assertEquals(14, structure.electedModules().size());
+        assertTrue(structure.overflowedModules().isEmpty());
+    }
+
+    @Test
+    void testGenerateStructure_Dispensations() {
+        // prepare
+        var student = Student.builder().email("student@mail.com").wpmDispensation(8).paDispensation(6).build();
+        var election = createElection(student);
+        election.getElectedModules().addAll(modulePool.subList(0, 10));
+
+        // execute
+        var structure = engine.generateStructure(student, election);
+
+        // verify
+        assertEquals(generate(student, election), structure);
+        var dispensedModules = structure.electedModules().stream()
+                .filter(mse -> ModuleCategory.DISPENSED_WPM_MODULE.equals(mse.category())
+                        || ModuleCategory.DISPENSED_PA_MODULE.equals(mse.category()))
+                .count();
+        assertEquals(3, dispensedModules);
+        assertFalse(structure.overflowedModules().isEmpty());
+    }
+
+    @Test
+    void testGenerateStructure_RandomElections() {
+        for (var i = 0; i < NUM_ELECTIONS; i++) {
+            var student = randomStudent(i);
+            var election = randomElection(student);
+            assertSameStructure(student, election);
+        }
+    }
+
+    @Test
+    void testGenerateStructure_RandomToggles() {
+        for (var i = 0; i < NUM_ELECTIONS / 10; i++) {
+            var student = randomStudent(i);
+            var election = randomElection(student);
+            assertSameStructure(student, election);
+
+            for (var toggle = 0; toggle < NUM_TOGGLES; toggle++) {
+                var module = modulePool.get(random.nextInt(modulePool.size()));
+                if (!election.getElectedModules().remove(module)) {
+                    election.getElectedModules().add(module);
+                }
+                assertSameStructure(student, election);
+            }
+        }
+    }
+
+    private void assertSameStructure(Student student, Election election) {
+        var message = "student: " + student + ", modules: " + election.getElectedModules().stream()
+                .map(Module::getShortModuleNo).sorted().toList();
+        var expected = generate(student, election);
+        var actual = engine.generateStructure(student, election);
+        assertEquals(expected.electedModules(), actual.electedModules(), message);
+        assertEquals(expected.overflowedModules(), actual.overflowedModules(), message);
+    }
+
+    private ElectionStructureDTO generate(Student student, Election election) {
+        var moduleDefinition = student.isTZ() ? partTimeDefinition : fullTimeDefinition;
+        return new ModuleStructureGenerator(moduleDefinition, student, election, electionSemesters)
+                .generateStructure();
+    }
+
+    private Student randomStudent(int number) {
+        return Student.builder()
+                .email("student" + number + "@mail.com")
+                .isTZ(random.nextBoolean())
+                .isSecondElection(random.nextBoolean())
+                .wpmDispensation(random.nextInt(4) * 4)
+                .paDispensation(random.nextInt(3) * 6)
+                .build();
+    }
+
+    private Election randomElection(Student student) {
+        var election = createElection(student);
+        var probability = random.nextInt(10);
+        for (var module : modulePool) {
+            if (random.nextInt(10) < probability) {
+                election.getElectedModules().add(module);
+            }
+        }
+        return election;
+    }
+
+    private static Election createElection(Student student) {
+        var election = new Election();
+        election.setStudent(student);
+        election.setElectedModules(new HashSet<>());
+        return election;
+    }
+
+    private void addModule(String shortModuleNo, String moduleGroup, ExecutionSemester semester) {
+        modulePool.add(Module.builder()
+                               .moduleNo("t.BA." + shortModuleNo + ".19HS")
+                               .shortModuleNo(shortModuleNo)
+                               .moduleTitle(shortModuleNo)
+                               .moduleGroup(moduleGroup)
+                               .semester(semester)
+                               .build());
+    }
+
+    private static Map<Integer, Integer> definition(int... semesterCounts) {
+        var definition = new LinkedHashMap<Integer, Integer>();
+        for (var i = 0; i < semesterCounts.length; i += 2) {
+            definition.put(semesterCounts[i], semesterCounts[i + 1]);
+        }
+        return definition;
+    }
+
+}
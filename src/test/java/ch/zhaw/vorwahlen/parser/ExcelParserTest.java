@@ -1,11 +1,22 @@
 package ch.zhaw.vorwahlen.parser;
 
 import ch.zhaw.vorwahlen.dummy.DummyLookupTable;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+import ch.zhaw.vorwahlen.parser.lookup.DispensationLookupTable;
+import ch.zhaw.vorwahlen.parser.lookup.ModuleLookupTable;
+import ch.zhaw.vorwahlen.parser.lookup.StudentLookupTable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -13,8 +24,12 @@ class ExcelParserTest {
 
     private static final String MODULE_LIST_FILE_NAME = "Liste_alle_Module_SM2025_SGL_Def_1.7-2021-03-29.xlsx";
     private static final String WORK_SHEET_NAME = "Module 2025";
+    private static final String CLASS_LIST_FILE_NAME = "Vorlage_Klassenzuteilungen.xlsx";
+    private static final String DISPENSATION_FILE_NAME = "Vorlage_Dispensationen.xlsx";
+    private static final String TEMPLATE_WORK_SHEET_NAME = "Sheet1";
+    private static final int CHUNK_SIZE = 10;
 
-    ExcelParser<?, DummyLookupTable> parser;
+    ExcelParser<?, ?> parser;
 
     @BeforeEach
     void setUp() {
@@ -29,6 +44,15 @@ class ExcelParserTest {
         for (var field: DummyLookupTable.values()) {
             field.setCellNumber(-1);
         }
+        for (var field: ModuleLookupTable.values()) {
+            field.setCellNumber(-1);
+        }
+        for (var field: StudentLookupTable.values()) {
+            field.setCellNumber(-1);
+        }
+        for (var field: DispensationLookupTable.values()) {
+            field.setCellNumber(-1);
+        }
     }
 
     /* **************************************************************************************************************
@@ -68,6 +92,34 @@ class ExcelParserTest {
         }
     }
 
+    @Test
+    void testParseModulesFromXLSX_Streaming() throws IOException {
+        var expected = new ModuleParser(openResource(MODULE_LIST_FILE_NAME), WORK_SHEET_NAME).parseFromXLSX();
+        var result = parseStreaming(new ModuleParser(openResource(MODULE_LIST_FILE_NAME), WORK_SHEET_NAME));
+
+        assertFalse(expected.isEmpty());
+        assertIterableEquals(expected, result);
+        assertEquals(toStrings(expected, Module::toString), toStrings(result, Module::toString));
+    }
+
+    @Test
+    void testParseClassListFromXLSX_Streaming() throws IOException {
+        var expected = new ClassListParser(openResource(CLASS_LIST_FILE_NAME), TEMPLATE_WORK_SHEET_NAME).parseFromXLSX();
+        var result = parseStreaming(new ClassListParser(openResource(CLASS_LIST_FILE_NAME), TEMPLATE_WORK_SHEET_NAME));
+
+        assertFalse(expected.isEmpty());
+        assertEquals(toStrings(expected, ExcelParserTest::studentToString), toStrings(result, ExcelParserTest::studentToString));
+    }
+
+    @Test
+    void testParseDispensationsFromXLSX_Streaming() throws IOException {
+        var expected = new DispensationParser(openResource(DISPENSATION_FILE_NAME), TEMPLATE_WORK_SHEET_NAME).parseFromXLSX();
+        var result = parseStreaming(new DispensationParser(openResource(DISPENSATION_FILE_NAME), TEMPLATE_WORK_SHEET_NAME));
+
+        assertFalse(expected.isEmpty());
+        assertEquals(toStrings(expected, ExcelParserTest::studentToString), toStrings(result, ExcelParserTest::studentToString));
+    }
+
     /* **************************************************************************************************************
      * Negative tests
      * ************************************************************************************************************** */
@@ -116,4 +168,34 @@ class ExcelParserTest {
         assertThrows(NullPointerException.class, () -> parser.parseFromXLSX());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testParseModulesFromXLSX_Streaming_NonExistingWorksheet() {
+        var moduleParser = new ModuleParser(openResource(MODULE_LIST_FILE_NAME), "Inkognito");
+        assertThrows(IOException.class, () -> moduleParser.parseFromXLSX(CHUNK_SIZE, chunk -> {}));
+    }
+
+    private InputStream openResource(String name) {
+        return getClass().getClassLoader().getResourceAsStream(name);
+    }
+
+    private static <T> List<T> parseStreaming(ExcelParser<T, ?> excelParser) throws IOException {
+        var result = new ArrayList<T>();
+        excelParser.parseFromXLSX(CHUNK_SIZE, chunk -> {
+            assertTrue(chunk.size() <= CHUNK_SIZE);
+            result.addAll(chunk);
+        });
+        return result;
+    }
+
+    private static <T> List<String> toStrings(List<T> list, Function<T, String> toString) {
+        return list.stream().map(toString).toList();
+    }
+
+    private static String studentToString(Student student) {
+        return String.join(";", student.getEmail(), student.getName(),
+                           student.getStudentClass() == null ? "" : student.getStudentClass().getName(),
+                           String.valueOf(student.isTZ()), String.valueOf(student.getPaDispensation()),
+                           String.valueOf(student.getWpmDispensation()));
+    }
+
+}
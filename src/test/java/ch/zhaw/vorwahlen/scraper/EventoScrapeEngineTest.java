@@ -0,0 +1,264 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.evento.EventoData;
+import ch.zhaw.vorwahlen.model.evento.EventoPageFingerprint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventoScrapeEngineTest {
+
+    private static final int NUM_MODULES = 12;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @TempDir
+    Path cacheDirectory;
+
+    private EventoStubServer stubServer;
+    private EventoScrapeEngine scrapeEngine;
+    private final Map<String, EventoData> saved = new ConcurrentHashMap<>();
+    private final Map<String, EventoPageFingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubServer = new EventoStubServer();
+        var settings = new ScraperSettings();
+        settings.setSiteUrl(stubServer.siteUrl());
+        settings.setCacheDirectory(cacheDirectory.toString());
+        settings.setWorkers(4);
+        settings.setRequestsPerSecond(1000);
+        settings.setBurst(NUM_MODULES);
+        settings.setMaxAttempts(MAX_ATTEMPTS);
+        settings.setInitialBackoffMs(10);
+        settings.setMaxBackoffMs(20);
+        scrapeEngine = new EventoScrapeEngine(settings, new EventoPageCache(settings), createPageFetcher());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testScrapeAll() {
+        var modules = createModules();
+
+        var report = scrapeAll(modules);
+
+        assertEquals(NUM_MODULES, report.scraped());
+        assertTrue(report.failedModuleNos().isEmpty());
+        assertTrue(report.statistics().bytesReceived() < report.statistics().bodyBytes());
+        assertEquals(NUM_MODULES, saved.size());
+        for (var module : modules) {
+            var data = saved.get(module.getModuleNo());
+            assertEquals("Introduction to the methods of artificial intelligence.", data.getShortDescription());
+            assertEquals("Max Muster (mumx)", data.getCoordinator());
+            assertTrue(data.getLearningObjectives().contains("<li>Search and planning</li>"));
+            assertTrue(data.getModuleStructure().contains("<table>"));
+            assertEquals("Keine", data.getRemarks());
+            assertEquals(1, stubServer.requestCount(module.getModuleId()));
+        }
+    }
+
+    @Test
+    void testScrapeAll_RetryAfterServerError() {
+        var modules = createModules();
+        stubServer.respondWith(3, 503, 500);
+        stubServer.respondWith(7, 429);
+
+        var report = scrapeAll(modules);
+
+        assertEquals(NUM_MODULES, report.scraped());
+        assertEquals(3, stubServer.requestCount(3));
+        assertEquals(2, stubServer.requestCount(7));
+        assertEquals("Keine", saved.get(modules.get(3).getModuleNo()).getRemarks());
+    }
+
+    @Test
+    void testScrapeAll_RetryAfterTimeout() throws IOException {
+        var settings = new ScraperSettings();
+        settings.setCacheDirectory(cacheDirectory.toString());
+        settings.setRequestsPerSecond(1000);
+        settings.setBurst(NUM_MODULES);
+        settings.setInitialBackoffMs(10);
+        var pageFetcher = new FakePageFetcher();
+        var modules = createModules();
+        var url = String.format(settings.getSiteUrl(), modules.get(6).getModuleId());
+        pageFetcher.timeOut(url, 2);
+
+        var report = new EventoScrapeEngine(settings, new EventoPageCache(settings), pageFetcher)
+                .scrapeAll(modules, Map.of(), this::save);
+
+        assertEquals(NUM_MODULES, report.scraped());
+        assertEquals(3, pageFetcher.fetchCount(url));
+        assertEquals("Keine", saved.get(modules.get(6).getModuleNo()).getRemarks());
+    }
+
+    @Test
+    void testScrapeAll_RateLimit() {
+        var settings = new ScraperSettings();
+        settings.setSiteUrl(stubServer.siteUrl());
+        settings.setCacheDirectory(cacheDirectory.toString());
+        settings.setRequestsPerSecond(20);
+        settings.setBurst(1);
+        var modules = createModules();
+
+        var start = System.nanoTime();
+        new EventoScrapeEngine(settings, new EventoPageCache(settings), createPageFetcher())
+                .scrapeAll(modules, Map.of(), this::save);
+        var elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // the first request uses the burst, the others wait 50 ms each
+        assertTrue(elapsedMs >= (NUM_MODULES - 1) * 50L - 10, "elapsed: " + elapsedMs);
+        assertEquals(NUM_MODULES, saved.size());
+    }
+
+    @Test
+    void testScrapeAll_NotModified() {
+        var modules = createModules();
+        stubServer.enableEtag();
+        scrapeAll(modules);
+        saved.clear();
+
+        var report = scrapeAll(modules);
+
+        assertEquals(0, report.scraped());
+        assertEquals(NUM_MODULES, report.unchanged());
+        assertTrue(saved.isEmpty());
+        for (var module : modules) {
+            assertEquals(1, stubServer.notModifiedCount(module.getModuleId()));
+        }
+    }
+
+    @Test
+    void testScrapeAll_SameContentHash() {
+        var modules = createModules();
+        scrapeAll(modules);
+        var firstFingerprints = Map.copyOf(fingerprints);
+        saved.clear();
+
+        // the view state of every answer differs, the module fields do not
+        var report = scrapeAll(modules);
+
+        assertEquals(0, report.scraped());
+        assertEquals(NUM_MODULES, report.unchanged());
+        assertTrue(saved.isEmpty());
+        assertEquals(firstFingerprints, fingerprints);
+    }
+
+    @Test
+    void testScrapeAll_OnlyChangedModules() {
+        var modules = createModules();
+        stubServer.enableEtag();
+        scrapeAll(modules);
+        saved.clear();
+        stubServer.changeContent(4);
+        stubServer.changeContent(9);
+
+        var report = scrapeAll(modules);
+
+        assertEquals(2, report.scraped());
+        assertEquals(NUM_MODULES - 2, report.unchanged());
+        assertEquals(2, saved.size());
+        assertEquals("Keine, Version 1", saved.get(modules.get(4).getModuleNo()).getRemarks());
+        assertEquals("\"9-1\"", fingerprints.get(modules.get(9).getModuleNo()).getEtag());
+    }
+
+    @Test
+    void testReparseCached() {
+        var modules = createModules();
+        scrapeAll(modules);
+        saved.clear();
+        stubServer.close();
+
+        var parsed = scrapeEngine.reparseCached(modules, data -> saved.put(data.getModuleNo(), data));
+
+        assertEquals(NUM_MODULES, parsed);
+        assertEquals("Max Muster (mumx)", saved.get(modules.get(0).getModuleNo()).getCoordinator());
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testScrapeAll_NotFoundIsNotRetried() {
+        var modules = createModules();
+        stubServer.respondWith(5, 404);
+
+        var report = scrapeAll(modules);
+
+        assertEquals(NUM_MODULES - 1, report.scraped());
+        assertEquals(List.of(modules.get(5).getModuleNo()), report.failedModuleNos());
+        assertEquals(1, stubServer.requestCount(5));
+        assertFalse(saved.containsKey(modules.get(5).getModuleNo()));
+    }
+
+    @Test
+    void testScrapeAll_GivesUpAfterMaxAttempts() {
+        var modules = createModules();
+        stubServer.respondWith(2, 500, 500, 500, 500);
+
+        var report = scrapeAll(modules);
+
+        assertEquals(List.of(modules.get(2).getModuleNo()), report.failedModuleNos());
+        assertEquals(MAX_ATTEMPTS, stubServer.requestCount(2));
+        assertEquals(NUM_MODULES - 1, saved.size());
+    }
+
+    @Test
+    void testScrapeAll_ConsumerFails() {
+        var modules = createModules();
+        var failingModuleNo = modules.get(4).getModuleNo();
+
+        var report = scrapeEngine.scrapeAll(modules, Map.of(), scrapedModule -> {
+            if (failingModuleNo.equals(scrapedModule.eventoData().getModuleNo())) {
+                throw new IllegalStateException("database down");
+            }
+            save(scrapedModule);
+        });
+
+        assertEquals(List.of(failingModuleNo), report.failedModuleNos());
+        assertEquals(NUM_MODULES - 1, saved.size());
+    }
+
+    private EventoScrapeEngine.ScrapeReport scrapeAll(List<Module> modules) {
+        return scrapeEngine.scrapeAll(modules, Map.copyOf(fingerprints), this::save);
+    }
+
+    private void save(EventoScrapeEngine.ScrapedModule scrapedModule) {
+        if (scrapedModule.eventoData() != null) {
+            saved.put(scrapedModule.eventoData().getModuleNo(), scrapedModule.eventoData());
+        }
+        fingerprints.put(scrapedModule.fingerprint().getModuleNo(), scrapedModule.fingerprint());
+    }
+
+    private static PageFetcher createPageFetcher() {
+        return new HttpPageFetcher(Duration.ofSeconds(5));
+    }
+
+    private static List<Module> createModules() {
+        return IntStream.range(0, NUM_MODULES)
+                .mapToObj(id -> Module.builder()
+                        .moduleNo("t.BA.WV.M" + id + ".19HS")
+                        .moduleId(id)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,146 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local http server which answers like eventoweb with a recorded module page.<br/>
+ *
+ * Like eventoweb the view state of the page changes on every request. Optionally the server sends an ETag and
+ * answers conditional requests with 304. The page is gzip compressed if the client accepts it.
+ */
+class EventoStubServer implements AutoCloseable {
+    private static final String PATH = "/Evt_Pages/Brn_ModulDetailAZ.aspx";
+    private static final String PAGE_RESOURCE = "evento/module_detail.html";
+    private static final String VIEWSTATE_PATTERN = "id=\"__VIEWSTATE\" value=\"[^\"]*\"";
+    private static final String REMARKS = ">Keine<";
+
+    private final HttpServer server;
+    private final String page;
+    private final Map<Integer, Queue<Integer>> statusByModuleId = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> requestsByModuleId = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> notModifiedByModuleId = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> versionByModuleId = new ConcurrentHashMap<>();
+    private final Set<Integer> remotePorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger viewState = new AtomicInteger();
+    private volatile boolean etagEnabled;
+
+    EventoStubServer() throws IOException {
+        try (var is = Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream(PAGE_RESOURCE))) {
+            page = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(PATH, this::handle);
+        server.start();
+    }
+
+    /**
+     * Returns the url pattern of the stub like {@link EventoScraper#SITE_URL}.
+     */
+    String siteUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + PATH + "?IDAnlass=%d&IdLanguage=1";
+    }
+
+    /**
+     * Answer the next requests of the module with the given status codes, afterwards with the page.
+     */
+    void respondWith(int moduleId, Integer... statusCodes) {
+        statusByModuleId.computeIfAbsent(moduleId, id -> new ArrayDeque<>()).addAll(List.of(statusCodes));
+    }
+
+    /**
+     * Send an ETag with every page and answer a matching If-None-Match with 304.
+     */
+    void enableEtag() {
+        etagEnabled = true;
+    }
+
+    /**
+     * Change the remarks of the module page.
+     */
+    void changeContent(int moduleId) {
+        versionByModuleId.computeIfAbsent(moduleId, id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    int requestCount(int moduleId) {
+        return requestsByModuleId.getOrDefault(moduleId, new AtomicInteger()).get();
+    }
+
+    int notModifiedCount(int moduleId) {
+        return notModifiedByModuleId.getOrDefault(moduleId, new AtomicInteger()).get();
+    }
+
+    /**
+     * Returns the number of distinct client ports, which is the number of opened connections.
+     */
+    int connectionCount() {
+        return remotePorts.size();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        var moduleId = Integer.parseInt(exchange.getRequestURI().getQuery().replaceAll(".*IDAnlass=(\\d+).*", "$1"));
+        requestsByModuleId.computeIfAbsent(moduleId, id -> new AtomicInteger()).incrementAndGet();
+        remotePorts.add(exchange.getRemoteAddress().getPort());
+
+        var statusCodes = statusByModuleId.get(moduleId);
+        Integer status;
+        synchronized (this) {
+            status = statusCodes == null ? null : statusCodes.poll();
+        }
+        var version = versionByModuleId.getOrDefault(moduleId, new AtomicInteger()).get();
+        var etag = "\"" + moduleId + "-" + version + "\"";
+        try (exchange) {
+            if (status != null) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            if (etagEnabled) {
+                exchange.getResponseHeaders().add("ETag", etag);
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModifiedByModuleId.computeIfAbsent(moduleId, id -> new AtomicInteger()).incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+            }
+            var body = page
+                    .replaceFirst(VIEWSTATE_PATTERN, "id=\"__VIEWSTATE\" value=\"" + viewState.incrementAndGet() + "\"")
+                    .replace(REMARKS, version == 0 ? REMARKS : ">Keine, Version " + version + "<")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            var acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                body = gzip(body);
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        var compressed = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
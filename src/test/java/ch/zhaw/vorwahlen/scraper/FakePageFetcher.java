@@ -0,0 +1,53 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import org.jsoup.Jsoup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PageFetcher} without network, which answers every url with the recorded module page.<br/>
+ *
+ * Failures of the connection, which the {@link EventoStubServer} cannot produce, are simulated with a timeout.
+ */
+class FakePageFetcher implements PageFetcher {
+    private static final String PAGE_RESOURCE = "evento/module_detail.html";
+
+    private final byte[] page;
+    private final Map<String, AtomicInteger> timeoutsByUrl = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> fetchesByUrl = new ConcurrentHashMap<>();
+
+    FakePageFetcher() throws IOException {
+        try (var is = Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream(PAGE_RESOURCE))) {
+            page = is.readAllBytes();
+        }
+    }
+
+    /**
+     * Let the next fetches of the url time out.
+     */
+    void timeOut(String url, int times) {
+        timeoutsByUrl.computeIfAbsent(url, u -> new AtomicInteger()).addAndGet(times);
+    }
+
+    int fetchCount(String url) {
+        return fetchesByUrl.getOrDefault(url, new AtomicInteger()).get();
+    }
+
+    @Override
+    public EventoPage fetch(String url, String etag, String lastModified) throws IOException {
+        fetchesByUrl.computeIfAbsent(url, u -> new AtomicInteger()).incrementAndGet();
+        var timeouts = timeoutsByUrl.get(url);
+        if (timeouts != null && timeouts.getAndDecrement() > 0) {
+            throw new SocketTimeoutException("fetching " + url + " timed out");
+        }
+        var document = Jsoup.parse(new ByteArrayInputStream(page), null, url);
+        return new EventoPage(url, false, document, page.clone(), null, null,
+                              new FetchStatistics(0, page.length, page.length));
+    }
+}
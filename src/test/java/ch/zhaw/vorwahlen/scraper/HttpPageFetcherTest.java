@@ -0,0 +1,95 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpPageFetcherTest {
+
+    private static final int NUM_REQUESTS = 10;
+
+    private EventoStubServer stubServer;
+    private HttpPageFetcher pageFetcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubServer = new EventoStubServer();
+        pageFetcher = new HttpPageFetcher(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testFetch() throws IOException {
+        var page = pageFetcher.fetch(url(1), null, null);
+
+        assertFalse(page.notModified());
+        assertEquals("Max Muster (mumx)", EventoScraper.parseModule(page.document(), module(1)).getCoordinator());
+        assertTrue(new String(page.body(), StandardCharsets.UTF_8).contains("Max Muster (mumx)"));
+        assertEquals(page.body().length, page.statistics().bodyBytes());
+        assertTrue(page.statistics().bytesReceived() < page.statistics().bodyBytes());
+    }
+
+    @Test
+    void testFetch_ReusesConnection() throws IOException {
+        for (var id = 0; id < NUM_REQUESTS; id++) {
+            pageFetcher.fetch(url(id), null, null);
+        }
+
+        // the client returns the connection to its pool asynchronously, the next request may open another one
+        assertTrue(stubServer.connectionCount() <= 2, "connections: " + stubServer.connectionCount());
+    }
+
+    @Test
+    void testFetch_NotModified() throws IOException {
+        stubServer.enableEtag();
+        var first = pageFetcher.fetch(url(1), null, null);
+
+        var second = pageFetcher.fetch(url(1), first.etag(), null);
+
+        assertEquals("\"1-0\"", first.etag());
+        assertTrue(second.notModified());
+        assertNull(second.document());
+        assertEquals(first.etag(), second.etag());
+        assertEquals(1, stubServer.notModifiedCount(1));
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testFetch_ErrorStatus() {
+        stubServer.respondWith(1, 404);
+
+        var exception = assertThrows(PageStatusException.class, () -> pageFetcher.fetch(url(1), null, null));
+
+        assertEquals(404, exception.getStatusCode());
+        assertEquals(url(1), exception.getUrl());
+    }
+
+    private String url(int moduleId) {
+        return String.format(stubServer.siteUrl(), moduleId);
+    }
+
+    private static Module module(int moduleId) {
+        return Module.builder()
+                .moduleNo("t.BA.WV.M" + moduleId + ".19HS")
+                .moduleId(moduleId)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package ch.zhaw.vorwahlen.scraper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private long now;
+    private TokenBucket tokenBucket;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        tokenBucket = new TokenBucket(2, 3, () -> now);
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testReserve_Burst() {
+        assertEquals(0, tokenBucket.reserve());
+        assertEquals(0, tokenBucket.reserve());
+        assertEquals(0, tokenBucket.reserve());
+        assertEquals(SECOND / 2, tokenBucket.reserve());
+        assertEquals(SECOND, tokenBucket.reserve());
+    }
+
+    @Test
+    void testReserve_Refill() {
+        for (var i = 0; i < 3; i++) {
+            tokenBucket.reserve();
+        }
+        now += SECOND;
+        assertEquals(0, tokenBucket.reserve());
+        assertEquals(0, tokenBucket.reserve());
+        assertEquals(SECOND / 2, tokenBucket.reserve());
+    }
+
+    @Test
+    void testReserve_RefillIsCapped() {
+        now += 100 * SECOND;
+        for (var i = 0; i < 3; i++) {
+            assertEquals(0, tokenBucket.reserve());
+        }
+        assertEquals(SECOND / 2, tokenBucket.reserve());
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testCreate_InvalidRate() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
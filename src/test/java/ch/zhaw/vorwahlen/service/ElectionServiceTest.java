@@ -1,21 +1,27 @@
 package ch.zhaw.vorwahlen.service;
 
+import ch.zhaw.vorwahlen.catalog.ModuleCatalog;
+import ch.zhaw.vorwahlen.concurrency.ElectionSaveExecutor;
+import ch.zhaw.vorwahlen.concurrency.ElectionSaveSettings;
 import ch.zhaw.vorwahlen.config.UserBean;
 import ch.zhaw.vorwahlen.exception.ElectionConflictException;
 import ch.zhaw.vorwahlen.exception.ElectionNotFoundException;
+import ch.zhaw.vorwahlen.exception.ModuleNotFoundException;
 import ch.zhaw.vorwahlen.exporter.ElectionExporter;
 import ch.zhaw.vorwahlen.mapper.Mapper;
 import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
 import ch.zhaw.vorwahlen.model.core.election.ElectionStatusDTO;
+import ch.zhaw.vorwahlen.model.ElectionBatchDTO;
+import ch.zhaw.vorwahlen.model.ElectionChangeDTO;
+import ch.zhaw.vorwahlen.model.ElectionSaveDTO;
 import ch.zhaw.vorwahlen.model.ElectionTransferDTO;
 import ch.zhaw.vorwahlen.model.core.election.ElectionDTO;
-import ch.zhaw.vorwahlen.model.modulestructure.ElectionSemesters;
 import ch.zhaw.vorwahlen.model.core.module.Module;
 import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
 import ch.zhaw.vorwahlen.model.core.election.Election;
 import ch.zhaw.vorwahlen.model.core.student.Student;
 import ch.zhaw.vorwahlen.model.core.validationsetting.ValidationSetting;
-import ch.zhaw.vorwahlen.model.modulestructure.ModuleDefinition;
+import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureEngine;
 import ch.zhaw.vorwahlen.model.modulestructure.ModuleStructureElement;
 import ch.zhaw.vorwahlen.repository.ElectionRepository;
 import ch.zhaw.vorwahlen.repository.ModuleRepository;
@@ -23,7 +29,12 @@ import ch.zhaw.vorwahlen.repository.StudentClassRepository;
 import ch.zhaw.vorwahlen.repository.StudentRepository;
 import ch.zhaw.vorwahlen.repository.ValidationSettingRepository;
 import ch.zhaw.vorwahlen.security.model.User;
-import ch.zhaw.vorwahlen.validation.ElectionValidator;
+import ch.zhaw.vorwahlen.validation.ElectionResultCache;
+import ch.zhaw.vorwahlen.validation.ElectionResultCacheSettings;
+import ch.zhaw.vorwahlen.validation.ElectionValidatorRegistry;
+import ch.zhaw.vorwahlen.validation.IncrementalElectionValidator;
+import ch.zhaw.vorwahlen.writebehind.ElectionWriteBuffer;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,13 +42,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -52,17 +69,19 @@ class ElectionServiceTest {
 
     public static final long NON_EXISTENT_ID = 9999L;
     private final ElectionRepository electionRepository;
-    private final ElectionValidator validator;
-    private final ModuleDefinition moduleDefinition;
+    private final ElectionValidatorRegistry validator;
+    private final ModuleStructureEngine moduleStructureEngine;
     private final ModuleRepository moduleRepository;
     private final ElectionExporter exporter;
     private final ValidationSettingRepository validationSettingRepository;
     private final StudentRepository studentRepository;
-    private final ElectionSemesters electionSemesters;
     private final StudentClassRepository studentClassRepository;
     private final Mapper<ElectionDTO, Election> electionMapper;
     private final Mapper<ElectionStatusDTO, ElectionStatus> electionStatusMapper;
     private final UserBean userBean;
+    private final ElectionWriteBuffer electionWriteBuffer;
+    private final TransactionTemplate transactionTemplate;
+    private final ElectionDeltaService electionDeltaService;
 
     private final MessageChannel messageChannel;
 
@@ -85,37 +104,48 @@ class ElectionServiceTest {
 
     @Autowired
     public ElectionServiceTest(ElectionRepository electionRepository,
-                               ElectionValidator validator,
-                               ModuleDefinition moduleDefinition,
+                               ElectionValidatorRegistry validator,
+                               ModuleStructureEngine moduleStructureEngine,
                                ModuleRepository moduleRepository,
                                ElectionExporter exporter,
                                ValidationSettingRepository validationSettingRepository,
                                StudentRepository studentRepository,
-                               ElectionSemesters electionSemesters,
                                StudentClassRepository studentClassRepository,
                                Mapper<ElectionDTO, Election> electionMapper,
                                Mapper<ElectionStatusDTO, ElectionStatus> electionStatusMapper,
-                               UserBean userBean, @Qualifier("clientOutboundChannel") MessageChannel messageChannel) {
+                               UserBean userBean, ElectionWriteBuffer electionWriteBuffer,
+                               TransactionTemplate transactionTemplate,
+                               ElectionDeltaService electionDeltaService,
+                               @Qualifier("clientOutboundChannel") MessageChannel messageChannel) {
         this.electionRepository = electionRepository;
         this.validator = validator;
-        this.moduleDefinition = moduleDefinition;
+        this.moduleStructureEngine = moduleStructureEngine;
         this.moduleRepository = moduleRepository;
         this.exporter = exporter;
         this.validationSettingRepository = validationSettingRepository;
         this.studentRepository = studentRepository;
-        this.electionSemesters = electionSemesters;
         this.studentClassRepository = studentClassRepository;
         this.electionMapper = electionMapper;
         this.electionStatusMapper = electionStatusMapper;
         this.userBean = userBean;
+        this.electionWriteBuffer = electionWriteBuffer;
+        this.transactionTemplate = transactionTemplate;
+        this.electionDeltaService = electionDeltaService;
         this.messageChannel = messageChannel;
     }
 
     @BeforeEach
     void setUp() {
-        electionService = new ElectionService(electionRepository, moduleRepository,studentRepository,
-                                              validator, moduleDefinition, exporter, electionSemesters,
-                                              electionMapper, electionStatusMapper, userBean, messageChannel);
+        var moduleCatalog = new ModuleCatalog(moduleRepository);
+        electionService = new ElectionService(electionRepository, moduleCatalog, studentRepository,
+                                              validator, new IncrementalElectionValidator(), moduleStructureEngine,
+                                              exporter, electionMapper, electionStatusMapper,
+                                              userBean, electionWriteBuffer,
+                                              new ElectionResultCache(new ElectionResultCacheSettings(),
+                                                                      moduleCatalog::getOrdinalIndex),
+                                              new ElectionSaveExecutor(new ElectionSaveSettings(),
+                                                                       transactionTemplate),
+                                              new ElectionSaveSettings(), electionDeltaService, messageChannel);
     }
 
     @AfterEach
@@ -285,10 +315,17 @@ class ElectionServiceTest {
         electionRepository.save(election);
 
         // execute
-        var result = electionService.exportElection();
+        var outputStream = new ByteArrayOutputStream();
+        electionService.exportElection(outputStream);
 
         // verify
-        assertNotNull(result);
+        try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            var sheet = workbook.getSheetAt(0);
+            assertEquals(1, sheet.getLastRowNum());
+            assertEquals(student.getEmail(), sheet.getRow(1).getCell(0).getStringCellValue());
+        } catch (IOException e) {
+            fail(e);
+        }
     }
 
     @Test
@@ -468,6 +505,153 @@ class ElectionServiceTest {
         assertIterableEquals(sentElectedModules, recvElectedModules);
     }
 
+    @Test
+    @Sql("classpath:sql/election_service_test_user.sql")
+    @Sql("classpath:sql/modules_test_election.sql")
+    void testSaveElectionBatch() {
+        // prepare
+        var validElection = validElectionSetForElection();
+        var removedModule = validElection.iterator().next();
+        var changes = new ArrayList<ElectionChangeDTO>();
+        for (String moduleNo : validElection) {
+            changes.add(new ElectionChangeDTO(moduleNo, ElectionChangeDTO.Action.ADD));
+        }
+        changes.add(new ElectionChangeDTO(removedModule, ElectionChangeDTO.Action.REMOVE));
+        changes.add(new ElectionChangeDTO(removedModule, ElectionChangeDTO.Action.ADD));
+        setAuthentication(student);
+
+        assertFalse(electionRepository.findElectionByStudent(student.getEmail()).isPresent());
+
+        // execute
+        var electionTransferDTO = electionService.saveElectionBatch(student.getEmail(),
+                                                                    new ElectionBatchDTO(false, changes), null);
+
+        // verify
+        assertNotNull(electionTransferDTO);
+        assertTrue(electionTransferDTO.electionSaved());
+        assertTrue(electionTransferDTO.electionValid());
+
+        var recvElectedModules = new ArrayList<>(electionService.getElectionForStudent(student).getElectedModules());
+        var sentElectedModules = new ArrayList<>(validElection);
+
+        Collections.sort(recvElectedModules);
+        Collections.sort(sentElectedModules);
+
+        assertIterableEquals(sentElectedModules, recvElectedModules);
+    }
+
+    @Test
+    @Sql("classpath:sql/election_service_test_user.sql")
+    @Sql("classpath:sql/modules_test_election.sql")
+    void testSaveElectionBatch_ReplaceSelection() {
+        // prepare
+        var validElection = validElectionSetForElection();
+        setAuthentication(student);
+        for (String moduleNo : validElection) {
+            electionService.saveElection(student.getEmail(), moduleNo, null);
+        }
+        var keptModule = validElection.iterator().next();
+        var changes = List.of(new ElectionChangeDTO(keptModule, ElectionChangeDTO.Action.ADD));
+
+        // execute
+        var electionTransferDTO = electionService.saveElectionBatch(student.getEmail(),
+                                                                    new ElectionBatchDTO(true, changes), null);
+
+        // verify
+        assertNotNull(electionTransferDTO);
+        assertFalse(electionTransferDTO.electionValid());
+        assertEquals(Set.of(keptModule), electionService.getElectionForStudent(student).getElectedModules());
+    }
+
+    @Test
+    @Sql("classpath:sql/election_service_test_user.sql")
+    @Sql("classpath:sql/modules_test_election.sql")
+    void testSaveElectionBatch_UnknownModule() {
+        // prepare
+        var validElection = validElectionSetForElection();
+        setAuthentication(student);
+        var changes = List.of(new ElectionChangeDTO(validElection.iterator().next(), ElectionChangeDTO.Action.ADD),
+                              new ElectionChangeDTO("t.BA.XX.UNKNOWN.19HS", ElectionChangeDTO.Action.ADD));
+        var batch = new ElectionBatchDTO(false, changes);
+
+        // execute
+        assertThrows(ModuleNotFoundException.class,
+                     () -> electionService.saveElectionBatch(student.getEmail(), batch, null));
+
+        // verify
+        assertFalse(electionRepository.findElectionByStudent(student.getEmail()).isPresent());
+    }
+
+    @Test
+    @Sql("classpath:sql/election_service_test_user.sql")
+    @Sql("classpath:sql/modules_test_election.sql")
+    void testSaveElectionChange_DropAppliedSequences() {
+        // prepare
+        var modules = new ArrayList<>(validElectionSetForElection());
+        var headerAccessor = SimpMessageHeaderAccessor.create();
+        headerAccessor.setSessionAttributes(new HashMap<>());
+        setAuthentication(student);
+
+        // execute
+        var first = electionService.saveElectionChange(student.getEmail(), new ElectionSaveDTO(
+                1, modules.get(0), ElectionChangeDTO.Action.ADD), headerAccessor);
+        var second = electionService.saveElectionChange(student.getEmail(), new ElectionSaveDTO(
+                2, modules.get(1), ElectionChangeDTO.Action.ADD), headerAccessor);
+        var duplicate = electionService.saveElectionChange(student.getEmail(), new ElectionSaveDTO(
+                2, modules.get(1), ElectionChangeDTO.Action.ADD), headerAccessor);
+        var appliedBefore = electionService.saveElectionChange(student.getEmail(), new ElectionSaveDTO(
+                1, modules.get(0), ElectionChangeDTO.Action.REMOVE), headerAccessor);
+
+        // verify
+        assertTrue(first.electionSaved());
+        assertEquals(1L, first.lastAppliedSequence());
+        assertTrue(second.electionSaved());
+        assertEquals(2L, second.lastAppliedSequence());
+        assertFalse(duplicate.electionSaved());
+        assertEquals(2L, duplicate.lastAppliedSequence());
+        assertFalse(appliedBefore.electionSaved());
+        assertEquals(2L, appliedBefore.lastAppliedSequence());
+        assertEquals(Set.of(modules.get(0), modules.get(1)),
+                     electionService.getElectionForStudent(student).getElectedModules());
+    }
+
+    @Test
+    @Sql("classpath:sql/election_service_test_user.sql")
+    @Sql("classpath:sql/modules_test_election.sql")
+    void testSaveElectionChange_OutOfOrderSequences() {
+        // prepare
+        var modules = new ArrayList<>(validElectionSetForElection());
+        var headerAccessor = SimpMessageHeaderAccessor.create();
+        headerAccessor.setSessionAttributes(new HashMap<>());
+        setAuthentication(student);
+        for (var i = 0; i < 4; i++) {
+            electionService.saveElectionChange(student.getEmail(), new ElectionSaveDTO(
+                    i + 1, modules.get(i), ElectionChangeDTO.Action.ADD), headerAccessor);
+        }
+
+        // execute
+        var sixth = electionService.saveElectionChange(student.getEmail(), new ElectionSaveDTO(
+                6, modules.get(5), ElectionChangeDTO.Action.ADD), headerAccessor);
+        var fifth = electionService.saveElectionChange(student.getEmail(), new ElectionSaveDTO(
+                5, modules.get(4), ElectionChangeDTO.Action.ADD), headerAccessor);
+        var seventh = electionService.saveElectionChange(student.getEmail(), new ElectionSaveDTO(
+                7, modules.get(5), ElectionChangeDTO.Action.REMOVE), headerAccessor);
+        var lateAdd = electionService.saveElectionChange(student.getEmail(), new ElectionSaveDTO(
+                6, modules.get(5), ElectionChangeDTO.Action.ADD), headerAccessor);
+
+        // verify
+        assertTrue(sixth.electionSaved());
+        assertEquals(6L, sixth.lastAppliedSequence());
+        assertFalse(fifth.electionSaved());
+        assertEquals(6L, fifth.lastAppliedSequence());
+        assertTrue(seventh.electionSaved());
+        assertEquals(7L, seventh.lastAppliedSequence());
+        assertFalse(lateAdd.electionSaved());
+        assertEquals(7L, lateAdd.lastAppliedSequence());
+        assertEquals(Set.copyOf(modules.subList(0, 4)),
+                     electionService.getElectionForStudent(student).getElectedModules());
+    }
+
     @Test
     @Sql("classpath:sql/election_service_test_user.sql")
     @Sql("classpath:sql/modules_test_election.sql")
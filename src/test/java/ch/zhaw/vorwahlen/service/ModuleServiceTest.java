@@ -1,6 +1,11 @@
 package ch.zhaw.vorwahlen.service;
 
+import ch.zhaw.vorwahlen.catalog.ModuleCatalog;
+import ch.zhaw.vorwahlen.catalog.ModuleCatalogJson;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
 import ch.zhaw.vorwahlen.config.UserBean;
+import ch.zhaw.vorwahlen.exception.EventoDataNotFoundException;
 import ch.zhaw.vorwahlen.exception.ImportException;
 import ch.zhaw.vorwahlen.exception.ModuleConflictException;
 import ch.zhaw.vorwahlen.exception.ModuleNotFoundException;
@@ -8,12 +13,21 @@ import ch.zhaw.vorwahlen.mapper.Mapper;
 import ch.zhaw.vorwahlen.model.evento.EventoDataDTO;
 import ch.zhaw.vorwahlen.model.core.module.ModuleDTO;
 import ch.zhaw.vorwahlen.model.evento.EventoData;
+import ch.zhaw.vorwahlen.model.evento.EventoDataDocumentConverter;
+import ch.zhaw.vorwahlen.model.evento.EventoDataSummaryDTO;
 import ch.zhaw.vorwahlen.model.ExecutionSemester;
 import ch.zhaw.vorwahlen.model.core.module.Module;
 import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
 import ch.zhaw.vorwahlen.repository.ElectionRepository;
 import ch.zhaw.vorwahlen.repository.EventoDataRepository;
+import ch.zhaw.vorwahlen.repository.EventoPageFingerprintRepository;
 import ch.zhaw.vorwahlen.repository.ModuleRepository;
+import ch.zhaw.vorwahlen.scraper.EventoPageCache;
+import ch.zhaw.vorwahlen.scraper.EventoScrapeEngine;
+import ch.zhaw.vorwahlen.scraper.HttpPageFetcher;
+import ch.zhaw.vorwahlen.scraper.ScraperSettings;
+import ch.zhaw.vorwahlen.writebehind.ElectionWriteBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,6 +39,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.io.IOException;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -42,30 +57,46 @@ class ModuleServiceTest {
 
     private final ModuleRepository moduleRepository;
     private final EventoDataRepository eventoDataRepository;
+    private final EventoPageFingerprintRepository eventoPageFingerprintRepository;
     private final ElectionRepository electionRepository;
     private final Mapper<ModuleDTO, Module> moduleMapper;
     private final Mapper<EventoDataDTO, EventoData> eventoDataMapper;
     private final UserBean userBean;
+    private final ElectionWriteBuffer electionWriteBuffer;
 
+    private ResourceVersions resourceVersions;
     private ModuleService moduleService;
 
     @Autowired
     public ModuleServiceTest(ModuleRepository moduleRepository,
                              EventoDataRepository eventoDataRepository,
+                             EventoPageFingerprintRepository eventoPageFingerprintRepository,
                              ElectionRepository electionRepository, Mapper<ModuleDTO, Module> moduleMapper,
-                             Mapper<EventoDataDTO, EventoData> eventoDataMapper, UserBean userBean) {
+                             Mapper<EventoDataDTO, EventoData> eventoDataMapper, UserBean userBean,
+                             ElectionWriteBuffer electionWriteBuffer) {
         this.moduleRepository = moduleRepository;
         this.eventoDataRepository = eventoDataRepository;
+        this.eventoPageFingerprintRepository = eventoPageFingerprintRepository;
         this.electionRepository = electionRepository;
         this.moduleMapper = moduleMapper;
         this.eventoDataMapper = eventoDataMapper;
         this.userBean = userBean;
+        this.electionWriteBuffer = electionWriteBuffer;
     }
 
     @BeforeEach
     void setUp() {
-        moduleService = new ModuleService(moduleRepository, eventoDataRepository, electionRepository, moduleMapper,
-                                          eventoDataMapper, userBean);
+        var scraperSettings = new ScraperSettings();
+        var moduleCatalog = new ModuleCatalog(moduleRepository);
+        resourceVersions = new ResourceVersions();
+        moduleService = new ModuleService(moduleRepository, eventoDataRepository, eventoPageFingerprintRepository,
+                                          electionRepository, moduleMapper, eventoDataMapper, userBean,
+                                          moduleCatalog, resourceVersions,
+                                          new ModuleCatalogJson(moduleCatalog, resourceVersions, moduleMapper,
+                                                                new ObjectMapper()),
+                                          new EventoScrapeEngine(scraperSettings, new EventoPageCache(scraperSettings),
+                                                                 new HttpPageFetcher(Duration.ofSeconds(5))),
+                                          electionWriteBuffer);
     }
 
     @AfterEach
@@ -176,6 +207,35 @@ class ModuleServiceTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    void testGetEventoDataById() throws IOException {
+        var eventoData = new EventoData();
+        eventoData.setModuleNo(MODULE_NO);
+        eventoData.setShortDescription("Short");
+        eventoData.setCoordinator("Max Muster (mumx)");
+        eventoData.setLearningObjectives("<ul><li>Search and planning</li></ul>");
+        eventoData.setRemarks("Keine");
+        eventoDataRepository.save(eventoData);
+
+        assertDoesNotThrow(() -> moduleService.checkEventoDataExists(MODULE_NO));
+        var summary = moduleService.getEventoDataSummaryById(MODULE_NO);
+        assertEquals(new EventoDataSummaryDTO("Short", "Max Muster (mumx)"), summary);
+
+        var compressed = moduleService.getCompressedEventoDataById(MODULE_NO);
+        var json = moduleService.getEventoDataById(MODULE_NO);
+        assertArrayEquals(json, EventoDataDocumentConverter.decompress(compressed));
+        var result = new ObjectMapper().readValue(json, EventoDataDTO.class);
+        assertEquals(eventoDataMapper.toDto(eventoData), result);
+        assertEquals(eventoData, eventoDataRepository.findById(MODULE_NO).orElseThrow());
+    }
+
+    @Test
+    void testReparseCachedEventoData_NothingCached() {
+        var version = resourceVersions.getVersion(Resource.EVENTO_DATA);
+        moduleService.reparseCachedEventoData();
+        assertEquals(version, resourceVersions.getVersion(Resource.EVENTO_DATA));
+    }
+
     @Test
     void testAddModule_AlreadyExisting() {
         var moduleDto = ModuleDTO.builder()
@@ -206,6 +266,13 @@ class ModuleServiceTest {
         assertThrows(ModuleNotFoundException.class, () -> moduleService.getModuleById("invalid"));
     }
 
+    @Test
+    void testGetEventoDataById_Not_Existing() {
+        assertThrows(EventoDataNotFoundException.class, () -> moduleService.checkEventoDataExists("invalid"));
+        assertThrows(EventoDataNotFoundException.class, () -> moduleService.getEventoDataSummaryById("invalid"));
+        assertThrows(EventoDataNotFoundException.class, () -> moduleService.getCompressedEventoDataById("invalid"));
+    }
+
     @Test
     void testImportModuleExcel_IOException() throws IOException {
         // prepare
@@ -1,5 +1,7 @@
 package ch.zhaw.vorwahlen.service;
 
+import ch.zhaw.vorwahlen.catalog.ResourceVersions;
+import ch.zhaw.vorwahlen.catalog.ResourceVersions.Resource;
 import ch.zhaw.vorwahlen.config.UserBean;
 import ch.zhaw.vorwahlen.exception.PageTextConflictException;
 import ch.zhaw.vorwahlen.exception.PageTextNotFoundException;
@@ -36,6 +38,7 @@ class PageTextServiceTest {
     private final UserBean userBean;
 
     private PageTextService pageTextService;
+    private ResourceVersions resourceVersions;
 
     private List<PageText> pageTexts;
 
@@ -56,7 +59,8 @@ class PageTextServiceTest {
                 PageText.builder().page(PAGE_3).userType(UserType.PART_TIME_SECOND_ELECTION).textNumber(1).text("text 1").build()
         );
         pageTextRepository.saveAll(pageTexts);
-        pageTextService = new PageTextService(pageTextRepository, mapper, userBean);
+        resourceVersions = new ResourceVersions();
+        pageTextService = new PageTextService(pageTextRepository, mapper, userBean, resourceVersions);
     }
 
     @AfterEach
@@ -106,6 +110,26 @@ class PageTextServiceTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    void testGetCachedPageTextsByUserType() {
+        // prepare
+        var expected = pageTexts.stream()
+                .filter(pageText -> pageText.getPage().equals(PAGE_2) && pageText.getUserType().equals(UserType.FULL_TIME))
+                .map(mapper::toDto)
+                .collect(Collectors.toSet());
+
+        // execute
+        var result = pageTextService.getCachedPageTextsByUserType(PAGE_2, UserType.FULL_TIME);
+        var cached = pageTextService.getCachedPageTextsByUserType(PAGE_2, UserType.FULL_TIME);
+        pageTextService.addPageText(new PageTextDTO(0L, PAGE_2, UserType.FULL_TIME, false, 3, "text 3"));
+        var changed = pageTextService.getCachedPageTextsByUserType(PAGE_2, UserType.FULL_TIME);
+
+        // verify
+        assertEquals(expected, result);
+        assertSame(result, cached);
+        assertEquals(expected.size() + 1, changed.size());
+    }
+
     @Test
     void testAddPageText() {
         // prepare
@@ -117,6 +141,7 @@ class PageTextServiceTest {
         // verify
         var expected = new PageTextDTO(result.id(), "PAGE 4", UserType.ANONYMOUS, false, 1, "text 1");
         assertEquals(expected, result);
+        assertEquals(2, resourceVersions.getVersion(Resource.PAGE_TEXTS));
     }
 
     @Test
@@ -134,6 +159,7 @@ class PageTextServiceTest {
                 .filter(pageTextDTO -> pageTextDTO.id().equals(existingPageText.getId()))
                 .findFirst().get();
         assertEquals(mapper.toDto(existingPageText), updatedPageText);
+        assertEquals(2, resourceVersions.getVersion(Resource.PAGE_TEXTS));
     }
 
     @Test
@@ -147,6 +173,7 @@ class PageTextServiceTest {
 
         // verify
         assertFalse(pageTextRepository.existsById(existingPageText.getId()));
+        assertEquals(2, resourceVersions.getVersion(Resource.PAGE_TEXTS));
     }
 
     @Test
@@ -161,6 +188,14 @@ class PageTextServiceTest {
         assertThrows(UserTypeInvalidException.class, () -> pageTextService.getPageTextsByUserType(PAGE_2, UNKNOWN_USER_TYPE));
     }
 
+    @Test
+    void testGetCachedPageTextsByUserType_UnknownPage() {
+        assertFalse(pageTextService.isKnownPage("UNKNOWN PAGE"));
+        assertTrue(pageTextService.getCachedPageTextsByUserType("UNKNOWN PAGE", UserType.FULL_TIME).isEmpty());
+        assertTrue(pageTextService.getCachedPageTextsByUserType(null, UserType.FULL_TIME).isEmpty());
+        assertTrue(pageTextService.isKnownPage(PAGE_2));
+    }
+
     @Test
     void testReplacePageText_PageTextNotFound() {
         assertThrows(PageTextNotFoundException.class, () -> pageTextService.replacePageText(NON_EXISTING_ID, null));
@@ -268,9 +268,10 @@ class StudentServiceTest {
         var mockMultipartFile = new MockMultipartFile(MULTIPART_FILE_REQUEST_PARAMETER, DISPENSATION_FILE_NAME, "", fis);
 
         // execute
-        assertDoesNotThrow(() -> studentService.importDispensationExcel(mockMultipartFile, WORK_SHEET_NAME));
+        var unmatchedEmails = assertDoesNotThrow(() -> studentService.importDispensationExcel(mockMultipartFile, WORK_SHEET_NAME));
 
         // verify
+        assertTrue(unmatchedEmails.isEmpty());
         var result = studentRepository.findAll();
         assertNotNull(result);
         assertFalse(result.isEmpty());
@@ -301,6 +302,20 @@ class StudentServiceTest {
         assertThrows(ImportException.class, () -> studentService.importClassListExcel(mockMultipartFileMock, WORK_SHEET_NAME));
     }
 
+    @Test
+    void testImportDispensationExcel_UnknownStudents() throws IOException {
+        // prepare
+        var fis = getClass().getClassLoader().getResourceAsStream(DISPENSATION_FILE_NAME);
+        var mockMultipartFile = new MockMultipartFile(MULTIPART_FILE_REQUEST_PARAMETER, DISPENSATION_FILE_NAME, "", fis);
+
+        // execute
+        var unmatchedEmails = studentService.importDispensationExcel(mockMultipartFile, WORK_SHEET_NAME);
+
+        // verify
+        assertEquals(List.of("musteranna@students.zhaw.ch", "meierbob@students.zhaw.ch"), unmatchedEmails);
+        assertTrue(studentRepository.findAll().isEmpty());
+    }
+
     @Test
     void testImportDispensationExcel_IOException() throws IOException {
         // prepare
@@ -3,6 +3,7 @@ package ch.zhaw.vorwahlen.validation;
 import ch.zhaw.vorwahlen.model.core.module.Module;
 import ch.zhaw.vorwahlen.model.core.module.ModuleCategory;
 import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
 import ch.zhaw.vorwahlen.model.core.student.Student;
 import ch.zhaw.vorwahlen.modules.ModuleCategoryTest;
 import ch.zhaw.vorwahlen.parser.ModuleParser;
@@ -77,14 +78,20 @@ class AbstractElectionValidatorTest {
 
     AbstractElectionValidator validator;
 
+    Student student;
+
+    ElectionStatus electionStatus;
+
     Set<Module> validElectionSet;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         validator = mock(AbstractElectionValidator.class, Mockito.withSettings()
-                .useConstructor(studentMock)
+                .useConstructor()
                 .defaultAnswer(CALLS_REAL_METHODS));
+        student = studentMock;
+        electionStatus = new ElectionStatus();
 
         validElectionSet = generateValidElectionSet();
     }
@@ -95,7 +102,7 @@ class AbstractElectionValidatorTest {
 
     @Test
     void testValidConsecutiveModulePairsInElection() {
-        when(validator.consecutiveModuleExtraChecks(any(), any())).thenReturn(true);
+        when(validator.consecutiveModuleExtraChecks(any(), any(), any(), any())).thenReturn(true);
         var m1 = mock(Module.class);
         var m2 = mock(Module.class);
         var m3 = mock(Module.class);
@@ -109,10 +116,10 @@ class AbstractElectionValidatorTest {
         when(m3.getConsecutiveModuleNo()).thenReturn(consecutiveSubjectModulesShort.get(3));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2));
-        assertTrue(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertTrue(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2, m3));
-        assertTrue(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertTrue(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
     }
 
     @Test
@@ -202,17 +209,17 @@ class AbstractElectionValidatorTest {
     void testValidElectionCountByCategory() {
         // valid
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
-        assertTrue(validator.validElectionCountByCategory(electionMock, NUM_CONTEXT_MODULES, ModuleCategory.CONTEXT_MODULE));
+        assertTrue(validator.validElectionCountByCategory(electionMock, NUM_CONTEXT_MODULES, ModuleCategory.CONTEXT_MODULE, electionStatus));
 
         // too less
         removeOneModuleByCategory(validElectionSet, ModuleCategory.SUBJECT_MODULE);
-        assertFalse(validator.validElectionCountByCategory(electionMock, NUM_SUBJECT_MODULES, ModuleCategory.SUBJECT_MODULE));
+        assertFalse(validator.validElectionCountByCategory(electionMock, NUM_SUBJECT_MODULES, ModuleCategory.SUBJECT_MODULE, electionStatus));
 
         // too much
         validElectionSet = generateValidElectionSet();
         addModule(validElectionSet, ModuleCategoryTest.INTERDISCIPLINARY_PREFIX_WM, mock(Module.class), CREDITS_PER_INTERDISCIPLINARY_MODULE);
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
-        assertFalse(validator.validElectionCountByCategory(electionMock, NUM_INTERDISCIPLINARY_MODULES, ModuleCategory.INTERDISCIPLINARY_MODULE));
+        assertFalse(validator.validElectionCountByCategory(electionMock, NUM_INTERDISCIPLINARY_MODULES, ModuleCategory.INTERDISCIPLINARY_MODULE, electionStatus));
     }
 
     @Test
@@ -234,13 +241,13 @@ class AbstractElectionValidatorTest {
 
     @Test
     void testValidConsecutiveModulePairsInElection_Null() {
-        assertThrows(NullPointerException.class, () -> validator.validConsecutiveModulePairsInElection(null));
+        assertThrows(NullPointerException.class, () -> validator.validConsecutiveModulePairsInElection(student, null, electionStatus));
     }
 
     @Test
     void testValidConsecutiveModulePairsInElection_NullElectionSet() {
         when(electionMock.getElectedModules()).thenReturn(null);
-        assertThrows(NullPointerException.class, () -> validator.validConsecutiveModulePairsInElection(electionMock));
+        assertThrows(NullPointerException.class, () -> validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
     }
 
     @Test
@@ -319,13 +326,13 @@ class AbstractElectionValidatorTest {
 
     @Test
     void testValidElectionCountByCategory_Null() {
-        assertThrows(NullPointerException.class, () -> validator.validElectionCountByCategory(null, NUM_INTERDISCIPLINARY_MODULES, ModuleCategory.INTERDISCIPLINARY_MODULE));
+        assertThrows(NullPointerException.class, () -> validator.validElectionCountByCategory(null, NUM_INTERDISCIPLINARY_MODULES, ModuleCategory.INTERDISCIPLINARY_MODULE, electionStatus));
     }
 
     @Test
     void testValidElectionCountByCategory_NullCategory() {
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
-        assertThrows(NullPointerException.class, () -> validator.validElectionCountByCategory(electionMock, NUM_CONTEXT_MODULES, null));
+        assertThrows(NullPointerException.class, () -> validator.validElectionCountByCategory(electionMock, NUM_CONTEXT_MODULES, null, electionStatus));
     }
 
     @Test
@@ -0,0 +1,183 @@
+package ch.zhaw.vorwahlen.validation;
+
+import ch.zhaw.vorwahlen.catalog.ModuleOrdinalIndex;
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+import ch.zhaw.vorwahlen.model.core.validationsetting.ValidationSetting;
+import ch.zhaw.vorwahlen.model.modulestructure.ElectionStructureDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ElectionResultCacheTest {
+
+    private static final String MODULE_NO_1 = "t.BA.WV.AI1-EN.19HS";
+    private static final String MODULE_NO_2 = "t.BA.WV.AI2-EN.19HS";
+    private static final String MODULE_NO_3 = "t.BA.WVK.ICAM-EN.19HS";
+    private static final String MODULE_NO_NOT_IN_CATALOG = "t.BA.WV.FUP.19HS";
+    private static final int MAX_SIZE = 2;
+    private static final long EXPIRE_AFTER_MS = 1000;
+
+    private final AtomicReference<ModuleOrdinalIndex> ordinalIndex = new AtomicReference<>(createIndex(1));
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger computeCount = new AtomicInteger();
+    private ElectionResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        var settings = new ElectionResultCacheSettings();
+        settings.setMaxSize(MAX_SIZE);
+        settings.setExpireAfterMs(EXPIRE_AFTER_MS);
+        cache = new ElectionResultCache(settings, ordinalIndex::get, now::get);
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testGet_SameProfileAndModules() {
+        var result = get(createStudent("a@mail.com", false), createElection(MODULE_NO_1, MODULE_NO_2));
+        var cached = get(createStudent("b@mail.com", false), createElection(MODULE_NO_2, MODULE_NO_1));
+
+        assertSame(result, cached);
+        assertEquals(1, computeCount.get());
+
+        var statistics = cache.getStatistics();
+        assertEquals(1, statistics.hits());
+        assertEquals(1, statistics.misses());
+        assertEquals(0.5, statistics.hitRatio());
+        assertEquals(1, statistics.size());
+    }
+
+    @Test
+    void testGet_DifferentProfile() {
+        get(createStudent("a@mail.com", false), createElection(MODULE_NO_1));
+        get(createStudent("a@mail.com", true), createElection(MODULE_NO_1));
+
+        var dispensedStudent = createStudent("a@mail.com", false);
+        dispensedStudent.setWpmDispensation(4);
+        get(dispensedStudent, createElection(MODULE_NO_1));
+
+        var repetentElection = createElection(MODULE_NO_1);
+        repetentElection.getValidationSetting().setRepetent(true);
+        get(createStudent("a@mail.com", false), repetentElection);
+
+        assertEquals(4, computeCount.get());
+    }
+
+    @Test
+    void testGet_DifferentModules() {
+        get(createStudent("a@mail.com", false), createElection(MODULE_NO_1));
+        get(createStudent("a@mail.com", false), createElection(MODULE_NO_1, MODULE_NO_2));
+
+        assertEquals(2, computeCount.get());
+    }
+
+    @Test
+    void testGet_CatalogChanged() {
+        var student = createStudent("a@mail.com", false);
+        var election = createElection(MODULE_NO_1);
+        var result = get(student, election);
+
+        ordinalIndex.set(createIndex(2));
+
+        assertNotSame(result, get(student, election));
+        assertEquals(2, computeCount.get());
+    }
+
+    @Test
+    void testGet_ModuleNotInCatalog() {
+        var student = createStudent("a@mail.com", false);
+        var result = get(student, createElection(MODULE_NO_1, MODULE_NO_NOT_IN_CATALOG));
+        var cached = get(student, createElection(MODULE_NO_NOT_IN_CATALOG, MODULE_NO_1));
+        get(student, createElection(MODULE_NO_1));
+
+        assertSame(result, cached);
+        assertEquals(2, computeCount.get());
+    }
+
+    @Test
+    void testGet_Expired() {
+        var student = createStudent("a@mail.com", false);
+        var election = createElection(MODULE_NO_1);
+        get(student, election);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(EXPIRE_AFTER_MS) - 1);
+        get(student, election);
+        assertEquals(1, computeCount.get());
+
+        now.addAndGet(1);
+        get(student, election);
+        assertEquals(2, computeCount.get());
+    }
+
+    @Test
+    void testGet_LeastRecentlyUsedEvicted() {
+        var student = createStudent("a@mail.com", false);
+        get(student, createElection(MODULE_NO_1));
+        get(student, createElection(MODULE_NO_2));
+        get(student, createElection(MODULE_NO_1));
+        get(student, createElection(MODULE_NO_3));
+        assertEquals(3, computeCount.get());
+        assertEquals(MAX_SIZE, cache.getStatistics().size());
+
+        // MODULE_NO_1 was used after MODULE_NO_2
+        get(student, createElection(MODULE_NO_1));
+        assertEquals(3, computeCount.get());
+        get(student, createElection(MODULE_NO_2));
+        assertEquals(4, computeCount.get());
+    }
+
+    @Test
+    void testGet_Disabled() {
+        var settings = new ElectionResultCacheSettings();
+        settings.setEnabled(false);
+        cache = new ElectionResultCache(settings, ordinalIndex::get, now::get);
+
+        var student = createStudent("a@mail.com", false);
+        get(student, createElection(MODULE_NO_1));
+        get(student, createElection(MODULE_NO_1));
+
+        assertEquals(2, computeCount.get());
+        assertEquals(0, cache.getStatistics().size());
+    }
+
+    private ElectionResultCache.Result get(Student student, Election election) {
+        return cache.get(student, election, electedModules -> {
+            computeCount.incrementAndGet();
+            return new ElectionResultCache.Result(new ElectionStructureDTO(List.of(), List.of()), new ElectionStatus());
+        });
+    }
+
+    private static ModuleOrdinalIndex createIndex(long version) {
+        return ModuleOrdinalIndex.of(version, List.of(Module.builder().moduleNo(MODULE_NO_1).build(),
+                                                      Module.builder().moduleNo(MODULE_NO_2).build(),
+                                                      Module.builder().moduleNo(MODULE_NO_3).build()));
+    }
+
+    private static Student createStudent(String email, boolean isTZ) {
+        return Student.builder().email(email).isTZ(isTZ).build();
+    }
+
+    private static Election createElection(String... moduleNos) {
+        var election = new Election();
+        election.setValidationSetting(new ValidationSetting());
+        election.setElectedModules(new HashSet<>());
+        for (var moduleNo : moduleNos) {
+            election.getElectedModules().add(Module.builder().moduleNo(moduleNo).build());
+        }
+        return election;
+    }
+
+}
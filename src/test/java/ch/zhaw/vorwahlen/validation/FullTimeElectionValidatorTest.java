@@ -21,7 +21,7 @@ class FullTimeElectionValidatorTest extends AbstractElectionValidatorTest {
     @BeforeEach
     void setUp() {
         super.setUp();
-        validator = new FullTimeElectionValidator(studentMock);
+        validator = new FullTimeElectionValidator();
     }
 
     /* **************************************************************************************************************
@@ -34,7 +34,7 @@ class FullTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         var validationSettingMock = mock(ValidationSetting.class);
         when(validationSettingMock.isRepetent()).thenReturn(true);
         when(electionMock.getValidationSetting()).thenReturn(validationSettingMock);
-        assertTrue(validator.validate(electionMock).isValid());
+        assertTrue(validator.validate(student, electionMock).isValid());
 
         when(validationSettingMock.isRepetent()).thenReturn(false);
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
@@ -43,20 +43,20 @@ class FullTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         when(studentMock.isTZ()).thenReturn(false);
         when(studentMock.isIP()).thenReturn(false);
         when(studentMock.getWpmDispensation()).thenReturn(0);
-        assertTrue(validator.validate(electionMock).isValid());
+        assertTrue(validator.validate(student, electionMock).isValid());
 
         // Case IP, No Dispensations
         when(studentMock.isIP()).thenReturn(true);
-        assertTrue(validator.validate(electionMock).isValid());
+        assertTrue(validator.validate(student, electionMock).isValid());
 
         // Case IP, Some Dispensations
         removeNonConsecutiveSubjectModulesFromSet(validElectionSet);
         when(studentMock.getWpmDispensation()).thenReturn(WPM_DISPENSATION);
-        assertTrue(validator.validate(electionMock).isValid());
+        assertTrue(validator.validate(student, electionMock).isValid());
 
         // Case Non-IP, Some Dispensations
         when(studentMock.isIP()).thenReturn(false);
-        assertTrue(validator.validate(electionMock).isValid());
+        assertTrue(validator.validate(student, electionMock).isValid());
 
         //===== Returns invalid
         // Case Non-IP, No Dispensations (Not enough selected)
@@ -79,7 +79,7 @@ class FullTimeElectionValidatorTest extends AbstractElectionValidatorTest {
     void testValidConsecutiveModulePairsInElection() {
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
         when(electionMock.getValidationSetting()).thenReturn(new ValidationSetting());
-        assertTrue(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertTrue(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
 
         var m1 = mock(Module.class);
         var m2 = mock(Module.class);
@@ -102,18 +102,18 @@ class FullTimeElectionValidatorTest extends AbstractElectionValidatorTest {
 
         // AI1, AI2, PSPP, FUP
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2, m3, m4));
-        assertTrue(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertTrue(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
 
         // AI1, AI2, PSPP
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2, m4));
-        assertFalse(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertFalse(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
     }
 
     @Test
     void testValidIpElection() {
         // Case Non-IP
         when(studentMock.isIP()).thenReturn(false);
-        assertTrue(validator.validIpElection(electionMock));
+        assertTrue(validator.validIpElection(student, electionMock, electionStatus));
 
         //------------------------------------------------------------------
         // Case IP, ...
@@ -122,62 +122,62 @@ class FullTimeElectionValidatorTest extends AbstractElectionValidatorTest {
 
         // ... No Dispensations
         when(studentMock.getWpmDispensation()).thenReturn(0);
-        assertTrue(validator.validIpElection(electionMock));
+        assertTrue(validator.validIpElection(student, electionMock, electionStatus));
 
         removeEnglishModules(validElectionSet);
-        assertFalse(validator.validIpElection(electionMock));
+        assertFalse(validator.validIpElection(student, electionMock, electionStatus));
 
         // ... Some Dispensations
         when(studentMock.getWpmDispensation()).thenReturn(WPM_DISPENSATION);
-        assertFalse(validator.validIpElection(electionMock));
+        assertFalse(validator.validIpElection(student, electionMock, electionStatus));
     }
 
     @Test
     void testValidInterdisciplinaryElection() {
         // valid
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
-        assertTrue(validator.validInterdisciplinaryElection(electionMock));
+        assertTrue(validator.validInterdisciplinaryElection(student, electionMock, electionStatus));
 
         // too less
         removeOneModuleByCategory(validElectionSet, ModuleCategory.INTERDISCIPLINARY_MODULE);
-        assertFalse(validator.validInterdisciplinaryElection(electionMock));
+        assertFalse(validator.validInterdisciplinaryElection(student, electionMock, electionStatus));
 
         // too much
         validElectionSet = generateValidElectionSet();
         addModule(validElectionSet, ModuleCategoryTest.INTERDISCIPLINARY_PREFIX_WM, mock(Module.class), CREDITS_PER_INTERDISCIPLINARY_MODULE);
-        assertFalse(validator.validInterdisciplinaryElection(electionMock));
+        assertFalse(validator.validInterdisciplinaryElection(student, electionMock, electionStatus));
     }
 
     @Test
     void testValidSubjectElection() {
         // valid
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
-        assertTrue(validator.validSubjectElection(electionMock));
+        assertTrue(validator.validSubjectElection(student, electionMock, electionStatus));
 
         // too less
         removeOneModuleByCategory(validElectionSet, ModuleCategory.SUBJECT_MODULE);
-        assertFalse(validator.validSubjectElection(electionMock));
+        assertFalse(validator.validSubjectElection(student, electionMock, electionStatus));
 
         // too much
         validElectionSet = generateValidElectionSet();
         addModule(validElectionSet, ModuleCategoryTest.possibleSubjectPrefixes.get(0), mock(Module.class), CREDITS_PER_SUBJECT_MODULE);
-        assertFalse(validator.validSubjectElection(electionMock));
+        assertFalse(validator.validSubjectElection(student, electionMock, electionStatus));
     }
 
     @Test
     void testValidContextElection() {
         // valid
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
-        assertTrue(validator.validContextElection(electionMock));
+        assertTrue(validator.validContextElection(student, electionMock, electionStatus));
 
         // too less
         removeOneModuleByCategory(validElectionSet, ModuleCategory.CONTEXT_MODULE);
-        assertFalse(validator.validContextElection(electionMock));
+        assertFalse(validator.validContextElection(student, electionMock, electionStatus));
 
         // too much
         validElectionSet = generateValidElectionSet();
         addModule(validElectionSet, ModuleCategoryTest.possibleContextPrefixes.get(0), mock(Module.class), CREDITS_PER_CONTEXT_MODULE);
-        assertFalse(validator.validContextElection(electionMock));
+        assertFalse(validator.validContextElection(student, electionMock, electionStatus));
     }
 
     @Test
@@ -185,21 +185,21 @@ class FullTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         //--- Case No Dispensations
         when(studentMock.getWpmDispensation()).thenReturn(0);
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
-        assertTrue(validator.isCreditSumValid(electionMock));
+        assertTrue(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         //--- Case Some Dispensations
         removeNonConsecutiveSubjectModulesFromSet(validElectionSet);
         when(studentMock.getWpmDispensation()).thenReturn(WPM_DISPENSATION);
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
-        assertTrue(validator.isCreditSumValid(electionMock));
+        assertTrue(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         // More modules selected considering the dispensations
         when(studentMock.getWpmDispensation()).thenReturn(WPM_DISPENSATION + 1);
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         // Not enough modules selected considering the dispensations
         when(studentMock.getWpmDispensation()).thenReturn(WPM_DISPENSATION - 1);
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
 
         //--- Case Non-IP, No Dispensations (Not enough selected)
@@ -207,20 +207,20 @@ class FullTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         for (var mode = 1; mode < 4; mode++) {
             var invalidElection = invalidElectionSet(mode);
             when(electionMock.getElectedModules()).thenReturn(invalidElection);
-            assertFalse(validator.isCreditSumValid(electionMock));
+            assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
         }
 
         //--- Case Non-IP, No Dispensations (Too much selected)
         for (var mode = 4; mode < 7; mode++) {
             var invalidElection = invalidElectionSet(mode);
             when(electionMock.getElectedModules()).thenReturn(invalidElection);
-            assertFalse(validator.isCreditSumValid(electionMock));
+            assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
         }
 
         //--- Case IP, No Dispensations (Not enough english selected)
         var invalidElection = invalidElectionSet(7);
         when(electionMock.getElectedModules()).thenReturn(invalidElection);
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
     }
 
     /* **************************************************************************************************************
@@ -230,55 +230,55 @@ class FullTimeElectionValidatorTest extends AbstractElectionValidatorTest {
     @Test
     void testValidIpElection_Null() {
         when(studentMock.isIP()).thenReturn(true);
-        assertThrows(NullPointerException.class, () -> validator.validIpElection(null));
+        assertThrows(NullPointerException.class, () -> validator.validIpElection(student, null, electionStatus));
     }
 
     @Test
     void testValidIpElection_NullElection() {
         when(studentMock.isIP()).thenReturn(true);
         when(electionMock.getElectedModules()).thenReturn(null);
-        assertThrows(NullPointerException.class, () -> validator.validIpElection(electionMock));
+        assertThrows(NullPointerException.class, () -> validator.validIpElection(student, electionMock, electionStatus));
     }
 
     @Test
     void testValidIpElection_NullStudent() {
-        validator = new FullTimeElectionValidator(null);
-        assertThrows(NullPointerException.class, () -> validator.validIpElection(electionMock));
+        student = null;
+        assertThrows(NullPointerException.class, () -> validator.validIpElection(student, electionMock, electionStatus));
     }
 
     @Test
     void testValidInterdisciplinaryElection_Null() {
-        assertThrows(NullPointerException.class, () -> validator.validInterdisciplinaryElection(null));
+        assertThrows(NullPointerException.class, () -> validator.validInterdisciplinaryElection(student, null, electionStatus));
     }
 
     @Test
     void testValidSubjectElection_Null() {
         when(studentMock.getWpmDispensation()).thenReturn(0);
-        assertThrows(NullPointerException.class, () -> validator.validSubjectElection(null));
+        assertThrows(NullPointerException.class, () -> validator.validSubjectElection(student, null, electionStatus));
     }
 
     @Test
     void testValidSubjectElection_NullStudent() {
-        validator = new FullTimeElectionValidator(null);
-        assertThrows(NullPointerException.class, () -> validator.validSubjectElection(electionMock));
+        student = null;
+        assertThrows(NullPointerException.class, () -> validator.validSubjectElection(student, electionMock, electionStatus));
     }
 
     @Test
     void testValidContextElection_Null() {
-        assertThrows(NullPointerException.class, () -> validator.validContextElection(null));
+        assertThrows(NullPointerException.class, () -> validator.validContextElection(student, null, electionStatus));
     }
 
     @Override
     @Test
     void testIsCreditSumValid_NullArgument() {
-        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(null));
+        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(student, null, electionStatus));
     }
 
     @Override
     @Test
     void testIsCreditSumValid_NullElectionSet() {
         when(electionMock.getElectedModules()).thenReturn(null);
-        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(electionMock));
+        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(student, electionMock, electionStatus));
     }
 
     @Test
@@ -286,17 +286,17 @@ class FullTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         var set = new HashSet<Module>();
         set.add(null);
         when(electionMock.getElectedModules()).thenReturn(set);
-        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(electionMock));
+        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(student, electionMock, electionStatus));
     }
 
     @Test
     void testIsCreditSumValid_NullStudent() {
-        validator = new FullTimeElectionValidator(null);
+        student = null;
 
         when(studentMock.getWpmDispensation()).thenReturn(WPM_DISPENSATION);
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
 
-        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(electionMock));
+        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(student, electionMock, electionStatus));
     }
 
     /* **************************************************************************************************************
@@ -306,6 +306,6 @@ class FullTimeElectionValidatorTest extends AbstractElectionValidatorTest {
     void assertInvalidElection(Election electionMock, ElectionValidator validator, int mode) {
         var invalidElection = invalidElectionSet(mode);
         when(electionMock.getElectedModules()).thenReturn(invalidElection);
-        assertFalse(validator.validate(electionMock).isValid());
+        assertFalse(validator.validate(student, electionMock).isValid());
     }
 }
@@ -0,0 +1,337 @@
+package ch.zhaw.vorwahlen.validation;
+
+import ch.zhaw.vorwahlen.catalog.ElectionBits;
+import ch.zhaw.vorwahlen.catalog.ModuleOrdinalIndex;
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.election.ElectionStatus;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+import ch.zhaw.vorwahlen.model.core.validationsetting.ValidationSetting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential test, the {@link IncrementalElectionValidator} has to return the same status as the
+ * {@link FullTimeElectionValidator} and the {@link PartTimeElectionValidator} on randomized elections.
+ */
+class IncrementalElectionValidatorTest {
+
+    private static final long SEED = 20221018L;
+    private static final int NUM_ELECTIONS = 500;
+    private static final int NUM_TOGGLES = 15;
+    private static final long CATALOG_VERSION = 1;
+    private static final String ENGLISH = "Englisch";
+    private static final String GERMAN = "Deutsch";
+
+    private final List<Module> modulePool = new ArrayList<>();
+    private final ElectionValidatorRegistry registry =
+            new ElectionValidatorRegistry(new FullTimeElectionValidator(), new PartTimeElectionValidator());
+    private IncrementalElectionValidator incrementalValidator;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(SEED);
+        incrementalValidator = new IncrementalElectionValidator();
+
+        // consecutive pairs, the ML modules form an ambiguous stem
+        addConsecutivePair("WV.AI1-EN", "WV.AI2-EN", ENGLISH);
+        addConsecutivePair("WV.MC1", "WV.MC2", GERMAN);
+        addConsecutivePair("WV.CCP1", "WV.CCP2", GERMAN);
+        addConsecutivePair("WV.ML1", "WV.ML2", GERMAN);
+        addModule("WV.ML3", "IT6", 4, GERMAN, "t.BA.WV.ML2.19HS");
+        addModule("WV.X12", "IT6", 4, GERMAN, "t.BA.WV.AI1-EN.19HS");
+        addModule("WV.X21", "IT6", 4, GERMAN, "t.BA.WV.AI2-EN.19HS");
+
+        // subject modules
+        addModule("WV.PSPP", "IT6", 4, GERMAN, null);
+        addModule("WV.FUP", "IT6", 4, GERMAN, null);
+        addModule("WV.ESE", "IT6", 4, GERMAN, null);
+        addModule("WV.SCAD-EN", "IT6", 4, ENGLISH, null);
+        addModule("WV.RAP-EN", "IT6", 4, ENGLISH, "");
+        addModule("XX.DIGI", "IT6", 4, GERMAN, null);
+
+        // context modules
+        addModule("WVK.ICAM-EN", "IT5", 2, ENGLISH, null);
+        addModule("WVK.ZURO", "IT5", 2, GERMAN, null);
+        addModule("WVK.SIC-TAF", "IT5", 2, GERMAN, null);
+        addModule("XXK.FUPRE", "IT5", 2, GERMAN, null);
+        addModule("XX.KOM", "IT5", 2, GERMAN, null);
+
+        // interdisciplinary modules
+        addModule("WM.PHMOD", "IT7", 4, GERMAN, null);
+        addModule("WM.RASOP-EN", "IT7", 4, ENGLISH, null);
+
+        // module without category
+        addModule("XX.PA", "PA", 6, GERMAN, null);
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testValidate_RandomElections() {
+        for (var i = 0; i < NUM_ELECTIONS; i++) {
+            var student = randomStudent(i);
+            var election = randomElection(student);
+            assertSameStatus(student, election);
+        }
+    }
+
+    @Test
+    void testValidate_RandomElectionsWithBits() {
+        var index = ModuleOrdinalIndex.of(CATALOG_VERSION, modulePool);
+        for (var i = 0; i < NUM_ELECTIONS; i++) {
+            var student = randomStudent(i);
+            var election = randomElection(student);
+            var bits = ElectionBits.of(election.getElectedModules(), index);
+            assertSameStatus(student, election, incrementalValidator.validate(student, election, bits));
+        }
+    }
+
+    @Test
+    void testValidate_RandomToggles() {
+        for (var i = 0; i < NUM_ELECTIONS / 10; i++) {
+            var student = randomStudent(i);
+            var election = randomElection(student);
+            assertSameStatus(student, election);
+
+            for (var toggle = 0; toggle < NUM_TOGGLES; toggle++) {
+                var module = modulePool.get(random.nextInt(modulePool.size()));
+                var added = !election.getElectedModules().remove(module);
+                if (added) {
+                    election.getElectedModules().add(module);
+                }
+                var tally = incrementalValidator.update(student.getEmail(), election,
+                                                        List.of(new ElectionTally.Change(module, added)), CATALOG_VERSION);
+                assertSameStatus(student, election, incrementalValidator.validate(student, election, tally));
+            }
+        }
+    }
+
+    @Test
+    void testUpdate_OnlyToggledModule() {
+        var student = randomStudent(0);
+        var election = randomElection(student);
+        var tally = incrementalValidator.update(student.getEmail(), election, List.of(), CATALOG_VERSION);
+
+        var module = modulePool.get(0);
+        var added = !election.getElectedModules().remove(module);
+        if (added) {
+            election.getElectedModules().add(module);
+        }
+        var updated = incrementalValidator.update(student.getEmail(), election,
+                                                  List.of(new ElectionTally.Change(module, added)), CATALOG_VERSION);
+
+        assertSame(tally, updated);
+        assertEquals(election.getElectedModules().size(), updated.size());
+    }
+
+    @Test
+    void testUpdate_CatalogChanged() {
+        var student = randomStudent(0);
+        var election = randomElection(student);
+        var tally = incrementalValidator.update(student.getEmail(), election, List.of(), CATALOG_VERSION);
+
+        var updated = incrementalValidator.update(student.getEmail(), election, List.of(), CATALOG_VERSION + 1);
+
+        assertNotSame(tally, updated);
+    }
+
+    @Test
+    void testTally_AddRemove() {
+        var tally = new ElectionTally();
+        var ai1 = modulePool.get(0);
+        var ai2 = modulePool.get(1);
+
+        tally.add(ai1);
+        tally.add(ai1);
+        assertEquals(4, tally.getCreditSum());
+        assertEquals(0, tally.countConsecutivePairs(Set.of(ai1)));
+
+        tally.add(ai2);
+        assertEquals(8, tally.getEnglishCreditSum());
+        assertEquals(1, tally.countConsecutivePairs(Set.of(ai1, ai2)));
+
+        tally.remove(ai1);
+        tally.remove(ai1);
+        assertEquals(4, tally.getCreditSum());
+        assertEquals(0, tally.countConsecutivePairs(Set.of(ai2)));
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testUpdate_ChangedOutsideOfSaves() {
+        var student = randomStudent(0);
+        var election = randomElection(student);
+        incrementalValidator.update(student.getEmail(), election, List.of(), CATALOG_VERSION);
+
+        // an admin removed a module, the tally is built again from the election
+        var removed = election.getElectedModules().iterator().next();
+        election.getElectedModules().remove(removed);
+        var tally = incrementalValidator.update(student.getEmail(), election, List.of(), CATALOG_VERSION);
+        assertSameStatus(student, election, incrementalValidator.validate(student, election, tally));
+
+        // an admin replaced a module, the tally of the student was dropped
+        var module = modulePool.stream()
+                .filter(candidate -> !election.getElectedModules().contains(candidate))
+                .findFirst()
+                .orElseThrow();
+        election.getElectedModules().remove(election.getElectedModules().iterator().next());
+        election.getElectedModules().add(module);
+        incrementalValidator.forget(student.getEmail());
+        tally = incrementalValidator.update(student.getEmail(), election, List.of(), CATALOG_VERSION);
+        assertSameStatus(student, election, incrementalValidator.validate(student, election, tally));
+    }
+
+    @Test
+    void testValidate_BitsWithModuleNotInCatalog() {
+        // the catalog does not know the first module, the bits do not count it
+        var index = ModuleOrdinalIndex.of(CATALOG_VERSION, modulePool.subList(1, modulePool.size()));
+        for (var i = 0; i < NUM_ELECTIONS / 10; i++) {
+            var student = randomStudent(i);
+            var election = randomElection(student);
+            election.getElectedModules().add(modulePool.get(0));
+            var bits = ElectionBits.of(election.getElectedModules(), index);
+
+            assertFalse(bits.isComplete());
+            assertSameStatus(student, election, incrementalValidator.validate(student, election, bits));
+        }
+    }
+
+    @Test
+    void testUpdate_SameSizeChangeOutsideOfSaves() {
+        var student = randomStudent(0);
+        var election = randomElection(student);
+        var tally = incrementalValidator.update(student.getEmail(), election, List.of(), CATALOG_VERSION);
+
+        // another node replaced a module, the number of elected modules stays the same
+        var module = modulePool.stream()
+                .filter(candidate -> !election.getElectedModules().contains(candidate))
+                .findFirst()
+                .orElseThrow();
+        election.getElectedModules().remove(election.getElectedModules().iterator().next());
+        election.getElectedModules().add(module);
+        var updated = incrementalValidator.update(student.getEmail(), election, List.of(), CATALOG_VERSION);
+
+        assertNotSame(tally, updated);
+        assertTrue(updated.countsExactly(election.getElectedModules()));
+        assertSameStatus(student, election, incrementalValidator.validate(student, election, updated));
+    }
+
+    @Test
+    void testUpdate_RolledBack() {
+        var student = randomStudent(0);
+        var election = randomElection(student);
+        var tally = incrementalValidator.update(student.getEmail(), election, List.of(), CATALOG_VERSION);
+
+        var module = modulePool.get(0);
+        var added = !election.getElectedModules().remove(module);
+        if (added) {
+            election.getElectedModules().add(module);
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            incrementalValidator.update(student.getEmail(), election,
+                                        List.of(new ElectionTally.Change(module, added)), CATALOG_VERSION);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // the tally with the toggles of the rolled back save is not used again, even if it matches the election
+        var updated = incrementalValidator.update(student.getEmail(), election, List.of(), CATALOG_VERSION);
+
+        assertNotSame(tally, updated);
+        assertSameStatus(student, election, incrementalValidator.validate(student, election, updated));
+    }
+
+    private void assertSameStatus(Student student, Election election) {
+        assertSameStatus(student, election, incrementalValidator.validate(student, election));
+    }
+
+    private void assertSameStatus(Student student, Election election, ElectionStatus actual) {
+        var expected = registry.validate(student, election);
+
+        var message = "student: " + student.getEmail() + ", modules: " + election.getElectedModules().stream()
+                .map(Module::getShortModuleNo).sorted().toList();
+        assertEquals(expected.isValid(), actual.isValid(), message);
+        assertSameElement(expected.getSubjectValidation(), actual.getSubjectValidation(), message);
+        assertSameElement(expected.getContextValidation(), actual.getContextValidation(), message);
+        assertSameElement(expected.getInterdisciplinaryValidation(), actual.getInterdisciplinaryValidation(), message);
+        assertSameElement(expected.getAdditionalValidation(), actual.getAdditionalValidation(), message);
+    }
+
+    private void assertSameElement(ElectionStatus.ElectionStatusElement expected,
+                                   ElectionStatus.ElectionStatusElement actual, String message) {
+        assertEquals(expected.isValid(), actual.isValid(), message);
+        assertEquals(expected.getModuleCategory(), actual.getModuleCategory(), message);
+        assertEquals(expected.getReasons(), actual.getReasons(), message);
+    }
+
+    private Student randomStudent(int number) {
+        return Student.builder()
+                .email("student" + number + "@mail.com")
+                .isTZ(random.nextBoolean())
+                .isIP(random.nextBoolean())
+                .isSecondElection(random.nextBoolean())
+                .wpmDispensation(random.nextInt(3) * 4)
+                .build();
+    }
+
+    private Election randomElection(Student student) {
+        var validationSetting = new ValidationSetting();
+        validationSetting.setRepetent(random.nextInt(10) == 0);
+        validationSetting.setSkipConsecutiveModuleCheck(random.nextInt(5) == 0);
+        validationSetting.setAlreadyElectedTwoConsecutiveModules(random.nextBoolean());
+        validationSetting.setElectedContextModulesInFirstElection(random.nextInt(4));
+
+        var election = new Election();
+        election.setStudent(student);
+        election.setValidationSetting(validationSetting);
+        election.setElectedModules(new HashSet<>());
+        for (var module : modulePool) {
+            if (random.nextInt(10) < 4) {
+                election.getElectedModules().add(module);
+            }
+        }
+        return election;
+    }
+
+    private void addConsecutivePair(String shortModuleNo1, String shortModuleNo2, String language) {
+        addModule(shortModuleNo1, "IT6", 4, language, toModuleNo(shortModuleNo2));
+        addModule(shortModuleNo2, "IT6", 4, language, toModuleNo(shortModuleNo1));
+    }
+
+    private void addModule(String shortModuleNo, String moduleGroup, int credits, String language,
+                           String consecutiveModuleNo) {
+        modulePool.add(Module.builder()
+                               .moduleNo(toModuleNo(shortModuleNo))
+                               .shortModuleNo(shortModuleNo)
+                               .moduleGroup(moduleGroup)
+                               .credits((byte) credits)
+                               .language(language)
+                               .consecutiveModuleNo(consecutiveModuleNo)
+                               .build());
+    }
+
+    private static String toModuleNo(String shortModuleNo) {
+        return "t.BA." + shortModuleNo + ".19HS";
+    }
+
+}
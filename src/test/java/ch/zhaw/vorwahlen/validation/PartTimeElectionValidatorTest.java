@@ -30,7 +30,7 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
     @BeforeEach
     void setUp() {
         super.setUp();
-        validator = new PartTimeElectionValidator(studentMock);
+        validator = new PartTimeElectionValidator();
     }
 
     /* **************************************************************************************************************
@@ -60,7 +60,7 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
 
         when(electionMock.getValidationSetting()).thenReturn(validationSettingMock);
 
-        assertTrue(validator.validate(electionMock).isValid());
+        assertTrue(validator.validate(student, electionMock).isValid());
 
         when(validationSettingMock.isRepetent()).thenReturn(false);
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
@@ -69,22 +69,22 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         when(studentMock.isTZ()).thenReturn(true);
         when(studentMock.isIP()).thenReturn(false);
         when(studentMock.getWpmDispensation()).thenReturn(0);
-        assertTrue(validator.validate(electionMock).isValid());
+        assertTrue(validator.validate(student, electionMock).isValid());
 
         // Case IP, No Dispensations
         when(studentMock.isIP()).thenReturn(true);
-        assertTrue(validator.validate(electionMock).isValid());
+        assertTrue(validator.validate(student, electionMock).isValid());
 
         // Case IP, Some Dispensations
         if(!isFistElection) {
             removeNonConsecutiveSubjectModulesFromSet(validElectionSet);
         }
         when(studentMock.getWpmDispensation()).thenReturn(WPM_DISPENSATION);
-        assertTrue(validator.validate(electionMock).isValid());
+        assertTrue(validator.validate(student, electionMock).isValid());
 
         // Case Non-IP, Some Dispensations
         when(studentMock.isIP()).thenReturn(false);
-        assertTrue(validator.validate(electionMock).isValid());
+        assertTrue(validator.validate(student, electionMock).isValid());
 
         //===== Returns invalid
         // Case Non-IP, No Dispensations (Not enough selected)
@@ -111,7 +111,7 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         // first election
         when(studentMock.isSecondElection()).thenReturn(false);
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
-        assertTrue(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertTrue(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
 
         // second election
         when(studentMock.isSecondElection()).thenReturn(true);
@@ -135,33 +135,33 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
 
         // case first and second election has a mixture of consecutive modules
         when(validationSettingMock.isSkipConsecutiveModuleCheck()).thenReturn(true);
-        assertTrue(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertTrue(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
 
         // case first election had no consecutive modules
         when(validationSettingMock.isSkipConsecutiveModuleCheck()).thenReturn(false);
 
         // AI1, AI2, FUP, PSPP
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2, m3, m4));
-        assertTrue(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertTrue(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
 
         // AI1, AI2, PSPP
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2, m4));
-        assertFalse(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertFalse(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
 
         // case first election had two consecutive modules
         when(validationSettingMock.hadAlreadyElectedTwoConsecutiveModules()).thenReturn(true);
 
         // AI1, AI2
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2));
-        assertTrue(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertTrue(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
 
         // FUP, PSPP
         when(electionMock.getElectedModules()).thenReturn(Set.of(m3, m4));
-        assertTrue(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertTrue(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
 
         // PSPP
         when(electionMock.getElectedModules()).thenReturn(Set.of(m4));
-        assertFalse(validator.validConsecutiveModulePairsInElection(electionMock));
+        assertFalse(validator.validConsecutiveModulePairsInElection(student, electionMock, electionStatus));
     }
 
     @Test
@@ -179,22 +179,22 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         }
 
         when(electionMock.getElectedModules()).thenReturn(new HashSet<>());
-        assertTrue(validator.validInterdisciplinaryElection(electionMock));
+        assertTrue(validator.validInterdisciplinaryElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1));
-        assertFalse(validator.validInterdisciplinaryElection(electionMock));
+        assertFalse(validator.validInterdisciplinaryElection(student, electionMock, electionStatus));
 
         // second election
         when(studentMock.isSecondElection()).thenReturn(true);
 
         when(electionMock.getElectedModules()).thenReturn(new HashSet<>());
-        assertFalse(validator.validInterdisciplinaryElection(electionMock));
+        assertFalse(validator.validInterdisciplinaryElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1));
-        assertTrue(validator.validInterdisciplinaryElection(electionMock));
+        assertTrue(validator.validInterdisciplinaryElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(new HashSet<>(allMocksList));
-        assertFalse(validator.validInterdisciplinaryElection(electionMock));
+        assertFalse(validator.validInterdisciplinaryElection(student, electionMock, electionStatus));
     }
 
     @Test
@@ -225,30 +225,30 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         }
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2));
-        assertTrue(validator.validSubjectElection(electionMock));
+        assertTrue(validator.validSubjectElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1));
-        assertFalse(validator.validSubjectElection(electionMock));
+        assertFalse(validator.validSubjectElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2, m3));
-        assertFalse(validator.validSubjectElection(electionMock));
+        assertFalse(validator.validSubjectElection(student, electionMock, electionStatus));
 
         // second election
         when(studentMock.isSecondElection()).thenReturn(true);
 
         // one too much
         when(electionMock.getElectedModules()).thenReturn(new HashSet<>(allMocksList));
-        assertFalse(validator.validSubjectElection(electionMock));
+        assertFalse(validator.validSubjectElection(student, electionMock, electionStatus));
 
         // exact amount needed
         allMocksList.remove(0);
         when(electionMock.getElectedModules()).thenReturn(new HashSet<>(allMocksList));
-        assertTrue(validator.validSubjectElection(electionMock));
+        assertTrue(validator.validSubjectElection(student, electionMock, electionStatus));
 
         // one missing
         allMocksList.remove(0);
         when(electionMock.getElectedModules()).thenReturn(new HashSet<>(allMocksList));
-        assertFalse(validator.validSubjectElection(electionMock));
+        assertFalse(validator.validSubjectElection(student, electionMock, electionStatus));
     }
 
     @Test
@@ -272,47 +272,47 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         when(electionMock.getValidationSetting()).thenReturn(validationSetting);
 
         when(electionMock.getElectedModules()).thenReturn(Set.of());
-        assertFalse(validator.validContextElection(electionMock));
+        assertFalse(validator.validContextElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1));
-        assertFalse(validator.validContextElection(electionMock));
+        assertFalse(validator.validContextElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2));
-        assertTrue(validator.validContextElection(electionMock));
+        assertTrue(validator.validContextElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2, m3));
-        assertTrue(validator.validContextElection(electionMock));
+        assertTrue(validator.validContextElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2, m3, m4));
-        assertFalse(validator.validContextElection(electionMock));
+        assertFalse(validator.validContextElection(student, electionMock, electionStatus));
 
         // second election
         when(studentMock.isSecondElection()).thenReturn(true);
 
         when(validationSetting.getElectedContextModulesInFirstElection()).thenReturn(3);
         when(electionMock.getElectedModules()).thenReturn(Set.of());
-        assertTrue(validator.validContextElection(electionMock));
+        assertTrue(validator.validContextElection(student, electionMock, electionStatus));
 
         when(validationSetting.getElectedContextModulesInFirstElection()).thenReturn(2);
-        assertFalse(validator.validContextElection(electionMock));
+        assertFalse(validator.validContextElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1));
-        assertTrue(validator.validContextElection(electionMock));
+        assertTrue(validator.validContextElection(student, electionMock, electionStatus));
 
         when(validationSetting.getElectedContextModulesInFirstElection()).thenReturn(1);
-        assertFalse(validator.validContextElection(electionMock));
+        assertFalse(validator.validContextElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2));
-        assertTrue(validator.validContextElection(electionMock));
+        assertTrue(validator.validContextElection(student, electionMock, electionStatus));
 
         when(validationSetting.getElectedContextModulesInFirstElection()).thenReturn(0);
-        assertFalse(validator.validContextElection(electionMock));
+        assertFalse(validator.validContextElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2, m3));
-        assertTrue(validator.validContextElection(electionMock));
+        assertTrue(validator.validContextElection(student, electionMock, electionStatus));
 
         when(electionMock.getElectedModules()).thenReturn(Set.of(m1, m2, m3, m4));
-        assertFalse(validator.validContextElection(electionMock));
+        assertFalse(validator.validContextElection(student, electionMock, electionStatus));
     }
 
     @Test
@@ -327,26 +327,26 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         var set = new HashSet<Module>();
         set.add(subjectMocks.get(0));
         when(electionMock.getElectedModules()).thenReturn(set);
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(subjectMocks.get(1));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(contextMocks.get(0));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
         set.add(contextMocks.get(1));
-        assertTrue(validator.isCreditSumValid(electionMock));
+        assertTrue(validator.isCreditSumValid(student, electionMock, electionStatus));
         set.add(contextMocks.get(2));
-        assertTrue(validator.isCreditSumValid(electionMock));
+        assertTrue(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(subjectMocks.get(2));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.remove(subjectMocks.get(2));
-        assertTrue(validator.isCreditSumValid(electionMock));
+        assertTrue(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(contextMocks.get(3));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
     }
 
     @Test
@@ -359,28 +359,28 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         var set = new HashSet<Module>();
         set.add(contextMocks.get(0));
         when(electionMock.getElectedModules()).thenReturn(set);
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(contextMocks.get(1));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(contextMocks.get(2));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(subjectMocks.get(0));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(subjectMocks.get(1));
-        assertTrue(validator.isCreditSumValid(electionMock));
+        assertTrue(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(subjectMocks.get(2));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.remove(subjectMocks.get(2));
-        assertTrue(validator.isCreditSumValid(electionMock));
+        assertTrue(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(contextMocks.get(3));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
     }
 
     @Test
@@ -407,17 +407,17 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
 
         when(electionMock.getElectedModules()).thenReturn(set);
         when(electionMock.getValidationSetting()).thenReturn(validationSettingsMock);
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(contextMocks.get(0));
-        assertTrue(validator.isCreditSumValid(electionMock));
+        assertTrue(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(contextMocks.get(1));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.remove(contextMocks.get(1));
         set.add(subjectMocks.get(0));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
     }
 
     @Test
@@ -442,16 +442,16 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
 
         when(electionMock.getElectedModules()).thenReturn(set);
         when(electionMock.getValidationSetting()).thenReturn(validationSettingsMock);
-        assertTrue(validator.isCreditSumValid(electionMock));
+        assertTrue(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(contextMocks.get(0));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.remove(contextMocks.get(0));
-        assertTrue(validator.isCreditSumValid(electionMock));
+        assertTrue(validator.isCreditSumValid(student, electionMock, electionStatus));
 
         set.add(subjectMocks.get(0));
-        assertFalse(validator.isCreditSumValid(electionMock));
+        assertFalse(validator.isCreditSumValid(student, electionMock, electionStatus));
     }
 
     private Map<ModuleCategory, List<Module>> generateMocks() {
@@ -489,55 +489,55 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
     @Test
     void testValidIpElection_Null() {
         when(studentMock.isIP()).thenReturn(true);
-        assertTrue(validator.validIpElection(null));
+        assertTrue(validator.validIpElection(student, null, electionStatus));
     }
 
     @Test
     void testValidIpElection_NullElection() {
         when(studentMock.isIP()).thenReturn(true);
         when(electionMock.getElectedModules()).thenReturn(null);
-        assertTrue(validator.validIpElection(null));
+        assertTrue(validator.validIpElection(student, null, electionStatus));
     }
 
     @Test
     void testValidIpElection_NullStudent() {
-        validator = new PartTimeElectionValidator(null);
-        assertTrue(validator.validIpElection(electionMock));
+        student = null;
+        assertTrue(validator.validIpElection(student, electionMock, electionStatus));
     }
 
     @Test
     void testValidInterdisciplinaryElection_Null() {
-        assertThrows(NullPointerException.class, () -> validator.validInterdisciplinaryElection(null));
+        assertThrows(NullPointerException.class, () -> validator.validInterdisciplinaryElection(student, null, electionStatus));
     }
 
     @Test
     void testValidSubjectElection_Null() {
         when(studentMock.getWpmDispensation()).thenReturn(0);
-        assertThrows(NullPointerException.class, () -> validator.validSubjectElection(null));
+        assertThrows(NullPointerException.class, () -> validator.validSubjectElection(student, null, electionStatus));
     }
 
     @Test
     void testValidSubjectElection_NullStudent() {
-        validator = new PartTimeElectionValidator(null);
-        assertThrows(NullPointerException.class, () -> validator.validSubjectElection(electionMock));
+        student = null;
+        assertThrows(NullPointerException.class, () -> validator.validSubjectElection(student, electionMock, electionStatus));
     }
 
     @Test
     void testValidContextElection_Null() {
-        assertThrows(NullPointerException.class, () -> validator.validContextElection(null));
+        assertThrows(NullPointerException.class, () -> validator.validContextElection(student, null, electionStatus));
     }
 
     @Override
     @Test
     void testIsCreditSumValid_NullArgument() {
-        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(null));
+        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(student, null, electionStatus));
     }
 
     @Override
     @Test
     void testIsCreditSumValid_NullElectionSet() {
         when(electionMock.getElectedModules()).thenReturn(null);
-        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(electionMock));
+        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(student, electionMock, electionStatus));
     }
 
     @Test
@@ -545,17 +545,18 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
         var set = new HashSet<Module>();
         set.add(null);
         when(electionMock.getElectedModules()).thenReturn(set);
-        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(electionMock));
+        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(student, electionMock, electionStatus));
     }
 
     @Test
     void testIsCreditSumValid_NullStudent() {
-        validator = new FullTimeElectionValidator(null);
+        validator = new FullTimeElectionValidator();
+        student = null;
 
         when(studentMock.getWpmDispensation()).thenReturn(WPM_DISPENSATION);
         when(electionMock.getElectedModules()).thenReturn(validElectionSet);
 
-        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(electionMock));
+        assertThrows(NullPointerException.class, () -> validator.isCreditSumValid(student, electionMock, electionStatus));
     }
 
     /* **************************************************************************************************************
@@ -669,6 +670,6 @@ class PartTimeElectionValidatorTest extends AbstractElectionValidatorTest {
     void assertInvalidElection(Election electionMock, ElectionValidator validator, int mode, boolean isFistElection) {
         var invalidElection = invalidElectionSet(mode, isFistElection);
         when(electionMock.getElectedModules()).thenReturn(invalidElection);
-        assertFalse(validator.validate(electionMock).isValid());
+        assertFalse(validator.validate(student, electionMock).isValid());
     }
 }
@@ -0,0 +1,155 @@
+package ch.zhaw.vorwahlen.writebehind;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ElectionJournalTest {
+
+    private static final String STUDENT_EMAIL = "test@mail.com";
+    private static final String MODULE_NO_1 = "t.BA.WV.AI1-EN.19HS";
+    private static final String MODULE_NO_2 = "t.BA.WV.AI2-EN.19HS";
+
+    @TempDir
+    Path journalDirectory;
+
+    private WriteBehindSettings settings;
+
+    @BeforeEach
+    void setUp() {
+        settings = new WriteBehindSettings();
+        settings.setJournalDirectory(journalDirectory.toString());
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testReadRecovered() {
+        var journal = new ElectionJournal(settings);
+        journal.append(STUDENT_EMAIL, Set.of(MODULE_NO_1));
+        journal.append(STUDENT_EMAIL, Set.of(MODULE_NO_1, MODULE_NO_2));
+        journal.rotate();
+        journal.append(STUDENT_EMAIL, Set.of());
+        journal.close();
+
+        // simulate restart
+        var recovered = new ElectionJournal(settings).readRecovered();
+        assertEquals(3, recovered.size());
+        assertEquals(Set.of(MODULE_NO_1, MODULE_NO_2), recovered.get(1).electedModules());
+        assertTrue(recovered.get(2).electedModules().isEmpty());
+        assertEquals(STUDENT_EMAIL, recovered.get(2).studentEmail());
+    }
+
+    @Test
+    void testDeleteUpTo() throws IOException {
+        var journal = new ElectionJournal(settings);
+        journal.append(STUDENT_EMAIL, Set.of(MODULE_NO_1));
+        var segment = journal.rotate();
+        journal.append(STUDENT_EMAIL, Set.of(MODULE_NO_2));
+        journal.deleteUpTo(segment);
+        journal.close();
+
+        try (var files = Files.list(journalDirectory)) {
+            assertEquals(1, files.count());
+        }
+        var recovered = new ElectionJournal(settings).readRecovered();
+        assertEquals(1, recovered.size());
+        assertEquals(Set.of(MODULE_NO_2), recovered.get(0).electedModules());
+    }
+
+    @Test
+    void testDeleteRecovered() throws IOException {
+        var journal = new ElectionJournal(settings);
+        journal.append(STUDENT_EMAIL, Set.of(MODULE_NO_1));
+        journal.close();
+
+        var restartedJournal = new ElectionJournal(settings);
+        restartedJournal.append(STUDENT_EMAIL, Set.of(MODULE_NO_2));
+        restartedJournal.deleteRecovered();
+        restartedJournal.close();
+
+        try (var files = Files.list(journalDirectory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testAppend_Concurrent() throws Exception {
+        var journal = new ElectionJournal(settings);
+        var threads = 8;
+        var appendsPerThread = 50;
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (var thread = 0; thread < threads; thread++) {
+                var email = thread + STUDENT_EMAIL;
+                futures.add(executor.submit(() -> {
+                    for (var i = 0; i < appendsPerThread; i++) {
+                        journal.append(email, Set.of(MODULE_NO_1 + i));
+                    }
+                }));
+            }
+            for (var future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        journal.close();
+
+        // every line is complete and the lines of one student keep their order
+        var recovered = new ElectionJournal(settings).readRecovered();
+        assertEquals(threads * appendsPerThread, recovered.size());
+        for (var thread = 0; thread < threads; thread++) {
+            var email = thread + STUDENT_EMAIL;
+            var modules = recovered.stream()
+                    .filter(entry -> entry.studentEmail().equals(email))
+                    .map(entry -> entry.electedModules().iterator().next())
+                    .toList();
+            assertEquals(appendsPerThread, modules.size());
+            assertEquals(MODULE_NO_1 + (appendsPerThread - 1), modules.get(appendsPerThread - 1));
+        }
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testReadRecovered_IncompleteLine() throws IOException {
+        var journal = new ElectionJournal(settings);
+        journal.append(STUDENT_EMAIL, Set.of(MODULE_NO_1));
+        journal.close();
+
+        // simulate a crash in the middle of a write
+        try (var files = Files.list(journalDirectory)) {
+            var segment = files.findFirst().orElseThrow();
+            Files.writeString(segment, STUDENT_EMAIL + "\t" + MODULE_NO_1 + ",t.BA", StandardOpenOption.APPEND);
+        }
+
+        var recovered = new ElectionJournal(settings).readRecovered();
+        assertEquals(1, recovered.size());
+        assertEquals(Set.of(MODULE_NO_1), recovered.get(0).electedModules());
+    }
+
+    @Test
+    void testReadRecovered_NoDirectory() {
+        settings.setJournalDirectory(journalDirectory.resolve("missing").toString());
+        assertTrue(new ElectionJournal(settings).readRecovered().isEmpty());
+    }
+
+}
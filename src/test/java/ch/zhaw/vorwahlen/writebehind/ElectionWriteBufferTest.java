@@ -0,0 +1,388 @@
+package ch.zhaw.vorwahlen.writebehind;
+
+import ch.zhaw.vorwahlen.catalog.ModuleCatalog;
+import ch.zhaw.vorwahlen.model.core.election.Election;
+import ch.zhaw.vorwahlen.model.core.module.Module;
+import ch.zhaw.vorwahlen.model.core.student.Student;
+import ch.zhaw.vorwahlen.model.core.validationsetting.ValidationSetting;
+import ch.zhaw.vorwahlen.repository.ElectionRepository;
+import ch.zhaw.vorwahlen.repository.ModuleRepository;
+import ch.zhaw.vorwahlen.repository.StudentRepository;
+import ch.zhaw.vorwahlen.validation.ElectionValidatorRegistry;
+import ch.zhaw.vorwahlen.validation.FullTimeElectionValidator;
+import ch.zhaw.vorwahlen.validation.IncrementalElectionValidator;
+import ch.zhaw.vorwahlen.validation.PartTimeElectionValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ElectionWriteBufferTest {
+
+    private static final String MODULE_NO = "t.BA.WV.AI1-EN.19HS";
+
+    @TempDir
+    Path journalDirectory;
+
+    private ElectionRepository electionRepositoryMock;
+    private StudentRepository studentRepositoryMock;
+    private ElectionJournal electionJournal;
+    private ElectionWriteBuffer electionWriteBuffer;
+    private WriteBehindSettings settings;
+    private final ElectionValidatorRegistry registry =
+            new ElectionValidatorRegistry(new FullTimeElectionValidator(), new PartTimeElectionValidator());
+
+    private final Student student = Student.builder().email("test@mail.com").build();
+    private final Module module = Module.builder().moduleNo(MODULE_NO).build();
+    private final Module keptModule = Module.builder().moduleNo("t.BA.WV.AI2-EN.19HS").build();
+    private final Module otherModule = Module.builder().moduleNo("t.BA.WV.CCP1-EN.19HS").build();
+
+    @BeforeEach
+    void setUp() {
+        electionRepositoryMock = mock(ElectionRepository.class);
+        studentRepositoryMock = mock(StudentRepository.class);
+        var moduleRepositoryMock = mock(ModuleRepository.class);
+        when(moduleRepositoryMock.findAll()).thenReturn(List.of(module));
+        when(electionRepositoryMock.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        settings = new WriteBehindSettings();
+        settings.setEnabled(true);
+        settings.setJournalDirectory(journalDirectory.toString());
+        electionJournal = new ElectionJournal(settings);
+        electionWriteBuffer = new ElectionWriteBuffer(electionRepositoryMock, studentRepositoryMock,
+                                                      new ModuleCatalog(moduleRepositoryMock), electionJournal, registry,
+                                                      new IncrementalElectionValidator(), settings);
+    }
+
+    /* **************************************************************************************************************
+     * Positive tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testModify_CoalescedFlush() {
+        for (var i = 0; i < 3; i++) {
+            electionWriteBuffer.modify(student, this::newElection, this::toggleModule);
+        }
+        verifyNoInteractions(electionRepositoryMock);
+
+        var buffered = electionWriteBuffer.find(student.getEmail()).orElseThrow();
+        assertEquals(Set.of(module), buffered.getElectedModules());
+
+        electionWriteBuffer.flush();
+        verify(electionRepositoryMock, times(1)).saveAll(anyList());
+        assertTrue(electionWriteBuffer.find(student.getEmail()).isEmpty());
+        assertEquals(0, countJournalSegments());
+    }
+
+    @Test
+    void testModify_CopyIsBuffered() {
+        var loaded = newElection();
+        electionWriteBuffer.modify(student, () -> loaded, this::toggleModule);
+
+        // the loaded election must not be changed to avoid dirty checking writes
+        assertTrue(loaded.getElectedModules().isEmpty());
+    }
+
+    @Test
+    void testReplayJournal() {
+        electionWriteBuffer.modify(student, this::newElection, this::toggleModule);
+        electionJournal.close();
+
+        // simulate restart without flush
+        var restartedJournal = new ElectionJournal(settings);
+        var moduleRepositoryMock = mock(ModuleRepository.class);
+        when(moduleRepositoryMock.findAll()).thenReturn(List.of(module));
+        when(studentRepositoryMock.findById(student.getEmail())).thenReturn(Optional.of(student));
+        when(electionRepositoryMock.findElectionByStudent(student.getEmail())).thenReturn(Optional.empty());
+        var restartedBuffer = new ElectionWriteBuffer(electionRepositoryMock, studentRepositoryMock,
+                                                      new ModuleCatalog(moduleRepositoryMock), restartedJournal, registry,
+                                                      new IncrementalElectionValidator(), settings);
+        restartedBuffer.replayJournal();
+
+        verify(electionRepositoryMock, times(1))
+                .save(argThat(election -> election.getElectedModules().contains(module)));
+        assertEquals(0, countJournalSegments());
+    }
+
+    /* **************************************************************************************************************
+     * Negative tests
+     * ************************************************************************************************************** */
+
+    @Test
+    void testFlush_Failure() {
+        when(electionRepositoryMock.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        when(electionRepositoryMock.save(any())).thenThrow(new DataAccessResourceFailureException("down"));
+        electionWriteBuffer.modify(student, this::newElection, this::toggleModule);
+
+        electionWriteBuffer.flush();
+
+        // election stays buffered and journaled
+        assertTrue(electionWriteBuffer.find(student.getEmail()).isPresent());
+        assertEquals(1, countJournalSegments());
+    }
+
+    @Test
+    void testFlush_FailingElectionIsNeverDropped() {
+        when(electionRepositoryMock.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        when(electionRepositoryMock.save(any())).thenThrow(new DataAccessResourceFailureException("down"));
+        electionWriteBuffer.modify(student, this::newElection, this::toggleModule);
+
+        for (var i = 0; i < 10; i++) {
+            electionWriteBuffer.flush();
+        }
+        assertTrue(electionWriteBuffer.find(student.getEmail()).isPresent());
+        assertTrue(countJournalSegments() > 0);
+
+        // database is back, the buffered election is written and the journal deleted
+        reset(electionRepositoryMock);
+        when(electionRepositoryMock.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        electionWriteBuffer.flush();
+        verify(electionRepositoryMock, times(1))
+                .saveAll(argThat(elections -> elections.iterator().next().getElectedModules().contains(module)));
+        assertTrue(electionWriteBuffer.find(student.getEmail()).isEmpty());
+        assertEquals(0, countJournalSegments());
+    }
+
+    @Test
+    void testReplayJournal_FailureKeepsJournal() {
+        electionWriteBuffer.modify(student, this::newElection, this::toggleModule);
+        electionJournal.close();
+
+        // simulate restart without flush, the database is down during the replay
+        var restartedJournal = new ElectionJournal(settings);
+        when(studentRepositoryMock.findById(student.getEmail())).thenReturn(Optional.of(student));
+        when(electionRepositoryMock.findElectionByStudent(student.getEmail()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        var moduleRepositoryMock = mock(ModuleRepository.class);
+        when(moduleRepositoryMock.findAll()).thenReturn(List.of(module));
+        var restartedBuffer = new ElectionWriteBuffer(electionRepositoryMock, studentRepositoryMock,
+                                                      new ModuleCatalog(moduleRepositoryMock), restartedJournal, registry,
+                                                      new IncrementalElectionValidator(), settings);
+        restartedBuffer.replayJournal();
+
+        assertEquals(1, countJournalSegments());
+        assertEquals(1, new ElectionJournal(settings).readRecovered().size());
+    }
+
+    @Test
+    void testFlush_SavedByOtherNode() {
+        // the other node added a module and removed the module the student keeps
+        var conflict = new ObjectOptimisticLockingFailureException(Election.class, 1L);
+        var current = newElection();
+        current.setId(1L);
+        current.setVersion(3);
+        current.getElectedModules().add(otherModule);
+        when(electionRepositoryMock.saveAll(anyList())).thenThrow(conflict);
+        when(electionRepositoryMock.save(any())).thenThrow(conflict).thenAnswer(invocation -> invocation.getArgument(0));
+        when(electionRepositoryMock.findById(1L)).thenReturn(Optional.of(current));
+        electionWriteBuffer.modify(student, () -> {
+            var election = newElection();
+            election.setId(1L);
+            election.setVersion(2);
+            election.getElectedModules().add(keptModule);
+            return election;
+        }, this::toggleModule);
+
+        electionWriteBuffer.flush();
+        var merged = electionWriteBuffer.find(student.getEmail()).orElseThrow();
+        assertEquals(Set.of(module, otherModule), merged.getElectedModules());
+        // a restart would replay the merged election
+        var recovered = new ElectionJournal(settings).readRecovered();
+        assertEquals(Set.of(MODULE_NO, otherModule.getModuleNo()), recovered.get(recovered.size() - 1).electedModules());
+        electionWriteBuffer.flush();
+
+        // second attempt is saved with the version of the other node and the changes of both
+        var captor = ArgumentCaptor.forClass(Election.class);
+        verify(electionRepositoryMock, times(2)).save(captor.capture());
+        assertEquals(3, captor.getValue().getVersion());
+        assertEquals(Set.of(module, otherModule), captor.getValue().getElectedModules());
+        assertTrue(electionWriteBuffer.find(student.getEmail()).isEmpty());
+        assertEquals(0, countJournalSegments());
+    }
+
+    @Test
+    void testFlush_SavedByOtherNodeRemovedStudentChange() {
+        // the student removes a module the other node removed as well
+        var conflict = new ObjectOptimisticLockingFailureException(Election.class, 1L);
+        var current = newElection();
+        current.setId(1L);
+        current.setVersion(3);
+        when(electionRepositoryMock.saveAll(anyList())).thenThrow(conflict);
+        when(electionRepositoryMock.save(any())).thenThrow(conflict).thenAnswer(invocation -> invocation.getArgument(0));
+        when(electionRepositoryMock.findById(1L)).thenReturn(Optional.of(current));
+        electionWriteBuffer.modify(student, () -> {
+            var election = newElection();
+            election.setId(1L);
+            election.setVersion(2);
+            election.getElectedModules().add(module);
+            election.getElectedModules().add(keptModule);
+            return election;
+        }, this::toggleModule);
+
+        electionWriteBuffer.flush();
+
+        var merged = electionWriteBuffer.find(student.getEmail()).orElseThrow();
+        assertTrue(merged.getElectedModules().isEmpty());
+        assertEquals(3, merged.getVersion());
+    }
+
+    @Test
+    void testFlush_FailingElectionDoesNotKeepJournal() {
+        // prepare
+        var otherStudent = Student.builder().email("other@mail.com").build();
+        when(electionRepositoryMock.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        when(electionRepositoryMock.save(any())).thenAnswer(invocation -> {
+            Election election = invocation.getArgument(0);
+            if (student.equals(election.getStudent())) {
+                throw new DataAccessResourceFailureException("down");
+            }
+            return election;
+        });
+        electionWriteBuffer.modify(student, this::newElection, this::toggleModule);
+
+        // execute
+        for (var i = 0; i < 10; i++) {
+            electionWriteBuffer.modify(otherStudent, () -> {
+                var election = newElection();
+                election.setStudent(otherStudent);
+                return election;
+            }, this::toggleModule);
+            electionWriteBuffer.flush();
+        }
+
+        // verify
+        assertTrue(electionWriteBuffer.find(student.getEmail()).isPresent());
+        assertTrue(electionWriteBuffer.find(otherStudent.getEmail()).isEmpty());
+        assertEquals(1, countJournalSegments());
+        var recovered = new ElectionJournal(settings).readRecovered();
+        assertEquals(1, recovered.size());
+        assertEquals(Set.of(MODULE_NO), recovered.get(0).electedModules());
+    }
+
+    @Test
+    void testFlush_ElectionDeleted() {
+        // prepare
+        var conflict = new ObjectOptimisticLockingFailureException(Election.class, 1L);
+        when(electionRepositoryMock.saveAll(anyList())).thenThrow(conflict);
+        when(electionRepositoryMock.save(any())).thenThrow(conflict);
+        when(electionRepositoryMock.findById(1L)).thenReturn(Optional.empty());
+        electionWriteBuffer.modify(student, () -> {
+            var election = newElection();
+            election.setId(1L);
+            return election;
+        }, this::toggleModule);
+
+        // execute
+        electionWriteBuffer.flush();
+        electionWriteBuffer.flush();
+
+        // verify
+        verify(electionRepositoryMock, times(1)).save(any());
+        assertTrue(electionWriteBuffer.find(student.getEmail()).isEmpty());
+        assertEquals(0, countJournalSegments());
+    }
+
+    @Test
+    void testFlush_StudentDeleted() {
+        // prepare
+        when(electionRepositoryMock.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("foreign key"));
+        when(electionRepositoryMock.save(any())).thenThrow(new DataIntegrityViolationException("foreign key"));
+        when(studentRepositoryMock.existsById(student.getEmail())).thenReturn(false);
+        electionWriteBuffer.modify(student, this::newElection, this::toggleModule);
+
+        // execute
+        electionWriteBuffer.flush();
+
+        // verify
+        assertTrue(electionWriteBuffer.find(student.getEmail()).isEmpty());
+        assertEquals(0, countJournalSegments());
+    }
+
+    @Test
+    void testFlush_ModuleDeleted() {
+        // prepare
+        when(electionRepositoryMock.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("foreign key"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(electionRepositoryMock.save(any())).thenThrow(new DataIntegrityViolationException("foreign key"));
+        when(studentRepositoryMock.existsById(student.getEmail())).thenReturn(true);
+        electionWriteBuffer.modify(student, () -> {
+            var election = newElection();
+            election.getElectedModules().add(otherModule);
+            return election;
+        }, this::toggleModule);
+
+        // execute
+        electionWriteBuffer.flush();
+        var buffered = electionWriteBuffer.find(student.getEmail()).orElseThrow();
+        electionWriteBuffer.flush();
+
+        // verify
+        assertEquals(Set.of(module), buffered.getElectedModules());
+        verify(electionRepositoryMock, times(2)).saveAll(anyList());
+        assertTrue(electionWriteBuffer.find(student.getEmail()).isEmpty());
+        assertEquals(0, countJournalSegments());
+    }
+
+    @Test
+    void testModify_JournalFailure() {
+        // prepare
+        var journalMock = mock(ElectionJournal.class);
+        doNothing()
+                .doThrow(new UncheckedIOException(new IOException("disk full")))
+                .when(journalMock).append(any(), any());
+        var buffer = new ElectionWriteBuffer(electionRepositoryMock, studentRepositoryMock,
+                                             new ModuleCatalog(mock(ModuleRepository.class)), journalMock, registry,
+                                             new IncrementalElectionValidator(), settings);
+        buffer.modify(student, this::newElection, election -> election.getElectedModules().add(keptModule));
+
+        // execute
+        assertThrows(UncheckedIOException.class, () -> buffer.modify(student, this::newElection, this::toggleModule));
+
+        // verify
+        assertEquals(Set.of(keptModule), buffer.find(student.getEmail()).orElseThrow().getElectedModules());
+    }
+
+    @Test
+    void testFlush_Disabled() {
+        settings.setEnabled(false);
+        electionWriteBuffer.flush();
+        verifyNoInteractions(electionRepositoryMock);
+    }
+
+    private int countJournalSegments() {
+        return Optional.ofNullable(journalDirectory.toFile().list()).map(files -> files.length).orElse(0);
+    }
+
+    private Election newElection() {
+        var election = new Election();
+        election.setStudent(student);
+        election.setValidationSetting(new ValidationSetting());
+        election.setElectedModules(new HashSet<>());
+        return election;
+    }
+
+    private Boolean toggleModule(Election election) {
+        if (!election.getElectedModules().remove(module)) {
+            election.getElectedModules().add(module);
+        }
+        return true;
+    }
+
+}